@@ -0,0 +1,122 @@
+/**
+ * Bancos de pruebas de rendimiento.
+ * <p>
+ * Paquete con las mediciones JMH de los métodos más utilizados del árbitro y del tablero sobre posiciones 
+ * representativas. Se compila y ejecuta aparte del juego y de los tests con {@code benchmark.bat}.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.Jugada;
+import brandubh.util.Color;
+
+/**
+ * Mediciones de los métodos del árbitro empleados en cada jugada.
+ * <p>
+ * Las jugadas medidas no capturan ni terminan la partida, de modo que moverlas y devolverlas deja la posición intacta
+ * entre invocaciones; la búsqueda de capturas tras mover se realiza igualmente al completo.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.control.Arbitro
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArbitroBenchmark {
+
+	/**
+	 * Posición medida.
+	 */
+	@Param({ "APERTURA", "MEDIO_JUEGO", "REY_JUNTO_A_ESQUINA", "TRONO_ABARROTADO" })
+	public PosicionBenchmark posicion;
+
+	/**
+	 * Árbitro con la posición medida.
+	 */
+	private Arbitro arbitro;
+
+	/**
+	 * Árbitro con la posición medida tras una jugada del atacante.
+	 */
+	private Arbitro arbitroTrasAtacante;
+
+	/**
+	 * Jugada del jugador con el turno.
+	 */
+	private Jugada jugada;
+
+	/**
+	 * Jugada inversa de {@link #jugada}.
+	 */
+	private Jugada vuelta;
+
+	/**
+	 * Prepara los árbitros y las jugadas de la posición medida.
+	 */
+	@Setup
+	public void preparar() {
+
+		arbitro = posicion.crearArbitro();
+		jugada = posicion.elegirJugada(arbitro, arbitro.consultarTurno());
+		vuelta = PosicionBenchmark.invertir(jugada);
+
+		arbitroTrasAtacante = posicion.crearArbitro();
+		arbitroTrasAtacante.mover(posicion.elegirJugada(arbitroTrasAtacante, Color.NEGRO));
+	}
+
+	/**
+	 * Mide la comprobación de legalidad de una jugada.
+	 *
+	 * @return Legalidad de la jugada.
+	 */
+	@Benchmark
+	public boolean esMovimientoLegal() {
+		return arbitro.esMovimientoLegal(jugada);
+	}
+
+	/**
+	 * Mide un movimiento seguido de la retirada de capturas y del movimiento inverso.
+	 *
+	 * @return Número de jugadas del árbitro.
+	 */
+	@Benchmark
+	public int moverYCapturar() {
+		arbitro.mover(jugada);
+		arbitro.realizarCapturasTrasMover();
+		arbitro.mover(vuelta);
+		return arbitro.consultarNumeroJugada();
+	}
+
+	/**
+	 * Mide la comprobación de victoria del atacante tras su último movimiento.
+	 *
+	 * @return Resultado de la comprobación.
+	 */
+	@Benchmark
+	public boolean haGanadoAtacante() {
+		return arbitroTrasAtacante.haGanadoAtacante();
+	}
+
+}
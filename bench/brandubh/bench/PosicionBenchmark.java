@@ -0,0 +1,155 @@
+/**
+ * Bancos de pruebas de rendimiento.
+ * <p>
+ * Paquete con las mediciones JMH de los métodos más utilizados del árbitro y del tablero sobre posiciones 
+ * representativas. Se compila y ejecuta aparte del juego y de los tests con {@code benchmark.bat}.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.bench;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.Celda;
+import brandubh.modelo.Jugada;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Posiciones representativas sobre las que se miden los métodos del árbitro y del tablero.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+public enum PosicionBenchmark {
+
+	/**
+	 * Configuración inicial.
+	 */
+	APERTURA(null, null, Color.NEGRO),
+
+	/**
+	 * Medio juego con el rey fuera del trono y las piezas repartidas por el tablero.
+	 */
+	MEDIO_JUEGO(
+			new TipoPieza[] { TipoPieza.REY, TipoPieza.DEFENSOR, TipoPieza.DEFENSOR, TipoPieza.DEFENSOR,
+					TipoPieza.ATACANTE, TipoPieza.ATACANTE, TipoPieza.ATACANTE, TipoPieza.ATACANTE, TipoPieza.ATACANTE,
+					TipoPieza.ATACANTE },
+			new int[][] { { 2, 4 }, { 3, 2 }, { 4, 4 }, { 1, 3 }, { 0, 3 }, { 2, 0 }, { 3, 6 }, { 5, 3 }, { 6, 2 },
+					{ 4, 1 } },
+			Color.NEGRO),
+
+	/**
+	 * Rey junto a una esquina, rodeado de atacantes que intentan cerrarle el paso.
+	 */
+	REY_JUNTO_A_ESQUINA(
+			new TipoPieza[] { TipoPieza.REY, TipoPieza.DEFENSOR, TipoPieza.DEFENSOR, TipoPieza.ATACANTE,
+					TipoPieza.ATACANTE, TipoPieza.ATACANTE, TipoPieza.ATACANTE, TipoPieza.ATACANTE },
+			new int[][] { { 1, 1 }, { 3, 3 }, { 2, 3 }, { 0, 2 }, { 2, 0 }, { 3, 5 }, { 6, 3 }, { 1, 4 } },
+			Color.BLANCO),
+
+	/**
+	 * Rey en el trono rodeado por sus defensores y estos, a su vez, por atacantes.
+	 */
+	TRONO_ABARROTADO(
+			new TipoPieza[] { TipoPieza.REY, TipoPieza.DEFENSOR, TipoPieza.DEFENSOR, TipoPieza.DEFENSOR,
+					TipoPieza.DEFENSOR, TipoPieza.ATACANTE, TipoPieza.ATACANTE, TipoPieza.ATACANTE, TipoPieza.ATACANTE,
+					TipoPieza.ATACANTE, TipoPieza.ATACANTE },
+			new int[][] { { 3, 3 }, { 2, 3 }, { 4, 3 }, { 3, 2 }, { 3, 4 }, { 1, 3 }, { 5, 3 }, { 3, 1 }, { 3, 5 },
+					{ 2, 2 }, { 4, 4 } },
+			Color.NEGRO);
+
+	/**
+	 * Tipos de las piezas a colocar o {@code null} para la configuración inicial.
+	 */
+	private final TipoPieza[] tipoPiezas;
+
+	/**
+	 * Coordenadas (fila y columna) de las piezas a colocar.
+	 */
+	private final int[][] coordenadas;
+
+	/**
+	 * Color del jugador con el turno.
+	 */
+	private final Color turno;
+
+	/**
+	 * Constructor para el tipo enumerado {@code PosicionBenchmark}.
+	 *
+	 * @param tipoPiezas Tipos de las piezas a colocar o {@code null} para la configuración inicial.
+	 * @param coordenadas Coordenadas (fila y columna) de las piezas a colocar.
+	 * @param turno Color del jugador con el turno.
+	 */
+	PosicionBenchmark(TipoPieza[] tipoPiezas, int[][] coordenadas, Color turno) {
+		this.tipoPiezas = tipoPiezas;
+		this.coordenadas = coordenadas;
+		this.turno = turno;
+	}
+
+	/**
+	 * Devuelve un nuevo árbitro con esta posición.
+	 *
+	 * @return Árbitro sobre un tablero nuevo con la posición colocada.
+	 */
+	public Arbitro crearArbitro() {
+
+		Arbitro arbitro = new Arbitro(new Tablero());
+
+		if (tipoPiezas == null) {
+			arbitro.colocarPiezasConfiguracionInicial();
+		} else {
+			arbitro.colocarPiezas(tipoPiezas, coordenadas, turno);
+		}
+
+		return arbitro;
+	}
+
+	/**
+	 * Devuelve la primera jugada legal del color indicado que no captura ninguna pieza ni termina la partida, de modo
+	 * que la jugada y su inversa dejan la posición intacta.
+	 *
+	 * @param arbitro Árbitro con esta posición.
+	 * @param color Color del jugador que mueve.
+	 * @return Jugada con celdas del tablero del árbitro.
+	 * @throws IllegalStateException Si el color no dispone de ninguna jugada de este tipo.
+	 */
+	public Jugada elegirJugada(Arbitro arbitro, Color color) {
+
+		TableroBinario binario = arbitro.obtenerTableroBinario();
+		TableroBinario copia = new TableroBinario();
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		int numero = Reglas.generarMovimientos(binario, color, movimientos);
+
+		for (int i = 0; i < numero; i++) {
+
+			copia.copiar(binario);
+			int aplicada = Reglas.aplicarJugada(copia, movimientos[i]);
+			int destino = JugadaCompacta.consultarDestino(aplicada);
+
+			if (JugadaCompacta.consultarCapturas(aplicada) == 0 && !Reglas.haGanadoRey(copia, destino)
+					&& !Reglas.haGanadoAtacante(copia, destino)) {
+				return JugadaCompacta.aJugada(aplicada, arbitro.consultarTablero());
+			}
+		}
+
+		throw new IllegalStateException("Sin jugadas tranquilas para " + color + " en " + this);
+	}
+
+	/**
+	 * Devuelve la jugada inversa de la indicada.
+	 *
+	 * @param jugada Jugada a invertir.
+	 * @return Jugada desde el destino al origen de la indicada.
+	 */
+	public static Jugada invertir(Jugada jugada) {
+		return new Jugada(new Celda(jugada.destino().consultarCoordenada()),
+				new Celda(jugada.origen().consultarCoordenada()));
+	}
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Bancos de pruebas de rendimiento.
+ * <p>
+ * Paquete con las mediciones JMH de los métodos más utilizados del árbitro y del tablero sobre posiciones 
+ * representativas. Se compila y ejecuta aparte del juego y de los tests con {@code benchmark.bat}.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import brandubh.modelo.Celda;
+import brandubh.modelo.Tablero;
+
+/**
+ * Mediciones de los métodos del tablero que crean clones en profundidad.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.modelo.Tablero
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableroBenchmark {
+
+	/**
+	 * Posición medida.
+	 */
+	@Param({ "APERTURA", "MEDIO_JUEGO", "REY_JUNTO_A_ESQUINA", "TRONO_ABARROTADO" })
+	public PosicionBenchmark posicion;
+
+	/**
+	 * Tablero con la posición medida.
+	 */
+	private Tablero tablero;
+
+	/**
+	 * Prepara el tablero de la posición medida.
+	 */
+	@Setup
+	public void preparar() {
+		tablero = posicion.crearArbitro().consultarTablero();
+	}
+
+	/**
+	 * Mide la clonación en profundidad del tablero.
+	 *
+	 * @return Clon del tablero.
+	 */
+	@Benchmark
+	public Tablero clonar() {
+		return tablero.clonar();
+	}
+
+	/**
+	 * Mide la consulta de clones de todas las celdas.
+	 *
+	 * @return Clones de las celdas.
+	 */
+	@Benchmark
+	public Celda[] consultarCeldas() {
+		return tablero.consultarCeldas();
+	}
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Bancos de pruebas de rendimiento.
+ * <p>
+ * Paquete con las mediciones JMH de los métodos más utilizados del árbitro y del tablero sobre posiciones 
+ * representativas. Se compila y ejecuta aparte del juego y de los tests con {@code benchmark.bat}.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.bench;
@@ -0,0 +1,17 @@
+rem Requiere en .\lib\jmh los jar de jmh-core, jmh-generator-annprocess, jopt-simple y commons-math3.
+rem Uso: benchmark.bat [filtro de benchmarks] [opciones de JMH]
+
+if not exist "bin" mkdir bin
+if not exist "bin-bench" mkdir bin-bench
+
+javac -classpath .\bin;.\lib\*;.\lib\jmh\* ^
+      -encoding UTF-8 ^
+      -d .\bin-bench ^
+      -sourcepath .\src;.\bench ^
+		  .\bench\brandubh\bench\*.java
+
+java -cp .\bin-bench;.\lib\*;.\lib\jmh\* org.openjdk.jmh.Main ^
+     -prof gc ^
+     -rf json ^
+     -rff benchmark.json ^
+     %*
@@ -5,7 +5,12 @@ javac -classpath .\bin;.\lib\* ^
       -d .\bin ^
       -sourcepath .\src;.\test ^
 		  .\src\brandubh\control\*.java ^
+		  .\src\brandubh\finales\*.java ^
+		  .\src\brandubh\ajuste\*.java ^
+		  .\src\brandubh\granja\*.java ^
 		  .\src\brandubh\modelo\*.java ^
+		  .\src\brandubh\motor\*.java ^
+		  .\src\brandubh\partidas\*.java ^
 		  .\src\brandubh\textui\*.java ^
 		  .\src\brandubh\util\*.java ^
 		  .\test\brandubh\*.java ^
@@ -13,5 +18,10 @@ javac -classpath .\bin;.\lib\* ^
 		  .\test\brandubh\control\avanzado\*.java ^
 		  .\test\brandubh\control\basico\*.java ^
 		  .\test\brandubh\control\medio\*.java ^
+		  .\test\brandubh\finales\*.java ^
+		  .\test\brandubh\ajuste\*.java ^
+		  .\test\brandubh\granja\*.java ^
 		  .\test\brandubh\modelo\*.java ^
+		  .\test\brandubh\motor\*.java ^
+		  .\test\brandubh\partidas\*.java ^
 		  .\test\brandubh\util\*.java 
\ No newline at end of file
@@ -5,7 +5,12 @@ javadoc -author ^
 	-charset UTF-8 ^
 	-sourcepath .\src ^
 		    .\src\brandubh\control\*.java ^
+		    .\src\brandubh\finales\*.java ^
+		    .\src\brandubh\ajuste\*.java ^
+		    .\src\brandubh\granja\*.java ^
 		    .\src\brandubh\modelo\*.java ^
+		    .\src\brandubh\motor\*.java ^
+		    .\src\brandubh\partidas\*.java ^
 		    .\src\brandubh\textui\*.java ^
 		    .\src\brandubh\util\*.java ^
 	-d doc ^
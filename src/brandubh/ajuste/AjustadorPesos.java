@@ -0,0 +1,543 @@
+/**
+ * Ajuste de la evaluación.
+ * <p>
+ * Paquete con la extracción de los términos de la evaluación de las posiciones de la base de datos de partidas y el
+ * ajuste de sus pesos a los resultados de las partidas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.ajuste;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import brandubh.motor.PesosEvaluacion;
+import brandubh.partidas.BaseDatosPartidas;
+import brandubh.util.EjecutorTareas;
+
+/**
+ * Ajuste de los pesos de la evaluación incremental a los resultados de las partidas (método de Texel).
+ * <p>
+ * La evaluación de cada muestra, desde el punto de vista del defensor, se convierte en una probabilidad de victoria
+ * del defensor con la función logística {@code 1 / (1 + exp(-escala * evaluacion))}. El error de unos pesos es la media
+ * del cuadrado de la diferencia entre esa probabilidad y el resultado de la partida ({@code 1}, {@code 0.5} o
+ * {@code 0}).
+ * <p>
+ * Primero se ajusta la escala que minimiza el error con los pesos iniciales, lo que fija las unidades de la
+ * evaluación, y después se minimiza el error respecto a los pesos por descenso de gradiente con pasos adaptativos
+ * (Adam), con la escala fija. Las muestras con los mismos términos se agrupan al construir el ajustador, y cada cálculo 
+ * del error y de su gradiente recorre todos los grupos repartidos entre los hilos de un {@link ForkJoinPool}, en 
+ * bloques fijos cuyas sumas se acumulan en orden, de forma que los pesos 
+ * ajustados no dependen del número de hilos.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.ajuste.MuestrasAjuste
+ * @see brandubh.motor.PesosEvaluacion
+ */
+public class AjustadorPesos implements AutoCloseable {
+
+	/**
+	 * Número de iteraciones del descenso de gradiente por defecto.
+	 */
+	public static final int ITERACIONES_POR_DEFECTO = 500;
+
+	/**
+	 * Tamaño de paso del descenso de gradiente por defecto, en unidades de los pesos.
+	 */
+	public static final double TASA_POR_DEFECTO = 1.0;
+
+	/**
+	 * Escala de la función logística que se emplea si los pesos iniciales no predicen los resultados: una ventaja de
+	 * 400 puntos equivale a una probabilidad de victoria diez veces mayor que la de derrota.
+	 */
+	public static final double ESCALA_POR_DEFECTO = Math.log(10) / 400;
+
+	/**
+	 * Número de jugadas de cada partida que se omiten por defecto al extraer las muestras.
+	 */
+	public static final int JUGADA_MINIMA_POR_DEFECTO = 4;
+
+	/**
+	 * Número de grupos de muestras de cada tarea en los recorridos de las muestras.
+	 */
+	private static final int GRUPOS_POR_TAREA = 1 << 12;
+
+	/**
+	 * Límite inferior del intervalo de búsqueda de la escala.
+	 */
+	private static final double ESCALA_MINIMA = 1e-5;
+
+	/**
+	 * Límite superior del intervalo de búsqueda de la escala.
+	 */
+	private static final double ESCALA_MAXIMA = 1.0;
+
+	/**
+	 * Número de iteraciones de la búsqueda de la escala por sección áurea.
+	 */
+	private static final int ITERACIONES_ESCALA = 60;
+
+	/**
+	 * Coeficiente de decaimiento del momento de primer orden de Adam.
+	 */
+	private static final double BETA1 = 0.9;
+
+	/**
+	 * Coeficiente de decaimiento del momento de segundo orden de Adam.
+	 */
+	private static final double BETA2 = 0.999;
+
+	/**
+	 * Término que evita divisiones entre cero en los pasos de Adam.
+	 */
+	private static final double EPSILON = 1e-8;
+
+	/**
+	 * Número máximo de términos que caben en la clave de una muestra, junto al byte de su resultado.
+	 */
+	private static final int TERMINOS_POR_CLAVE = Long.BYTES - 1;
+
+	static {
+		// La agrupación de las muestras empaqueta sus términos y su resultado en un long
+		if (PesosEvaluacion.NUMERO_TERMINOS > TERMINOS_POR_CLAVE) {
+			throw new IllegalStateException("Los " + PesosEvaluacion.NUMERO_TERMINOS
+					+ " términos de la evaluación no caben en la clave de una muestra.");
+		}
+	}
+
+	/**
+	 * Términos de cada grupo de muestras con los mismos términos, {@link PesosEvaluacion#NUMERO_TERMINOS} consecutivos
+	 * por grupo.
+	 */
+	private final byte[] terminos;
+
+	/**
+	 * Número de muestras de cada grupo.
+	 */
+	private final int[] repeticiones;
+
+	/**
+	 * Suma de los resultados codificados (en medios puntos) de las muestras de cada grupo.
+	 */
+	private final int[] sumasResultados;
+
+	/**
+	 * Suma de los cuadrados de los resultados codificados (en cuartos de punto) de las muestras de cada grupo.
+	 */
+	private final int[] sumasCuadrados;
+
+	/**
+	 * Número de grupos de muestras.
+	 */
+	private final int numeroGrupos;
+
+	/**
+	 * Número total de muestras.
+	 */
+	private final int numeroMuestras;
+
+	/**
+	 * Ejecutor de los recorridos de las muestras.
+	 */
+	private final ForkJoinPool ejecutor;
+
+	/**
+	 * Error de los pesos del último ajuste antes de empezar el descenso de gradiente.
+	 */
+	private double errorInicial = Double.NaN;
+
+	/**
+	 * Error de los pesos devueltos por el último ajuste.
+	 */
+	private double errorFinal = Double.NaN;
+
+	/**
+	 * Escala empleada en el último ajuste.
+	 */
+	private double escala = Double.NaN;
+
+	/**
+	 * Constructor para la clase {@code AjustadorPesos}.
+	 * <p>
+	 * Las muestras con los mismos términos se agrupan, ya que su contribución al error solo depende del número de
+	 * muestras del grupo y de la suma de sus resultados y de sus cuadrados. Como los términos toman pocos valores, el
+	 * número de grupos es muy inferior al de muestras y cada iteración del ajuste recorre solo los grupos.
+	 *
+	 * @param muestras Muestras sobre las que se ajustan los pesos.
+	 * @param hilos Número de hilos (al menos {@code 1}).
+	 */
+	public AjustadorPesos(MuestrasAjuste muestras, int hilos) {
+
+		int numeroTerminos = PesosEvaluacion.NUMERO_TERMINOS;
+		int numero = muestras.consultarNumeroMuestras();
+		byte[] valores = muestras.obtenerTerminos();
+		byte[] resultados = muestras.obtenerResultados();
+
+		// Cada muestra se empaqueta con sus términos en los bytes altos y su resultado en el byte bajo (como mucho
+		// TERMINOS_POR_CLAVE términos, comprobado al cargar la clase)
+		long[] claves = new long[numero];
+		for (int muestra = 0; muestra < numero; muestra++) {
+			long clave = 0;
+			for (int i = 0; i < numeroTerminos; i++) {
+				clave = (clave << Byte.SIZE) | (valores[muestra * numeroTerminos + i] & 0xFF);
+			}
+			claves[muestra] = (clave << Byte.SIZE) | resultados[muestra];
+		}
+		Arrays.sort(claves);
+
+		byte[] agrupados = new byte[numero * numeroTerminos];
+		int[] repeticiones = new int[numero];
+		int[] sumasResultados = new int[numero];
+		int[] sumasCuadrados = new int[numero];
+		int grupos = 0;
+
+		for (int muestra = 0; muestra < numero; muestra++) {
+
+			long clave = claves[muestra] >>> Byte.SIZE;
+			int resultado = (int) (claves[muestra] & 0xFF);
+
+			if (muestra == 0 || clave != claves[muestra - 1] >>> Byte.SIZE) {
+				for (int i = numeroTerminos - 1; i >= 0; i--, clave >>>= Byte.SIZE) {
+					agrupados[grupos * numeroTerminos + i] = (byte) clave;
+				}
+				grupos++;
+			}
+
+			repeticiones[grupos - 1]++;
+			sumasResultados[grupos - 1] += resultado;
+			sumasCuadrados[grupos - 1] += resultado * resultado;
+		}
+
+		this.terminos = Arrays.copyOf(agrupados, grupos * numeroTerminos);
+		this.repeticiones = Arrays.copyOf(repeticiones, grupos);
+		this.sumasResultados = Arrays.copyOf(sumasResultados, grupos);
+		this.sumasCuadrados = Arrays.copyOf(sumasCuadrados, grupos);
+		this.numeroGrupos = grupos;
+		this.numeroMuestras = numero;
+		this.ejecutor = new ForkJoinPool(Math.max(1, hilos));
+	}
+
+	/**
+	 * Devuelve el número de grupos de muestras con los mismos términos que se recorren en cada iteración.
+	 *
+	 * @return Número de grupos de muestras.
+	 */
+	public int consultarNumeroGrupos() {
+		return numeroGrupos;
+	}
+
+	/**
+	 * Calcula el error de unos pesos con una escala dada.
+	 *
+	 * @param pesos Pesos de la evaluación.
+	 * @param escala Escala de la función logística.
+	 * @return Error cuadrático medio sobre las muestras ({@code 0} si no hay muestras).
+	 */
+	public double calcularError(PesosEvaluacion pesos, double escala) {
+		return recorrer(aReales(pesos), escala, null);
+	}
+
+	/**
+	 * Busca la escala que minimiza el error de unos pesos, por sección áurea sobre el logaritmo de la escala.
+	 * <p>
+	 * Si el error mínimo se alcanza en un extremo del intervalo de búsqueda, los pesos no predicen los resultados (por 
+	 * ejemplo, porque la escala tiende a cero) y se devuelve {@link #ESCALA_POR_DEFECTO}.
+	 *
+	 * @param pesos Pesos de la evaluación.
+	 * @return Escala de la función logística con menor error.
+	 */
+	public double ajustarEscala(PesosEvaluacion pesos) {
+
+		double[] reales = aReales(pesos);
+		double proporcion = (Math.sqrt(5) - 1) / 2;
+		double inferior = Math.log(ESCALA_MINIMA);
+		double superior = Math.log(ESCALA_MAXIMA);
+		double izquierda = superior - proporcion * (superior - inferior);
+		double derecha = inferior + proporcion * (superior - inferior);
+		double errorIzquierda = recorrer(reales, Math.exp(izquierda), null);
+		double errorDerecha = recorrer(reales, Math.exp(derecha), null);
+
+		for (int i = 0; i < ITERACIONES_ESCALA; i++) {
+			if (errorIzquierda <= errorDerecha) {
+				superior = derecha;
+				derecha = izquierda;
+				errorDerecha = errorIzquierda;
+				izquierda = superior - proporcion * (superior - inferior);
+				errorIzquierda = recorrer(reales, Math.exp(izquierda), null);
+			} else {
+				inferior = izquierda;
+				izquierda = derecha;
+				errorIzquierda = errorDerecha;
+				derecha = inferior + proporcion * (superior - inferior);
+				errorDerecha = recorrer(reales, Math.exp(derecha), null);
+			}
+		}
+
+		double escala = Math.exp((inferior + superior) / 2);
+
+		if (escala < ESCALA_MINIMA * 1.01 || escala > ESCALA_MAXIMA / 1.01) {
+			return ESCALA_POR_DEFECTO;
+		}
+
+		return escala;
+	}
+
+	/**
+	 * Ajusta los pesos de la evaluación a los resultados de las muestras, con la escala ajustada a los pesos iniciales
+	 * ({@link #ajustarEscala(PesosEvaluacion)}).
+	 *
+	 * @param iniciales Pesos iniciales.
+	 * @param iteraciones Número de iteraciones del descenso de gradiente.
+	 * @param tasa Tamaño de paso del descenso de gradiente, en unidades de los pesos.
+	 * @return Pesos ajustados.
+	 */
+	public PesosEvaluacion ajustar(PesosEvaluacion iniciales, int iteraciones, double tasa) {
+		return ajustar(iniciales, ajustarEscala(iniciales), iteraciones, tasa);
+	}
+
+	/**
+	 * Ajusta los pesos de la evaluación a los resultados de las muestras por descenso de gradiente, con la escala
+	 * indicada. Los pesos devueltos se redondean y se limitan a {@link PesosEvaluacion#PESO_MAXIMO} en valor absoluto.
+	 *
+	 * @param iniciales Pesos iniciales.
+	 * @param escala Escala de la función logística.
+	 * @param iteraciones Número de iteraciones del descenso de gradiente.
+	 * @param tasa Tamaño de paso del descenso de gradiente, en unidades de los pesos.
+	 * @return Pesos ajustados.
+	 */
+	public PesosEvaluacion ajustar(PesosEvaluacion iniciales, double escala, int iteraciones, double tasa) {
+
+		int numeroTerminos = PesosEvaluacion.NUMERO_TERMINOS;
+		double[] pesos = aReales(iniciales);
+		double[] gradiente = new double[numeroTerminos];
+		double[] primerMomento = new double[numeroTerminos];
+		double[] segundoMomento = new double[numeroTerminos];
+
+		this.escala = escala;
+		errorInicial = recorrer(pesos, escala, null);
+
+		for (int iteracion = 1; iteracion <= iteraciones; iteracion++) {
+
+			recorrer(pesos, escala, gradiente);
+
+			double correccion1 = 1 - Math.pow(BETA1, iteracion);
+			double correccion2 = 1 - Math.pow(BETA2, iteracion);
+
+			for (int i = 0; i < numeroTerminos; i++) {
+				primerMomento[i] = BETA1 * primerMomento[i] + (1 - BETA1) * gradiente[i];
+				segundoMomento[i] = BETA2 * segundoMomento[i] + (1 - BETA2) * gradiente[i] * gradiente[i];
+				pesos[i] -= tasa * (primerMomento[i] / correccion1) / (Math.sqrt(segundoMomento[i] / correccion2) + EPSILON);
+				pesos[i] = Math.max(-PesosEvaluacion.PESO_MAXIMO, Math.min(PesosEvaluacion.PESO_MAXIMO, pesos[i]));
+			}
+		}
+
+		int[] redondeados = new int[numeroTerminos];
+		for (int i = 0; i < numeroTerminos; i++) {
+			redondeados[i] = (int) Math.round(pesos[i]);
+		}
+
+		PesosEvaluacion ajustados = new PesosEvaluacion(redondeados);
+		errorFinal = calcularError(ajustados, escala);
+
+		return ajustados;
+	}
+
+	/**
+	 * Devuelve el error de los pesos iniciales del último ajuste, con la escala ajustada.
+	 *
+	 * @return Error cuadrático medio o {@code NaN} si no se ha realizado ningún ajuste.
+	 */
+	public double consultarErrorInicial() {
+		return errorInicial;
+	}
+
+	/**
+	 * Devuelve el error de los pesos devueltos por el último ajuste.
+	 *
+	 * @return Error cuadrático medio o {@code NaN} si no se ha realizado ningún ajuste.
+	 */
+	public double consultarErrorFinal() {
+		return errorFinal;
+	}
+
+	/**
+	 * Devuelve la escala de la función logística empleada en el último ajuste.
+	 *
+	 * @return Escala o {@code NaN} si no se ha realizado ningún ajuste.
+	 */
+	public double consultarEscala() {
+		return escala;
+	}
+
+	/**
+	 * Finaliza los hilos del ajuste.
+	 */
+	@Override
+	public void close() {
+		ejecutor.shutdown();
+	}
+
+	/**
+	 * Recorre todos los grupos de muestras en paralelo para calcular el error de unos pesos y, opcionalmente, su 
+	 * gradiente.
+	 *
+	 * @param pesos Pesos de la evaluación.
+	 * @param escala Escala de la función logística.
+	 * @param gradiente Array en el que se almacena el gradiente del error respecto a cada peso o {@code null} para
+	 * calcular solo el error.
+	 * @return Error cuadrático medio sobre las muestras ({@code 0} si no hay muestras).
+	 */
+	private double recorrer(double[] pesos, double escala, double[] gradiente) {
+
+		int numeroTerminos = PesosEvaluacion.NUMERO_TERMINOS;
+		boolean conGradiente = gradiente != null;
+		int tareas = Math.max(1, (numeroGrupos + GRUPOS_POR_TAREA - 1) / GRUPOS_POR_TAREA);
+
+		// Cada tarea devuelve la suma de los errores seguida de la suma de los gradientes de sus grupos. Las tareas
+		// no dependen del número de hilos y sus sumas se acumulan en orden, por lo que el resultado tampoco
+		List<double[]> parciales = EjecutorTareas.ejecutar(ejecutor, tareas, tarea -> {
+
+			double[] suma = new double[numeroTerminos + 1];
+			int primero = tarea * GRUPOS_POR_TAREA;
+			int ultimo = Math.min(numeroGrupos, primero + GRUPOS_POR_TAREA);
+
+			for (int grupo = primero; grupo < ultimo; grupo++) {
+
+				int base = grupo * numeroTerminos;
+				double evaluacion = 0;
+				for (int i = 0; i < numeroTerminos; i++) {
+					evaluacion += pesos[i] * terminos[base + i];
+				}
+
+				// Suma sobre las muestras del grupo de (p - r)^2, con los resultados en medios puntos
+				double probabilidad = 1 / (1 + Math.exp(-escala * evaluacion));
+				int repetidas = repeticiones[grupo];
+				suma[0] += repetidas * probabilidad * probabilidad - probabilidad * sumasResultados[grupo]
+						+ sumasCuadrados[grupo] * 0.25;
+
+				if (conGradiente) {
+					double factor = (repetidas * probabilidad - sumasResultados[grupo] * 0.5) * probabilidad
+							* (1 - probabilidad);
+					for (int i = 0; i < numeroTerminos; i++) {
+						suma[i + 1] += factor * terminos[base + i];
+					}
+				}
+			}
+
+			return suma;
+		}, "el ajuste de la evaluación");
+
+		double error = 0;
+		if (conGradiente) {
+			Arrays.fill(gradiente, 0);
+		}
+		for (double[] parcial : parciales) {
+			error += parcial[0];
+			if (conGradiente) {
+				for (int i = 0; i < numeroTerminos; i++) {
+					gradiente[i] += parcial[i + 1];
+				}
+			}
+		}
+
+		if (numeroMuestras == 0) {
+			return 0;
+		}
+
+		if (conGradiente) {
+			for (int i = 0; i < numeroTerminos; i++) {
+				gradiente[i] *= 2 * escala / numeroMuestras;
+			}
+		}
+
+		return error / numeroMuestras;
+	}
+
+	/**
+	 * Convierte unos pesos a valores reales.
+	 *
+	 * @param pesos Pesos de la evaluación.
+	 * @return Peso de cada término como valor real.
+	 */
+	private static double[] aReales(PesosEvaluacion pesos) {
+
+		int[] enteros = pesos.consultarPesos();
+		double[] reales = new double[enteros.length];
+
+		for (int i = 0; i < enteros.length; i++) {
+			reales[i] = enteros[i];
+		}
+
+		return reales;
+	}
+
+	/**
+	 * Extrae las muestras de unos ficheros de partidas, ajusta los pesos de la evaluación y los escribe en un fichero.
+	 *
+	 * @param args ruta del fichero de pesos a escribir y rutas de los ficheros de partidas, opcionalmente precedidas
+	 * de {@code -hilos n}, {@code -iteraciones n}, {@code -tasa x}, {@code -escala x} (por defecto, la ajustada a los 
+	 * pesos iniciales), {@code -jugadaMinima n} y {@code -pesos fichero} (pesos iniciales, por defecto los de 
+	 * {@link PesosEvaluacion#POR_DEFECTO})
+	 * @throws IOException Si falla el acceso a algún fichero.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		int hilos = Runtime.getRuntime().availableProcessors();
+		int iteraciones = ITERACIONES_POR_DEFECTO;
+		double tasa = TASA_POR_DEFECTO;
+		double escala = Double.NaN;
+		int jugadaMinima = JUGADA_MINIMA_POR_DEFECTO;
+		PesosEvaluacion iniciales = PesosEvaluacion.POR_DEFECTO;
+		List<Path> rutas = new ArrayList<>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-hilos") && i + 1 < args.length) {
+				hilos = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-iteraciones") && i + 1 < args.length) {
+				iteraciones = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-tasa") && i + 1 < args.length) {
+				tasa = Double.parseDouble(args[++i]);
+			} else if (args[i].equals("-escala") && i + 1 < args.length) {
+				escala = Double.parseDouble(args[++i]);
+			} else if (args[i].equals("-jugadaMinima") && i + 1 < args.length) {
+				jugadaMinima = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-pesos") && i + 1 < args.length) {
+				iniciales = PesosEvaluacion.leer(Path.of(args[++i]));
+			} else {
+				rutas.add(Path.of(args[i]));
+			}
+		}
+
+		long inicio = System.nanoTime();
+		MuestrasAjuste muestras;
+
+		try (BaseDatosPartidas base = new BaseDatosPartidas(rutas.subList(1, rutas.size()).toArray(new Path[0]))) {
+			muestras = MuestrasAjuste.extraer(base, jugadaMinima, hilos);
+		}
+
+		long extraccion = System.nanoTime();
+		System.out.printf("%d posiciones extraídas en %d ms con %d hilos%n", muestras.consultarNumeroMuestras(),
+				(extraccion - inicio) / 1_000_000, hilos);
+
+		try (AjustadorPesos ajustador = new AjustadorPesos(muestras, hilos)) {
+
+			PesosEvaluacion ajustados = Double.isNaN(escala) ? ajustador.ajustar(iniciales, iteraciones, tasa)
+					: ajustador.ajustar(iniciales, escala, iteraciones, tasa);
+			String resumen = String.format("%d posiciones, escala %.6g, error inicial %.6f, error final %.6f",
+					muestras.consultarNumeroMuestras(), ajustador.consultarEscala(), ajustador.consultarErrorInicial(),
+					ajustador.consultarErrorFinal());
+
+			ajustados.escribir(rutas.get(0), "Pesos ajustados sobre " + resumen);
+			System.out.printf("%s%n%s%n%d iteraciones sobre %d grupos en %d ms%n", resumen, ajustados, iteraciones,
+					ajustador.consultarNumeroGrupos(), (System.nanoTime() - extraccion) / 1_000_000);
+		}
+	}
+
+}
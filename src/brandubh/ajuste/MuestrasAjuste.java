@@ -0,0 +1,273 @@
+/**
+ * Ajuste de la evaluación.
+ * <p>
+ * Paquete con la extracción de los términos de la evaluación de las posiciones de la base de datos de partidas y el
+ * ajuste de sus pesos a los resultados de las partidas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.ajuste;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import brandubh.control.Reglas;
+import brandubh.modelo.TableroBinario;
+import brandubh.motor.EvaluadorIncremental;
+import brandubh.motor.PesosEvaluacion;
+import brandubh.motor.TerminoEvaluacion;
+import brandubh.partidas.BaseDatosPartidas;
+import brandubh.util.Color;
+import brandubh.util.EjecutorTareas;
+
+/**
+ * Posiciones de partidas con sus términos de la evaluación y el resultado de la partida, guardadas en arrays de tipos
+ * primitivos.
+ * <p>
+ * Cada muestra ocupa {@link PesosEvaluacion#NUMERO_TERMINOS} bytes con los términos de la posición (los de
+ * {@link EvaluadorIncremental#calcularTerminos(TableroBinario, int[])}, que caben en un byte con signo) y un byte con
+ * el resultado de la partida. Los términos se calculan una sola vez, al extraer las muestras, de forma que el ajuste
+ * solo recorre arrays.
+ * <p>
+ * La extracción reproduce las partidas de la base de datos con {@link Reglas#aplicarJugada(TableroBinario, int)}
+ * sobre un único tablero binario por hilo, sin crear objetos por posición.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.partidas.BaseDatosPartidas
+ * @see brandubh.motor.TerminoEvaluacion
+ */
+public class MuestrasAjuste {
+
+	/**
+	 * Resultado codificado de una victoria del atacante.
+	 */
+	static final byte VICTORIA_ATACANTE = 0;
+
+	/**
+	 * Resultado codificado de unas tablas.
+	 */
+	static final byte TABLAS = 1;
+
+	/**
+	 * Resultado codificado de una victoria del defensor.
+	 */
+	static final byte VICTORIA_DEFENSOR = 2;
+
+	/**
+	 * Capacidad inicial (en muestras) de los arrays de cada tarea de extracción.
+	 */
+	private static final int CAPACIDAD_INICIAL = 1 << 12;
+
+	/**
+	 * Términos de cada muestra, {@link PesosEvaluacion#NUMERO_TERMINOS} consecutivos por muestra.
+	 */
+	private final byte[] terminos;
+
+	/**
+	 * Resultado codificado de la partida de cada muestra.
+	 */
+	private final byte[] resultados;
+
+	/**
+	 * Número de muestras.
+	 */
+	private final int numero;
+
+	/**
+	 * Constructor para la clase {@code MuestrasAjuste}.
+	 *
+	 * @param terminos Términos de cada muestra, {@link PesosEvaluacion#NUMERO_TERMINOS} consecutivos por muestra.
+	 * @param resultados Resultado codificado de la partida de cada muestra.
+	 * @param numero Número de muestras.
+	 */
+	MuestrasAjuste(byte[] terminos, byte[] resultados, int numero) {
+		this.terminos = terminos;
+		this.resultados = resultados;
+		this.numero = numero;
+	}
+
+	/**
+	 * Extrae las muestras de todas las posiciones de las partidas de una base de datos, salvo las primeras jugadas de
+	 * cada partida y la posición final.
+	 * <p>
+	 * Las partidas se reparten entre varios hilos por intervalos consecutivos, y las muestras se guardan en el orden
+	 * de las partidas, por lo que el resultado no depende del número de hilos.
+	 *
+	 * @param base Base de datos de partidas.
+	 * @param jugadaMinima Número de jugadas de cada partida que se omiten desde la configuración inicial.
+	 * @param hilos Número de hilos (al menos {@code 1}).
+	 * @return Muestras extraídas.
+	 * @throws IllegalStateException Si falla algún hilo de la extracción o se interrumpe la espera.
+	 */
+	public static MuestrasAjuste extraer(BaseDatosPartidas base, int jugadaMinima, int hilos) {
+
+		int tareas = Math.max(1, hilos) * 4;
+		ForkJoinPool ejecutor = new ForkJoinPool(Math.max(1, hilos));
+
+		try {
+			List<MuestrasAjuste> parciales = EjecutorTareas.ejecutar(ejecutor, tareas,
+					tarea -> extraer(base, jugadaMinima, tarea, tareas), "la extracción de muestras");
+
+			long total = 0;
+			for (MuestrasAjuste parcial : parciales) {
+				total += parcial.numero;
+			}
+			if (total > Integer.MAX_VALUE / PesosEvaluacion.NUMERO_TERMINOS) {
+				throw new IllegalStateException("Demasiadas posiciones para el ajuste: " + total);
+			}
+
+			byte[] terminos = new byte[(int) total * PesosEvaluacion.NUMERO_TERMINOS];
+			byte[] resultados = new byte[(int) total];
+			int numero = 0;
+
+			for (MuestrasAjuste parcial : parciales) {
+				System.arraycopy(parcial.terminos, 0, terminos, numero * PesosEvaluacion.NUMERO_TERMINOS,
+						parcial.numero * PesosEvaluacion.NUMERO_TERMINOS);
+				System.arraycopy(parcial.resultados, 0, resultados, numero, parcial.numero);
+				numero += parcial.numero;
+			}
+
+			return new MuestrasAjuste(terminos, resultados, numero);
+		} finally {
+			ejecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Extrae las muestras de las partidas que corresponden a una tarea.
+	 *
+	 * @param base Base de datos de partidas.
+	 * @param jugadaMinima Número de jugadas de cada partida que se omiten desde la configuración inicial.
+	 * @param tarea Número de la tarea.
+	 * @param tareas Número total de tareas.
+	 * @return Muestras de las partidas de la tarea.
+	 */
+	private static MuestrasAjuste extraer(BaseDatosPartidas base, int jugadaMinima, int tarea, int tareas) {
+
+		TableroBinario tablero = new TableroBinario();
+		int[] calculados = new int[PesosEvaluacion.NUMERO_TERMINOS];
+		byte[] terminos = new byte[CAPACIDAD_INICIAL * PesosEvaluacion.NUMERO_TERMINOS];
+		byte[] resultados = new byte[CAPACIDAD_INICIAL];
+		int numero = 0;
+
+		long partidas = base.consultarNumeroPartidas();
+		int primera = (int) (partidas * tarea / tareas);
+		int ultima = (int) (partidas * (tarea + 1) / tareas);
+
+		for (int partida = primera; partida < ultima; partida++) {
+
+			int jugadas = base.consultarNumeroJugadas(partida);
+
+			if (jugadaMinima >= jugadas) {
+				continue;
+			}
+
+			byte resultado = codificarResultado(base.consultarGanador(partida));
+			base.consultarPosicion(partida, jugadaMinima, tablero);
+
+			for (int jugada = jugadaMinima; jugada < jugadas; jugada++) {
+
+				if (numero == resultados.length) {
+					terminos = Arrays.copyOf(terminos, terminos.length * 2);
+					resultados = Arrays.copyOf(resultados, resultados.length * 2);
+				}
+
+				EvaluadorIncremental.calcularTerminos(tablero, calculados);
+				for (int i = 0; i < calculados.length; i++) {
+					terminos[numero * PesosEvaluacion.NUMERO_TERMINOS + i] = (byte) calculados[i];
+				}
+				resultados[numero++] = resultado;
+
+				Reglas.aplicarJugada(tablero, base.consultarJugada(partida, jugada));
+			}
+		}
+
+		return new MuestrasAjuste(terminos, resultados, numero);
+	}
+
+	/**
+	 * Codifica el resultado de una partida.
+	 *
+	 * @param ganador Color del ganador o {@code null} si la partida terminó en tablas.
+	 * @return Resultado codificado.
+	 */
+	private static byte codificarResultado(Color ganador) {
+
+		if (ganador == null) {
+			return TABLAS;
+		}
+
+		return ganador == Color.BLANCO ? VICTORIA_DEFENSOR : VICTORIA_ATACANTE;
+	}
+
+	/**
+	 * Devuelve el número de muestras.
+	 *
+	 * @return Número de muestras.
+	 */
+	public int consultarNumeroMuestras() {
+		return numero;
+	}
+
+	/**
+	 * Devuelve el valor de un término de la evaluación en una muestra.
+	 *
+	 * @param muestra Índice de la muestra.
+	 * @param termino Término de la evaluación.
+	 * @return Valor del término, desde el punto de vista del defensor.
+	 * @throws IndexOutOfBoundsException Si el índice no corresponde a ninguna muestra.
+	 */
+	public int consultarTermino(int muestra, TerminoEvaluacion termino) {
+		return terminos[comprobar(muestra) * PesosEvaluacion.NUMERO_TERMINOS + termino.ordinal()];
+	}
+
+	/**
+	 * Devuelve el resultado de la partida de una muestra, desde el punto de vista del defensor.
+	 *
+	 * @param muestra Índice de la muestra.
+	 * @return {@code 1} si ganó el defensor, {@code 0} si ganó el atacante y {@code 0.5} si la partida terminó en tablas.
+	 * @throws IndexOutOfBoundsException Si el índice no corresponde a ninguna muestra.
+	 */
+	public double consultarResultado(int muestra) {
+		return resultados[comprobar(muestra)] * 0.5;
+	}
+
+	/**
+	 * Devuelve el array con los términos de todas las muestras, sin copiarlo.
+	 *
+	 * @return Términos de cada muestra, {@link PesosEvaluacion#NUMERO_TERMINOS} consecutivos por muestra.
+	 */
+	byte[] obtenerTerminos() {
+		return terminos;
+	}
+
+	/**
+	 * Devuelve el array con los resultados codificados de todas las muestras, sin copiarlo.
+	 *
+	 * @return Resultado codificado de la partida de cada muestra.
+	 */
+	byte[] obtenerResultados() {
+		return resultados;
+	}
+
+	/**
+	 * Comprueba que un índice corresponde a una muestra.
+	 *
+	 * @param muestra Índice de la muestra.
+	 * @return El propio índice.
+	 * @throws IndexOutOfBoundsException Si el índice no corresponde a ninguna muestra.
+	 */
+	private int comprobar(int muestra) {
+
+		if (muestra < 0 || muestra >= numero) {
+			throw new IndexOutOfBoundsException("Muestra " + muestra + " fuera de las " + numero + " muestras.");
+		}
+
+		return muestra;
+	}
+
+}
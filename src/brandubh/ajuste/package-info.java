@@ -0,0 +1,10 @@
+/**
+ * Ajuste de la evaluación.
+ * <p>
+ * Paquete con la extracción de los términos de la evaluación de las posiciones de la base de datos de partidas y el 
+ * ajuste de sus pesos a los resultados de las partidas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.ajuste;
@@ -11,12 +11,20 @@
  */
 package brandubh.control;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import brandubh.modelo.Celda;
+import brandubh.modelo.ClavesZobrist;
 import brandubh.modelo.Jugada;
+import brandubh.modelo.JugadaCompacta;
 import brandubh.modelo.Pieza;
 import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
 import brandubh.util.Color;
 import brandubh.util.Coordenada;
+import brandubh.util.Sentido;
 import brandubh.util.TipoCelda;
 import brandubh.util.TipoPieza;
 
@@ -31,6 +39,11 @@ import brandubh.util.TipoPieza;
  */
 public class Arbitro {
 
+	/**
+	 * Capacidad inicial de la pila de jugadas reversibles.
+	 */
+	private static final int CAPACIDAD_INICIAL_PILA = 64;
+
 	/**
 	 * Referencia a objeto de tipo {@code Tablero} en el que se organizan las piezas.
 	 * 
@@ -64,6 +77,44 @@ public class Arbitro {
 	 */
 	private Celda celdaUltimoMovimiento;
 
+	/**
+	 * Número de jugadas aplicadas con {@link #aplicarJugada(int)} pendientes de deshacer.
+	 */
+	private int profundidad = 0;
+
+	/**
+	 * Pila con las jugadas codificadas (incluyendo sus capturas) aplicadas con {@link #aplicarJugada(int)}.
+	 * 
+	 * @see brandubh.modelo.JugadaCompacta
+	 */
+	private int[] pilaJugadas = new int[CAPACIDAD_INICIAL_PILA];
+
+	/**
+	 * Pila con el turno previo a cada jugada aplicada.
+	 */
+	private Color[] pilaTurnos = new Color[CAPACIDAD_INICIAL_PILA];
+
+	/**
+	 * Pila con la pieza del último movimiento previa a cada jugada aplicada.
+	 */
+	private Pieza[] pilaPiezasUltimoMovimiento = new Pieza[CAPACIDAD_INICIAL_PILA];
+
+	/**
+	 * Pila con la celda del último movimiento previa a cada jugada aplicada.
+	 */
+	private Celda[] pilaCeldasUltimoMovimiento = new Celda[CAPACIDAD_INICIAL_PILA];
+
+	/**
+	 * Pila con el contador de jugadas previo a cada jugada aplicada.
+	 */
+	private int[] pilaContadoresJugadas = new int[CAPACIDAD_INICIAL_PILA];
+
+	/**
+	 * Pila con las piezas capturadas en cada jugada aplicada. Cada jugada reserva cuatro posiciones (una por sentido),
+	 * ocupadas en el orden creciente de los índices de las celdas capturadas.
+	 */
+	private Pieza[] pilaPiezasCapturadas = new Pieza[CAPACIDAD_INICIAL_PILA * Reglas.NUMERO_SENTIDOS];
+
 
 	/**
 	 * Constructor para la clase {@code Arbitro}.
@@ -151,6 +202,41 @@ public class Arbitro {
 		return tablero.clonar();
 	}
 
+	/**
+	 * Devuelve un nuevo árbitro sobre un clon en profundidad del tablero actual, con el mismo turno, número de jugadas
+	 * y último movimiento.
+	 * <p>
+	 * El clon no hereda las jugadas reversibles pendientes de deshacer, por lo que puede emplearse de forma
+	 * independiente (por ejemplo, desde otro hilo) a partir de la posición actual.
+	 *
+	 * @return Clon del árbitro actual.
+	 */
+	public Arbitro clonar() {
+
+		Arbitro clon = new Arbitro(tablero.clonar());
+		clon.turno = turno;
+		clon.contadorJugadas = contadorJugadas;
+
+		if (celdaUltimoMovimiento != null) {
+			clon.celdaUltimoMovimiento = clon.tablero.obtenerCelda(celdaUltimoMovimiento.consultarCoordenada());
+			clon.piezaUltimoMovimiento = clon.celdaUltimoMovimiento.consultarPieza();
+		}
+
+		return clon;
+	}
+
+	/**
+	 * Devuelve la referencia a la representación mediante mapas de bits del tablero actual, sin clonarlo.
+	 * <p>
+	 * Permite consultar la posición sin crear objetos. Las modificaciones deben realizarse siempre a través del árbitro.
+	 *
+	 * @return Referencia al tablero binario del tablero actual.
+	 * @see brandubh.modelo.TableroBinario
+	 */
+	public TableroBinario obtenerTableroBinario() {
+		return tablero.obtenerTableroBinario();
+	}
+
 	/**
 	 * Devuelve el color del jugador con el turno actual. 
 	 *
@@ -161,6 +247,19 @@ public class Arbitro {
 		return turno;
 	}
 
+	/**
+	 * Devuelve el hash Zobrist de la posición actual, combinando la composición del tablero con el turno.
+	 * <p>
+	 * La parte del tablero se mantiene de forma incremental y la del turno es una única clave, por lo que la consulta
+	 * se realiza en tiempo constante. Dos posiciones con las mismas piezas y distinto turno tienen claves distintas.
+	 *
+	 * @return Hash Zobrist de 64 bits de la posición actual.
+	 * @see brandubh.modelo.ClavesZobrist
+	 */
+	public long consultarClaveZobrist() {
+		return tablero.consultarClaveZobrist() ^ ClavesZobrist.consultarClaveTurno(turno);
+	}
+
 	/**
 	 * Comprueba si una jugada lleva a cabo un movimiento legal.
 	 *
@@ -223,24 +322,18 @@ public class Arbitro {
 	 */
 	private boolean estanCeldasIntermediasVacias(Jugada jugada) {
 
-		Coordenada coordenadaOrigen = jugada.origen().consultarCoordenada();
-		Coordenada coordenadaDestino = jugada.destino().consultarCoordenada();
-
-		int filaOrigen = coordenadaOrigen.fila();
-		int columnaOrigen = coordenadaOrigen.columna();
-		int filaDestino = coordenadaDestino.fila();
-		int columnaDestino = coordenadaDestino.columna();
+		int origen = TableroBinario.consultarIndice(jugada.origen().consultarCoordenada());
+		int destino = TableroBinario.consultarIndice(jugada.destino().consultarCoordenada());
 
-		int desplazamientoEnFilas = jugada.consultarSentido().consultarDesplazamientoEnFilas();
-		int desplazamientoEnColumnas = jugada.consultarSentido().consultarDesplazamientoEnColumnas();
+		Sentido sentido = jugada.consultarSentido();
+		int paso = sentido.consultarDesplazamientoEnFilas() * TableroBinario.NUMERO_COLUMNAS
+				+ sentido.consultarDesplazamientoEnColumnas();
 
-		for (int fila = filaOrigen + desplazamientoEnFilas, columna = columnaOrigen + desplazamientoEnColumnas;
-				fila != filaDestino || columna != columnaDestino;
-				fila += desplazamientoEnFilas, columna += desplazamientoEnColumnas) {
+		long ocupadas = tablero.obtenerTableroBinario().consultarOcupadas();
 
-			Celda celdaIntermedia = tablero.obtenerCelda(new Coordenada(fila, columna));
+		for (int celda = origen + paso; celda != destino; celda += paso) {
 
-			if (!celdaIntermedia.estaVacia()) {
+			if ((ocupadas & (1L << celda)) != 0) {
 				return false;
 			}
 		}
@@ -248,143 +341,39 @@ public class Arbitro {
 		return true;
 	}
 
-
 	/**
-	 * Comprueba si una celda dada se encuentra contigua al trono.
+	 * Genera todos los movimientos legales del jugador con el turno actual.
+	 * <p>
+	 * Los movimientos se almacenan codificados en el array proporcionado, que puede reutilizarse entre llamadas para 
+	 * evitar crear objetos. La generación recorre rayos precalculados para cada celda y sentido, respetando las 
+	 * restricciones del trono y las provincias para las piezas distintas del rey.
 	 *
-	 * @param celda Objeto de tipo {@code Celda} a comprobar.
-	 * @return Valor de tipo {@code boolean}: {@code true} si la celda se encuentra contigua al trono y {@code false} en caso contrario.
-	 * @see brandubh.modelo.Celda
+	 * @param movimientos Array en el que se almacenan los movimientos codificados, con capacidad para al menos 
+	 * {@link brandubh.control.Reglas#MAXIMO_MOVIMIENTOS} elementos.
+	 * @return Número de movimientos legales generados.
+	 * @see brandubh.control.Reglas#generarMovimientos(TableroBinario, Color, int[])
+	 * @see brandubh.modelo.JugadaCompacta
 	 */
-	private boolean esCeldaColindanteATrono(Celda celda) {
-
-		Celda[] celdasContiguas = tablero.consultarCeldasContiguas(celda.consultarCoordenada());
-
-		for (Celda celdaContigua : celdasContiguas) {
-
-			if (celdaContigua.consultarTipoCelda() == TipoCelda.TRONO) {
-				return true;
-			}
-
-		}
-
-		return false;
-
+	public int generarMovimientosLegales(int[] movimientos) {
+		return Reglas.generarMovimientos(tablero.obtenerTableroBinario(), turno, movimientos);
 	}
 
 	/**
 	 * Comprueba si ha ganado el jugador atacante tras el último movimiento.
+	 * <p>
+	 * La comprobación se realiza en tiempo constante a partir de la posición del rey, que el tablero mantiene 
+	 * actualizada en cada movimiento, colocación o eliminación de piezas.
 	 *
 	 * @return Valor de tipo {@code boolean}: {@code true} si el atacante ha ganado y {@code false} en caso contrario.
+	 * @see brandubh.control.Reglas#haGanadoAtacante(TableroBinario, int)
 	 */
 	public boolean haGanadoAtacante() {
 
-		if (piezaUltimoMovimiento.consultarColor() == Color.BLANCO) {
+		if (piezaUltimoMovimiento == null || piezaUltimoMovimiento.consultarColor() == Color.BLANCO) {
 			return false;
 		}
 
-		for (Celda celda : tablero.consultarCeldas()) {
-
-			Pieza pieza = celda.consultarPieza();
-			Celda[] celdasContiguas = tablero.consultarCeldasContiguas(celda.consultarCoordenada());
-
-
-			if (!celda.estaVacia() && pieza.consultarTipoPieza() == TipoPieza.REY) {
-
-				// Rey en el trono
-				if (celda.consultarTipoCelda() == TipoCelda.TRONO) {
-
-					int contador = 0;
-
-					for (Celda celdaContigua : celdasContiguas) {
-
-						Color colorPiezaCeldaContigua = celdaContigua.consultarColorDePieza();
-
-
-						if (!celdaContigua.estaVacia() && (colorPiezaCeldaContigua == Color.NEGRO)) {
-							contador++;
-						}
-
-
-
-					}
-
-					if (contador == 4) {
-
-						return true;
-					}
-
-				}
-
-				// Rey colindante al trono
-				if (esCeldaColindanteATrono(celda)) {
-
-					int contador = 0;
-
-					for (Celda celdaContigua : celdasContiguas) {
-
-						Color colorPiezaCeldaContigua = celdaContigua.consultarColorDePieza();
-
-						if (!celdaContigua.estaVacia() && (colorPiezaCeldaContigua == Color.NEGRO)) {
-							contador++;
-						}
-
-					}
-
-					if (contador == 3) {
-
-						return true;
-					}
-
-				}
-
-
-				// Rey en el resto del tablero
-				if (celda.consultarTipoCelda() != TipoCelda.TRONO) {
-
-					Celda[] celdasContiguasEnHorizontal = tablero.consultarCeldasContiguasEnHorizontal(celda.consultarCoordenada());
-					Celda[] celdasContiguasEnVertical = tablero.consultarCeldasContiguasEnVertical(celda.consultarCoordenada());
-					Celda[][] celdasContiguasEnHorizontalOVertical = {celdasContiguasEnHorizontal, celdasContiguasEnVertical};
-
-					for (Celda[] direccion : celdasContiguasEnHorizontalOVertical) {
-
-						int contador = 0;
-						boolean piezaContiguaMovidaUltimoMovimiento = false;
-
-
-						for (Celda celdaContigua : direccion) {
-
-							Color colorPiezaCeldaContigua = celdaContigua.consultarColorDePieza();
-							TipoCelda tipoCeldaContigua = celdaContigua.consultarTipoCelda();
-							Pieza piezaCeldaContigua = tablero.obtenerCelda(celdaContigua.consultarCoordenada()).consultarPieza();
-
-
-							if ((!celdaContigua.estaVacia() && (colorPiezaCeldaContigua == Color.NEGRO)) || (tipoCeldaContigua == TipoCelda.PROVINCIA)) {
-								contador++;
-							}
-
-							if (piezaCeldaContigua == piezaUltimoMovimiento) {
-
-								piezaContiguaMovidaUltimoMovimiento = true;
-
-							}
-
-						}
-
-						if (contador == 2 && piezaContiguaMovidaUltimoMovimiento) {
-
-							return true;
-						}
-
-					}
-
-				}
-
-			}
-
-		}
-
-		return false;
+		return Reglas.haGanadoAtacante(tablero.obtenerTableroBinario(), consultarIndiceUltimoMovimiento());
 
 	}
 
@@ -403,6 +392,32 @@ public class Arbitro {
 
 	}
 
+	/**
+	 * Devuelve la coordenada de la celda en la que se encuentra el rey.
+	 *
+	 * @return Coordenada del rey o {@code null} si no hay rey en el tablero.
+	 * @see brandubh.util.Coordenada
+	 */
+	public Coordenada consultarCoordenadaRey() {
+
+		int rey = tablero.obtenerTableroBinario().consultarIndiceRey();
+
+		if (rey < 0) {
+			return null;
+		}
+
+		return TableroBinario.consultarCoordenada(rey);
+	}
+
+	/**
+	 * Devuelve el índice en el tablero binario de la celda de destino del último movimiento.
+	 *
+	 * @return Índice de la celda de destino del último movimiento.
+	 */
+	private int consultarIndiceUltimoMovimiento() {
+		return TableroBinario.consultarIndice(celdaUltimoMovimiento.consultarCoordenada());
+	}
+
 
 	/**
 	 * Efectúa el movimiento correspondiente a la jugada indicada.
@@ -428,64 +443,164 @@ public class Arbitro {
 
 	}
 
+	/**
+	 * Devuelve las coordenadas de las piezas que resultan capturadas por el último movimiento, sin retirarlas del tablero.
+	 * <p>
+	 * Únicamente se examinan las celdas contiguas a la celda de destino del último movimiento y las celdas opuestas a 
+	 * éstas, ya que ninguna otra pieza puede verse afectada por el movimiento.
+	 *
+	 * @return Lista de coordenadas de las piezas capturadas, vacía si no hay capturas o aún no se ha movido.
+	 * @see brandubh.control.Reglas#calcularCapturas(TableroBinario, int)
+	 */
+	public List<Coordenada> consultarCapturasTrasMover() {
+
+		List<Coordenada> capturas = new ArrayList<>();
+
+		if (celdaUltimoMovimiento == null) {
+			return capturas;
+		}
+
+		long mascara = Reglas.calcularCapturas(tablero.obtenerTableroBinario(), consultarIndiceUltimoMovimiento());
+
+		while (mascara != 0) {
+			capturas.add(TableroBinario.consultarCoordenada(Long.numberOfTrailingZeros(mascara)));
+			mascara &= mascara - 1;
+		}
+
+		return capturas;
+	}
+
 	/**
 	 * Retira las piezas capturadas en el último movimiento.
 	 *
+	 * @see #consultarCapturasTrasMover()
 	 */
 	public void realizarCapturasTrasMover() {
 
-		for (Celda celda : tablero.consultarCeldas()) {
+		for (Coordenada coordenada : consultarCapturasTrasMover()) {
+			tablero.eliminarPieza(coordenada);
+		}
 
-			Color colorPieza = celda.consultarColorDePieza();
-			Pieza pieza = tablero.obtenerCelda(celda.consultarCoordenada()).consultarPieza();
+	}
 
+	/**
+	 * Aplica una jugada codificada de forma reversible: mueve la pieza, retira las piezas capturadas y transfiere el 
+	 * turno al otro jugador.
+	 * <p>
+	 * No se comprueba la legalidad de la jugada. El estado previo (turno, pieza y celda del último movimiento, contador
+	 * de jugadas y piezas capturadas) se guarda en una pila, de forma que {@link #deshacerJugada()} lo restaura 
+	 * exactamente sin necesidad de clonar el tablero. Tras aplicar la jugada pueden consultarse 
+	 * {@link #haGanadoAtacante()} y {@link #haGanadoRey()} como tras {@link #mover(Jugada)}.
+	 *
+	 * @param jugada Jugada codificada (las marcas de captura, si las hubiese, se ignoran).
+	 * @return Jugada codificada incluyendo las piezas capturadas.
+	 * @see brandubh.modelo.JugadaCompacta
+	 */
+	public int aplicarJugada(int jugada) {
 
-			if (!celda.estaVacia() && pieza != piezaUltimoMovimiento && pieza.consultarTipoPieza() != TipoPieza.REY) {
+		if (profundidad == pilaJugadas.length) {
+			ampliarPila();
+		}
 
-				Celda[] celdasContiguasEnHorizontal = tablero.consultarCeldasContiguasEnHorizontal(celda.consultarCoordenada());
-				Celda[] celdasContiguasEnVertical = tablero.consultarCeldasContiguasEnVertical(celda.consultarCoordenada());
-				Celda[][] celdasContiguasEnHorizontalOVertical = {celdasContiguasEnHorizontal, celdasContiguasEnVertical};
+		int origen = JugadaCompacta.consultarOrigen(jugada);
+		int destino = JugadaCompacta.consultarDestino(jugada);
 
-				for (Celda[] direccion : celdasContiguasEnHorizontalOVertical) {
+		Celda celdaOrigen = tablero.obtenerCelda(TableroBinario.consultarCoordenada(origen));
+		Celda celdaDestino = tablero.obtenerCelda(TableroBinario.consultarCoordenada(destino));
 
-					int contador = 0;
-					boolean piezaContiguaMovidaUltimoMovimiento = false;
+		pilaTurnos[profundidad] = turno;
+		pilaPiezasUltimoMovimiento[profundidad] = piezaUltimoMovimiento;
+		pilaCeldasUltimoMovimiento[profundidad] = celdaUltimoMovimiento;
+		pilaContadoresJugadas[profundidad] = contadorJugadas;
 
-					for (Celda celdaContigua : direccion) {
+		piezaUltimoMovimiento = celdaOrigen.consultarPieza();
 
-						Pieza piezaCeldaContigua = tablero.obtenerCelda(celdaContigua.consultarCoordenada()).consultarPieza();
-						Color colorPiezaCeldaContigua = celdaContigua.consultarColorDePieza();
-						TipoCelda tipoCeldaContigua = celdaContigua.consultarTipoCelda();
+		celdaOrigen.eliminarPieza();
+		celdaDestino.colocar(piezaUltimoMovimiento);
+		celdaUltimoMovimiento = celdaDestino;
 
-						if (piezaCeldaContigua == piezaUltimoMovimiento) {
+		contadorJugadas++;
 
-							piezaContiguaMovidaUltimoMovimiento = true;
+		long capturas = Reglas.calcularCapturas(tablero.obtenerTableroBinario(), destino);
+		int posicion = profundidad * Reglas.NUMERO_SENTIDOS;
 
-						}
+		for (long pendientes = capturas; pendientes != 0; pendientes &= pendientes - 1) {
 
+			Celda celdaCapturada = tablero.obtenerCelda(TableroBinario.consultarCoordenada(Long.numberOfTrailingZeros(pendientes)));
+			pilaPiezasCapturadas[posicion++] = celdaCapturada.consultarPieza();
+			celdaCapturada.eliminarPieza();
+		}
 
-						if ((!celdaContigua.estaVacia() && (colorPiezaCeldaContigua != colorPieza)) ||
-								((tipoCeldaContigua == TipoCelda.PROVINCIA) || (tipoCeldaContigua == TipoCelda.TRONO) && celdaContigua.estaVacia())) {
-							contador++;
-						}
+		int jugadaAplicada = JugadaCompacta.codificar(origen, destino, capturas);
+		pilaJugadas[profundidad++] = jugadaAplicada;
 
+		cambiarTurno();
 
-					}
+		return jugadaAplicada;
+	}
 
+	/**
+	 * Deshace la última jugada aplicada con {@link #aplicarJugada(int)}, restaurando las piezas capturadas y el estado
+	 * del árbitro previo a la jugada.
+	 * <p>
+	 * Si no hay jugadas pendientes de deshacer no se realiza ninguna acción.
+	 */
+	public void deshacerJugada() {
 
-					if (contador == 2 && piezaContiguaMovidaUltimoMovimiento) {
+		if (profundidad == 0) {
+			return;
+		}
 
-						tablero.eliminarPieza(celda.consultarCoordenada());
+		profundidad--;
 
-					}
+		int jugada = pilaJugadas[profundidad];
 
-				}
+		Celda celdaOrigen = tablero.obtenerCelda(TableroBinario.consultarCoordenada(JugadaCompacta.consultarOrigen(jugada)));
+		Celda celdaDestino = tablero.obtenerCelda(TableroBinario.consultarCoordenada(JugadaCompacta.consultarDestino(jugada)));
 
-			}
+		celdaOrigen.colocar(celdaDestino.consultarPieza());
+		celdaDestino.eliminarPieza();
 
+		int posicion = profundidad * Reglas.NUMERO_SENTIDOS;
+
+		for (long pendientes = JugadaCompacta.consultarCapturas(jugada); pendientes != 0; pendientes &= pendientes - 1) {
+
+			Celda celdaCapturada = tablero.obtenerCelda(TableroBinario.consultarCoordenada(Long.numberOfTrailingZeros(pendientes)));
+			celdaCapturada.colocar(pilaPiezasCapturadas[posicion]);
+			pilaPiezasCapturadas[posicion++] = null;
 		}
 
+		turno = pilaTurnos[profundidad];
+		piezaUltimoMovimiento = pilaPiezasUltimoMovimiento[profundidad];
+		celdaUltimoMovimiento = pilaCeldasUltimoMovimiento[profundidad];
+		contadorJugadas = pilaContadoresJugadas[profundidad];
+
+		pilaPiezasUltimoMovimiento[profundidad] = null;
+		pilaCeldasUltimoMovimiento[profundidad] = null;
 	}
 
-}
+	/**
+	 * Devuelve el número de jugadas aplicadas con {@link #aplicarJugada(int)} pendientes de deshacer.
+	 *
+	 * @return Número de jugadas que pueden deshacerse.
+	 */
+	public int consultarJugadasReversibles() {
+		return profundidad;
+	}
+
+	/**
+	 * Duplica la capacidad de las pilas de jugadas reversibles.
+	 */
+	private void ampliarPila() {
+
+		int capacidad = pilaJugadas.length * 2;
 
+		pilaJugadas = Arrays.copyOf(pilaJugadas, capacidad);
+		pilaTurnos = Arrays.copyOf(pilaTurnos, capacidad);
+		pilaPiezasUltimoMovimiento = Arrays.copyOf(pilaPiezasUltimoMovimiento, capacidad);
+		pilaCeldasUltimoMovimiento = Arrays.copyOf(pilaCeldasUltimoMovimiento, capacidad);
+		pilaContadoresJugadas = Arrays.copyOf(pilaContadoresJugadas, capacidad);
+		pilaPiezasCapturadas = Arrays.copyOf(pilaPiezasCapturadas, capacidad * Reglas.NUMERO_SENTIDOS);
+	}
+
+}
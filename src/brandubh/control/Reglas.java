@@ -0,0 +1,337 @@
+/**
+ * Gestión de las reglas.
+ * <p>
+ * Definición de la lógica del juego y coordinación del resto de objetos, comprobando la legalidad de las jugadas,
+ * realizando los movimientos si son legales, completando las capturas, gestionando el cambio de turno, la
+ * comprobación de situaciones de finalización de la partida y retroceder el estado de una partida.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.control;
+
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.Sentido;
+
+/**
+ * Reglas del Brandubh evaluadas directamente sobre un tablero binario.
+ * <p>
+ * Recoge las comprobaciones del árbitro en forma de métodos estáticos que trabajan con índices de celda y mapas de
+ * bits, sin crear objetos, de modo que puedan emplearse tanto desde el árbitro como desde cualquier componente que
+ * necesite aplicar las reglas a gran velocidad.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.modelo.TableroBinario
+ */
+public final class Reglas {
+
+	/**
+	 * Número de sentidos en los que se puede desplazar una pieza.
+	 */
+	static final int NUMERO_SENTIDOS = 4;
+
+	/**
+	 * Máscaras precalculadas con las celdas contiguas a cada celda agrupadas por eje: en la posición {@code 0} las
+	 * contiguas en vertical y en la posición {@code 1} las contiguas en horizontal.
+	 */
+	private static final long[][] CONTIGUAS_POR_EJE = new long[TableroBinario.NUMERO_CELDAS][2];
+
+	/**
+	 * Rayos precalculados para cada celda y sentido: máscaras con las celdas que se recorren desde la celda (sin 
+	 * incluirla) hasta el borde del tablero.
+	 */
+	private static final long[][] RAYOS = new long[TableroBinario.NUMERO_CELDAS][NUMERO_SENTIDOS];
+
+	/** Posición del sentido norte (índices decrecientes) en los rayos precalculados. */
+	private static final int NORTE = Sentido.VERTICAL_N.ordinal();
+
+	/** Posición del sentido sur (índices crecientes) en los rayos precalculados. */
+	private static final int SUR = Sentido.VERTICAL_S.ordinal();
+
+	/** Posición del sentido este (índices crecientes) en los rayos precalculados. */
+	private static final int ESTE = Sentido.HORIZONTAL_E.ordinal();
+
+	/** Posición del sentido oeste (índices decrecientes) en los rayos precalculados. */
+	private static final int OESTE = Sentido.HORIZONTAL_O.ordinal();
+
+	/**
+	 * Número máximo de movimientos legales en cualquier posición.
+	 * <p>
+	 * Cada celda vacía solo puede alcanzarse desde la pieza más próxima en cada uno de los cuatro sentidos, por lo que
+	 * nunca hay más de {@code 4 * 48} movimientos.
+	 */
+	public static final int MAXIMO_MOVIMIENTOS = NUMERO_SENTIDOS * (TableroBinario.NUMERO_CELDAS - 1);
+
+	/**
+	 * Máscara con las celdas en las que únicamente puede detenerse el rey.
+	 */
+	private static final long RESERVADAS_AL_REY = TableroBinario.TRONO | TableroBinario.PROVINCIA;
+
+	static {
+		for (int indice = 0; indice < TableroBinario.NUMERO_CELDAS; indice++) {
+			for (int sentido = 0; sentido < NUMERO_SENTIDOS; sentido++) {
+
+				int contigua = TableroBinario.consultarContigua(indice, sentido);
+
+				if (contigua >= 0) {
+					CONTIGUAS_POR_EJE[indice][sentido / 2] |= 1L << contigua;
+				}
+
+				for (int celda = contigua; celda >= 0; celda = TableroBinario.consultarContigua(celda, sentido)) {
+					RAYOS[indice][sentido] |= 1L << celda;
+				}
+			}
+		}
+	}
+
+	/** Oculta el constructor por defecto. */
+	private Reglas() {
+	}
+
+	/**
+	 * Calcula las piezas capturadas tras mover una pieza a la celda de destino indicada.
+	 * <p>
+	 * Solo pueden ser capturadas las piezas contiguas a la celda de destino. Una pieza (que no sea el rey) contigua y
+	 * de color contrario a la pieza movida es capturada si en la celda opuesta, en la misma dirección, hay una pieza de
+	 * color contrario al suyo, una celda de tipo provincia o el trono vacío.
+	 * <p>
+	 * El tablero no se modifica.
+	 *
+	 * @param tablero Tablero binario sobre el que se ha realizado el movimiento.
+	 * @param destino Índice de la celda de destino del último movimiento.
+	 * @return Máscara de bits con las celdas de las piezas capturadas ({@code 0} si no hay capturas).
+	 */
+	public static long calcularCapturas(TableroBinario tablero, int destino) {
+
+		Color colorMovida = tablero.consultarColorDePieza(destino);
+
+		if (colorMovida == null) {
+			return 0L;
+		}
+
+		long propias = tablero.consultarPiezas(colorMovida);
+		long capturables = tablero.consultarPiezas(colorMovida.consultarContrario()) & ~tablero.consultarRey();
+		long hostiles = propias | TableroBinario.PROVINCIA | (TableroBinario.TRONO & ~tablero.consultarOcupadas());
+
+		long capturas = 0L;
+
+		for (int sentido = 0; sentido < NUMERO_SENTIDOS; sentido++) {
+
+			int contigua = TableroBinario.consultarContigua(destino, sentido);
+
+			if (contigua < 0 || (capturables & (1L << contigua)) == 0) {
+				continue;
+			}
+
+			int opuesta = TableroBinario.consultarContigua(contigua, sentido);
+
+			if (opuesta >= 0 && (hostiles & (1L << opuesta)) != 0) {
+				capturas |= 1L << contigua;
+			}
+		}
+
+		return capturas;
+	}
+
+	/**
+	 * Aplica una jugada sobre el tablero binario: desplaza la pieza y retira las piezas capturadas, con el mismo 
+	 * resultado que {@link Arbitro#mover(brandubh.modelo.Jugada)} seguido de {@link Arbitro#realizarCapturasTrasMover()}.
+	 * <p>
+	 * No se comprueba la legalidad de la jugada ni se crean objetos, por lo que es adecuado para simulaciones y 
+	 * recorridos exhaustivos sobre copias ligeras del tablero.
+	 *
+	 * @param tablero Tablero binario sobre el que se aplica la jugada.
+	 * @param jugada Jugada codificada.
+	 * @return Jugada codificada con las marcas de las piezas capturadas.
+	 * @see brandubh.modelo.JugadaCompacta
+	 */
+	public static int aplicarJugada(TableroBinario tablero, int jugada) {
+
+		int origen = JugadaCompacta.consultarOrigen(jugada);
+		int destino = JugadaCompacta.consultarDestino(jugada);
+
+		tablero.mover(origen, destino);
+
+		long capturas = calcularCapturas(tablero, destino);
+
+		for (long pendientes = capturas; pendientes != 0; pendientes &= pendientes - 1) {
+			tablero.eliminarPieza(Long.numberOfTrailingZeros(pendientes));
+		}
+
+		return capturas == 0 ? JugadaCompacta.codificar(origen, destino)
+				: JugadaCompacta.codificar(origen, destino, capturas);
+	}
+
+	/**
+	 * Comprueba si ha ganado el jugador atacante tras el último movimiento.
+	 * <p>
+	 * La posición del rey se obtiene directamente de su mapa de bits, que se mantiene actualizado con cada colocación
+	 * o eliminación de piezas, por lo que la comprobación se realiza en tiempo constante. El atacante gana si:
+	 * <ul>
+	 * <li>el rey está en el trono rodeado por cuatro atacantes,</li>
+	 * <li>el rey está contiguo al trono rodeado por tres atacantes, o</li>
+	 * <li>el rey está fuera del trono y la pieza movida lo encierra en horizontal o vertical contra otro atacante o
+	 * contra una provincia.</li>
+	 * </ul>
+	 *
+	 * @param tablero Tablero binario sobre el que se ha realizado el movimiento.
+	 * @param destino Índice de la celda de destino del último movimiento.
+	 * @return Valor de tipo {@code boolean}: {@code true} si el atacante ha ganado y {@code false} en caso contrario.
+	 */
+	public static boolean haGanadoAtacante(TableroBinario tablero, int destino) {
+
+		long atacantes = tablero.consultarAtacantes();
+
+		if ((atacantes & (1L << destino)) == 0) {
+			return false;
+		}
+
+		int rey = tablero.consultarIndiceRey();
+
+		if (rey < 0) {
+			return false;
+		}
+
+		long contiguas = TableroBinario.consultarContiguas(rey);
+		int atacantesContiguos = Long.bitCount(contiguas & atacantes);
+
+		// Rey en el trono
+		if (rey == TableroBinario.INDICE_TRONO) {
+			return atacantesContiguos == 4;
+		}
+
+		// Rey colindante al trono
+		if ((contiguas & TableroBinario.TRONO) != 0 && atacantesContiguos == 3) {
+			return true;
+		}
+
+		// Rey en el resto del tablero
+		long hostiles = atacantes | TableroBinario.PROVINCIA;
+
+		for (long eje : CONTIGUAS_POR_EJE[rey]) {
+
+			if ((eje & (1L << destino)) != 0 && Long.bitCount(eje & hostiles) == 2) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Comprueba si ha ganado el jugador defensor (rey) tras el último movimiento, esto es, si el rey ha alcanzado una
+	 * provincia.
+	 *
+	 * @param tablero Tablero binario sobre el que se ha realizado el movimiento.
+	 * @param destino Índice de la celda de destino del último movimiento.
+	 * @return Valor de tipo {@code boolean}: {@code true} si el defensor (rey) ha ganado y {@code false} en caso contrario.
+	 */
+	public static boolean haGanadoRey(TableroBinario tablero, int destino) {
+		return (tablero.consultarRey() & TableroBinario.PROVINCIA & (1L << destino)) != 0;
+	}
+
+	/**
+	 * Genera todos los movimientos legales de las piezas del color indicado y los almacena codificados en el array
+	 * proporcionado.
+	 * <p>
+	 * Las piezas se desplazan en horizontal o vertical por celdas vacías. Solo el rey puede detenerse en el trono o en
+	 * una provincia, aunque el resto de piezas pueden atravesar el trono si está vacío.
+	 * <p>
+	 * Las celdas alcanzables en cada sentido se obtienen sin recorrer el rayo celda a celda: la primera pieza que lo 
+	 * bloquea se localiza con una única operación de bits y se descartan las celdas situadas a partir de ella.
+	 *
+	 * @param tablero Tablero binario con la posición actual.
+	 * @param turno Color de las piezas que mueven.
+	 * @param movimientos Array en el que se almacenan los movimientos codificados. Debe tener capacidad para al menos
+	 * {@link #MAXIMO_MOVIMIENTOS} elementos.
+	 * @return Número de movimientos legales generados.
+	 * @see brandubh.modelo.JugadaCompacta
+	 */
+	public static int generarMovimientos(TableroBinario tablero, Color turno, int[] movimientos) {
+
+		long ocupadas = tablero.consultarOcupadas();
+		long piezas = tablero.consultarPiezas(turno);
+		long rey = tablero.consultarRey();
+		int numero = 0;
+
+		while (piezas != 0) {
+
+			int origen = Long.numberOfTrailingZeros(piezas);
+			piezas &= piezas - 1;
+
+			for (long destinos = calcularDestinos(ocupadas, rey, origen); destinos != 0; destinos &= destinos - 1) {
+				movimientos[numero++] = JugadaCompacta.codificar(origen, Long.numberOfTrailingZeros(destinos));
+			}
+		}
+
+		return numero;
+	}
+
+	/**
+	 * Calcula las celdas a las que puede desplazarse legalmente la pieza situada en la celda indicada.
+	 *
+	 * @param tablero Tablero binario con la posición actual.
+	 * @param origen Índice de la celda de la pieza.
+	 * @return Máscara de bits con las celdas de destino legales ({@code 0} si la celda está vacía o la pieza no puede 
+	 * moverse).
+	 */
+	public static long calcularDestinos(TableroBinario tablero, int origen) {
+
+		if (tablero.estaVacia(origen)) {
+			return 0L;
+		}
+
+		return calcularDestinos(tablero.consultarOcupadas(), tablero.consultarRey(), origen);
+	}
+
+	/**
+	 * Calcula las celdas a las que puede desplazarse legalmente una pieza a partir de las máscaras de celdas ocupadas
+	 * y del rey.
+	 *
+	 * @param ocupadas Máscara de celdas ocupadas.
+	 * @param rey Máscara de la celda del rey.
+	 * @param origen Índice de la celda de la pieza.
+	 * @return Máscara de bits con las celdas de destino legales.
+	 */
+	private static long calcularDestinos(long ocupadas, long rey, int origen) {
+
+		long permitidas = ((rey & (1L << origen)) != 0) ? -1L : ~RESERVADAS_AL_REY;
+		long[] rayos = RAYOS[origen];
+
+		return (recortarCreciente(rayos[SUR], ocupadas) | recortarCreciente(rayos[ESTE], ocupadas)
+				| recortarDecreciente(rayos[NORTE], ocupadas) | recortarDecreciente(rayos[OESTE], ocupadas))
+				& permitidas;
+	}
+
+	/**
+	 * Devuelve las celdas alcanzables de un rayo en sentido de índices crecientes: las anteriores a la primera celda
+	 * ocupada, que es la de menor índice.
+	 *
+	 * @param rayo Máscara del rayo.
+	 * @param ocupadas Máscara de celdas ocupadas.
+	 * @return Máscara de celdas alcanzables.
+	 */
+	private static long recortarCreciente(long rayo, long ocupadas) {
+		long bloqueadoras = rayo & ocupadas;
+		return rayo & ((bloqueadoras & -bloqueadoras) - 1);
+	}
+
+	/**
+	 * Devuelve las celdas alcanzables de un rayo en sentido de índices decrecientes: las posteriores a la primera celda
+	 * ocupada, que es la de mayor índice.
+	 *
+	 * @param rayo Máscara del rayo.
+	 * @param ocupadas Máscara de celdas ocupadas.
+	 * @return Máscara de celdas alcanzables.
+	 */
+	private static long recortarDecreciente(long rayo, long ocupadas) {
+		long bloqueadoras = rayo & ocupadas;
+		return bloqueadoras == 0 ? rayo : rayo & -(Long.highestOneBit(bloqueadoras) << 1);
+	}
+
+}
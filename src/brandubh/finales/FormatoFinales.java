@@ -0,0 +1,321 @@
+/**
+ * Tablas de finales.
+ * <p>
+ * Paquete con la generación por análisis retrógrado de las tablas de finales con pocas piezas, su indexación 
+ * perfecta y su formato en disco.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.finales;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato de los valores y de los ficheros de las tablas de finales.
+ * <p>
+ * El valor de una posición ocupa un byte: {@link #TABLAS} si ninguno de los jugadores puede forzar la victoria, o la 
+ * distancia en jugadas (medias jugadas) hasta el final de la partida con juego perfecto más uno. Como el jugador con 
+ * el turno realiza las jugadas impares, una distancia impar es una victoria del jugador con el turno (la más corta 
+ * posible) y una distancia par, una derrota (la más larga posible). Una derrota a distancia {@code 0} corresponde al 
+ * jugador con el turno sin movimientos legales.
+ * <p>
+ * Cada tabla se guarda en un fichero con el siguiente formato, con los enteros en orden de bytes 
+ * <em>big-endian</em>:
+ * <ul>
+ * <li>cabecera de {@link #CABECERA} bytes: marca ({@link #MARCA}, 4 bytes), versión (4 bytes), número de atacantes 
+ * (4 bytes), número de defensores (4 bytes), número de posiciones (8 bytes), posiciones por bloque (4 bytes) y 
+ * número de bloques (4 bytes),</li>
+ * <li>posición en el fichero del inicio de cada bloque y del final del último (8 bytes cada una), y</li>
+ * <li>los valores de cada bloque de {@link #POSICIONES_BLOQUE} posiciones consecutivas, comprimidos por separado con 
+ * <em>Deflate</em>.</li>
+ * </ul>
+ * El fichero puede proyectarse en memoria y descomprimirse bloque a bloque, sin leer la tabla completa.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.finales.MaterialFinal
+ */
+public final class FormatoFinales {
+
+	/**
+	 * Marca de inicio del fichero de una tabla ({@code "BRTB"} en ASCII).
+	 */
+	public static final int MARCA = 0x42525442;
+
+	/**
+	 * Versión del formato.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Bytes de la cabecera del fichero.
+	 */
+	public static final int CABECERA = 32;
+
+	/**
+	 * Número de posiciones de cada bloque comprimido.
+	 */
+	public static final int POSICIONES_BLOQUE = 1 << 16;
+
+	/**
+	 * Valor de las posiciones en tablas.
+	 */
+	public static final byte TABLAS = 0;
+
+	/**
+	 * Distancia máxima en jugadas que puede representarse.
+	 */
+	public static final int DISTANCIA_MAXIMA = 254;
+
+	/**
+	 * Extensión de los ficheros de las tablas.
+	 */
+	public static final String EXTENSION = ".fin";
+
+	/**
+	 * Posición en la cabecera del número de posiciones.
+	 */
+	private static final int POSICION_NUMERO_POSICIONES = 16;
+
+	/**
+	 * Posición en la cabecera del número de posiciones por bloque.
+	 */
+	private static final int POSICION_POSICIONES_BLOQUE = 24;
+
+	/**
+	 * Posición en la cabecera del número de bloques.
+	 */
+	private static final int POSICION_NUMERO_BLOQUES = 28;
+
+	/** Oculta el constructor por defecto. */
+	private FormatoFinales() {
+	}
+
+	/**
+	 * Codifica el valor de una posición que termina a la distancia indicada.
+	 *
+	 * @param distancia Número de jugadas hasta el final de la partida.
+	 * @return Valor de la posición.
+	 * @throws IllegalArgumentException Si la distancia es negativa o mayor que {@link #DISTANCIA_MAXIMA}.
+	 */
+	public static byte codificar(int distancia) {
+
+		if (distancia < 0 || distancia > DISTANCIA_MAXIMA) {
+			throw new IllegalArgumentException("Distancia no representable: " + distancia);
+		}
+
+		return (byte) (distancia + 1);
+	}
+
+	/**
+	 * Devuelve la distancia hasta el final de la partida de un valor.
+	 *
+	 * @param valor Valor de una posición.
+	 * @return Número de jugadas hasta el final de la partida, o {@code -1} si la posición es de tablas.
+	 */
+	public static int consultarDistancia(byte valor) {
+		return (valor & 0xFF) - 1;
+	}
+
+	/**
+	 * Comprueba si un valor es una victoria del jugador con el turno.
+	 *
+	 * @param valor Valor de una posición.
+	 * @return Valor de tipo {@code boolean}: {@code true} si el jugador con el turno puede forzar la victoria y 
+	 * {@code false} en caso contrario.
+	 */
+	public static boolean esVictoria(byte valor) {
+		return valor != TABLAS && (consultarDistancia(valor) & 1) == 1;
+	}
+
+	/**
+	 * Comprueba si un valor es una derrota del jugador con el turno.
+	 *
+	 * @param valor Valor de una posición.
+	 * @return Valor de tipo {@code boolean}: {@code true} si el rival puede forzar la victoria y {@code false} en caso 
+	 * contrario.
+	 */
+	public static boolean esDerrota(byte valor) {
+		return valor != TABLAS && (consultarDistancia(valor) & 1) == 0;
+	}
+
+	/**
+	 * Devuelve el nombre del fichero de la tabla de un material.
+	 *
+	 * @param material Material de la tabla.
+	 * @return Nombre del fichero, por ejemplo {@code A2D1.fin}.
+	 */
+	public static String consultarNombreFichero(MaterialFinal material) {
+		return material + EXTENSION;
+	}
+
+	/**
+	 * Devuelve el número de bloques de una tabla.
+	 *
+	 * @param posiciones Número de posiciones de la tabla.
+	 * @return Número de bloques comprimidos.
+	 */
+	public static int consultarNumeroBloques(long posiciones) {
+		return (int) ((posiciones + POSICIONES_BLOQUE - 1) / POSICIONES_BLOQUE);
+	}
+
+	/**
+	 * Escribe la tabla de un material en un fichero.
+	 *
+	 * @param fichero Ruta del fichero, que se sobrescribe si existe.
+	 * @param material Material de la tabla.
+	 * @param valores Valores de todas las posiciones del material, por índice.
+	 * @throws IOException Si no puede escribirse el fichero.
+	 * @throws IllegalArgumentException Si el número de valores no coincide con el de posiciones del material.
+	 */
+	public static void escribir(Path fichero, MaterialFinal material, byte[] valores) throws IOException {
+
+		if (valores.length != material.consultarNumeroPosiciones()) {
+			throw new IllegalArgumentException("La tabla de " + material + " debería tener "
+					+ material.consultarNumeroPosiciones() + " valores.");
+		}
+
+		int bloques = consultarNumeroBloques(valores.length);
+		ByteBuffer indice = ByteBuffer.allocate(CABECERA + (bloques + 1) * Long.BYTES);
+		indice.putInt(MARCA).putInt(VERSION).putInt(material.consultarAtacantes())
+				.putInt(material.consultarDefensores()).putLong(valores.length).putInt(POSICIONES_BLOQUE)
+				.putInt(bloques);
+
+		Deflater compresor = new Deflater(Deflater.BEST_COMPRESSION);
+		byte[] comprimido = new byte[POSICIONES_BLOQUE + POSICIONES_BLOQUE / 8 + 64];
+
+		try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			long posicion = indice.capacity();
+			canal.position(posicion);
+
+			for (int bloque = 0; bloque < bloques; bloque++) {
+
+				int inicio = bloque * POSICIONES_BLOQUE;
+				compresor.reset();
+				compresor.setInput(valores, inicio, Math.min(POSICIONES_BLOQUE, valores.length - inicio));
+				compresor.finish();
+
+				int longitud = 0;
+				while (!compresor.finished()) {
+					if (longitud == comprimido.length) {
+						comprimido = Arrays.copyOf(comprimido, comprimido.length * 2);
+					}
+					longitud += compresor.deflate(comprimido, longitud, comprimido.length - longitud);
+				}
+
+				indice.putLong(posicion);
+				canal.write(ByteBuffer.wrap(comprimido, 0, longitud));
+				posicion += longitud;
+			}
+
+			indice.putLong(posicion);
+			canal.write(indice.flip(), 0);
+		} finally {
+			compresor.end();
+		}
+	}
+
+	/**
+	 * Proyecta en memoria el fichero de la tabla de un material, comprobando su cabecera.
+	 *
+	 * @param fichero Ruta del fichero.
+	 * @param material Material esperado de la tabla.
+	 * @return Fichero proyectado en memoria.
+	 * @throws IOException Si no puede proyectarse el fichero o no es una tabla del material.
+	 */
+	public static MappedByteBuffer proyectar(Path fichero, MaterialFinal material) throws IOException {
+
+		try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+
+			MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+
+			if (mapa.capacity() < CABECERA || mapa.getInt(0) != MARCA || mapa.getInt(4) != VERSION
+					|| mapa.getInt(8) != material.consultarAtacantes() || mapa.getInt(12) != material.consultarDefensores()
+					|| mapa.getLong(POSICION_NUMERO_POSICIONES) != material.consultarNumeroPosiciones()
+					|| mapa.getInt(POSICION_POSICIONES_BLOQUE) != POSICIONES_BLOQUE) {
+				throw new IOException("No es una tabla de finales de " + material + ": " + fichero);
+			}
+
+			int bloques = mapa.getInt(POSICION_NUMERO_BLOQUES);
+			if (mapa.capacity() < CABECERA + (bloques + 1L) * Long.BYTES
+					|| mapa.getLong(CABECERA + bloques * Long.BYTES) != canal.size()) {
+				throw new IOException("Tabla de finales incompleta: " + fichero);
+			}
+
+			return mapa;
+		}
+	}
+
+	/**
+	 * Descomprime un bloque de una tabla proyectada en memoria.
+	 *
+	 * @param mapa Fichero de la tabla proyectado en memoria. No se modifica su posición.
+	 * @param bloque Número del bloque.
+	 * @param destino Array en el que se descomprimen los valores, con capacidad para {@link #POSICIONES_BLOQUE}.
+	 * @return Número de valores del bloque.
+	 * @throws IllegalStateException Si el bloque está dañado.
+	 */
+	public static int descomprimir(ByteBuffer mapa, int bloque, byte[] destino) {
+
+		long inicio = mapa.getLong(CABECERA + bloque * Long.BYTES);
+		long fin = mapa.getLong(CABECERA + (bloque + 1) * Long.BYTES);
+		Inflater descompresor = new Inflater();
+
+		try {
+			descompresor.setInput(mapa.slice((int) inicio, (int) (fin - inicio)));
+			int longitud = 0;
+			while (!descompresor.finished() && longitud < destino.length) {
+				int leidos = descompresor.inflate(destino, longitud, destino.length - longitud);
+				if (leidos == 0 && (descompresor.needsInput() || descompresor.needsDictionary())) {
+					throw new IllegalStateException("Bloque " + bloque + " de la tabla de finales incompleto.");
+				}
+				longitud += leidos;
+			}
+			return longitud;
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Bloque " + bloque + " de la tabla de finales dañado.", e);
+		} finally {
+			descompresor.end();
+		}
+	}
+
+	/**
+	 * Lee la tabla completa de un material.
+	 *
+	 * @param fichero Ruta del fichero.
+	 * @param material Material de la tabla.
+	 * @return Valores de todas las posiciones del material, por índice.
+	 * @throws IOException Si no puede leerse el fichero o no es una tabla del material.
+	 */
+	public static byte[] leer(Path fichero, MaterialFinal material) throws IOException {
+
+		MappedByteBuffer mapa = proyectar(fichero, material);
+		byte[] valores = new byte[(int) material.consultarNumeroPosiciones()];
+		byte[] bloque = new byte[POSICIONES_BLOQUE];
+
+		try {
+			for (int i = 0; i < mapa.getInt(POSICION_NUMERO_BLOQUES); i++) {
+				int longitud = descomprimir(mapa, i, bloque);
+				System.arraycopy(bloque, 0, valores, i * POSICIONES_BLOQUE, longitud);
+			}
+		} catch (IllegalStateException e) {
+			throw new IOException("Tabla de finales dañada: " + fichero, e);
+		}
+
+		return valores;
+	}
+
+}
@@ -0,0 +1,439 @@
+/**
+ * Tablas de finales.
+ * <p>
+ * Paquete con la generación por análisis retrógrado de las tablas de finales con pocas piezas, su indexación 
+ * perfecta y su formato en disco.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.finales;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.EjecutorTareas;
+
+/**
+ * Generador de tablas de finales por análisis retrógrado.
+ * <p>
+ * Resuelve todas las posiciones con el rey y hasta un número de piezas dado, material a material y de menos a más 
+ * piezas, ya que una captura siempre lleva a un material con menos piezas cuya tabla ya está completa. Dentro de 
+ * cada material, las posiciones se resuelven por capas de distancia creciente: en la pasada {@code n} se asignan las 
+ * posiciones que terminan exactamente en {@code n} jugadas, que son
+ * <ul>
+ * <li>con {@code n = 0}, las del jugador con el turno sin movimientos legales (derrota),</li>
+ * <li>con {@code n} impar, las que tienen una jugada ganadora ({@code n = 1}) o una jugada que lleva a una derrota 
+ * del rival a distancia {@code n - 1} (victoria), y</li>
+ * <li>con {@code n} par, aquellas en las que todas las jugadas llevan a una victoria del rival, la más lejana a 
+ * distancia {@code n - 1} (derrota).</li>
+ * </ul>
+ * Las capturas y las condiciones de victoria se comprueban con las mismas reglas que aplica el árbitro ({@link Reglas}). Las 
+ * posiciones que quedan sin asignar cuando ninguna capa puede crecer son tablas; el límite de jugadas de una 
+ * partida no se tiene en cuenta.
+ * <p>
+ * Cada pasada se reparte entre varios hilos por tramos de índices. Los valores asignados en una pasada nunca 
+ * influyen en las decisiones de la misma pasada (una pasada impar solo consulta derrotas anteriores y una par, 
+ * victorias anteriores), por lo que los hilos escriben en la tabla sin sincronizarse.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.finales.MaterialFinal
+ * @see brandubh.finales.FormatoFinales
+ */
+public class GeneradorFinales {
+
+	/**
+	 * Número máximo de piezas, incluido el rey, cuyas tablas caben en un array.
+	 */
+	public static final int MAXIMO_PIEZAS = 6;
+
+	/**
+	 * Número máximo de piezas, incluido el rey.
+	 */
+	private final int maximoPiezas;
+
+	/**
+	 * Número de hilos de la generación.
+	 */
+	private final int hilos;
+
+	/**
+	 * Materiales por número de atacantes y de defensores.
+	 */
+	private final MaterialFinal[][] materiales;
+
+	/**
+	 * Valores de las posiciones de cada material, por número de atacantes y de defensores.
+	 */
+	private final byte[][][] valores;
+
+	/**
+	 * Distancia máxima de las victorias y derrotas de cada material.
+	 */
+	private final int[][] distancias;
+
+	/**
+	 * Constructor para la clase {@code GeneradorFinales}.
+	 *
+	 * @param maximoPiezas Número máximo de piezas, incluido el rey, entre {@code 1} y {@link #MAXIMO_PIEZAS}.
+	 * @param hilos Número de hilos (al menos {@code 1}).
+	 * @throws IllegalArgumentException Si el número de piezas no está en el rango admitido.
+	 */
+	public GeneradorFinales(int maximoPiezas, int hilos) {
+
+		if (maximoPiezas < 1 || maximoPiezas > MAXIMO_PIEZAS) {
+			throw new IllegalArgumentException("Número de piezas fuera de rango: " + maximoPiezas);
+		}
+
+		this.maximoPiezas = maximoPiezas;
+		this.hilos = Math.max(1, hilos);
+		this.materiales = new MaterialFinal[maximoPiezas][maximoPiezas];
+		this.valores = new byte[maximoPiezas][maximoPiezas][];
+		this.distancias = new int[maximoPiezas][maximoPiezas];
+
+		for (int atacantes = 0; atacantes < maximoPiezas; atacantes++) {
+			for (int defensores = 0; atacantes + defensores < maximoPiezas; defensores++) {
+				materiales[atacantes][defensores] = new MaterialFinal(atacantes, defensores);
+			}
+		}
+	}
+
+	/**
+	 * Devuelve el número máximo de piezas de las tablas, incluido el rey.
+	 *
+	 * @return Número máximo de piezas.
+	 */
+	public int consultarMaximoPiezas() {
+		return maximoPiezas;
+	}
+
+	/**
+	 * Devuelve los materiales de todas las tablas, en el orden en que se generan.
+	 *
+	 * @return Materiales de menos a más piezas y, a igualdad, de más a menos atacantes.
+	 */
+	public List<MaterialFinal> consultarMateriales() {
+
+		List<MaterialFinal> lista = new ArrayList<>();
+
+		for (int piezas = 0; piezas < maximoPiezas; piezas++) {
+			for (int atacantes = piezas; atacantes >= 0; atacantes--) {
+				lista.add(materiales[atacantes][piezas - atacantes]);
+			}
+		}
+
+		return lista;
+	}
+
+	/**
+	 * Genera todas las tablas.
+	 *
+	 * @throws IllegalStateException Si falla algún hilo, se interrumpe la espera o alguna distancia no es 
+	 * representable.
+	 */
+	public void generar() {
+
+		ForkJoinPool ejecutor = new ForkJoinPool(hilos);
+
+		try {
+			for (MaterialFinal material : consultarMateriales()) {
+				generar(ejecutor, material);
+			}
+		} finally {
+			ejecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Devuelve la tabla generada de un material.
+	 *
+	 * @param atacantes Número de atacantes.
+	 * @param defensores Número de defensores, sin contar el rey.
+	 * @return Valores de las posiciones por índice, o {@code null} si la tabla no se ha generado.
+	 */
+	public byte[] consultarValores(int atacantes, int defensores) {
+		return valores[atacantes][defensores];
+	}
+
+	/**
+	 * Devuelve la distancia máxima de las victorias y derrotas de un material.
+	 *
+	 * @param atacantes Número de atacantes.
+	 * @param defensores Número de defensores, sin contar el rey.
+	 * @return Distancia máxima en jugadas, o {@code -1} si todas las posiciones son tablas.
+	 */
+	public int consultarDistanciaMaxima(int atacantes, int defensores) {
+		return distancias[atacantes][defensores];
+	}
+
+	/**
+	 * Devuelve el valor de una posición en las tablas generadas.
+	 *
+	 * @param tablero Tablero binario con la posición, con rey fuera de las provincias.
+	 * @param turno Color del jugador con el turno.
+	 * @return Valor de la posición (véase {@link FormatoFinales}).
+	 * @throws IllegalArgumentException Si la posición tiene más piezas que las tablas.
+	 */
+	public byte consultarValor(TableroBinario tablero, Color turno) {
+
+		int atacantes = Long.bitCount(tablero.consultarAtacantes());
+		int defensores = Long.bitCount(tablero.consultarDefensores());
+
+		if (atacantes + defensores >= maximoPiezas) {
+			throw new IllegalArgumentException("Posición con demasiadas piezas para las tablas.");
+		}
+
+		return valores[atacantes][defensores][(int) materiales[atacantes][defensores].indexar(tablero, turno)];
+	}
+
+	/**
+	 * Escribe todas las tablas generadas en un directorio, un fichero por material.
+	 *
+	 * @param directorio Directorio de las tablas, que se crea si no existe.
+	 * @throws IOException Si no puede escribirse algún fichero.
+	 */
+	public void escribir(Path directorio) throws IOException {
+
+		Files.createDirectories(directorio);
+
+		for (MaterialFinal material : consultarMateriales()) {
+			FormatoFinales.escribir(directorio.resolve(FormatoFinales.consultarNombreFichero(material)), material,
+					valores[material.consultarAtacantes()][material.consultarDefensores()]);
+		}
+	}
+
+	/**
+	 * Genera las tablas hasta el número de piezas indicado y las escribe en un directorio.
+	 *
+	 * @param args número máximo de piezas (incluido el rey) y directorio de las tablas, opcionalmente precedidos de 
+	 * {@code -hilos n}
+	 * @throws IOException Si no puede escribirse alguna tabla.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		int hilos = Runtime.getRuntime().availableProcessors();
+		List<String> argumentos = new ArrayList<>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-hilos") && i + 1 < args.length) {
+				hilos = Integer.parseInt(args[++i]);
+			} else {
+				argumentos.add(args[i]);
+			}
+		}
+
+		GeneradorFinales generador = new GeneradorFinales(Integer.parseInt(argumentos.get(0)), hilos);
+		ForkJoinPool ejecutor = new ForkJoinPool(generador.hilos);
+
+		try {
+			for (MaterialFinal material : generador.consultarMateriales()) {
+
+				long inicio = System.nanoTime();
+				generador.generar(ejecutor, material);
+				long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+				byte[] tabla = generador.valores[material.consultarAtacantes()][material.consultarDefensores()];
+				long victorias = 0;
+				long derrotas = 0;
+				for (byte valor : tabla) {
+					victorias += FormatoFinales.esVictoria(valor) ? 1 : 0;
+					derrotas += FormatoFinales.esDerrota(valor) ? 1 : 0;
+				}
+
+				System.out.printf("%s: %d posiciones, %.1f%% victorias, %.1f%% derrotas, %.1f%% tablas, distancia "
+						+ "máxima %d, %d ms%n", material, tabla.length, 100.0 * victorias / tabla.length,
+						100.0 * derrotas / tabla.length, 100.0 * (tabla.length - victorias - derrotas) / tabla.length,
+						generador.distancias[material.consultarAtacantes()][material.consultarDefensores()],
+						milisegundos);
+			}
+		} finally {
+			ejecutor.shutdown();
+		}
+
+		generador.escribir(Path.of(argumentos.get(1)));
+	}
+
+	/**
+	 * Genera la tabla de un material, con las tablas de los materiales con menos piezas ya generadas.
+	 *
+	 * @param ejecutor Ejecutor de las pasadas.
+	 * @param material Material de la tabla.
+	 */
+	private void generar(ForkJoinPool ejecutor, MaterialFinal material) {
+
+		int atacantes = material.consultarAtacantes();
+		int defensores = material.consultarDefensores();
+		byte[] tabla = new byte[(int) material.consultarNumeroPosiciones()];
+		valores[atacantes][defensores] = tabla;
+
+		// Distancia máxima en las tablas alcanzables por captura
+		int anteriores = -1;
+		for (int a = 0; a <= atacantes; a++) {
+			for (int d = 0; d <= defensores; d++) {
+				if (a + d < atacantes + defensores) {
+					anteriores = Math.max(anteriores, distancias[a][d]);
+				}
+			}
+		}
+
+		int tareas = hilos * 4;
+		int maxima = -1;
+		boolean anteriorVacia = false;
+
+		for (int distancia = 0;; distancia++) {
+
+			if (distancia > FormatoFinales.DISTANCIA_MAXIMA) {
+				throw new IllegalStateException("Distancia no representable en la tabla de " + material + ".");
+			}
+
+			int capa = distancia;
+			long asignadas = 0;
+			for (long parcial : EjecutorTareas.ejecutar(ejecutor, tareas, tarea -> resolver(material, tabla, capa,
+					tabla.length * (long) tarea / tareas, tabla.length * (long) (tarea + 1) / tareas),
+					"la generación de las tablas de finales")) {
+				asignadas += parcial;
+			}
+
+			if (asignadas > 0) {
+				maxima = distancia;
+			} else if (anteriorVacia && distancia > anteriores + 1) {
+				break;
+			}
+			anteriorVacia = asignadas == 0;
+		}
+
+		distancias[atacantes][defensores] = maxima;
+	}
+
+	/**
+	 * Asigna las posiciones de un tramo de la tabla que terminan a la distancia indicada.
+	 *
+	 * @param material Material de la tabla.
+	 * @param tabla Valores de las posiciones del material.
+	 * @param distancia Distancia en jugadas de la pasada.
+	 * @param inicio Índice de la primera posición del tramo.
+	 * @param fin Índice siguiente a la última posición del tramo.
+	 * @return Número de posiciones asignadas.
+	 */
+	private long resolver(MaterialFinal material, byte[] tabla, int distancia, long inicio, long fin) {
+
+		TableroBinario vacio = new TableroBinario();
+		TableroBinario tablero = new TableroBinario();
+		TableroBinario auxiliar = new TableroBinario();
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		byte valor = FormatoFinales.codificar(distancia);
+		long asignadas = 0;
+
+		for (int indice = (int) inicio; indice < fin; indice++) {
+
+			if (tabla[indice] != FormatoFinales.TABLAS) {
+				continue;
+			}
+
+			tablero.copiar(vacio);
+			Color turno = material.colocar(indice, tablero);
+			int numero = Reglas.generarMovimientos(tablero, turno, movimientos);
+
+			boolean asignar;
+			if (distancia == 0) {
+				asignar = numero == 0;
+			} else if ((distancia & 1) == 1) {
+				asignar = buscarVictoria(tablero, turno, movimientos, numero, auxiliar, distancia);
+			} else {
+				asignar = numero > 0 && comprobarDerrota(tablero, turno, movimientos, numero, auxiliar, distancia);
+			}
+
+			if (asignar) {
+				tabla[indice] = valor;
+				asignadas++;
+			}
+		}
+
+		return asignadas;
+	}
+
+	/**
+	 * Comprueba si el jugador con el turno gana exactamente a la distancia indicada, que es impar: con una jugada 
+	 * ganadora si la distancia es {@code 1}, o con una jugada que lleva a una derrota del rival a una jugada menos.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @param turno Color del jugador con el turno.
+	 * @param movimientos Movimientos legales de la posición.
+	 * @param numero Número de movimientos legales.
+	 * @param auxiliar Tablero binario auxiliar.
+	 * @param distancia Distancia de la pasada.
+	 * @return Valor de tipo {@code boolean}: {@code true} si la posición es una victoria a la distancia indicada y 
+	 * {@code false} en caso contrario.
+	 */
+	private boolean buscarVictoria(TableroBinario tablero, Color turno, int[] movimientos, int numero,
+			TableroBinario auxiliar, int distancia) {
+
+		for (int i = 0; i < numero; i++) {
+
+			auxiliar.copiar(tablero);
+			int destino = JugadaCompacta.consultarDestino(Reglas.aplicarJugada(auxiliar, movimientos[i]));
+
+			if (Reglas.haGanadoRey(auxiliar, destino) || Reglas.haGanadoAtacante(auxiliar, destino)) {
+				if (distancia == 1) {
+					return true;
+				}
+				continue;
+			}
+
+			byte siguiente = consultarValor(auxiliar, turno.consultarContrario());
+			if (FormatoFinales.esDerrota(siguiente) && FormatoFinales.consultarDistancia(siguiente) == distancia - 1) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Comprueba si el jugador con el turno pierde exactamente a la distancia indicada, que es par: todas las jugadas 
+	 * llevan a una victoria del rival, la más lejana a una jugada menos.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @param turno Color del jugador con el turno.
+	 * @param movimientos Movimientos legales de la posición.
+	 * @param numero Número de movimientos legales (al menos uno).
+	 * @param auxiliar Tablero binario auxiliar.
+	 * @param distancia Distancia de la pasada.
+	 * @return Valor de tipo {@code boolean}: {@code true} si la posición es una derrota a la distancia indicada y 
+	 * {@code false} en caso contrario.
+	 */
+	private boolean comprobarDerrota(TableroBinario tablero, Color turno, int[] movimientos, int numero,
+			TableroBinario auxiliar, int distancia) {
+
+		int maxima = -1;
+
+		for (int i = 0; i < numero; i++) {
+
+			auxiliar.copiar(tablero);
+			int destino = JugadaCompacta.consultarDestino(Reglas.aplicarJugada(auxiliar, movimientos[i]));
+
+			if (Reglas.haGanadoRey(auxiliar, destino) || Reglas.haGanadoAtacante(auxiliar, destino)) {
+				return false;
+			}
+
+			byte siguiente = consultarValor(auxiliar, turno.consultarContrario());
+			if (!FormatoFinales.esVictoria(siguiente)) {
+				return false;
+			}
+			maxima = Math.max(maxima, FormatoFinales.consultarDistancia(siguiente));
+		}
+
+		return maxima == distancia - 1;
+	}
+
+}
@@ -0,0 +1,345 @@
+/**
+ * Tablas de finales.
+ * <p>
+ * Paquete con la generación por análisis retrógrado de las tablas de finales con pocas piezas, su indexación 
+ * perfecta y su formato en disco.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.finales;
+
+import java.util.Arrays;
+
+import brandubh.modelo.Simetria;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Material de un final (el rey junto con un número de atacantes y de defensores) y su función de indexación 
+ * perfecta.
+ * <p>
+ * Cada posición con el material se asocia a un índice entre {@code 0} y {@link #consultarNumeroPosiciones()} 
+ * {@code - 1} sin colisiones ni huecos:
+ * <ul>
+ * <li>la posición se lleva mediante una {@link Simetria} a otra equivalente con el rey en el octante del tablero 
+ * formado por las celdas {@code (fila, columna)} con {@code fila <= columna <= 3} (nueve celdas, sin la provincia),</li>
+ * <li>los atacantes se numeran como combinación de las celdas que no son provincia, trono ni la del rey, con el 
+ * sistema combinatorio de numeración,</li>
+ * <li>los defensores se numeran igual entre las celdas que quedan libres, y</li>
+ * <li>el bit menos significativo es el turno (el ordinal de su {@link Color}).</li>
+ * </ul>
+ * Las posiciones con el rey sobre un eje de simetría del octante aparecen dos veces, una por cada imagen, con el 
+ * mismo valor.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.finales.GeneradorFinales
+ */
+public final class MaterialFinal {
+
+	/**
+	 * Celdas del octante en las que se indexa el rey.
+	 */
+	private static final int[] CELDAS_REY = { 1, 2, 3, 8, 9, 10, 16, 17, TableroBinario.INDICE_TRONO };
+
+	/**
+	 * Número de celdas en las que puede detenerse una pieza que no sea el rey.
+	 */
+	private static final int CELDAS_ORDINARIAS = TableroBinario.NUMERO_CELDAS - 5;
+
+	/**
+	 * Celda de cada posición entre las celdas ordinarias.
+	 */
+	private static final int[] ORDINARIAS = new int[CELDAS_ORDINARIAS];
+
+	/**
+	 * Posición de cada celda entre las celdas ordinarias ({@code -1} para el trono y las provincias).
+	 */
+	private static final int[] POSICIONES_ORDINARIAS = new int[TableroBinario.NUMERO_CELDAS];
+
+	/**
+	 * Posición de cada celda en {@link #CELDAS_REY} ({@code -1} si no pertenece al octante).
+	 */
+	private static final int[] POSICIONES_REY = new int[TableroBinario.NUMERO_CELDAS];
+
+	/**
+	 * Simetría que lleva al rey de cada celda al octante ({@code null} para las provincias).
+	 */
+	private static final Simetria[] SIMETRIAS_REY = new Simetria[TableroBinario.NUMERO_CELDAS];
+
+	/**
+	 * Coeficientes binomiales {@code C(n, k)} para {@code n <= 49}.
+	 */
+	private static final long[][] BINOMIALES = new long[TableroBinario.NUMERO_CELDAS + 1][TableroBinario.NUMERO_CELDAS + 1];
+
+	static {
+		for (int n = 0; n < BINOMIALES.length; n++) {
+			BINOMIALES[n][0] = 1;
+			for (int k = 1; k <= n; k++) {
+				BINOMIALES[n][k] = BINOMIALES[n - 1][k - 1] + BINOMIALES[n - 1][k];
+			}
+		}
+
+		Arrays.fill(POSICIONES_REY, -1);
+		for (int i = 0; i < CELDAS_REY.length; i++) {
+			POSICIONES_REY[CELDAS_REY[i]] = i;
+		}
+
+		long reservadas = TableroBinario.TRONO | TableroBinario.PROVINCIA;
+		int ordinarias = 0;
+		for (int indice = 0; indice < TableroBinario.NUMERO_CELDAS; indice++) {
+			POSICIONES_ORDINARIAS[indice] = (reservadas & (1L << indice)) != 0 ? -1 : ordinarias;
+			if (POSICIONES_ORDINARIAS[indice] >= 0) {
+				ORDINARIAS[ordinarias++] = indice;
+			}
+			if ((TableroBinario.PROVINCIA & (1L << indice)) == 0) {
+				for (Simetria simetria : Simetria.values()) {
+					if (POSICIONES_REY[simetria.transformar(indice)] >= 0) {
+						SIMETRIAS_REY[indice] = simetria;
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Número de atacantes.
+	 */
+	private final int atacantes;
+
+	/**
+	 * Número de defensores, sin contar el rey.
+	 */
+	private final int defensores;
+
+	/**
+	 * Primer índice de las posiciones con el rey en cada celda del octante, y número total de posiciones en la 
+	 * última posición.
+	 */
+	private final long[] inicios = new long[CELDAS_REY.length + 1];
+
+	/**
+	 * Constructor para la clase {@code MaterialFinal}.
+	 *
+	 * @param atacantes Número de atacantes.
+	 * @param defensores Número de defensores, sin contar el rey.
+	 * @throws IllegalArgumentException Si algún número es negativo o las piezas no caben en el tablero.
+	 */
+	public MaterialFinal(int atacantes, int defensores) {
+
+		if (atacantes < 0 || defensores < 0 || atacantes + defensores > CELDAS_ORDINARIAS - 1) {
+			throw new IllegalArgumentException("Material incorrecto: " + atacantes + " atacantes y " + defensores
+					+ " defensores.");
+		}
+
+		this.atacantes = atacantes;
+		this.defensores = defensores;
+
+		for (int i = 0; i < CELDAS_REY.length; i++) {
+			int libres = consultarCeldasLibres(CELDAS_REY[i]);
+			inicios[i + 1] = inicios[i] + BINOMIALES[libres][atacantes] * BINOMIALES[libres - atacantes][defensores]
+					* Color.values().length;
+		}
+	}
+
+	/**
+	 * Devuelve el número de atacantes.
+	 *
+	 * @return Número de atacantes.
+	 */
+	public int consultarAtacantes() {
+		return atacantes;
+	}
+
+	/**
+	 * Devuelve el número de defensores, sin contar el rey.
+	 *
+	 * @return Número de defensores.
+	 */
+	public int consultarDefensores() {
+		return defensores;
+	}
+
+	/**
+	 * Devuelve el número total de piezas, incluido el rey.
+	 *
+	 * @return Número de piezas.
+	 */
+	public int consultarNumeroPiezas() {
+		return atacantes + defensores + 1;
+	}
+
+	/**
+	 * Devuelve el número de posiciones del material, que es el tamaño de su tabla.
+	 *
+	 * @return Número de posiciones.
+	 */
+	public long consultarNumeroPosiciones() {
+		return inicios[CELDAS_REY.length];
+	}
+
+	/**
+	 * Comprueba si una posición tiene este material y puede indexarse.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @return Valor de tipo {@code boolean}: {@code true} si la posición tiene rey fuera de las provincias y el número 
+	 * de atacantes y defensores del material, y {@code false} en caso contrario.
+	 */
+	public boolean contiene(TableroBinario tablero) {
+		int rey = tablero.consultarIndiceRey();
+		return rey >= 0 && SIMETRIAS_REY[rey] != null && Long.bitCount(tablero.consultarAtacantes()) == atacantes
+				&& Long.bitCount(tablero.consultarDefensores()) == defensores;
+	}
+
+	/**
+	 * Devuelve el índice de una posición con este material.
+	 * <p>
+	 * No se comprueba el material de la posición (véase {@link #contiene(TableroBinario)}).
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @param turno Color del jugador con el turno.
+	 * @return Índice de la posición.
+	 */
+	public long indexar(TableroBinario tablero, Color turno) {
+
+		int rey = tablero.consultarIndiceRey();
+		Simetria simetria = SIMETRIAS_REY[rey];
+		int celdaRey = simetria.transformar(rey);
+
+		long atacantesImagen = simetria.transformarMascara(tablero.consultarAtacantes());
+		long defensoresImagen = simetria.transformarMascara(tablero.consultarDefensores());
+		int libres = consultarCeldasLibres(celdaRey);
+
+		long numeroAtacantes = 0;
+		int k = 1;
+		for (long pendientes = atacantesImagen; pendientes != 0; pendientes &= pendientes - 1, k++) {
+			numeroAtacantes += BINOMIALES[consultarHueco(Long.numberOfTrailingZeros(pendientes), celdaRey)][k];
+		}
+
+		long numeroDefensores = 0;
+		k = 1;
+		for (long pendientes = defensoresImagen; pendientes != 0; pendientes &= pendientes - 1, k++) {
+			int celda = Long.numberOfTrailingZeros(pendientes);
+			int hueco = consultarHueco(celda, celdaRey) - Long.bitCount(atacantesImagen & ((1L << celda) - 1));
+			numeroDefensores += BINOMIALES[hueco][k];
+		}
+
+		return inicios[POSICIONES_REY[celdaRey]] + ((numeroAtacantes * BINOMIALES[libres - atacantes][defensores]
+				+ numeroDefensores) << 1) + turno.ordinal();
+	}
+
+	/**
+	 * Coloca en un tablero binario vacío la posición de un índice.
+	 *
+	 * @param indice Índice de la posición, entre {@code 0} y {@link #consultarNumeroPosiciones()} {@code - 1}.
+	 * @param tablero Tablero binario vacío en el que se coloca la posición.
+	 * @return Color del jugador con el turno.
+	 */
+	public Color colocar(long indice, TableroBinario tablero) {
+
+		int posicionRey = 0;
+		while (inicios[posicionRey + 1] <= indice) {
+			posicionRey++;
+		}
+
+		int celdaRey = CELDAS_REY[posicionRey];
+		int libres = consultarCeldasLibres(celdaRey);
+		long resto = (indice - inicios[posicionRey]) >>> 1;
+		long combinacionesDefensores = BINOMIALES[libres - atacantes][defensores];
+
+		tablero.colocar(celdaRey, TipoPieza.REY);
+
+		// Huecos de los atacantes entre las celdas libres y, después, de los defensores entre las que quedan
+		int[] huecosAtacantes = desnumerar(resto / combinacionesDefensores, atacantes, new int[atacantes]);
+		int[] huecosDefensores = desnumerar(resto % combinacionesDefensores, defensores, new int[defensores]);
+
+		for (int hueco : huecosAtacantes) {
+			tablero.colocar(consultarCelda(hueco, celdaRey), TipoPieza.ATACANTE);
+		}
+
+		for (int hueco : huecosDefensores) {
+			// Salta los huecos ocupados por los atacantes, en orden creciente
+			for (int huecoAtacante : huecosAtacantes) {
+				if (huecoAtacante <= hueco) {
+					hueco++;
+				}
+			}
+			tablero.colocar(consultarCelda(hueco, celdaRey), TipoPieza.DEFENSOR);
+		}
+
+		return Color.values()[(int) (indice & 1)];
+	}
+
+	/**
+	 * Devuelve el número de celdas en las que pueden situarse el resto de piezas con el rey en una celda.
+	 *
+	 * @param celdaRey Índice de la celda del rey.
+	 * @return Número de celdas ordinarias distintas de la del rey.
+	 */
+	private static int consultarCeldasLibres(int celdaRey) {
+		return POSICIONES_ORDINARIAS[celdaRey] < 0 ? CELDAS_ORDINARIAS : CELDAS_ORDINARIAS - 1;
+	}
+
+	/**
+	 * Devuelve la posición de una celda entre las celdas ordinarias distintas de la del rey.
+	 *
+	 * @param celda Índice de una celda ordinaria distinta de la del rey.
+	 * @param celdaRey Índice de la celda del rey.
+	 * @return Posición de la celda.
+	 */
+	private static int consultarHueco(int celda, int celdaRey) {
+		int hueco = POSICIONES_ORDINARIAS[celda];
+		return POSICIONES_ORDINARIAS[celdaRey] >= 0 && celdaRey < celda ? hueco - 1 : hueco;
+	}
+
+	/**
+	 * Devuelve la celda de una posición entre las celdas ordinarias distintas de la del rey.
+	 *
+	 * @param hueco Posición de la celda.
+	 * @param celdaRey Índice de la celda del rey.
+	 * @return Índice de la celda.
+	 */
+	private static int consultarCelda(int hueco, int celdaRey) {
+		int posicionRey = POSICIONES_ORDINARIAS[celdaRey];
+		return ORDINARIAS[posicionRey >= 0 && hueco >= posicionRey ? hueco + 1 : hueco];
+	}
+
+	/**
+	 * Obtiene la combinación de un número en el sistema combinatorio de numeración.
+	 *
+	 * @param numero Número de la combinación.
+	 * @param elementos Número de elementos de la combinación.
+	 * @param combinacion Array en el que se guardan los elementos, en orden creciente.
+	 * @return Array con los elementos de la combinación.
+	 */
+	private static int[] desnumerar(long numero, int elementos, int[] combinacion) {
+
+		long resto = numero;
+
+		for (int k = elementos; k > 0; k--) {
+			int elemento = k - 1;
+			while (BINOMIALES[elemento + 1][k] <= resto) {
+				elemento++;
+			}
+			combinacion[k - 1] = elemento;
+			resto -= BINOMIALES[elemento][k];
+		}
+
+		return combinacion;
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de este material.
+	 *
+	 * @return Número de atacantes y de defensores, por ejemplo {@code A2D1}.
+	 */
+	@Override
+	public String toString() {
+		return "A" + atacantes + "D" + defensores;
+	}
+
+}
@@ -0,0 +1,62 @@
+/**
+ * Tablas de finales.
+ * <p>
+ * Paquete con la generación por análisis retrógrado de las tablas de finales con pocas piezas, su indexación 
+ * perfecta y su formato en disco.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.finales;
+
+import brandubh.util.Color;
+
+/**
+ * Resultado exacto de una posición según las tablas de finales.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @param ganador Color del jugador que puede forzar la victoria, o {@code null} si la posición es de tablas.
+ * @param distancia Número de jugadas (medias jugadas) hasta el final de la partida con juego perfecto, o {@code -1} 
+ * si la posición es de tablas.
+ * @see brandubh.finales.SondaFinales
+ */
+public record ResultadoFinal(Color ganador, int distancia) {
+
+	/**
+	 * Construye el resultado de un valor de las tablas.
+	 *
+	 * @param valor Valor de la posición (véase {@link FormatoFinales}).
+	 * @param turno Color del jugador con el turno.
+	 * @return Resultado de la posición.
+	 */
+	public static ResultadoFinal desdeValor(byte valor, Color turno) {
+		if (valor == FormatoFinales.TABLAS) {
+			return new ResultadoFinal(null, -1);
+		}
+		return new ResultadoFinal(FormatoFinales.esVictoria(valor) ? turno : turno.consultarContrario(),
+				FormatoFinales.consultarDistancia(valor));
+	}
+
+	/**
+	 * Comprueba si la posición es de tablas.
+	 *
+	 * @return Valor de tipo {@code boolean}: {@code true} si ninguno de los jugadores puede forzar la victoria y 
+	 * {@code false} en caso contrario.
+	 */
+	public boolean sonTablas() {
+		return ganador == null;
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de este resultado.
+	 *
+	 * @return Ganador y distancia, o {@code tablas}.
+	 */
+	@Override
+	public String toString() {
+		return ganador == null ? "tablas" : "gana " + ganador + " en " + distancia + " jugadas";
+	}
+
+}
@@ -0,0 +1,276 @@
+/**
+ * Tablas de finales.
+ * <p>
+ * Paquete con la generación por análisis retrógrado de las tablas de finales con pocas piezas, su indexación 
+ * perfecta y su formato en disco.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.finales;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.CacheLRU;
+import brandubh.util.Color;
+
+/**
+ * Consulta de las tablas de finales proyectadas en memoria.
+ * <p>
+ * Proyecta los ficheros de las tablas de un directorio y devuelve el valor exacto de las posiciones con pocas 
+ * piezas. Solo se descomprime el bloque que contiene la posición consultada, y los últimos bloques descomprimidos se 
+ * guardan en una caché LRU, de modo que las consultas repetidas sobre posiciones cercanas (como las de una 
+ * búsqueda) no vuelven a descomprimir. Las tablas que no estén en el directorio se consideran no disponibles.
+ * <p>
+ * Puede consultarse a la vez desde varios hilos.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.finales.FormatoFinales
+ * @see brandubh.finales.GeneradorFinales
+ */
+public class SondaFinales implements AutoCloseable {
+
+	/**
+	 * Número por defecto de bloques descomprimidos guardados en la caché.
+	 */
+	public static final int CAPACIDAD_CACHE_POR_DEFECTO = 256;
+
+	/**
+	 * Valor devuelto para las posiciones sin tabla disponible.
+	 */
+	public static final int SIN_TABLA = -1;
+
+	/**
+	 * Materiales por número de atacantes y de defensores.
+	 */
+	private final MaterialFinal[][] materiales = new MaterialFinal[GeneradorFinales.MAXIMO_PIEZAS][GeneradorFinales.MAXIMO_PIEZAS];
+
+	/**
+	 * Ficheros proyectados por número de atacantes y de defensores ({@code null} si la tabla no está disponible).
+	 */
+	private final MappedByteBuffer[][] mapas = new MappedByteBuffer[GeneradorFinales.MAXIMO_PIEZAS][GeneradorFinales.MAXIMO_PIEZAS];
+
+	/**
+	 * Número máximo de piezas de las tablas disponibles, incluido el rey ({@code 0} si no hay ninguna).
+	 */
+	private final int maximoPiezas;
+
+	/**
+	 * Caché LRU de los bloques descomprimidos por material y número de bloque.
+	 */
+	private final CacheLRU<byte[]> cache;
+
+	/**
+	 * Constructor para la clase {@code SondaFinales} con una caché de {@link #CAPACIDAD_CACHE_POR_DEFECTO} bloques.
+	 *
+	 * @param directorio Directorio de las tablas.
+	 * @throws IOException Si alguna tabla del directorio no puede proyectarse o está dañada.
+	 */
+	public SondaFinales(Path directorio) throws IOException {
+		this(directorio, CAPACIDAD_CACHE_POR_DEFECTO);
+	}
+
+	/**
+	 * Constructor para la clase {@code SondaFinales}.
+	 *
+	 * @param directorio Directorio de las tablas.
+	 * @param capacidadCache Número máximo de bloques descomprimidos guardados en la caché.
+	 * @throws IOException Si alguna tabla del directorio no puede proyectarse o está dañada.
+	 */
+	public SondaFinales(Path directorio, int capacidadCache) throws IOException {
+
+		int maximo = 0;
+
+		for (int atacantes = 0; atacantes < GeneradorFinales.MAXIMO_PIEZAS; atacantes++) {
+			for (int defensores = 0; atacantes + defensores < GeneradorFinales.MAXIMO_PIEZAS; defensores++) {
+				MaterialFinal material = new MaterialFinal(atacantes, defensores);
+				Path fichero = directorio.resolve(FormatoFinales.consultarNombreFichero(material));
+				materiales[atacantes][defensores] = material;
+				if (Files.isRegularFile(fichero)) {
+					mapas[atacantes][defensores] = FormatoFinales.proyectar(fichero, material);
+					maximo = Math.max(maximo, material.consultarNumeroPiezas());
+				}
+			}
+		}
+
+		this.maximoPiezas = maximo;
+		this.cache = new CacheLRU<>(capacidadCache);
+	}
+
+	/**
+	 * Devuelve el número máximo de piezas de las tablas disponibles.
+	 *
+	 * @return Número máximo de piezas, incluido el rey, o {@code 0} si no hay tablas.
+	 */
+	public int consultarMaximoPiezas() {
+		return maximoPiezas;
+	}
+
+	/**
+	 * Comprueba si está disponible la tabla de un material.
+	 *
+	 * @param atacantes Número de atacantes.
+	 * @param defensores Número de defensores, sin contar el rey.
+	 * @return Valor de tipo {@code boolean}: {@code true} si la tabla está disponible y {@code false} en caso contrario.
+	 */
+	public boolean estaDisponible(int atacantes, int defensores) {
+		return atacantes >= 0 && defensores >= 0 && atacantes + defensores < GeneradorFinales.MAXIMO_PIEZAS
+				&& mapas[atacantes][defensores] != null;
+	}
+
+	/**
+	 * Devuelve el valor de una posición.
+	 * <p>
+	 * Las posiciones con más piezas que las tablas se descartan sin más coste que contar las piezas.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @param turno Color del jugador con el turno.
+	 * @return Valor de la posición como entero sin signo (véase {@link FormatoFinales}), o {@link #SIN_TABLA} si no 
+	 * hay tabla para la posición.
+	 * @throws IllegalStateException Si el bloque de la posición está dañado.
+	 */
+	public int sondear(TableroBinario tablero, Color turno) {
+
+		if (Long.bitCount(tablero.consultarOcupadas()) > maximoPiezas) {
+			return SIN_TABLA;
+		}
+
+		int atacantes = Long.bitCount(tablero.consultarAtacantes());
+		int defensores = Long.bitCount(tablero.consultarDefensores());
+		MappedByteBuffer mapa = mapas[atacantes][defensores];
+		MaterialFinal material = materiales[atacantes][defensores];
+
+		if (mapa == null || !material.contiene(tablero)) {
+			return SIN_TABLA;
+		}
+
+		long indice = material.indexar(tablero, turno);
+		int bloque = (int) (indice / FormatoFinales.POSICIONES_BLOQUE);
+
+		return consultarBloque(material, mapa, bloque)[(int) (indice % FormatoFinales.POSICIONES_BLOQUE)] & 0xFF;
+	}
+
+	/**
+	 * Devuelve el resultado exacto de la posición actual de un árbitro.
+	 *
+	 * @param arbitro Árbitro con la posición.
+	 * @return Resultado de la posición, o {@code null} si no hay tabla para la posición.
+	 */
+	public ResultadoFinal sondear(Arbitro arbitro) {
+
+		int valor = sondear(arbitro.obtenerTableroBinario(), arbitro.consultarTurno());
+
+		return valor == SIN_TABLA ? null : ResultadoFinal.desdeValor((byte) valor, arbitro.consultarTurno());
+	}
+
+	/**
+	 * Devuelve el número de consultas resueltas con la caché.
+	 *
+	 * @return Número de aciertos de la caché.
+	 */
+	public long consultarAciertosCache() {
+		return cache.consultarAciertos();
+	}
+
+	/**
+	 * Devuelve el número de consultas que han tenido que descomprimir un bloque.
+	 *
+	 * @return Número de fallos de la caché.
+	 */
+	public long consultarFallosCache() {
+		return cache.consultarFallos();
+	}
+
+	/**
+	 * Vacía la caché de bloques descomprimidos.
+	 */
+	public void limpiarCache() {
+		cache.limpiar();
+	}
+
+	/**
+	 * Libera la caché de bloques. Las proyecciones de los ficheros se liberan al recolectarse la sonda.
+	 */
+	@Override
+	public void close() {
+		limpiarCache();
+	}
+
+	/**
+	 * Mide el tiempo de consulta de posiciones aleatorias de las tablas de un directorio.
+	 *
+	 * @param args directorio de las tablas y, opcionalmente, número de consultas por tabla
+	 * @throws IOException Si no pueden proyectarse las tablas.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		int consultas = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+		SplittableRandom aleatorio = new SplittableRandom(1);
+
+		try (SondaFinales sonda = new SondaFinales(Path.of(args[0]))) {
+			for (int atacantes = 0; atacantes < GeneradorFinales.MAXIMO_PIEZAS; atacantes++) {
+				for (int defensores = 0; atacantes + defensores < GeneradorFinales.MAXIMO_PIEZAS; defensores++) {
+
+					if (!sonda.estaDisponible(atacantes, defensores)) {
+						continue;
+					}
+
+					MaterialFinal material = sonda.materiales[atacantes][defensores];
+					TableroBinario[] tableros = new TableroBinario[1024];
+					Color[] turnos = new Color[tableros.length];
+					for (int i = 0; i < tableros.length; i++) {
+						tableros[i] = new TableroBinario();
+						turnos[i] = material.colocar(aleatorio.nextLong(material.consultarNumeroPosiciones()),
+								tableros[i]);
+					}
+
+					long inicio = System.nanoTime();
+					long victorias = 0;
+					for (int i = 0; i < consultas; i++) {
+						int valor = sonda.sondear(tableros[i % tableros.length], turnos[i % tableros.length]);
+						victorias += FormatoFinales.esVictoria((byte) valor) ? 1 : 0;
+					}
+					double microsegundos = (System.nanoTime() - inicio) / 1000.0 / consultas;
+
+					System.out.printf("%s: %.3f µs por consulta (%d victorias)%n", material, microsegundos, victorias);
+				}
+			}
+			System.out.printf("caché: %d aciertos, %d fallos%n", sonda.consultarAciertosCache(),
+					sonda.consultarFallosCache());
+		}
+	}
+
+	/**
+	 * Devuelve un bloque descomprimido de una tabla, de la caché o descomprimiéndolo.
+	 *
+	 * @param material Material de la tabla.
+	 * @param mapa Fichero de la tabla proyectado en memoria.
+	 * @param bloque Número del bloque.
+	 * @return Valores del bloque.
+	 */
+	private byte[] consultarBloque(MaterialFinal material, MappedByteBuffer mapa, int bloque) {
+
+		long clave = ((long) material.consultarAtacantes() << 40) | ((long) material.consultarDefensores() << 32)
+				| bloque;
+
+		byte[] valores = cache.consultar(clave);
+		if (valores != null) {
+			return valores;
+		}
+
+		valores = new byte[FormatoFinales.POSICIONES_BLOQUE];
+		FormatoFinales.descomprimir(mapa, bloque, valores);
+		cache.guardar(clave, valores);
+
+		return valores;
+	}
+
+}
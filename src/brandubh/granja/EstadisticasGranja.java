@@ -0,0 +1,218 @@
+/**
+ * Granja de partidas.
+ * <p>
+ * Paquete para jugar sin interfaz grandes cantidades de partidas automáticas entre jugadores intercambiables, en 
+ * paralelo y sin estado compartido entre partidas, y recoger sus estadísticas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.granja;
+
+import brandubh.util.Color;
+
+/**
+ * Estadísticas acumuladas de una tanda de partidas de la granja.
+ * <p>
+ * Cada hilo de la granja acumula las de sus propias partidas, que se combinan al terminar la tanda. Las instancias no
+ * deben compartirse entre hilos mientras se acumulan.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.granja.GranjaPartidas
+ */
+public class EstadisticasGranja {
+
+	/**
+	 * Número de partidas por cada duración en jugadas, de {@code 0} al número máximo de jugadas.
+	 */
+	private final long[] duraciones;
+
+	/**
+	 * Número de victorias del atacante.
+	 */
+	private long victoriasAtacante;
+
+	/**
+	 * Número de victorias del defensor.
+	 */
+	private long victoriasDefensor;
+
+	/**
+	 * Número de partidas en tablas.
+	 */
+	private long tablas;
+
+	/**
+	 * Tiempo total en milisegundos de la tanda.
+	 */
+	private long milisegundos;
+
+	/**
+	 * Constructor para la clase {@code EstadisticasGranja}.
+	 *
+	 * @param maximoJugadas Número máximo de jugadas de una partida.
+	 */
+	public EstadisticasGranja(int maximoJugadas) {
+		duraciones = new long[maximoJugadas + 1];
+	}
+
+	/**
+	 * Acumula el resultado de una partida.
+	 *
+	 * @param resultado Resultado de la partida.
+	 */
+	public void registrar(ResultadoPartida resultado) {
+
+		if (resultado.ganador() == Color.NEGRO) {
+			victoriasAtacante++;
+		} else if (resultado.ganador() == Color.BLANCO) {
+			victoriasDefensor++;
+		} else {
+			tablas++;
+		}
+
+		duraciones[Math.min(resultado.consultarNumeroJugadas(), duraciones.length - 1)]++;
+	}
+
+	/**
+	 * Acumula las estadísticas de otra tanda.
+	 *
+	 * @param otras Estadísticas a acumular, con el mismo número máximo de jugadas.
+	 */
+	public void combinar(EstadisticasGranja otras) {
+
+		victoriasAtacante += otras.victoriasAtacante;
+		victoriasDefensor += otras.victoriasDefensor;
+		tablas += otras.tablas;
+
+		for (int i = 0; i < duraciones.length; i++) {
+			duraciones[i] += otras.duraciones[i];
+		}
+	}
+
+	/**
+	 * Establece el tiempo total de la tanda.
+	 *
+	 * @param milisegundos Tiempo en milisegundos.
+	 */
+	void establecerMilisegundos(long milisegundos) {
+		this.milisegundos = milisegundos;
+	}
+
+	/**
+	 * Devuelve el número de partidas acumuladas.
+	 *
+	 * @return Número de partidas.
+	 */
+	public long consultarPartidas() {
+		return victoriasAtacante + victoriasDefensor + tablas;
+	}
+
+	/**
+	 * Devuelve el número de victorias del color indicado o, si es {@code null}, el número de tablas.
+	 *
+	 * @param color Color del jugador o {@code null} para las tablas.
+	 * @return Número de partidas.
+	 */
+	public long consultarVictorias(Color color) {
+		if (color == null) {
+			return tablas;
+		}
+		return color == Color.NEGRO ? victoriasAtacante : victoriasDefensor;
+	}
+
+	/**
+	 * Devuelve la proporción de victorias del color indicado o, si es {@code null}, la proporción de tablas.
+	 *
+	 * @param color Color del jugador o {@code null} para las tablas.
+	 * @return Proporción entre {@code 0} y {@code 1} ({@code 0} si no hay partidas).
+	 */
+	public double consultarTasaVictorias(Color color) {
+		long partidas = consultarPartidas();
+		return partidas == 0 ? 0 : (double) consultarVictorias(color) / partidas;
+	}
+
+	/**
+	 * Devuelve el número de partidas que han durado exactamente las jugadas indicadas.
+	 *
+	 * @param jugadas Número de jugadas.
+	 * @return Número de partidas.
+	 */
+	public long consultarPartidasConDuracion(int jugadas) {
+		return jugadas < 0 || jugadas >= duraciones.length ? 0 : duraciones[jugadas];
+	}
+
+	/**
+	 * Devuelve la duración media de las partidas en jugadas.
+	 *
+	 * @return Duración media ({@code 0} si no hay partidas).
+	 */
+	public double consultarDuracionMedia() {
+
+		long partidas = consultarPartidas();
+		long total = 0;
+
+		for (int i = 0; i < duraciones.length; i++) {
+			total += i * duraciones[i];
+		}
+
+		return partidas == 0 ? 0 : (double) total / partidas;
+	}
+
+	/**
+	 * Devuelve el percentil indicado de la duración de las partidas en jugadas.
+	 *
+	 * @param percentil Percentil entre {@code 0} y {@code 100}.
+	 * @return Menor duración tal que al menos el porcentaje indicado de partidas dura lo mismo o menos ({@code 0} si 
+	 * no hay partidas).
+	 */
+	public int consultarPercentilDuracion(double percentil) {
+
+		long objetivo = (long) Math.ceil(consultarPartidas() * Math.max(0, Math.min(100, percentil)) / 100);
+		long acumuladas = 0;
+
+		for (int i = 0; i < duraciones.length; i++) {
+			acumuladas += duraciones[i];
+			if (acumuladas >= objetivo && acumuladas > 0) {
+				return i;
+			}
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Devuelve el tiempo total de la tanda.
+	 *
+	 * @return Tiempo en milisegundos.
+	 */
+	public long consultarMilisegundos() {
+		return milisegundos;
+	}
+
+	/**
+	 * Devuelve el número de partidas jugadas por segundo.
+	 *
+	 * @return Partidas por segundo ({@code 0} si no se ha medido el tiempo).
+	 */
+	public double consultarPartidasPorSegundo() {
+		return milisegundos == 0 ? 0 : consultarPartidas() * 1000.0 / milisegundos;
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de estas estadísticas.
+	 *
+	 * @return Una representación de cadena de caracteres ({@code String}) de estas estadísticas.
+	 */
+	@Override
+	public String toString() {
+		return String.format("partidas %d  atacante %.1f%%  defensor %.1f%%  tablas %.1f%%  duración media %.1f "
+				+ "(p50 %d, p90 %d, p99 %d)  %.1f partidas/s", consultarPartidas(),
+				100 * consultarTasaVictorias(Color.NEGRO), 100 * consultarTasaVictorias(Color.BLANCO),
+				100 * consultarTasaVictorias(null), consultarDuracionMedia(), consultarPercentilDuracion(50),
+				consultarPercentilDuracion(90), consultarPercentilDuracion(99), consultarPartidasPorSegundo());
+	}
+
+}
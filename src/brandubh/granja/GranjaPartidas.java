@@ -0,0 +1,333 @@
+/**
+ * Granja de partidas.
+ * <p>
+ * Paquete para jugar sin interfaz grandes cantidades de partidas automáticas entre jugadores intercambiables, en 
+ * paralelo y sin estado compartido entre partidas, y recoger sus estadísticas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.granja;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.motor.EvaluadorBasico;
+import brandubh.motor.SimuladorAleatorio;
+import brandubh.util.Color;
+
+/**
+ * Granja de partidas automáticas sin interfaz.
+ * <p>
+ * Juega tandas de partidas desde la configuración inicial entre dos jugadores intercambiables, repartidas entre un 
+ * conjunto fijo de hilos. Cada partida crea su propio tablero, árbitro y jugadores a partir de una semilla que solo 
+ * depende de la semilla de la tanda y del número de la partida, por lo que las partidas no comparten estado mutable 
+ * y sus resultados no dependen del número de hilos. Cada hilo juega las partidas cuyo número coincide con el suyo 
+ * módulo el número de hilos y acumula sus propias estadísticas, que se combinan al final de la tanda.
+ * <p>
+ * Las primeras jugadas de cada partida pueden elegirse al azar para variar las aperturas entre jugadores 
+ * deterministas. Un jugador sin movimientos legales pierde y una partida que alcanza el número máximo de jugadas 
+ * termina en tablas.
+ * <p>
+ * Uso desde línea de comandos: 
+ * {@code GranjaPartidas partidas [hilos] [atacante] [defensor] [jugadas aleatorias iniciales]}, con los jugadores 
+ * {@code aleatorio}, {@code voraz} o {@code motor}.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.granja.Jugador
+ */
+public class GranjaPartidas implements AutoCloseable {
+
+	/**
+	 * Número máximo de jugadas de una partida. Si se alcanza, la partida se considera en tablas.
+	 */
+	public static final int MAXIMO_JUGADAS = SimuladorAleatorio.MAXIMO_JUGADAS;
+
+	/**
+	 * Profundidad de búsqueda del jugador {@code motor} de la línea de comandos.
+	 */
+	private static final int PROFUNDIDAD_MOTOR = 2;
+
+	/**
+	 * Constante para separar las semillas de partidas consecutivas (proporción áurea en 64 bits).
+	 */
+	private static final long INCREMENTO_SEMILLA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Creación de los jugadores atacantes a partir de una semilla.
+	 */
+	private final LongFunction<Jugador> atacante;
+
+	/**
+	 * Creación de los jugadores defensores a partir de una semilla.
+	 */
+	private final LongFunction<Jugador> defensor;
+
+	/**
+	 * Número de jugadas iniciales de cada partida elegidas al azar.
+	 */
+	private final int jugadasAleatorias;
+
+	/**
+	 * Número de hilos.
+	 */
+	private final int hilos;
+
+	/**
+	 * Ejecutor de las partidas.
+	 */
+	private final ExecutorService ejecutor;
+
+	/**
+	 * Constructor para la clase {@code GranjaPartidas}.
+	 *
+	 * @param atacante Creación de un jugador atacante nuevo para cada partida a partir de una semilla.
+	 * @param defensor Creación de un jugador defensor nuevo para cada partida a partir de una semilla.
+	 * @param hilos Número de hilos (al menos {@code 1}).
+	 * @param jugadasAleatorias Número de jugadas iniciales de cada partida elegidas al azar.
+	 */
+	public GranjaPartidas(LongFunction<Jugador> atacante, LongFunction<Jugador> defensor, int hilos,
+			int jugadasAleatorias) {
+
+		this.atacante = atacante;
+		this.defensor = defensor;
+		this.jugadasAleatorias = Math.max(0, jugadasAleatorias);
+		this.hilos = Math.max(1, hilos);
+		this.ejecutor = Executors.newFixedThreadPool(this.hilos, tarea -> {
+			Thread hilo = new Thread(tarea, "granja-partidas");
+			hilo.setDaemon(true);
+			return hilo;
+		});
+	}
+
+	/**
+	 * Juega una tanda de partidas.
+	 *
+	 * @param partidas Número de partidas.
+	 * @param semilla Semilla de la tanda.
+	 * @return Estadísticas de la tanda.
+	 */
+	public EstadisticasGranja jugar(int partidas, long semilla) {
+		return jugar(partidas, semilla, null);
+	}
+
+	/**
+	 * Juega una tanda de partidas y entrega el resultado de cada una según termina.
+	 *
+	 * @param partidas Número de partidas.
+	 * @param semilla Semilla de la tanda.
+	 * @param receptor Receptor de los resultados de las partidas o {@code null}. Se invoca desde los hilos de la 
+	 * granja, por lo que debe poder emplearse desde varios hilos a la vez.
+	 * @return Estadísticas de la tanda.
+	 * @throws IllegalStateException Si falla alguna partida o se interrumpe la espera.
+	 */
+	public EstadisticasGranja jugar(int partidas, long semilla, Consumer<ResultadoPartida> receptor) {
+
+		long inicio = System.nanoTime();
+		List<Future<EstadisticasGranja>> tareas = new ArrayList<>(hilos);
+
+		for (int i = 0; i < hilos; i++) {
+			int primera = i;
+			tareas.add(ejecutor.submit(() -> jugarTurno(primera, partidas, semilla, receptor)));
+		}
+
+		EstadisticasGranja total = new EstadisticasGranja(MAXIMO_JUGADAS);
+		for (Future<EstadisticasGranja> tarea : tareas) {
+			total.combinar(esperar(tarea));
+		}
+		total.establecerMilisegundos((System.nanoTime() - inicio) / 1_000_000);
+
+		return total;
+	}
+
+	/**
+	 * Devuelve el número de hilos.
+	 *
+	 * @return Número de hilos.
+	 */
+	public int consultarHilos() {
+		return hilos;
+	}
+
+	/**
+	 * Finaliza los hilos de la granja. La granja no puede volver a emplearse.
+	 */
+	@Override
+	public void close() {
+		ejecutor.shutdownNow();
+	}
+
+	/**
+	 * Juega una partida completa desde la configuración inicial sobre un tablero y un árbitro nuevos.
+	 *
+	 * @param numero Número de la partida.
+	 * @param atacante Jugador atacante.
+	 * @param defensor Jugador defensor.
+	 * @param jugadasAleatorias Número de jugadas iniciales elegidas al azar.
+	 * @param semilla Semilla de las jugadas iniciales elegidas al azar.
+	 * @return Resultado de la partida.
+	 * @throws IllegalStateException Si algún jugador elige una jugada ilegal.
+	 */
+	public static ResultadoPartida jugarPartida(long numero, Jugador atacante, Jugador defensor,
+			int jugadasAleatorias, long semilla) {
+
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+
+		SplittableRandom aleatorio = new SplittableRandom(semilla);
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		int[] jugadas = new int[MAXIMO_JUGADAS];
+		int numeroJugadas = 0;
+		Color ganador = null;
+
+		while (numeroJugadas < MAXIMO_JUGADAS) {
+
+			Color turno = arbitro.consultarTurno();
+			int jugada;
+
+			if (numeroJugadas < jugadasAleatorias) {
+				int numeroMovimientos = arbitro.generarMovimientosLegales(movimientos);
+				jugada = numeroMovimientos == 0 ? JugadaCompacta.NINGUNA
+						: movimientos[aleatorio.nextInt(numeroMovimientos)];
+			} else {
+				jugada = (turno == Color.NEGRO ? atacante : defensor).elegirJugada(arbitro);
+			}
+
+			if (jugada == JugadaCompacta.NINGUNA) {
+				ganador = turno.consultarContrario();
+				break;
+			}
+
+			comprobarLegalidad(arbitro, jugada);
+			jugadas[numeroJugadas++] = arbitro.aplicarJugada(jugada);
+
+			if (arbitro.haGanadoRey() || arbitro.haGanadoAtacante()) {
+				ganador = turno;
+				break;
+			}
+		}
+
+		return new ResultadoPartida(numero, ganador, Arrays.copyOf(jugadas, numeroJugadas));
+	}
+
+	/**
+	 * Devuelve la creación de jugadores correspondiente a un nombre.
+	 *
+	 * @param nombre Nombre del jugador: {@code aleatorio}, {@code voraz} o {@code motor}.
+	 * @return Creación de jugadores a partir de una semilla.
+	 * @throws IllegalArgumentException Si el nombre no corresponde a ningún jugador.
+	 */
+	public static LongFunction<Jugador> consultarJugador(String nombre) {
+		switch (nombre) {
+		case "aleatorio":
+			return JugadorAleatorio::new;
+		case "voraz":
+			return JugadorVoraz::new;
+		case "motor":
+			return semilla -> new JugadorMotor(new EvaluadorBasico(), PROFUNDIDAD_MOTOR, 0);
+		default:
+			throw new IllegalArgumentException("Jugador desconocido: " + nombre);
+		}
+	}
+
+	/**
+	 * Juega una tanda de partidas y muestra sus estadísticas.
+	 *
+	 * @param args número de partidas, número de hilos, jugador atacante, jugador defensor y número de jugadas 
+	 * iniciales al azar (todos opcionales)
+	 */
+	public static void main(String[] args) {
+
+		int partidas = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		int hilos = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		String atacante = args.length > 2 ? args[2] : "aleatorio";
+		String defensor = args.length > 3 ? args[3] : "aleatorio";
+		int jugadasAleatorias = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+		try (GranjaPartidas granja = new GranjaPartidas(consultarJugador(atacante), consultarJugador(defensor), hilos,
+				jugadasAleatorias)) {
+			System.out.println(atacante + " contra " + defensor + " con " + hilos + " hilos");
+			System.out.println(granja.jugar(partidas, System.nanoTime()));
+		}
+	}
+
+	/**
+	 * Juega las partidas de la tanda que corresponden a un hilo.
+	 *
+	 * @param primera Número de la primera partida del hilo.
+	 * @param partidas Número total de partidas de la tanda.
+	 * @param semilla Semilla de la tanda.
+	 * @param receptor Receptor de los resultados de las partidas o {@code null}.
+	 * @return Estadísticas de las partidas del hilo.
+	 */
+	private EstadisticasGranja jugarTurno(int primera, int partidas, long semilla, Consumer<ResultadoPartida> receptor) {
+
+		EstadisticasGranja estadisticas = new EstadisticasGranja(MAXIMO_JUGADAS);
+
+		for (int numero = primera; numero < partidas; numero += hilos) {
+
+			SplittableRandom semillas = new SplittableRandom(semilla + numero * INCREMENTO_SEMILLA);
+			ResultadoPartida resultado = jugarPartida(numero, atacante.apply(semillas.nextLong()),
+					defensor.apply(semillas.nextLong()), jugadasAleatorias, semillas.nextLong());
+
+			estadisticas.registrar(resultado);
+			if (receptor != null) {
+				receptor.accept(resultado);
+			}
+		}
+
+		return estadisticas;
+	}
+
+	/**
+	 * Comprueba que una jugada elegida por un jugador es legal.
+	 *
+	 * @param arbitro Árbitro con la posición actual.
+	 * @param jugada Jugada codificada.
+	 * @throws IllegalStateException Si la jugada no es legal.
+	 */
+	private static void comprobarLegalidad(Arbitro arbitro, int jugada) {
+
+		TableroBinario tablero = arbitro.obtenerTableroBinario();
+		int origen = JugadaCompacta.consultarOrigen(jugada);
+
+		if ((tablero.consultarPiezas(arbitro.consultarTurno()) & (1L << origen)) == 0
+				|| (Reglas.calcularDestinos(tablero, origen) & (1L << JugadaCompacta.consultarDestino(jugada))) == 0) {
+			throw new IllegalStateException("Jugada ilegal " + JugadaCompacta.aTexto(jugada) + " en:\n" + tablero.aTexto());
+		}
+	}
+
+	/**
+	 * Espera a que termine la tanda de un hilo.
+	 *
+	 * @param tarea Tanda del hilo.
+	 * @return Estadísticas de la tanda del hilo.
+	 * @throws IllegalStateException Si la tanda ha fallado o se interrumpe la espera.
+	 */
+	private static EstadisticasGranja esperar(Future<EstadisticasGranja> tarea) {
+		try {
+			return tarea.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Granja de partidas interrumpida.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Error en un hilo de la granja de partidas.", e.getCause());
+		}
+	}
+
+}
@@ -0,0 +1,38 @@
+/**
+ * Granja de partidas.
+ * <p>
+ * Paquete para jugar sin interfaz grandes cantidades de partidas automáticas entre jugadores intercambiables, en 
+ * paralelo y sin estado compartido entre partidas, y recoger sus estadísticas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.granja;
+
+import brandubh.control.Arbitro;
+
+/**
+ * Jugador automático que elige una jugada para la posición de un árbitro.
+ * <p>
+ * Cada partida de la granja crea sus propios jugadores, por lo que una instancia solo se emplea desde un hilo y puede
+ * guardar estado entre jugadas de la misma partida.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.granja.GranjaPartidas
+ */
+public interface Jugador {
+
+	/**
+	 * Elige la jugada del jugador con el turno.
+	 * <p>
+	 * Al terminar, el árbitro debe quedar en el mismo estado que al comenzar.
+	 *
+	 * @param arbitro Árbitro con la posición actual.
+	 * @return Jugada codificada o {@link brandubh.modelo.JugadaCompacta#NINGUNA} si no hay jugadas legales.
+	 * @see brandubh.modelo.JugadaCompacta
+	 */
+	int elegirJugada(Arbitro arbitro);
+
+}
@@ -0,0 +1,58 @@
+/**
+ * Granja de partidas.
+ * <p>
+ * Paquete para jugar sin interfaz grandes cantidades de partidas automáticas entre jugadores intercambiables, en 
+ * paralelo y sin estado compartido entre partidas, y recoger sus estadísticas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.granja;
+
+import java.util.SplittableRandom;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+
+/**
+ * Jugador que elige una jugada legal al azar con probabilidad uniforme.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+public class JugadorAleatorio implements Jugador {
+
+	/**
+	 * Movimientos legales de la posición en curso.
+	 */
+	private final int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+
+	/**
+	 * Generador de números aleatorios.
+	 */
+	private final SplittableRandom aleatorio;
+
+	/**
+	 * Constructor para la clase {@code JugadorAleatorio}.
+	 *
+	 * @param semilla Semilla del generador de números aleatorios.
+	 */
+	public JugadorAleatorio(long semilla) {
+		aleatorio = new SplittableRandom(semilla);
+	}
+
+	@Override
+	public int elegirJugada(Arbitro arbitro) {
+
+		int numero = arbitro.generarMovimientosLegales(movimientos);
+
+		if (numero == 0) {
+			return JugadaCompacta.NINGUNA;
+		}
+
+		return movimientos[aleatorio.nextInt(numero)];
+	}
+
+}
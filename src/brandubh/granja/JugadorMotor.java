@@ -0,0 +1,104 @@
+/**
+ * Granja de partidas.
+ * <p>
+ * Paquete para jugar sin interfaz grandes cantidades de partidas automáticas entre jugadores intercambiables, en 
+ * paralelo y sin estado compartido entre partidas, y recoger sus estadísticas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.granja;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.motor.Buscador;
+import brandubh.motor.Evaluador;
+import brandubh.motor.TablaTransposicion;
+
+/**
+ * Jugador que elige sus jugadas con el buscador alfa-beta del motor.
+ * <p>
+ * Cada instancia tiene su propia tabla de transposición, que conserva entre las jugadas de una misma partida.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.motor.Buscador
+ */
+public class JugadorMotor implements Jugador {
+
+	/**
+	 * Tamaño por defecto de la tabla de transposición en megabytes.
+	 */
+	public static final int MEGABYTES_TABLA_POR_DEFECTO = 1;
+
+	/**
+	 * Función de evaluación de las posiciones.
+	 */
+	private final Evaluador evaluador;
+
+	/**
+	 * Profundidad máxima de cada búsqueda.
+	 */
+	private final int profundidad;
+
+	/**
+	 * Tiempo máximo de cada búsqueda en milisegundos.
+	 */
+	private final long milisegundos;
+
+	/**
+	 * Tabla de transposición del jugador.
+	 */
+	private final TablaTransposicion tabla;
+
+	/**
+	 * Buscador sobre el árbitro de la partida en curso.
+	 */
+	private Buscador buscador;
+
+	/**
+	 * Árbitro de {@link #buscador}.
+	 */
+	private Arbitro arbitroBuscador;
+
+	/**
+	 * Constructor para la clase {@code JugadorMotor} con una tabla de transposición del tamaño por defecto.
+	 *
+	 * @param evaluador Función de evaluación de las posiciones.
+	 * @param profundidad Profundidad máxima de cada búsqueda en medios movimientos.
+	 * @param milisegundos Tiempo máximo de cada búsqueda en milisegundos ({@code 0} para no limitar el tiempo).
+	 */
+	public JugadorMotor(Evaluador evaluador, int profundidad, long milisegundos) {
+		this(evaluador, profundidad, milisegundos, MEGABYTES_TABLA_POR_DEFECTO);
+	}
+
+	/**
+	 * Constructor para la clase {@code JugadorMotor}.
+	 *
+	 * @param evaluador Función de evaluación de las posiciones.
+	 * @param profundidad Profundidad máxima de cada búsqueda en medios movimientos.
+	 * @param milisegundos Tiempo máximo de cada búsqueda en milisegundos ({@code 0} para no limitar el tiempo).
+	 * @param megabytes Tamaño de la tabla de transposición en megabytes.
+	 */
+	public JugadorMotor(Evaluador evaluador, int profundidad, long milisegundos, int megabytes) {
+		this.evaluador = evaluador;
+		this.profundidad = profundidad;
+		this.milisegundos = milisegundos;
+		this.tabla = new TablaTransposicion(megabytes);
+	}
+
+	@Override
+	public int elegirJugada(Arbitro arbitro) {
+
+		if (arbitro != arbitroBuscador) {
+			buscador = new Buscador(arbitro, evaluador, tabla);
+			arbitroBuscador = arbitro;
+		}
+
+		int jugada = buscador.buscar(profundidad, milisegundos).jugada();
+
+		return jugada == JugadaCompacta.NINGUNA ? JugadaCompacta.NINGUNA : JugadaCompacta.consultarSinCapturas(jugada);
+	}
+
+}
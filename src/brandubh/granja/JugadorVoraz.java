@@ -0,0 +1,81 @@
+/**
+ * Granja de partidas.
+ * <p>
+ * Paquete para jugar sin interfaz grandes cantidades de partidas automáticas entre jugadores intercambiables, en 
+ * paralelo y sin estado compartido entre partidas, y recoger sus estadísticas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.granja;
+
+import java.util.SplittableRandom;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+
+/**
+ * Jugador voraz que solo mira una jugada por delante.
+ * <p>
+ * Elige una jugada ganadora si la hay y, si no, la que más piezas captura. Los empates se deshacen al azar con 
+ * probabilidad uniforme.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+public class JugadorVoraz implements Jugador {
+
+	/**
+	 * Valor de una jugada ganadora, mayor que el máximo de cuatro capturas de una jugada.
+	 */
+	private static final int VALOR_VICTORIA = 5;
+
+	/**
+	 * Movimientos legales de la posición en curso.
+	 */
+	private final int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+
+	/**
+	 * Generador de números aleatorios.
+	 */
+	private final SplittableRandom aleatorio;
+
+	/**
+	 * Constructor para la clase {@code JugadorVoraz}.
+	 *
+	 * @param semilla Semilla del generador de números aleatorios para los desempates.
+	 */
+	public JugadorVoraz(long semilla) {
+		aleatorio = new SplittableRandom(semilla);
+	}
+
+	@Override
+	public int elegirJugada(Arbitro arbitro) {
+
+		int numero = arbitro.generarMovimientosLegales(movimientos);
+		int mejor = JugadaCompacta.NINGUNA;
+		int mejorValor = -1;
+		int empates = 0;
+
+		for (int i = 0; i < numero; i++) {
+
+			int aplicada = arbitro.aplicarJugada(movimientos[i]);
+			int valor = arbitro.haGanadoRey() || arbitro.haGanadoAtacante() ? VALOR_VICTORIA
+					: Long.bitCount(JugadaCompacta.consultarCapturas(aplicada));
+			arbitro.deshacerJugada();
+
+			if (valor > mejorValor) {
+				mejor = movimientos[i];
+				mejorValor = valor;
+				empates = 1;
+			} else if (valor == mejorValor && aleatorio.nextInt(++empates) == 0) {
+				mejor = movimientos[i];
+			}
+		}
+
+		return mejor;
+	}
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Granja de partidas.
+ * <p>
+ * Paquete para jugar sin interfaz grandes cantidades de partidas automáticas entre jugadores intercambiables, en 
+ * paralelo y sin estado compartido entre partidas, y recoger sus estadísticas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.granja;
+
+import java.util.Arrays;
+
+import brandubh.util.Color;
+
+/**
+ * Resultado de una partida de la granja.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @param numero Número de la partida dentro de la tanda de la granja.
+ * @param ganador Color del jugador ganador o {@code null} si la partida termina en tablas por alcanzar el número 
+ * máximo de jugadas.
+ * @param jugadas Jugadas codificadas de la partida en orden. Las de la granja incluyen sus marcas de captura; las 
+ * leídas de un registro de partidas no.
+ * @see brandubh.modelo.JugadaCompacta
+ */
+public record ResultadoPartida(long numero, Color ganador, int[] jugadas) {
+
+	/**
+	 * Devuelve el número de jugadas (medios movimientos) de la partida.
+	 *
+	 * @return Número de jugadas.
+	 */
+	public int consultarNumeroJugadas() {
+		return jugadas.length;
+	}
+
+	/**
+	 * Indica si este resultado es igual a otro objeto.
+	 *
+	 * @param obj Objeto a comparar.
+	 * @return {@code true} si ambos resultados coinciden en número, ganador y jugadas.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ResultadoPartida otro && numero == otro.numero && ganador == otro.ganador
+				&& Arrays.equals(jugadas, otro.jugadas);
+	}
+
+	/**
+	 * Devuelve el código hash de este resultado.
+	 *
+	 * @return Código hash.
+	 */
+	@Override
+	public int hashCode() {
+		return (Long.hashCode(numero) * 31 + (ganador == null ? 0 : ganador.hashCode())) * 31 + Arrays.hashCode(jugadas);
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de este resultado.
+	 *
+	 * @return Una representación de cadena de caracteres ({@code String}) de este resultado.
+	 */
+	@Override
+	public String toString() {
+		return "partida " + numero + ": " + (ganador == null ? "tablas" : "gana " + ganador) + " en " + jugadas.length
+				+ " jugadas";
+	}
+
+}
@@ -46,6 +46,14 @@ public class Celda {
 	 */
 	private Pieza pieza;
 
+	/**
+	 * Referencia al tablero binario que se mantiene sincronizado con el contenido de la celda. Vale {@code null} para
+	 * las celdas que no pertenecen a ningún tablero (por ejemplo, los clones).
+	 * 
+	 * @see brandubh.modelo.TableroBinario
+	 */
+	private TableroBinario tableroBinario;
+
 	/**
 	 * Constructor para la clase {@code Celda} a partir de una coordenada como entrada. Crea por defecto una celda de tipo normal.
 	 *
@@ -71,6 +79,20 @@ public class Celda {
 		this.tipoCelda = tipoCelda;
 	}
 
+	/**
+	 * Constructor para la clase {@code Celda} de uso interno por el tablero. Crea una celda del tipo especificado cuyo 
+	 * contenido se refleja en el tablero binario indicado.
+	 *
+	 * @param coordenada Referencia a objeto de tipo {@code Coordenada} en la que se sitúa la celda creada.
+	 * @param tipoCelda Referencia a objeto de tipo {@code TipoCelda} que indica el tipo (trono, provincia o normal) de la celda creada.
+	 * @param tableroBinario Tablero binario que se mantiene sincronizado con la celda.
+	 * @see brandubh.modelo.TableroBinario
+	 */
+	Celda(Coordenada coordenada, TipoCelda tipoCelda, TableroBinario tableroBinario) {
+		this(coordenada, tipoCelda);
+		this.tableroBinario = tableroBinario;
+	}
+
 	/**
 	 * Devuelve un clon en profundidad de la celda actual.
 	 * 
@@ -91,6 +113,15 @@ public class Celda {
 	 */
 	public void colocar(Pieza pieza) {
 		this.pieza = pieza;
+
+		if (tableroBinario != null) {
+			int indice = TableroBinario.consultarIndice(coordenada);
+			if (pieza == null) {
+				tableroBinario.eliminarPieza(indice);
+			} else {
+				tableroBinario.colocar(indice, pieza.consultarTipoPieza());
+			}
+		}
 	}
 
 	/**
@@ -141,6 +172,10 @@ public class Celda {
 	 */
 	public void eliminarPieza() {
 		pieza = null;
+
+		if (tableroBinario != null) {
+			tableroBinario.eliminarPieza(TableroBinario.consultarIndice(coordenada));
+		}
 	}
 
 	/**
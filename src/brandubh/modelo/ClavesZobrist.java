@@ -0,0 +1,82 @@
+/**
+ * Clase de utilidad con las claves aleatorias empleadas para calcular el hash Zobrist de una posición.
+ * <p>
+ * El hash Zobrist de una posición se obtiene combinando mediante XOR una clave por cada pieza (según su tipo y
+ * celda) y una clave para el turno, de forma que puede actualizarse en tiempo constante con cada cambio.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.modelo;
+
+import java.util.SplittableRandom;
+
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Claves Zobrist para cada tipo de pieza en cada celda del tablero y para el turno.
+ * <p>
+ * Las claves se generan con una semilla fija, por lo que son idénticas en todas las ejecuciones y pueden 
+ * almacenarse de forma persistente (por ejemplo, en índices de posiciones).
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.modelo.TableroBinario#consultarClave()
+ */
+public final class ClavesZobrist {
+
+	/**
+	 * Semilla fija para la generación de las claves.
+	 */
+	private static final long SEMILLA = 0x42524E4442554248L;
+
+	/**
+	 * Claves de cada tipo de pieza ({@code TipoPieza.ordinal()}) en cada celda del tablero binario.
+	 */
+	private static final long[][] CLAVES_PIEZAS = new long[TipoPieza.values().length][TableroBinario.NUMERO_CELDAS];
+
+	/**
+	 * Clave que se combina cuando el turno corresponde al jugador con piezas blancas.
+	 */
+	private static final long CLAVE_TURNO_BLANCO;
+
+	static {
+		SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+
+		for (long[] claves : CLAVES_PIEZAS) {
+			for (int indice = 0; indice < claves.length; indice++) {
+				claves[indice] = aleatorio.nextLong();
+			}
+		}
+
+		CLAVE_TURNO_BLANCO = aleatorio.nextLong();
+	}
+
+	/** Oculta el constructor por defecto. */
+	private ClavesZobrist() {
+	}
+
+	/**
+	 * Devuelve la clave de una pieza del tipo indicado en la celda indicada.
+	 *
+	 * @param tipoPieza Tipo de la pieza.
+	 * @param indice Índice de la celda en el tablero binario.
+	 * @return Clave de la pieza en la celda.
+	 */
+	public static long consultarClave(TipoPieza tipoPieza, int indice) {
+		return CLAVES_PIEZAS[tipoPieza.ordinal()][indice];
+	}
+
+	/**
+	 * Devuelve la clave correspondiente al turno indicado.
+	 *
+	 * @param turno Color del jugador con el turno.
+	 * @return Clave del turno ({@code 0} para el jugador con piezas negras o turno nulo).
+	 */
+	public static long consultarClaveTurno(Color turno) {
+		return turno == Color.BLANCO ? CLAVE_TURNO_BLANCO : 0L;
+	}
+
+}
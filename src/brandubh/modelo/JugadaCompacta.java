@@ -0,0 +1,251 @@
+/**
+ * Clase de utilidad para representar las jugadas codificadas en un único entero.
+ * <p>
+ * Permite almacenar listas de jugadas, registros de partidas o pilas de búsqueda en arrays de tipos primitivos
+ * ({@code int[]} o {@code short[]}) en lugar de en objetos de tipo {@code Jugada}.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.modelo;
+
+import brandubh.util.Coordenada;
+import brandubh.util.Traductor;
+
+/**
+ * Codificación compacta de jugadas en un entero de 16 bits.
+ * <p>
+ * El formato de una jugada codificada es el siguiente:
+ * <ul>
+ * <li>bits 0 a 5: índice de la celda de destino,</li>
+ * <li>bits 6 a 11: índice de la celda de origen,</li>
+ * <li>bits 12 a 15: piezas capturadas, un bit por cada sentido ({@code Sentido.ordinal()}) desde la celda de destino.</li>
+ * </ul>
+ * Los índices de celda son los del tablero binario ({@code fila * 7 + columna}). Al ocupar 16 bits, una jugada
+ * codificada puede guardarse también en un {@code short}.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.modelo.TableroBinario
+ * @see brandubh.modelo.Jugada
+ */
+public final class JugadaCompacta {
+
+	/**
+	 * Valor que representa una jugada no válida.
+	 */
+	public static final int NINGUNA = -1;
+
+	/**
+	 * Desplazamiento en bits del índice de la celda de origen.
+	 */
+	private static final int DESPLAZAMIENTO_ORIGEN = 6;
+
+	/**
+	 * Desplazamiento en bits de las marcas de captura.
+	 */
+	private static final int DESPLAZAMIENTO_CAPTURAS = 12;
+
+	/**
+	 * Máscara de un índice de celda.
+	 */
+	private static final int MASCARA_INDICE = 0x3F;
+
+	/**
+	 * Máscara de las marcas de captura (una por sentido).
+	 */
+	private static final int MASCARA_CAPTURAS = 0xF;
+
+	/** Oculta el constructor por defecto. */
+	private JugadaCompacta() {
+	}
+
+	/**
+	 * Codifica una jugada sin capturas a partir de los índices de sus celdas de origen y destino.
+	 *
+	 * @param origen Índice de la celda de origen.
+	 * @param destino Índice de la celda de destino.
+	 * @return Jugada codificada.
+	 */
+	public static int codificar(int origen, int destino) {
+		return (origen << DESPLAZAMIENTO_ORIGEN) | destino;
+	}
+
+	/**
+	 * Codifica una jugada junto con las piezas que captura.
+	 * <p>
+	 * Solo pueden capturarse piezas contiguas a la celda de destino, por lo que cada captura se guarda como el sentido
+	 * en el que se encuentra respecto al destino. Las celdas de la máscara no contiguas al destino se ignoran.
+	 *
+	 * @param origen Índice de la celda de origen.
+	 * @param destino Índice de la celda de destino.
+	 * @param capturas Máscara de bits del tablero binario con las celdas de las piezas capturadas.
+	 * @return Jugada codificada con sus capturas.
+	 */
+	public static int codificar(int origen, int destino, long capturas) {
+
+		int marcas = 0;
+
+		for (int sentido = 0; sentido < 4; sentido++) {
+
+			int contigua = TableroBinario.consultarContigua(destino, sentido);
+
+			if (contigua >= 0 && (capturas & (1L << contigua)) != 0) {
+				marcas |= 1 << sentido;
+			}
+		}
+
+		return codificar(origen, destino) | (marcas << DESPLAZAMIENTO_CAPTURAS);
+	}
+
+	/**
+	 * Devuelve el índice de la celda de origen de una jugada codificada.
+	 *
+	 * @param jugada Jugada codificada.
+	 * @return Índice de la celda de origen.
+	 */
+	public static int consultarOrigen(int jugada) {
+		return (jugada >>> DESPLAZAMIENTO_ORIGEN) & MASCARA_INDICE;
+	}
+
+	/**
+	 * Devuelve el índice de la celda de destino de una jugada codificada.
+	 *
+	 * @param jugada Jugada codificada.
+	 * @return Índice de la celda de destino.
+	 */
+	public static int consultarDestino(int jugada) {
+		return jugada & MASCARA_INDICE;
+	}
+
+	/**
+	 * Devuelve la máscara de bits del tablero binario con las celdas capturadas por una jugada codificada.
+	 *
+	 * @param jugada Jugada codificada.
+	 * @return Máscara de bits con las celdas capturadas ({@code 0} si no hay capturas).
+	 */
+	public static long consultarCapturas(int jugada) {
+
+		int marcas = (jugada >>> DESPLAZAMIENTO_CAPTURAS) & MASCARA_CAPTURAS;
+
+		if (marcas == 0) {
+			return 0L;
+		}
+
+		int destino = consultarDestino(jugada);
+		long capturas = 0L;
+
+		for (int sentido = 0; sentido < 4; sentido++) {
+
+			if ((marcas & (1 << sentido)) != 0) {
+				capturas |= 1L << TableroBinario.consultarContigua(destino, sentido);
+			}
+		}
+
+		return capturas;
+	}
+
+	/**
+	 * Devuelve la jugada codificada sin las marcas de captura.
+	 *
+	 * @param jugada Jugada codificada.
+	 * @return Jugada codificada únicamente con origen y destino.
+	 */
+	public static int consultarSinCapturas(int jugada) {
+		return jugada & ((MASCARA_INDICE << DESPLAZAMIENTO_ORIGEN) | MASCARA_INDICE);
+	}
+
+	/**
+	 * Convierte una jugada codificada a un valor de tipo {@code short} para su almacenamiento.
+	 *
+	 * @param jugada Jugada codificada.
+	 * @return Jugada codificada como {@code short}.
+	 */
+	public static short aShort(int jugada) {
+		return (short) jugada;
+	}
+
+	/**
+	 * Recupera una jugada codificada almacenada como valor de tipo {@code short}.
+	 *
+	 * @param jugada Jugada codificada como {@code short}.
+	 * @return Jugada codificada.
+	 */
+	public static int desdeShort(short jugada) {
+		return jugada & 0xFFFF;
+	}
+
+	/**
+	 * Codifica un objeto de tipo {@code Jugada}.
+	 *
+	 * @param jugada Jugada a codificar.
+	 * @return Jugada codificada sin capturas o {@link #NINGUNA} si la jugada o alguna de sus celdas no son válidas.
+	 * @see brandubh.modelo.Jugada
+	 */
+	public static int desdeJugada(Jugada jugada) {
+
+		if (jugada == null || jugada.origen() == null || jugada.destino() == null) {
+			return NINGUNA;
+		}
+
+		int origen = TableroBinario.consultarIndice(jugada.origen().consultarCoordenada());
+		int destino = TableroBinario.consultarIndice(jugada.destino().consultarCoordenada());
+
+		if (origen < 0 || destino < 0) {
+			return NINGUNA;
+		}
+
+		return codificar(origen, destino);
+	}
+
+	/**
+	 * Construye un objeto de tipo {@code Jugada} a partir de una jugada codificada, con clones en profundidad de las
+	 * celdas del tablero indicado.
+	 *
+	 * @param jugada Jugada codificada.
+	 * @param tablero Tablero del que se obtienen las celdas de origen y destino.
+	 * @return Jugada con las celdas de origen y destino.
+	 * @see brandubh.modelo.Jugada
+	 */
+	public static Jugada aJugada(int jugada, Tablero tablero) {
+		return new Jugada(tablero.consultarCelda(TableroBinario.consultarCoordenada(consultarOrigen(jugada))),
+				tablero.consultarCelda(TableroBinario.consultarCoordenada(consultarDestino(jugada))));
+	}
+
+	/**
+	 * Devuelve el texto en notación algebraica de una jugada codificada (por ejemplo {@code d1d3}).
+	 *
+	 * @param jugada Jugada codificada.
+	 * @return Texto de cuatro caracteres con las celdas de origen y destino en notación algebraica.
+	 * @see brandubh.util.Traductor
+	 */
+	public static String aTexto(int jugada) {
+		return Traductor.consultarTextoEnNotacionAlgebraica(TableroBinario.consultarCoordenada(consultarOrigen(jugada)))
+				+ Traductor.consultarTextoEnNotacionAlgebraica(TableroBinario.consultarCoordenada(consultarDestino(jugada)));
+	}
+
+	/**
+	 * Codifica una jugada expresada en notación algebraica (por ejemplo {@code d1d3}).
+	 *
+	 * @param texto Texto de cuatro caracteres con las celdas de origen y destino en notación algebraica.
+	 * @return Jugada codificada sin capturas o {@link #NINGUNA} si el texto no es válido.
+	 * @see brandubh.util.Traductor
+	 */
+	public static int desdeTexto(String texto) {
+
+		if (texto == null || texto.length() != 4) {
+			return NINGUNA;
+		}
+
+		Coordenada origen = Traductor.consultarCoordenadaParaNotacionAlgebraica(texto.substring(0, 2));
+		Coordenada destino = Traductor.consultarCoordenadaParaNotacionAlgebraica(texto.substring(2, 4));
+
+		if (origen == null || destino == null) {
+			return NINGUNA;
+		}
+
+		return codificar(TableroBinario.consultarIndice(origen), TableroBinario.consultarIndice(destino));
+	}
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Interfaz para seguir los cambios en la composición de un tablero binario.
+ * <p>
+ * Permite mantener de forma incremental información derivada de la posición (por ejemplo, los términos de una
+ * función de evaluación) sin volver a recorrer el tablero tras cada jugada.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.modelo;
+
+import brandubh.util.TipoPieza;
+
+/**
+ * Observador de los cambios en la composición de un tablero binario.
+ * <p>
+ * El tablero notifica cada pieza colocada o eliminada, de forma que el observador puede actualizar su estado en tiempo
+ * constante. Los movimientos se notifican como la eliminación de la pieza en la celda de origen seguida de su
+ * colocación en la celda de destino. Cuando la composición se sustituye por completo se notifica un reinicio.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.modelo.TableroBinario#asignarObservador(ObservadorTablero)
+ */
+public interface ObservadorTablero {
+
+	/**
+	 * Notifica que se ha colocado una pieza en una celda vacía.
+	 *
+	 * @param indice Índice de la celda.
+	 * @param tipoPieza Tipo de la pieza colocada.
+	 * @see brandubh.util.TipoPieza
+	 */
+	void notificarColocacion(int indice, TipoPieza tipoPieza);
+
+	/**
+	 * Notifica que se ha eliminado la pieza de una celda, que queda vacía.
+	 *
+	 * @param indice Índice de la celda.
+	 * @param tipoPieza Tipo de la pieza eliminada.
+	 * @see brandubh.util.TipoPieza
+	 */
+	void notificarEliminacion(int indice, TipoPieza tipoPieza);
+
+	/**
+	 * Notifica que la composición del tablero se ha sustituido por completo, por lo que el observador debe recalcular
+	 * su estado a partir del tablero. También se notifica al asignar el observador.
+	 *
+	 * @param tablero Tablero con la nueva composición.
+	 */
+	void notificarReinicio(TableroBinario tablero);
+
+}
@@ -0,0 +1,299 @@
+/**
+ * Simetrías del tablero de Brandubh.
+ * <p>
+ * La disposición de trono y provincias y la configuración inicial son invariantes frente a los giros y reflejos del 
+ * tablero, por lo que las posiciones relacionadas por una simetría son equivalentes y pueden almacenarse una sola vez.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.modelo;
+
+import brandubh.util.Color;
+import brandubh.util.Coordenada;
+import brandubh.util.TipoPieza;
+
+/**
+ * Las ocho simetrías del tablero cuadrado (grupo diédrico D4): cuatro giros y cuatro reflejos.
+ * <p>
+ * Cada simetría transforma índices de celda del tablero binario, máscaras de bits, coordenadas, jugadas codificadas 
+ * y posiciones completas. Las tablas de transformación de índices y de claves Zobrist transformadas se calculan una 
+ * sola vez, de modo que la clave de la imagen de una posición se obtiene sin construirla.
+ * <p>
+ * La posición canónica de una posición es, de entre sus ocho imágenes, la de menor clave Zobrist como entero sin 
+ * signo (a igualdad, la de la primera simetría en orden de declaración). Todas las posiciones simétricas entre sí 
+ * comparten la misma clave canónica, que puede emplearse en tablas, libros de aperturas o bases de datos para 
+ * guardar una única entrada por cada clase de posiciones equivalentes. Como el turno no cambia con la simetría, su 
+ * clave se combina igual que en {@link ClavesZobrist}.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.modelo.ClavesZobrist
+ */
+public enum Simetria {
+
+	/**
+	 * Identidad.
+	 */
+	IDENTIDAD(1, 0, 0, 1),
+
+	/**
+	 * Giro de 90 grados en el sentido de las agujas del reloj.
+	 */
+	GIRO_90(0, 1, -1, 0),
+
+	/**
+	 * Giro de 180 grados.
+	 */
+	GIRO_180(-1, 0, 0, -1),
+
+	/**
+	 * Giro de 270 grados en el sentido de las agujas del reloj.
+	 */
+	GIRO_270(0, -1, 1, 0),
+
+	/**
+	 * Reflejo respecto a la columna central.
+	 */
+	REFLEJO_HORIZONTAL(1, 0, 0, -1),
+
+	/**
+	 * Reflejo respecto a la fila central.
+	 */
+	REFLEJO_VERTICAL(-1, 0, 0, 1),
+
+	/**
+	 * Reflejo respecto a la diagonal principal (de la celda superior izquierda a la inferior derecha).
+	 */
+	REFLEJO_DIAGONAL(0, 1, 1, 0),
+
+	/**
+	 * Reflejo respecto a la diagonal secundaria (de la celda superior derecha a la inferior izquierda).
+	 */
+	REFLEJO_ANTIDIAGONAL(0, -1, -1, 0);
+
+	/**
+	 * Índice de la última fila o columna.
+	 */
+	private static final int ULTIMA = TableroBinario.NUMERO_FILAS - 1;
+
+	/**
+	 * Índice de la celda imagen de cada celda.
+	 */
+	private final int[] imagenes = new int[TableroBinario.NUMERO_CELDAS];
+
+	/**
+	 * Claves Zobrist de las imágenes de cada tipo de pieza en cada celda.
+	 */
+	private final long[][] claves = new long[TipoPieza.values().length][TableroBinario.NUMERO_CELDAS];
+
+	/**
+	 * Constructor para el tipo enumerado {@code Simetria} a partir de su matriz de transformación.
+	 * <p>
+	 * La fila y la columna de la imagen son combinaciones de la fila y la columna de la celda con coeficientes 
+	 * {@code -1}, {@code 0} o {@code 1}; un coeficiente negativo cuenta desde la última fila o columna.
+	 *
+	 * @param filaPorFila Coeficiente de la fila en la fila de la imagen.
+	 * @param filaPorColumna Coeficiente de la columna en la fila de la imagen.
+	 * @param columnaPorFila Coeficiente de la fila en la columna de la imagen.
+	 * @param columnaPorColumna Coeficiente de la columna en la columna de la imagen.
+	 */
+	Simetria(int filaPorFila, int filaPorColumna, int columnaPorFila, int columnaPorColumna) {
+
+		for (int indice = 0; indice < TableroBinario.NUMERO_CELDAS; indice++) {
+
+			int fila = indice / TableroBinario.NUMERO_COLUMNAS;
+			int columna = indice % TableroBinario.NUMERO_COLUMNAS;
+			int filaImagen = filaPorFila * fila + filaPorColumna * columna
+					+ (filaPorFila + filaPorColumna < 0 ? ULTIMA : 0);
+			int columnaImagen = columnaPorFila * fila + columnaPorColumna * columna
+					+ (columnaPorFila + columnaPorColumna < 0 ? ULTIMA : 0);
+
+			imagenes[indice] = TableroBinario.consultarIndice(filaImagen, columnaImagen);
+
+			for (TipoPieza tipoPieza : TipoPieza.values()) {
+				claves[tipoPieza.ordinal()][indice] = ClavesZobrist.consultarClave(tipoPieza, imagenes[indice]);
+			}
+		}
+	}
+
+	/**
+	 * Devuelve el índice de la celda imagen de una celda.
+	 *
+	 * @param indice Índice de la celda en el tablero binario.
+	 * @return Índice de la celda imagen.
+	 */
+	public int transformar(int indice) {
+		return imagenes[indice];
+	}
+
+	/**
+	 * Devuelve la coordenada imagen de una coordenada.
+	 *
+	 * @param coordenada Coordenada de una celda del tablero.
+	 * @return Coordenada imagen.
+	 */
+	public Coordenada transformar(Coordenada coordenada) {
+		return TableroBinario.consultarCoordenada(imagenes[TableroBinario.consultarIndice(coordenada)]);
+	}
+
+	/**
+	 * Devuelve la máscara de bits imagen de una máscara de bits.
+	 *
+	 * @param mascara Máscara de bits de celdas del tablero binario.
+	 * @return Máscara de bits con las celdas imagen.
+	 */
+	public long transformarMascara(long mascara) {
+
+		long imagen = 0L;
+
+		for (long pendientes = mascara; pendientes != 0; pendientes &= pendientes - 1) {
+			imagen |= 1L << imagenes[Long.numberOfTrailingZeros(pendientes)];
+		}
+
+		return imagen;
+	}
+
+	/**
+	 * Devuelve la jugada imagen de una jugada codificada, incluidas sus marcas de captura.
+	 *
+	 * @param jugada Jugada codificada o {@link JugadaCompacta#NINGUNA}.
+	 * @return Jugada codificada imagen o {@link JugadaCompacta#NINGUNA}.
+	 * @see brandubh.modelo.JugadaCompacta
+	 */
+	public int transformarJugada(int jugada) {
+
+		if (jugada == JugadaCompacta.NINGUNA) {
+			return JugadaCompacta.NINGUNA;
+		}
+
+		return JugadaCompacta.codificar(imagenes[JugadaCompacta.consultarOrigen(jugada)],
+				imagenes[JugadaCompacta.consultarDestino(jugada)],
+				transformarMascara(JugadaCompacta.consultarCapturas(jugada)));
+	}
+
+	/**
+	 * Devuelve la clave Zobrist de la imagen de una posición, sin construirla.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @return Clave Zobrist de las piezas de la posición imagen (sin el turno).
+	 */
+	public long consultarClave(TableroBinario tablero) {
+		return combinar(claves[TipoPieza.ATACANTE.ordinal()], tablero.consultarAtacantes())
+				^ combinar(claves[TipoPieza.DEFENSOR.ordinal()], tablero.consultarDefensores())
+				^ combinar(claves[TipoPieza.REY.ordinal()], tablero.consultarRey());
+	}
+
+	/**
+	 * Coloca en un tablero binario la imagen de una posición.
+	 *
+	 * @param origen Tablero binario con la posición. No se modifica.
+	 * @param destino Tablero binario vacío en el que se coloca la imagen (distinto del de origen).
+	 */
+	public void transformar(TableroBinario origen, TableroBinario destino) {
+		for (long piezas = origen.consultarOcupadas(); piezas != 0; piezas &= piezas - 1) {
+			int indice = Long.numberOfTrailingZeros(piezas);
+			destino.colocar(imagenes[indice], origen.consultarTipoPieza(indice));
+		}
+	}
+
+	/**
+	 * Devuelve un tablero nuevo con la imagen de la posición de un tablero.
+	 *
+	 * @param tablero Tablero con la posición. No se modifica.
+	 * @return Tablero nuevo con la posición imagen.
+	 */
+	public Tablero transformar(Tablero tablero) {
+
+		Tablero imagen = new Tablero();
+		TableroBinario binario = tablero.obtenerTableroBinario();
+
+		for (long piezas = binario.consultarOcupadas(); piezas != 0; piezas &= piezas - 1) {
+			int indice = Long.numberOfTrailingZeros(piezas);
+			imagen.colocar(new Pieza(binario.consultarTipoPieza(indice)),
+					TableroBinario.consultarCoordenada(imagenes[indice]));
+		}
+
+		return imagen;
+	}
+
+	/**
+	 * Devuelve la simetría inversa, que deshace esta simetría.
+	 *
+	 * @return Simetría inversa.
+	 */
+	public Simetria consultarInversa() {
+		switch (this) {
+		case GIRO_90:
+			return GIRO_270;
+		case GIRO_270:
+			return GIRO_90;
+		default:
+			return this;
+		}
+	}
+
+	/**
+	 * Devuelve la simetría que lleva una posición a su posición canónica.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @return Primera simetría cuya imagen tiene la menor clave Zobrist como entero sin signo.
+	 */
+	public static Simetria consultarCanonica(TableroBinario tablero) {
+
+		Simetria[] simetrias = values();
+		Simetria canonica = IDENTIDAD;
+		long menor = tablero.consultarClave();
+
+		for (int i = 1; i < simetrias.length; i++) {
+			long clave = simetrias[i].consultarClave(tablero);
+			if (Long.compareUnsigned(clave, menor) < 0) {
+				menor = clave;
+				canonica = simetrias[i];
+			}
+		}
+
+		return canonica;
+	}
+
+	/**
+	 * Devuelve la clave canónica de una posición con el turno, común a todas las posiciones simétricas.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @param turno Color del jugador con el turno.
+	 * @return Clave Zobrist de la posición canónica combinada con la del turno.
+	 */
+	public static long consultarClaveCanonica(TableroBinario tablero, Color turno) {
+
+		long menor = tablero.consultarClave();
+
+		for (Simetria simetria : values()) {
+			long clave = simetria.consultarClave(tablero);
+			if (Long.compareUnsigned(clave, menor) < 0) {
+				menor = clave;
+			}
+		}
+
+		return menor ^ ClavesZobrist.consultarClaveTurno(turno);
+	}
+
+	/**
+	 * Combina las claves de las celdas de una máscara.
+	 *
+	 * @param claves Claves de cada celda.
+	 * @param mascara Máscara de bits de celdas.
+	 * @return Combinación mediante XOR de las claves de las celdas de la máscara.
+	 */
+	private static long combinar(long[] claves, long mascara) {
+
+		long clave = 0L;
+
+		for (long pendientes = mascara; pendientes != 0; pendientes &= pendientes - 1) {
+			clave ^= claves[Long.numberOfTrailingZeros(pendientes)];
+		}
+
+		return clave;
+	}
+
+}
@@ -11,7 +11,6 @@ package brandubh.modelo;
 import java.util.Arrays;
 
 import brandubh.util.Coordenada;
-import brandubh.util.TipoCelda;
 import brandubh.util.TipoPieza;
 
 /**
@@ -30,6 +29,13 @@ public class Tablero {
 	 */
 	private Celda[][] matriz = new Celda[7][7];
 
+	/**
+	 * Representación mediante mapas de bits de la composición del tablero, sincronizada con las celdas de la matriz.
+	 * 
+	 * @see brandubh.modelo.TableroBinario
+	 */
+	private TableroBinario tableroBinario = new TableroBinario();
+
 	/**
 	 * Constructor para la clase {@code Tablero}.
 	 * <p>
@@ -43,13 +49,9 @@ public class Tablero {
 
 		for (int i = 0; i < 7; i++) {
 			for (int j = 0; j < 7; j++) {
-				if (i == 3 && j == 3) {
-					matriz[3][3] = new Celda(new Coordenada(3, 3), TipoCelda.TRONO);
-				} else if ((i == 0 && j == 0) || (i == 0 && j == 6) || (i == 6 && j == 0) || (i == 6 && j == 6)) {
-					matriz[i][j] = new Celda(new Coordenada(i, j), TipoCelda.PROVINCIA);
-				} else {
-					matriz[i][j] = new Celda(new Coordenada(i, j));
-				}
+				int indice = TableroBinario.consultarIndice(i, j);
+				matriz[i][j] = new Celda(TableroBinario.consultarCoordenada(indice), TableroBinario.consultarTipoCelda(indice),
+						tableroBinario);
 			}
 		}
 
@@ -87,28 +89,7 @@ public class Tablero {
 	 * @return Una representación de cadena de caracteres ({@code String}) del tablero y su composición.
 	 */
 	public String aTexto() {
-
-		String pantalla = "";
-
-		for (int i = 0; i < 7; i++) {
-
-			pantalla += "\n" + (7 - i) + " ";
-
-			for (int j = 0; j < 7; j++) {
-
-				if (matriz[i][j].estaVacia()) {
-					pantalla = pantalla + "- ";
-				} else {
-					TipoPieza tipoPieza = matriz[i][j].consultarPieza().consultarTipoPieza();
-					pantalla += Character.toString(tipoPieza.toChar());
-					pantalla += " ";
-				}
-
-			}
-		}
-		pantalla += "\n  a b c d e f g";
-
-		return pantalla;
+		return tableroBinario.aTexto();
 	}
 
 	/**
@@ -120,15 +101,12 @@ public class Tablero {
 
 		Tablero tablero = new Tablero();
 
-		Celda[] celdas = this.consultarCeldas();
-		int i = 0;
+		long ocupadas = tableroBinario.consultarOcupadas();
 
-		for (int columna = 0; columna < consultarNumeroColumnas(); columna++) {
-			for (int fila = 0; fila < consultarNumeroFilas(); fila++) {
-				Celda nuevaCelda = celdas[i];
-				tablero.colocar(nuevaCelda.consultarPieza(), nuevaCelda.consultarCoordenada());
-				i++;
-			}
+		while (ocupadas != 0) {
+			int indice = Long.numberOfTrailingZeros(ocupadas);
+			ocupadas &= ocupadas - 1;
+			tablero.colocar(new Pieza(tableroBinario.consultarTipoPieza(indice)), TableroBinario.consultarCoordenada(indice));
 		}
 
 		return tablero;
@@ -316,23 +294,7 @@ public class Tablero {
 	 * @return Número entero correspondiente al número de piezas en el tablero del tipo indicado.
 	 */
 	public int consultarNumeroPiezas(TipoPieza tipoPieza) {
-
-		int recuento = 0;
-
-		for (int i = 0; i < consultarNumeroFilas(); i++) {
-			for (int j = 0; j < consultarNumeroColumnas(); j++) {
-
-				Celda celda = matriz[i][j];
-				Pieza pieza = celda.consultarPieza();
-
-				if (!celda.estaVacia() && (pieza.consultarTipoPieza() == tipoPieza)) {
-					recuento++;
-				}
-			}
-		}
-
-		return recuento;
-
+		return tableroBinario.consultarNumeroPiezas(tipoPieza);
 	}
 
 	/**
@@ -380,19 +342,40 @@ public class Tablero {
 	}
 
 	/**
-	 * Genera un código hash para este tablero basado en su tipo de pieza.
+	 * Devuelve la referencia a la representación mediante mapas de bits del tablero.
+	 * <p>
+	 * Permite realizar consultas sobre la composición del tablero sin crear objetos. El tablero binario devuelto se 
+	 * mantiene sincronizado con las celdas, por lo que las modificaciones deben realizarse a través de este tablero 
+	 * (o de sus celdas) y no directamente sobre el tablero binario.
+	 * 
+	 * @return Referencia al tablero binario asociado.
+	 * @see brandubh.modelo.TableroBinario
+	 */
+	public TableroBinario obtenerTableroBinario() {
+		return tableroBinario;
+	}
+
+	/**
+	 * Devuelve el hash Zobrist de la composición del tablero (sin incluir el turno).
 	 * <p>
-	 * Esta implementación utiliza el método {@code Arrays.deepHashCode} para calcular el código hash para 
-	 * el array {@code matriz} interno.
+	 * El hash se actualiza de forma incremental con cada colocación o eliminación de piezas, por lo que la consulta 
+	 * se realiza en tiempo constante.
+	 *
+	 * @return Hash Zobrist de 64 bits de la posición de las piezas.
+	 * @see brandubh.modelo.ClavesZobrist
+	 */
+	public long consultarClaveZobrist() {
+		return tableroBinario.consultarClave();
+	}
+
+	/**
+	 * Genera un código hash para este tablero basado en su hash Zobrist.
 	 *
 	 * @return Un código hash para este tablero.
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + Arrays.deepHashCode(matriz);
-		return result;
+		return tableroBinario.hashCode();
 	}
 
 	/**
@@ -411,7 +394,7 @@ public class Tablero {
 		if (getClass() != obj.getClass())
 			return false;
 		Tablero other = (Tablero) obj;
-		return Arrays.deepEquals(matriz, other.matriz);
+		return tableroBinario.equals(other.tableroBinario);
 	}
 
 	/**
@@ -0,0 +1,634 @@
+/**
+ * Clase que define una representación compacta del tablero de Brandubh mediante mapas de bits.
+ * <p>
+ * Las 49 celdas del tablero se empaquetan en enteros de 64 bits (uno por tipo de pieza), de forma que las consultas
+ * y modificaciones habituales se resuelven con operaciones a nivel de bit y sin crear objetos.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.modelo;
+
+import brandubh.util.Color;
+import brandubh.util.Coordenada;
+import brandubh.util.Sentido;
+import brandubh.util.TipoCelda;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tablero de Brandubh representado mediante mapas de bits.
+ * <p>
+ * Cada celda se identifica por un índice entre {@code 0} y {@code 48} calculado como {@code fila * 7 + columna}.
+ * El bit correspondiente a ese índice se activa en el mapa de bits del tipo de pieza que ocupa la celda. Las celdas de
+ * tipo trono y provincia se describen mediante máscaras constantes.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+public class TableroBinario {
+
+	/**
+	 * Número de filas del tablero.
+	 */
+	public static final int NUMERO_FILAS = 7;
+
+	/**
+	 * Número de columnas del tablero.
+	 */
+	public static final int NUMERO_COLUMNAS = 7;
+
+	/**
+	 * Número total de celdas del tablero.
+	 */
+	public static final int NUMERO_CELDAS = NUMERO_FILAS * NUMERO_COLUMNAS;
+
+	/**
+	 * Máscara con los bits de todas las celdas del tablero activados.
+	 */
+	public static final long MASCARA_TABLERO = (1L << NUMERO_CELDAS) - 1;
+
+	/**
+	 * Índice de la celda de tipo trono.
+	 */
+	public static final int INDICE_TRONO = 3 * NUMERO_COLUMNAS + 3;
+
+	/**
+	 * Máscara con el bit de la celda de tipo trono activado.
+	 */
+	public static final long TRONO = 1L << INDICE_TRONO;
+
+	/**
+	 * Máscara con los bits de las cuatro celdas de tipo provincia (esquinas) activados.
+	 */
+	public static final long PROVINCIA = (1L << 0) | (1L << 6) | (1L << 42) | (1L << 48);
+
+	/**
+	 * Coordenadas precalculadas para cada índice de celda, evitando crear nuevas instancias en cada consulta.
+	 */
+	private static final Coordenada[] COORDENADAS = new Coordenada[NUMERO_CELDAS];
+
+	/**
+	 * Máscaras precalculadas con las celdas contiguas (en horizontal y vertical) a cada índice de celda.
+	 */
+	private static final long[] CONTIGUAS = new long[NUMERO_CELDAS];
+
+	/**
+	 * Índices precalculados de la celda contigua a cada celda en cada sentido (ordenados según {@code Sentido.ordinal()}),
+	 * o {@code -1} si la celda contigua queda fuera del tablero.
+	 */
+	private static final int[][] CONTIGUA_EN_SENTIDO = new int[NUMERO_CELDAS][Sentido.values().length];
+
+	static {
+		for (int indice = 0; indice < NUMERO_CELDAS; indice++) {
+
+			int fila = indice / NUMERO_COLUMNAS;
+			int columna = indice % NUMERO_COLUMNAS;
+
+			COORDENADAS[indice] = new Coordenada(fila, columna);
+
+			long contiguas = 0L;
+
+			if (fila > 0) {
+				contiguas |= 1L << (indice - NUMERO_COLUMNAS);
+			}
+			if (fila < NUMERO_FILAS - 1) {
+				contiguas |= 1L << (indice + NUMERO_COLUMNAS);
+			}
+			if (columna > 0) {
+				contiguas |= 1L << (indice - 1);
+			}
+			if (columna < NUMERO_COLUMNAS - 1) {
+				contiguas |= 1L << (indice + 1);
+			}
+
+			CONTIGUAS[indice] = contiguas;
+
+			for (Sentido sentido : Sentido.values()) {
+				CONTIGUA_EN_SENTIDO[indice][sentido.ordinal()] = consultarIndice(fila + sentido.consultarDesplazamientoEnFilas(),
+						columna + sentido.consultarDesplazamientoEnColumnas());
+			}
+		}
+	}
+
+	/**
+	 * Mapa de bits con las celdas ocupadas por piezas de tipo atacante.
+	 */
+	private long atacantes;
+
+	/**
+	 * Mapa de bits con las celdas ocupadas por piezas de tipo defensor.
+	 */
+	private long defensores;
+
+	/**
+	 * Mapa de bits con la celda ocupada por la pieza de tipo rey.
+	 */
+	private long rey;
+
+	/**
+	 * Hash Zobrist de la composición del tablero, actualizado en cada colocación, eliminación o movimiento de piezas.
+	 * 
+	 * @see brandubh.modelo.ClavesZobrist
+	 */
+	private long clave;
+
+	/**
+	 * Observador al que se notifican los cambios en la composición del tablero ({@code null} si no hay ninguno).
+	 * 
+	 * @see brandubh.modelo.ObservadorTablero
+	 */
+	private ObservadorTablero observador;
+
+	/**
+	 * Constructor para la clase {@code TableroBinario}. Genera un tablero vacío.
+	 */
+	public TableroBinario() {
+	}
+
+	/**
+	 * Devuelve el índice de la celda con la fila y columna indicadas.
+	 *
+	 * @param fila Fila de la celda.
+	 * @param columna Columna de la celda.
+	 * @return Índice de la celda si la fila y columna están en el tablero y {@code -1} en caso contrario.
+	 */
+	public static int consultarIndice(int fila, int columna) {
+
+		if ((fila < 0) || (fila >= NUMERO_FILAS) || (columna < 0) || (columna >= NUMERO_COLUMNAS)) {
+			return -1;
+		}
+
+		return fila * NUMERO_COLUMNAS + columna;
+	}
+
+	/**
+	 * Devuelve el índice de la celda con la coordenada indicada.
+	 *
+	 * @param coordenada Coordenada de la celda.
+	 * @return Índice de la celda si la coordenada está en el tablero y {@code -1} en caso contrario.
+	 * @see brandubh.util.Coordenada
+	 */
+	public static int consultarIndice(Coordenada coordenada) {
+
+		if (coordenada == null) {
+			return -1;
+		}
+
+		return consultarIndice(coordenada.fila(), coordenada.columna());
+	}
+
+	/**
+	 * Devuelve la coordenada correspondiente al índice de celda indicado.
+	 * <p>
+	 * Las coordenadas devueltas están precalculadas, por lo que no se crea ninguna instancia nueva en cada consulta.
+	 *
+	 * @param indice Índice de la celda.
+	 * @return Coordenada de la celda.
+	 * @see brandubh.util.Coordenada
+	 */
+	public static Coordenada consultarCoordenada(int indice) {
+		return COORDENADAS[indice];
+	}
+
+	/**
+	 * Devuelve el tipo de celda correspondiente al índice de celda indicado.
+	 *
+	 * @param indice Índice de la celda.
+	 * @return Tipo de celda: trono, provincia o normal.
+	 * @see brandubh.util.TipoCelda
+	 */
+	public static TipoCelda consultarTipoCelda(int indice) {
+
+		long bit = 1L << indice;
+
+		if ((bit & TRONO) != 0) {
+			return TipoCelda.TRONO;
+		}
+
+		if ((bit & PROVINCIA) != 0) {
+			return TipoCelda.PROVINCIA;
+		}
+
+		return TipoCelda.NORMAL;
+	}
+
+	/**
+	 * Devuelve la máscara de bits con las celdas contiguas en horizontal y vertical a la celda indicada.
+	 *
+	 * @param indice Índice de la celda.
+	 * @return Máscara de bits con las celdas contiguas.
+	 */
+	public static long consultarContiguas(int indice) {
+		return CONTIGUAS[indice];
+	}
+
+	/**
+	 * Devuelve el índice de la celda contigua a la celda indicada en el sentido especificado.
+	 *
+	 * @param indice Índice de la celda.
+	 * @param sentido Ordinal del sentido ({@code Sentido.ordinal()}) en el que se busca la celda contigua.
+	 * @return Índice de la celda contigua o {@code -1} si queda fuera del tablero.
+	 * @see brandubh.util.Sentido
+	 */
+	public static int consultarContigua(int indice, int sentido) {
+		return CONTIGUA_EN_SENTIDO[indice][sentido];
+	}
+
+	/**
+	 * Devuelve un clon en profundidad de este tablero. El clon no conserva el observador.
+	 *
+	 * @return Copia del tablero y su composición.
+	 */
+	public TableroBinario clonar() {
+
+		TableroBinario tablero = new TableroBinario();
+		tablero.copiar(this);
+
+		return tablero;
+	}
+
+	/**
+	 * Sustituye la composición de este tablero por la del tablero indicado, sin crear objetos nuevos.
+	 * <p>
+	 * El observador de este tablero se mantiene y recibe una notificación de reinicio.
+	 *
+	 * @param otro Tablero cuya composición se copia.
+	 */
+	public void copiar(TableroBinario otro) {
+		this.atacantes = otro.atacantes;
+		this.defensores = otro.defensores;
+		this.rey = otro.rey;
+		this.clave = otro.clave;
+
+		if (observador != null) {
+			observador.notificarReinicio(this);
+		}
+	}
+
+	/**
+	 * Asigna el observador al que se notifican los cambios en la composición del tablero, sustituyendo al anterior.
+	 * <p>
+	 * El observador recibe inmediatamente una notificación de reinicio para que pueda inicializar su estado.
+	 *
+	 * @param observador Observador de los cambios o {@code null} para no notificar los cambios.
+	 * @see brandubh.modelo.ObservadorTablero
+	 */
+	public void asignarObservador(ObservadorTablero observador) {
+
+		this.observador = observador;
+
+		if (observador != null) {
+			observador.notificarReinicio(this);
+		}
+	}
+
+	/**
+	 * Devuelve el observador al que se notifican los cambios en la composición del tablero.
+	 *
+	 * @return Observador de los cambios o {@code null} si no hay ninguno.
+	 * @see brandubh.modelo.ObservadorTablero
+	 */
+	public ObservadorTablero consultarObservador() {
+		return observador;
+	}
+
+	/**
+	 * Coloca una pieza del tipo indicado en la celda con el índice especificado, sustituyendo la pieza existente si la
+	 * hubiese. Si el tipo de pieza es nulo la celda queda vacía.
+	 *
+	 * @param indice Índice de la celda.
+	 * @param tipoPieza Tipo de la pieza a colocar.
+	 * @see brandubh.util.TipoPieza
+	 */
+	public void colocar(int indice, TipoPieza tipoPieza) {
+
+		eliminarPieza(indice);
+
+		if (tipoPieza == null) {
+			return;
+		}
+
+		long bit = 1L << indice;
+
+		clave ^= ClavesZobrist.consultarClave(tipoPieza, indice);
+
+		switch (tipoPieza) {
+		case ATACANTE:
+			atacantes |= bit;
+			break;
+		case DEFENSOR:
+			defensores |= bit;
+			break;
+		case REY:
+			rey |= bit;
+			break;
+		}
+
+		if (observador != null) {
+			observador.notificarColocacion(indice, tipoPieza);
+		}
+	}
+
+	/**
+	 * Elimina la pieza situada en la celda con el índice especificado. Si la celda está vacía no se realiza ninguna acción.
+	 *
+	 * @param indice Índice de la celda.
+	 */
+	public void eliminarPieza(int indice) {
+
+		TipoPieza tipoPieza = consultarTipoPieza(indice);
+
+		if (tipoPieza == null) {
+			return;
+		}
+
+		clave ^= ClavesZobrist.consultarClave(tipoPieza, indice);
+
+		long complemento = ~(1L << indice);
+
+		atacantes &= complemento;
+		defensores &= complemento;
+		rey &= complemento;
+
+		if (observador != null) {
+			observador.notificarEliminacion(indice, tipoPieza);
+		}
+	}
+
+	/**
+	 * Desplaza la pieza situada en la celda de origen a la celda de destino, que debe estar vacía.
+	 * <p>
+	 * No se comprueba la legalidad del movimiento.
+	 *
+	 * @param origen Índice de la celda de origen.
+	 * @param destino Índice de la celda de destino.
+	 * @throws IllegalArgumentException Si la celda de destino está ocupada por otra pieza.
+	 */
+	public void mover(int origen, int destino) {
+
+		TipoPieza tipoPieza = consultarTipoPieza(origen);
+
+		if (tipoPieza == null) {
+			return;
+		}
+
+		if (origen != destino && (consultarOcupadas() & (1L << destino)) != 0) {
+			throw new IllegalArgumentException("La celda de destino " + destino + " está ocupada.");
+		}
+
+		long desplazamiento = (1L << origen) | (1L << destino);
+
+		switch (tipoPieza) {
+		case ATACANTE:
+			atacantes ^= desplazamiento;
+			break;
+		case DEFENSOR:
+			defensores ^= desplazamiento;
+			break;
+		case REY:
+			rey ^= desplazamiento;
+			break;
+		}
+
+		clave ^= ClavesZobrist.consultarClave(tipoPieza, origen) ^ ClavesZobrist.consultarClave(tipoPieza, destino);
+
+		if (observador != null) {
+			observador.notificarEliminacion(origen, tipoPieza);
+			observador.notificarColocacion(destino, tipoPieza);
+		}
+	}
+
+	/**
+	 * Devuelve el tipo de la pieza situada en la celda con el índice especificado.
+	 *
+	 * @param indice Índice de la celda.
+	 * @return Tipo de la pieza si la celda no está vacía y {@code null} en caso contrario.
+	 * @see brandubh.util.TipoPieza
+	 */
+	public TipoPieza consultarTipoPieza(int indice) {
+
+		long bit = 1L << indice;
+
+		if ((atacantes & bit) != 0) {
+			return TipoPieza.ATACANTE;
+		}
+
+		if ((defensores & bit) != 0) {
+			return TipoPieza.DEFENSOR;
+		}
+
+		if ((rey & bit) != 0) {
+			return TipoPieza.REY;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Devuelve el color de la pieza situada en la celda con el índice especificado.
+	 *
+	 * @param indice Índice de la celda.
+	 * @return Color de la pieza si la celda no está vacía y {@code null} en caso contrario.
+	 * @see brandubh.util.Color
+	 */
+	public Color consultarColorDePieza(int indice) {
+
+		long bit = 1L << indice;
+
+		if ((atacantes & bit) != 0) {
+			return Color.NEGRO;
+		}
+
+		if (((defensores | rey) & bit) != 0) {
+			return Color.BLANCO;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Comprueba si la celda con el índice especificado está vacía.
+	 *
+	 * @param indice Índice de la celda.
+	 * @return Valor de tipo {@code boolean}: {@code true} si la celda no contiene ninguna pieza y {@code false} en caso contrario.
+	 */
+	public boolean estaVacia(int indice) {
+		return (consultarOcupadas() & (1L << indice)) == 0;
+	}
+
+	/**
+	 * Devuelve el mapa de bits con las celdas ocupadas por atacantes.
+	 *
+	 * @return Mapa de bits de los atacantes.
+	 */
+	public long consultarAtacantes() {
+		return atacantes;
+	}
+
+	/**
+	 * Devuelve el mapa de bits con las celdas ocupadas por defensores (sin incluir al rey).
+	 *
+	 * @return Mapa de bits de los defensores.
+	 */
+	public long consultarDefensores() {
+		return defensores;
+	}
+
+	/**
+	 * Devuelve el mapa de bits con la celda ocupada por el rey.
+	 *
+	 * @return Mapa de bits del rey.
+	 */
+	public long consultarRey() {
+		return rey;
+	}
+
+	/**
+	 * Devuelve el mapa de bits con las celdas ocupadas por piezas del color indicado.
+	 *
+	 * @param color Color de las piezas.
+	 * @return Mapa de bits de las piezas del color indicado o {@code 0} si el color es nulo.
+	 * @see brandubh.util.Color
+	 */
+	public long consultarPiezas(Color color) {
+
+		if (color == Color.NEGRO) {
+			return atacantes;
+		}
+
+		if (color == Color.BLANCO) {
+			return defensores | rey;
+		}
+
+		return 0L;
+	}
+
+	/**
+	 * Devuelve el mapa de bits con todas las celdas ocupadas.
+	 *
+	 * @return Mapa de bits de las celdas ocupadas.
+	 */
+	public long consultarOcupadas() {
+		return atacantes | defensores | rey;
+	}
+
+	/**
+	 * Devuelve el hash Zobrist de la composición del tablero (sin incluir el turno).
+	 * <p>
+	 * Se mantiene de forma incremental, por lo que la consulta se realiza en tiempo constante.
+	 *
+	 * @return Hash Zobrist de 64 bits de la posición de las piezas.
+	 * @see brandubh.modelo.ClavesZobrist
+	 */
+	public long consultarClave() {
+		return clave;
+	}
+
+	/**
+	 * Devuelve el índice de la celda en la que se encuentra el rey.
+	 *
+	 * @return Índice de la celda del rey o {@code -1} si no hay rey en el tablero.
+	 */
+	public int consultarIndiceRey() {
+
+		if (rey == 0) {
+			return -1;
+		}
+
+		return Long.numberOfTrailingZeros(rey);
+	}
+
+	/**
+	 * Devuelve el número de piezas en el tablero del tipo indicado.
+	 *
+	 * @param tipoPieza Tipo de las piezas que queremos contabilizar en el tablero.
+	 * @return Número entero correspondiente al número de piezas en el tablero del tipo indicado ({@code 0} si es nulo).
+	 */
+	public int consultarNumeroPiezas(TipoPieza tipoPieza) {
+
+		if (tipoPieza == null) {
+			return 0;
+		}
+
+		switch (tipoPieza) {
+		case ATACANTE:
+			return Long.bitCount(atacantes);
+		case DEFENSOR:
+			return Long.bitCount(defensores);
+		default:
+			return Long.bitCount(rey);
+		}
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) del tablero con el mismo formato que
+	 * {@link brandubh.modelo.Tablero#aTexto()}.
+	 *
+	 * @return Una representación de cadena de caracteres ({@code String}) del tablero y su composición.
+	 */
+	public String aTexto() {
+
+		StringBuilder pantalla = new StringBuilder();
+
+		for (int fila = 0; fila < NUMERO_FILAS; fila++) {
+
+			pantalla.append('\n').append(NUMERO_FILAS - fila).append(' ');
+
+			for (int columna = 0; columna < NUMERO_COLUMNAS; columna++) {
+
+				TipoPieza tipoPieza = consultarTipoPieza(fila * NUMERO_COLUMNAS + columna);
+
+				if (tipoPieza == null) {
+					pantalla.append("- ");
+				} else {
+					pantalla.append(tipoPieza.toChar()).append(' ');
+				}
+			}
+		}
+		pantalla.append("\n  a b c d e f g");
+
+		return pantalla.toString();
+	}
+
+	/**
+	 * Genera un código hash para este tablero a partir de su hash Zobrist.
+	 *
+	 * @return Un código hash para este tablero.
+	 */
+	@Override
+	public int hashCode() {
+		return Long.hashCode(clave);
+	}
+
+	/**
+	 * Compara este objeto con el objeto especificado para verificar si son iguales.
+	 *
+	 * @param obj El objeto con el que se debe comparar este tablero.
+	 * @return Valor de tipo {@code boolean}: {@code true} si este tablero es igual al objeto especificado
+	 * y {@code false} en caso contrario.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		TableroBinario other = (TableroBinario) obj;
+		return atacantes == other.atacantes && defensores == other.defensores && rey == other.rey;
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de este tablero.
+	 *
+	 * @return Una representación de cadena de caracteres ({@code String}) de este tablero.
+	 */
+	@Override
+	public String toString() {
+		return "TableroBinario [atacantes=" + Long.toHexString(atacantes) + ", defensores=" + Long.toHexString(defensores)
+				+ ", rey=" + Long.toHexString(rey) + "]";
+	}
+
+}
@@ -0,0 +1,305 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import brandubh.modelo.JugadaCompacta;
+
+/**
+ * Almacén de nodos del árbol de búsqueda de Monte Carlo organizado como estructura de arrays.
+ * <p>
+ * Cada nodo es un índice en un conjunto de arrays de tipos primitivos reservados una única vez, de modo que el 
+ * consumo de memoria está acotado por la capacidad indicada y no se crean objetos durante la búsqueda. Los hijos de un 
+ * nodo ocupan posiciones consecutivas, reservadas de una sola vez al expandirlo con un contador atómico.
+ * <p>
+ * Las estadísticas (visitas y recompensa) se actualizan con operaciones atómicas mediante {@link VarHandle}, y el 
+ * estado de expansión se cambia con comparación e intercambio, por lo que varios hilos pueden compartir el árbol sin 
+ * bloqueos. La recompensa se guarda en medios puntos: {@code 2} por victoria y {@code 1} por tablas.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+final class ArenaMonteCarlo {
+
+	/** Estado de un nodo cuyos hijos no se han generado. */
+	static final int SIN_EXPANDIR = 0;
+
+	/** Estado de un nodo cuyos hijos está generando un hilo. */
+	static final int EXPANDIENDO = 1;
+
+	/** Estado de un nodo con sus hijos ya generados. */
+	static final int EXPANDIDO = 2;
+
+	/** Estado de un nodo que no puede expandirse por haberse agotado la capacidad. */
+	static final int HOJA = 3;
+
+	/** Acceso atómico a los elementos de los arrays de enteros. */
+	private static final VarHandle ENTEROS = MethodHandles.arrayElementVarHandle(int[].class);
+
+	/** Acceso atómico a los elementos de los arrays de enteros largos. */
+	private static final VarHandle LARGOS = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/** Jugada codificada que conduce a cada nodo. */
+	private final int[] jugadas;
+
+	/** Índice del primer hijo de cada nodo. */
+	private final int[] primerosHijos;
+
+	/** Número de hijos de cada nodo. */
+	private final int[] numerosHijos;
+
+	/** Estado de expansión de cada nodo. */
+	private final int[] estados;
+
+	/** Número de visitas de cada nodo, incluidas las pérdidas virtuales de las iteraciones en curso. */
+	private final int[] visitas;
+
+	/** Recompensa acumulada en medios puntos por el jugador que realizó la jugada de cada nodo. */
+	private final long[] recompensas;
+
+	/** Ganador de cada nodo terminal ({@code 0} si no es terminal). */
+	private final byte[] ganadores;
+
+	/** Siguiente posición libre. */
+	private final AtomicInteger siguiente = new AtomicInteger();
+
+	/**
+	 * Constructor para la clase {@code ArenaMonteCarlo}.
+	 *
+	 * @param capacidad Número máximo de nodos.
+	 */
+	ArenaMonteCarlo(int capacidad) {
+		jugadas = new int[capacidad];
+		primerosHijos = new int[capacidad];
+		numerosHijos = new int[capacidad];
+		estados = new int[capacidad];
+		visitas = new int[capacidad];
+		recompensas = new long[capacidad];
+		ganadores = new byte[capacidad];
+	}
+
+	/**
+	 * Vacía el almacén dejando únicamente el nodo raíz (índice {@code 0}).
+	 */
+	void reiniciar() {
+		siguiente.set(1);
+		inicializar(0, JugadaCompacta.NINGUNA);
+	}
+
+	/**
+	 * Reserva posiciones consecutivas para los hijos de un nodo.
+	 *
+	 * @param numero Número de hijos.
+	 * @return Índice del primer hijo o {@code -1} si no queda capacidad.
+	 */
+	int reservar(int numero) {
+
+		while (true) {
+
+			int base = siguiente.get();
+
+			if (base + numero > jugadas.length) {
+				return -1;
+			}
+
+			if (siguiente.compareAndSet(base, base + numero)) {
+				return base;
+			}
+		}
+	}
+
+	/**
+	 * Inicializa un nodo recién reservado.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @param jugada Jugada codificada que conduce al nodo.
+	 */
+	void inicializar(int nodo, int jugada) {
+		jugadas[nodo] = jugada;
+		primerosHijos[nodo] = 0;
+		numerosHijos[nodo] = 0;
+		estados[nodo] = SIN_EXPANDIR;
+		visitas[nodo] = 0;
+		recompensas[nodo] = 0;
+		ganadores[nodo] = 0;
+	}
+
+	/**
+	 * Intenta reservar la expansión de un nodo para el hilo actual.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @return Valor de tipo {@code boolean}: {@code true} si el hilo actual debe expandir el nodo y {@code false} si 
+	 * otro hilo lo está expandiendo o ya lo ha hecho.
+	 */
+	boolean reservarExpansion(int nodo) {
+		return ENTEROS.compareAndSet(estados, nodo, SIN_EXPANDIR, EXPANDIENDO);
+	}
+
+	/**
+	 * Publica los hijos de un nodo. Las escrituras previas sobre los hijos quedan visibles para los hilos que observen
+	 * el estado {@link #EXPANDIDO}.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @param primerHijo Índice del primer hijo.
+	 * @param numero Número de hijos.
+	 */
+	void publicarExpansion(int nodo, int primerHijo, int numero) {
+		primerosHijos[nodo] = primerHijo;
+		numerosHijos[nodo] = numero;
+		ENTEROS.setRelease(estados, nodo, EXPANDIDO);
+	}
+
+	/**
+	 * Marca un nodo como hoja definitiva por haberse agotado la capacidad.
+	 *
+	 * @param nodo Índice del nodo.
+	 */
+	void marcarHoja(int nodo) {
+		ENTEROS.setRelease(estados, nodo, HOJA);
+	}
+
+	/**
+	 * Devuelve el estado de expansión de un nodo.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @return Estado de expansión.
+	 */
+	int consultarEstado(int nodo) {
+		return (int) ENTEROS.getAcquire(estados, nodo);
+	}
+
+	/**
+	 * Devuelve la jugada que conduce a un nodo.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @return Jugada codificada.
+	 */
+	int consultarJugada(int nodo) {
+		return jugadas[nodo];
+	}
+
+	/**
+	 * Devuelve el índice del primer hijo de un nodo expandido.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @return Índice del primer hijo.
+	 */
+	int consultarPrimerHijo(int nodo) {
+		return primerosHijos[nodo];
+	}
+
+	/**
+	 * Devuelve el número de hijos de un nodo expandido.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @return Número de hijos.
+	 */
+	int consultarNumeroHijos(int nodo) {
+		return numerosHijos[nodo];
+	}
+
+	/**
+	 * Devuelve el número de visitas de un nodo.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @return Número de visitas.
+	 */
+	int consultarVisitas(int nodo) {
+		return (int) ENTEROS.getOpaque(visitas, nodo);
+	}
+
+	/**
+	 * Añade una visita a un nodo. Al hacerse al descender, antes de conocer el resultado, actúa como pérdida virtual 
+	 * que desvía al resto de hilos hacia otros nodos hasta que se propaga la recompensa.
+	 *
+	 * @param nodo Índice del nodo.
+	 */
+	void anadirVisita(int nodo) {
+		ENTEROS.getAndAdd(visitas, nodo, 1);
+	}
+
+	/**
+	 * Devuelve la recompensa acumulada de un nodo en medios puntos.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @return Recompensa acumulada.
+	 */
+	long consultarRecompensa(int nodo) {
+		return (long) LARGOS.getOpaque(recompensas, nodo);
+	}
+
+	/**
+	 * Añade recompensa a un nodo.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @param medioPuntos Recompensa en medios puntos.
+	 */
+	void anadirRecompensa(int nodo, long medioPuntos) {
+		LARGOS.getAndAdd(recompensas, nodo, medioPuntos);
+	}
+
+	/**
+	 * Devuelve el ganador de un nodo terminal.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @return Código del ganador ({@code 0} si el nodo no es terminal).
+	 */
+	int consultarGanador(int nodo) {
+		return ganadores[nodo];
+	}
+
+	/**
+	 * Establece el ganador de un nodo terminal. Debe hacerse antes de publicar el nodo.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @param ganador Código del ganador.
+	 */
+	void establecerGanador(int nodo, int ganador) {
+		ganadores[nodo] = (byte) ganador;
+	}
+
+	/**
+	 * Devuelve el número de nodos ocupados.
+	 *
+	 * @return Número de nodos ocupados.
+	 */
+	int consultarOcupados() {
+		return siguiente.get();
+	}
+
+	/**
+	 * Devuelve el hijo con más visitas de un nodo.
+	 *
+	 * @param nodo Índice del nodo.
+	 * @return Índice del hijo con más visitas o {@code -1} si el nodo no está expandido o no tiene hijos.
+	 */
+	int consultarHijoMasVisitado(int nodo) {
+
+		if (consultarEstado(nodo) != EXPANDIDO) {
+			return -1;
+		}
+
+		int primero = primerosHijos[nodo];
+		int mejor = -1;
+
+		for (int hijo = primero; hijo < primero + numerosHijos[nodo]; hijo++) {
+			if (mejor < 0 || consultarVisitas(hijo) > consultarVisitas(mejor)) {
+				mejor = hijo;
+			}
+		}
+
+		return mejor;
+	}
+
+}
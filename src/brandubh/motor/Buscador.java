@@ -0,0 +1,686 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.util.Arrays;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.finales.FormatoFinales;
+import brandubh.finales.SondaFinales;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.TableroBinario;
+
+/**
+ * Motor de búsqueda negamax con poda alfa-beta y profundización iterativa.
+ * <p>
+ * La búsqueda recorre las posiciones sobre el propio árbitro mediante {@link Arbitro#aplicarJugada(int)} y 
+ * {@link Arbitro#deshacerJugada()}, de forma que las reglas (generación de movimientos, capturas y victorias) son 
+ * exactamente las del árbitro y no es necesario clonar el tablero. Al terminar la búsqueda el árbitro queda en el 
+ * mismo estado que al comenzar.
+ * <p>
+ * Las posiciones ya analizadas se guardan en una {@link TablaTransposicion}, que puede compartirse entre varios 
+ * buscadores que trabajen en paralelo. La tabla permite cortar la búsqueda cuando una posición ya se analizó con 
+ * profundidad suficiente y proporciona la mejor jugada encontrada entonces.
+ * <p>
+ * Las jugadas se ordenan probando primero la jugada de la tabla de transposición o, en su defecto, la de la variación
+ * principal de la iteración anterior, después las
+ * jugadas que ganan la partida o capturan piezas, las jugadas asesinas (que provocaron podas en el mismo nivel) y por 
+ * último según el historial de podas. Un jugador sin movimientos legales pierde la partida.
+ * <p>
+ * Si se proporcionan tablas de finales ({@link SondaFinales}), las posiciones que contienen (salvo la raíz, de la 
+ * que se necesita una jugada) se puntúan con su resultado exacto sin seguir buscando.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.control.Arbitro
+ * @see brandubh.motor.Evaluador
+ */
+public class Buscador {
+
+	/**
+	 * Puntuación de una victoria inmediata. Las victorias a mayor distancia se puntúan restando el número de medios 
+	 * movimientos necesarios.
+	 */
+	public static final int VICTORIA = 1_000_000;
+
+	/**
+	 * Distancia máxima en medios movimientos de una victoria puntuada como tal. Supera la profundidad máxima de 
+	 * búsqueda para dar cabida a las distancias de las tablas de finales.
+	 */
+	public static final int DISTANCIA_MAXIMA_VICTORIA = 512;
+
+	/**
+	 * Profundidad máxima de búsqueda en medios movimientos.
+	 */
+	public static final int PROFUNDIDAD_MAXIMA = 64;
+
+	/**
+	 * Tamaño en megabytes de la tabla de transposición creada por defecto.
+	 */
+	public static final int MEGABYTES_TABLA_POR_DEFECTO = 16;
+
+	/**
+	 * Cota superior de cualquier puntuación.
+	 */
+	private static final int INFINITO = VICTORIA + 1;
+
+	/**
+	 * Número de nodos visitados entre dos comprobaciones del tiempo disponible.
+	 */
+	private static final int NODOS_ENTRE_COMPROBACIONES = 1024;
+
+	/**
+	 * Prioridad en la ordenación de la jugada de la variación principal.
+	 */
+	private static final int PRIORIDAD_VARIACION = 1 << 30;
+
+	/**
+	 * Prioridad en la ordenación de las jugadas que ganan la partida.
+	 */
+	private static final int PRIORIDAD_VICTORIA = 1 << 29;
+
+	/**
+	 * Prioridad en la ordenación por cada pieza capturada.
+	 */
+	private static final int PRIORIDAD_CAPTURA = 1 << 24;
+
+	/**
+	 * Prioridad en la ordenación de la primera jugada asesina (la segunda recibe la mitad).
+	 */
+	private static final int PRIORIDAD_ASESINA = 1 << 22;
+
+	/**
+	 * Valor máximo de una entrada del historial de podas. Al superarse se reducen a la mitad todas las entradas, de
+	 * forma que el historial y la prioridad de una jugada asesina quedan siempre por debajo de la de una captura.
+	 */
+	static final int HISTORIAL_MAXIMO = PRIORIDAD_CAPTURA - PRIORIDAD_ASESINA - 1;
+
+	/**
+	 * Árbitro sobre el que se realiza la búsqueda.
+	 */
+	protected final Arbitro arbitro;
+
+	/**
+	 * Función de evaluación de las posiciones tal como se ha recibido, sin vincular a ningún tablero.
+	 */
+	private final Evaluador evaluadorSinVincular;
+
+	/**
+	 * Función de evaluación de las posiciones vinculada al tablero del árbitro. Se vuelve a vincular al comenzar cada
+	 * búsqueda si otro buscador sobre el mismo árbitro la ha sustituido como observador del tablero.
+	 */
+	protected Evaluador evaluador;
+
+	/**
+	 * Tabla de transposición, posiblemente compartida con otros buscadores.
+	 */
+	protected final TablaTransposicion tabla;
+
+	/**
+	 * Tablas de finales ({@code null} si no se emplean).
+	 */
+	protected final SondaFinales sonda;
+
+	/**
+	 * Jugadas generadas en cada nivel de la búsqueda.
+	 */
+	private final int[][] jugadas = new int[PROFUNDIDAD_MAXIMA][Reglas.MAXIMO_MOVIMIENTOS];
+
+	/**
+	 * Prioridades de ordenación de las jugadas generadas en cada nivel de la búsqueda.
+	 */
+	private final int[][] prioridades = new int[PROFUNDIDAD_MAXIMA][Reglas.MAXIMO_MOVIMIENTOS];
+
+	/**
+	 * Tabla triangular con la variación principal encontrada desde cada nivel.
+	 */
+	private final int[][] variacion = new int[PROFUNDIDAD_MAXIMA + 1][PROFUNDIDAD_MAXIMA + 1];
+
+	/**
+	 * Longitud de la variación principal encontrada desde cada nivel.
+	 */
+	private final int[] longitudVariacion = new int[PROFUNDIDAD_MAXIMA + 1];
+
+	/**
+	 * Variación principal de la última iteración completada, empleada para ordenar las jugadas.
+	 */
+	private int[] variacionAnterior = new int[0];
+
+	/**
+	 * Dos jugadas asesinas por nivel: jugadas sin captura que provocaron una poda.
+	 */
+	private final int[][] asesinas = new int[PROFUNDIDAD_MAXIMA][2];
+
+	/**
+	 * Historial de podas por celda de origen y destino, limitado a {@link #HISTORIAL_MAXIMO}.
+	 */
+	final int[][] historial = new int[TableroBinario.NUMERO_CELDAS][TableroBinario.NUMERO_CELDAS];
+
+	/**
+	 * Tablero auxiliar para anticipar capturas y victorias al ordenar las jugadas.
+	 */
+	private final TableroBinario auxiliar = new TableroBinario();
+
+	/**
+	 * Número de nodos visitados en la búsqueda actual.
+	 */
+	protected long nodos;
+
+	/**
+	 * Número de nodos resueltos con las tablas de finales en la búsqueda actual.
+	 */
+	private long sondeos;
+
+	/**
+	 * Instante (en nanosegundos) a partir del cual debe detenerse la búsqueda.
+	 */
+	private long limite;
+
+	/**
+	 * Indica si la búsqueda debe detenerse.
+	 */
+	private volatile boolean detenido;
+
+	/**
+	 * Constructor para la clase {@code Buscador} con una tabla de transposición propia de 
+	 * {@link #MEGABYTES_TABLA_POR_DEFECTO} megabytes.
+	 *
+	 * @param arbitro Árbitro con la posición a buscar.
+	 * @param evaluador Función de evaluación de las posiciones.
+	 */
+	public Buscador(Arbitro arbitro, Evaluador evaluador) {
+		this(arbitro, evaluador, new TablaTransposicion(MEGABYTES_TABLA_POR_DEFECTO));
+	}
+
+	/**
+	 * Constructor para la clase {@code Buscador} con la tabla de transposición indicada.
+	 *
+	 * @param arbitro Árbitro con la posición a buscar.
+	 * @param evaluador Función de evaluación de las posiciones.
+	 * @param tabla Tabla de transposición, que puede estar compartida con otros buscadores.
+	 */
+	public Buscador(Arbitro arbitro, Evaluador evaluador, TablaTransposicion tabla) {
+		this(arbitro, evaluador, tabla, null);
+	}
+
+	/**
+	 * Constructor para la clase {@code Buscador} con la tabla de transposición y las tablas de finales indicadas.
+	 *
+	 * @param arbitro Árbitro con la posición a buscar.
+	 * @param evaluador Función de evaluación de las posiciones, que se vincula al tablero del árbitro mediante 
+	 * {@link Evaluador#vincular(TableroBinario)}. El tablero solo admite un observador, de modo que la vinculación 
+	 * sustituye a la de cualquier otro buscador sobre el mismo árbitro (como los dos jugadores de una partida); por 
+	 * eso cada búsqueda comprueba al comenzar que su evaluación sigue observando el tablero y, si no, la vuelve a 
+	 * vincular, y el observador queda asignado a este buscador al terminar.
+	 * @param tabla Tabla de transposición, que puede estar compartida con otros buscadores.
+	 * @param sonda Tablas de finales, que pueden estar compartidas con otros buscadores, o {@code null} para no 
+	 * emplearlas.
+	 */
+	public Buscador(Arbitro arbitro, Evaluador evaluador, TablaTransposicion tabla, SondaFinales sonda) {
+		this.arbitro = arbitro;
+		this.evaluadorSinVincular = evaluador;
+		this.evaluador = evaluador.vincular(arbitro.obtenerTableroBinario());
+		this.tabla = tabla;
+		this.sonda = sonda;
+	}
+
+	/**
+	 * Devuelve la tabla de transposición empleada por el buscador.
+	 *
+	 * @return Tabla de transposición.
+	 */
+	public TablaTransposicion obtenerTablaTransposicion() {
+		return tabla;
+	}
+
+	/**
+	 * Devuelve el número de nodos de la última búsqueda resueltos con las tablas de finales.
+	 *
+	 * @return Número de nodos resueltos con las tablas de finales.
+	 */
+	public long consultarSondeos() {
+		return sondeos;
+	}
+
+	/**
+	 * Busca la mejor jugada para el jugador con el turno mediante profundización iterativa.
+	 * <p>
+	 * La búsqueda termina al completar la profundidad máxima indicada, al agotar el tiempo, al encontrar una victoria 
+	 * forzada o al invocar {@link #detener()}. Se devuelve el resultado de la última iteración completada (o de la 
+	 * primera, aunque sea parcial).
+	 *
+	 * @param profundidad Profundidad máxima en medios movimientos (como mucho {@link #PROFUNDIDAD_MAXIMA}).
+	 * @param milisegundos Tiempo máximo en milisegundos ({@code 0} para no limitar el tiempo).
+	 * @return Resultado de la búsqueda.
+	 */
+	public ResultadoBusqueda buscar(int profundidad, long milisegundos) {
+
+		detenido = false;
+		tabla.nuevaBusqueda();
+
+		return iterar(1, profundidad, milisegundos);
+	}
+
+	/**
+	 * Realiza la profundización iterativa desde la profundidad inicial indicada.
+	 * <p>
+	 * A diferencia de {@link #buscar(int, long)}, no anula una solicitud de detención previa ni inicia una nueva 
+	 * generación en la tabla de transposición, de modo que puede emplearse para los hilos auxiliares de una búsqueda 
+	 * en paralelo.
+	 *
+	 * @param profundidadInicial Profundidad de la primera iteración.
+	 * @param profundidad Profundidad máxima en medios movimientos (como mucho {@link #PROFUNDIDAD_MAXIMA}).
+	 * @param milisegundos Tiempo máximo en milisegundos ({@code 0} para no limitar el tiempo).
+	 * @return Resultado de la búsqueda.
+	 */
+	ResultadoBusqueda iterar(int profundidadInicial, int profundidad, long milisegundos) {
+
+		long inicio = System.nanoTime();
+		limite = milisegundos > 0 ? inicio + milisegundos * 1_000_000 : Long.MAX_VALUE;
+		nodos = 0;
+		sondeos = 0;
+		variacionAnterior = new int[0];
+		prepararBusqueda();
+
+		ResultadoBusqueda resultado = new ResultadoBusqueda(JugadaCompacta.NINGUNA, -VICTORIA, 0, 0, 0, new int[0]);
+
+		for (int iteracion = profundidadInicial; iteracion <= Math.min(profundidad, PROFUNDIDAD_MAXIMA); iteracion++) {
+
+			int puntuacion = buscarRaiz(iteracion);
+
+			if (detenido && iteracion > 1) {
+				break;
+			}
+
+			variacionAnterior = Arrays.copyOf(variacion[0], longitudVariacion[0]);
+			int mejor = variacionAnterior.length > 0 ? variacionAnterior[0] : JugadaCompacta.NINGUNA;
+			resultado = new ResultadoBusqueda(mejor, puntuacion, iteracion, nodos, (System.nanoTime() - inicio) / 1_000_000,
+					variacionAnterior);
+
+			if (detenido || resultado.esVictoriaForzada() || mejor == JugadaCompacta.NINGUNA) {
+				break;
+			}
+		}
+
+		return new ResultadoBusqueda(resultado.jugada(), resultado.puntuacion(), resultado.profundidad(), nodos,
+				(System.nanoTime() - inicio) / 1_000_000, resultado.variacionPrincipal());
+	}
+
+	/**
+	 * Solicita la detención de la búsqueda en curso. Puede invocarse desde otro hilo.
+	 */
+	public void detener() {
+		detenido = true;
+	}
+
+	/**
+	 * Comprueba si se ha solicitado la detención de la búsqueda.
+	 *
+	 * @return Valor de tipo {@code boolean}: {@code true} si la búsqueda debe detenerse y {@code false} en caso contrario.
+	 */
+	protected boolean estaDetenido() {
+		return detenido;
+	}
+
+	/**
+	 * Prepara las estructuras auxiliares antes de comenzar una nueva búsqueda.
+	 */
+	protected void prepararBusqueda() {
+
+		// Otro buscador sobre el mismo árbitro puede haber sustituido al observador del tablero
+		TableroBinario tablero = arbitro.obtenerTableroBinario();
+		if (evaluador != evaluadorSinVincular && tablero.consultarObservador() != evaluador) {
+			evaluador = evaluadorSinVincular.vincular(tablero);
+		}
+
+		for (int[] asesinasNivel : asesinas) {
+			Arrays.fill(asesinasNivel, JugadaCompacta.NINGUNA);
+		}
+
+		for (int[] historialOrigen : historial) {
+			Arrays.fill(historialOrigen, 0);
+		}
+	}
+
+	/**
+	 * Realiza una iteración de la búsqueda desde la raíz con la profundidad indicada.
+	 *
+	 * @param profundidad Profundidad de la iteración.
+	 * @return Puntuación de la raíz.
+	 */
+	protected int buscarRaiz(int profundidad) {
+		return negamax(profundidad, -INFINITO, INFINITO, 0);
+	}
+
+	/**
+	 * Búsqueda negamax con poda alfa-beta.
+	 *
+	 * @param profundidad Profundidad restante en medios movimientos.
+	 * @param alfa Cota inferior de la ventana de búsqueda.
+	 * @param beta Cota superior de la ventana de búsqueda.
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @return Puntuación de la posición desde el punto de vista del jugador con el turno.
+	 */
+	protected int negamax(int profundidad, int alfa, int beta, int nivel) {
+
+		nodos++;
+		longitudVariacion[nivel] = 0;
+
+		if ((nodos % NODOS_ENTRE_COMPROBACIONES) == 0 && System.nanoTime() > limite) {
+			detenido = true;
+		}
+
+		if (detenido) {
+			return 0;
+		}
+
+		if (sonda != null && nivel > 0) {
+			int valor = sonda.sondear(arbitro.obtenerTableroBinario(), arbitro.consultarTurno());
+			if (valor != SondaFinales.SIN_TABLA) {
+				sondeos++;
+				return puntuarFinal((byte) valor, nivel);
+			}
+		}
+
+		if (profundidad <= 0 || nivel >= PROFUNDIDAD_MAXIMA - 1) {
+			return evaluar(nivel);
+		}
+
+		long clave = arbitro.consultarClaveZobrist();
+		long entrada = tabla.consultar(clave);
+		int preferente = consultarJugadaPreferente(nivel);
+
+		if (entrada != TablaTransposicion.VACIA) {
+
+			if (TablaTransposicion.consultarJugada(entrada) != JugadaCompacta.NINGUNA) {
+				preferente = TablaTransposicion.consultarJugada(entrada);
+			}
+
+			if (nivel > 0 && TablaTransposicion.consultarProfundidad(entrada) >= profundidad) {
+
+				int puntuacion = desdeTabla(TablaTransposicion.consultarPuntuacion(entrada), nivel);
+				int cota = TablaTransposicion.consultarCota(entrada);
+
+				if (cota == TablaTransposicion.EXACTA || (cota == TablaTransposicion.INFERIOR && puntuacion >= beta)
+						|| (cota == TablaTransposicion.SUPERIOR && puntuacion <= alfa)) {
+					return puntuacion;
+				}
+			}
+		}
+
+		int numero = arbitro.generarMovimientosLegales(jugadas[nivel]);
+
+		if (numero == 0) {
+			return -VICTORIA + nivel;
+		}
+
+		ordenar(nivel, numero, preferente);
+
+		int alfaInicial = alfa;
+		int mejor = -INFINITO;
+		int mejorJugada = JugadaCompacta.NINGUNA;
+
+		for (int i = 0; i < numero; i++) {
+
+			int jugada = seleccionar(nivel, i, numero);
+
+			int aplicada = arbitro.aplicarJugada(jugada);
+
+			int puntuacion;
+
+			if (arbitro.haGanadoAtacante() || arbitro.haGanadoRey()) {
+				puntuacion = VICTORIA - (nivel + 1);
+				longitudVariacion[nivel + 1] = 0;
+			} else {
+				puntuacion = -negamax(profundidad - 1, -beta, -alfa, nivel + 1);
+			}
+
+			arbitro.deshacerJugada();
+
+			if (detenido) {
+				return 0;
+			}
+
+			if (puntuacion > mejor) {
+
+				mejor = puntuacion;
+				mejorJugada = jugada;
+
+				if (puntuacion > alfa) {
+
+					alfa = puntuacion;
+					actualizarVariacion(nivel, jugada);
+
+					if (alfa >= beta) {
+						registrarPoda(nivel, aplicada, profundidad);
+						break;
+					}
+				}
+			}
+		}
+
+		int cota = mejor >= beta ? TablaTransposicion.INFERIOR
+				: mejor > alfaInicial ? TablaTransposicion.EXACTA : TablaTransposicion.SUPERIOR;
+		tabla.guardar(clave, profundidad, haciaTabla(mejor, nivel), cota, mejorJugada);
+
+		return mejor;
+	}
+
+	/**
+	 * Evalúa estáticamente la posición actual.
+	 *
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @return Puntuación de la posición desde el punto de vista del jugador con el turno.
+	 */
+	protected int evaluar(int nivel) {
+		return evaluador.evaluar(arbitro.obtenerTableroBinario(), arbitro.consultarTurno());
+	}
+
+	/**
+	 * Puntúa una posición con su valor en las tablas de finales.
+	 *
+	 * @param valor Valor de la posición (véase {@link FormatoFinales}).
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @return Puntuación de victoria o derrota a la distancia de las tablas, o {@code 0} si la posición es de tablas.
+	 */
+	private static int puntuarFinal(byte valor, int nivel) {
+
+		if (FormatoFinales.esVictoria(valor)) {
+			return VICTORIA - (nivel + FormatoFinales.consultarDistancia(valor));
+		}
+
+		if (FormatoFinales.esDerrota(valor)) {
+			return -VICTORIA + nivel + FormatoFinales.consultarDistancia(valor);
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Devuelve la jugada que debe probarse en primer lugar en el nivel indicado.
+	 *
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @return Jugada preferente o {@link JugadaCompacta#NINGUNA} si no la hay.
+	 */
+	protected int consultarJugadaPreferente(int nivel) {
+		return nivel < variacionAnterior.length ? variacionAnterior[nivel] : JugadaCompacta.NINGUNA;
+	}
+
+	/**
+	 * Convierte una puntuación relativa a la raíz en una puntuación relativa a la posición para guardarla en la tabla 
+	 * de transposición: las victorias se expresan como distancia desde la posición y no desde la raíz.
+	 *
+	 * @param puntuacion Puntuación relativa a la raíz.
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @return Puntuación relativa a la posición.
+	 */
+	private static int haciaTabla(int puntuacion, int nivel) {
+
+		if (puntuacion >= VICTORIA - DISTANCIA_MAXIMA_VICTORIA) {
+			return puntuacion + nivel;
+		}
+
+		if (puntuacion <= -VICTORIA + DISTANCIA_MAXIMA_VICTORIA) {
+			return puntuacion - nivel;
+		}
+
+		return puntuacion;
+	}
+
+	/**
+	 * Convierte una puntuación leída de la tabla de transposición, relativa a la posición, en una puntuación relativa
+	 * a la raíz.
+	 *
+	 * @param puntuacion Puntuación relativa a la posición.
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @return Puntuación relativa a la raíz.
+	 */
+	private static int desdeTabla(int puntuacion, int nivel) {
+
+		if (puntuacion >= VICTORIA - DISTANCIA_MAXIMA_VICTORIA) {
+			return puntuacion - nivel;
+		}
+
+		if (puntuacion <= -VICTORIA + DISTANCIA_MAXIMA_VICTORIA) {
+			return puntuacion + nivel;
+		}
+
+		return puntuacion;
+	}
+
+	/**
+	 * Asigna una prioridad de ordenación a cada una de las jugadas generadas en el nivel indicado.
+	 *
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @param numero Número de jugadas generadas.
+	 * @param preferente Jugada que debe probarse en primer lugar.
+	 */
+	private void ordenar(int nivel, int numero, int preferente) {
+
+		TableroBinario tablero = arbitro.obtenerTableroBinario();
+		int[] jugadasNivel = jugadas[nivel];
+		int[] prioridadesNivel = prioridades[nivel];
+		preferente = JugadaCompacta.consultarSinCapturas(preferente);
+
+		for (int i = 0; i < numero; i++) {
+
+			int jugada = jugadasNivel[i];
+			int origen = JugadaCompacta.consultarOrigen(jugada);
+			int destino = JugadaCompacta.consultarDestino(jugada);
+
+			if (jugada == preferente) {
+				prioridadesNivel[i] = PRIORIDAD_VARIACION;
+				continue;
+			}
+
+			auxiliar.copiar(tablero);
+			auxiliar.mover(origen, destino);
+
+			int prioridad = historial[origen][destino];
+
+			if (Reglas.haGanadoRey(auxiliar, destino) || Reglas.haGanadoAtacante(auxiliar, destino)) {
+				prioridad += PRIORIDAD_VICTORIA;
+			} else {
+				long capturas = Reglas.calcularCapturas(auxiliar, destino);
+				prioridad += Long.bitCount(capturas) * PRIORIDAD_CAPTURA;
+			}
+
+			if (jugada == asesinas[nivel][0]) {
+				prioridad += PRIORIDAD_ASESINA;
+			} else if (jugada == asesinas[nivel][1]) {
+				prioridad += PRIORIDAD_ASESINA / 2;
+			}
+
+			prioridadesNivel[i] = prioridad;
+		}
+	}
+
+	/**
+	 * Selecciona la jugada de mayor prioridad entre las pendientes y la coloca en la posición indicada.
+	 *
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @param posicion Posición en la que se coloca la jugada seleccionada.
+	 * @param numero Número de jugadas generadas.
+	 * @return Jugada seleccionada.
+	 */
+	private int seleccionar(int nivel, int posicion, int numero) {
+
+		int[] jugadasNivel = jugadas[nivel];
+		int[] prioridadesNivel = prioridades[nivel];
+		int mejor = posicion;
+
+		for (int i = posicion + 1; i < numero; i++) {
+			if (prioridadesNivel[i] > prioridadesNivel[mejor]) {
+				mejor = i;
+			}
+		}
+
+		int jugada = jugadasNivel[mejor];
+		jugadasNivel[mejor] = jugadasNivel[posicion];
+		jugadasNivel[posicion] = jugada;
+
+		int prioridad = prioridadesNivel[mejor];
+		prioridadesNivel[mejor] = prioridadesNivel[posicion];
+		prioridadesNivel[posicion] = prioridad;
+
+		return jugada;
+	}
+
+	/**
+	 * Actualiza la variación principal del nivel indicado con la jugada y la variación del nivel siguiente.
+	 *
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @param jugada Mejor jugada del nivel.
+	 */
+	private void actualizarVariacion(int nivel, int jugada) {
+
+		variacion[nivel][0] = jugada;
+		int longitud = longitudVariacion[nivel + 1];
+		System.arraycopy(variacion[nivel + 1], 0, variacion[nivel], 1, longitud);
+		longitudVariacion[nivel] = longitud + 1;
+	}
+
+	/**
+	 * Registra una jugada que ha provocado una poda para mejorar la ordenación de jugadas posteriores.
+	 *
+	 * @param nivel Distancia en medios movimientos a la raíz.
+	 * @param aplicada Jugada que ha provocado la poda, con sus marcas de captura.
+	 * @param profundidad Profundidad restante en el momento de la poda.
+	 */
+	void registrarPoda(int nivel, int aplicada, int profundidad) {
+
+		if (JugadaCompacta.consultarCapturas(aplicada) != 0) {
+			return;
+		}
+
+		int jugada = JugadaCompacta.consultarSinCapturas(aplicada);
+
+		if (asesinas[nivel][0] != jugada) {
+			asesinas[nivel][1] = asesinas[nivel][0];
+			asesinas[nivel][0] = jugada;
+		}
+
+		int[] historialOrigen = historial[JugadaCompacta.consultarOrigen(jugada)];
+		int destino = JugadaCompacta.consultarDestino(jugada);
+
+		historialOrigen[destino] += profundidad * profundidad;
+
+		if (historialOrigen[destino] > HISTORIAL_MAXIMO) {
+			for (int[] fila : historial) {
+				for (int i = 0; i < fila.length; i++) {
+					fila[i] >>= 1;
+				}
+			}
+		}
+	}
+
+}
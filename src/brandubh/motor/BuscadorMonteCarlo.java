@@ -0,0 +1,494 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+
+/**
+ * Motor de búsqueda de Monte Carlo sobre árboles (MCTS) con selección UCT, en uno o varios hilos.
+ * <p>
+ * Cada iteración desciende por el árbol eligiendo en cada nodo el hijo que maximiza 
+ * {@code recompensa / visitas + c * sqrt(ln(visitas del padre) / visitas)} hasta una hoja, la expande generando todos
+ * sus hijos si ya ha recibido suficientes visitas, simula una partida aleatoria con un {@link SimuladorAleatorio} y 
+ * propaga el resultado hacia la raíz. El descenso se realiza sobre una copia ligera del tablero binario del árbitro, que no se modifica.
+ * <p>
+ * Con varios hilos, todos comparten un único árbol almacenado en un {@link ArenaMonteCarlo}: las estadísticas se 
+ * actualizan de forma atómica y cada visita se anota al descender, antes de conocer el resultado, como pérdida virtual
+ * que reparte a los hilos por ramas distintas. Si se agota la capacidad del almacén el árbol deja de crecer, pero las 
+ * iteraciones continúan con simulaciones desde sus hojas.
+ * <p>
+ * La jugada elegida es la del hijo de la raíz con más visitas. El resultado indica en {@code nodos} el número de 
+ * simulaciones realizadas y en {@code puntuacion} la proporción de victorias esperada, en tanto por mil, para el 
+ * jugador con el turno.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.motor.SimuladorAleatorio
+ * @see brandubh.motor.ArenaMonteCarlo
+ */
+public class BuscadorMonteCarlo implements AutoCloseable {
+
+	/**
+	 * Constante de exploración por defecto de la fórmula UCT.
+	 */
+	public static final double EXPLORACION_POR_DEFECTO = 1.4;
+
+	/**
+	 * Capacidad por defecto del almacén de nodos.
+	 */
+	public static final int CAPACIDAD_POR_DEFECTO = 1 << 20;
+
+	/**
+	 * Número de iteraciones entre dos comprobaciones del tiempo disponible.
+	 */
+	private static final int ITERACIONES_ENTRE_COMPROBACIONES = 256;
+
+	/**
+	 * Número de visitas que debe recibir un nodo (salvo la raíz) antes de expandirlo. Mientras tanto, las simulaciones
+	 * parten del propio nodo, lo que reduce el número de nodos creados por iteración.
+	 */
+	private static final int UMBRAL_EXPANSION = 8;
+
+	/**
+	 * Profundidad máxima del árbol, que acota la longitud de los caminos de cada iteración.
+	 */
+	private static final int PROFUNDIDAD_MAXIMA = 256;
+
+	/**
+	 * Árbitro con la posición a buscar.
+	 */
+	private final Arbitro arbitro;
+
+	/**
+	 * Constante de exploración de la fórmula UCT.
+	 */
+	private final double exploracion;
+
+	/**
+	 * Almacén de nodos del árbol compartido.
+	 */
+	private final ArenaMonteCarlo arena;
+
+	/**
+	 * Estado propio de cada hilo de búsqueda.
+	 */
+	private final Trabajador[] trabajadores;
+
+	/**
+	 * Ejecutor de los hilos auxiliares ({@code null} si solo hay un hilo).
+	 */
+	private final ExecutorService ejecutor;
+
+	/**
+	 * Número de iteraciones iniciadas en la búsqueda en curso.
+	 */
+	private final AtomicLong iniciadas = new AtomicLong();
+
+	/**
+	 * Indica si la búsqueda debe detenerse.
+	 */
+	private volatile boolean detenido;
+
+	/**
+	 * Constructor para la clase {@code BuscadorMonteCarlo} en un único hilo con la constante de exploración y la 
+	 * capacidad por defecto.
+	 *
+	 * @param arbitro Árbitro con la posición a buscar.
+	 * @param semilla Semilla de los generadores de números aleatorios.
+	 */
+	public BuscadorMonteCarlo(Arbitro arbitro, long semilla) {
+		this(arbitro, EXPLORACION_POR_DEFECTO, 1, CAPACIDAD_POR_DEFECTO, semilla);
+	}
+
+	/**
+	 * Constructor para la clase {@code BuscadorMonteCarlo}.
+	 *
+	 * @param arbitro Árbitro con la posición a buscar.
+	 * @param exploracion Constante de exploración de la fórmula UCT.
+	 * @param hilos Número total de hilos de búsqueda, incluido el que invoca la búsqueda (al menos {@code 1}).
+	 * @param capacidad Número máximo de nodos del árbol.
+	 * @param semilla Semilla de los generadores de números aleatorios.
+	 */
+	public BuscadorMonteCarlo(Arbitro arbitro, double exploracion, int hilos, int capacidad, long semilla) {
+
+		this.arbitro = arbitro;
+		this.exploracion = exploracion;
+		this.arena = new ArenaMonteCarlo(Math.max(1, capacidad));
+		this.trabajadores = new Trabajador[Math.max(1, hilos)];
+
+		for (int i = 0; i < trabajadores.length; i++) {
+			trabajadores[i] = new Trabajador(semilla + i);
+		}
+
+		if (trabajadores.length > 1) {
+			this.ejecutor = Executors.newFixedThreadPool(trabajadores.length - 1, tarea -> {
+				Thread hilo = new Thread(tarea, "monte-carlo-auxiliar");
+				hilo.setDaemon(true);
+				return hilo;
+			});
+		} else {
+			this.ejecutor = null;
+		}
+	}
+
+	/**
+	 * Busca la mejor jugada para el jugador con el turno con el presupuesto indicado, en iteraciones, en tiempo o en 
+	 * ambos (termina al agotar el primero de ellos), o hasta invocar {@link #detener()}.
+	 *
+	 * @param iteraciones Número máximo de iteraciones entre todos los hilos ({@code 0} para no limitarlas).
+	 * @param milisegundos Tiempo máximo en milisegundos ({@code 0} para no limitar el tiempo).
+	 * @return Resultado de la búsqueda.
+	 * @throws IllegalArgumentException Si no se limita ni el número de iteraciones ni el tiempo.
+	 */
+	public ResultadoBusqueda buscar(long iteraciones, long milisegundos) {
+
+		if (iteraciones <= 0 && milisegundos <= 0) {
+			throw new IllegalArgumentException("Debe limitarse el número de iteraciones o el tiempo de búsqueda.");
+		}
+
+		long inicio = System.nanoTime();
+		long limite = milisegundos > 0 ? inicio + milisegundos * 1_000_000 : Long.MAX_VALUE;
+		long maximo = iteraciones > 0 ? iteraciones : Long.MAX_VALUE;
+
+		detenido = false;
+		iniciadas.set(0);
+		arena.reiniciar();
+
+		TableroBinario raiz = arbitro.obtenerTableroBinario().clonar();
+		Color turno = arbitro.consultarTurno();
+
+		List<Future<?>> auxiliares = new ArrayList<>();
+		for (int i = 1; i < trabajadores.length; i++) {
+			Trabajador trabajador = trabajadores[i];
+			auxiliares.add(ejecutor.submit(() -> trabajador.trabajar(raiz, turno, maximo, limite)));
+		}
+
+		trabajadores[0].trabajar(raiz, turno, maximo, limite);
+
+		long simulaciones = trabajadores[0].realizadas;
+		int profundidad = trabajadores[0].profundidadMaxima;
+
+		for (int i = 1; i < trabajadores.length; i++) {
+			esperar(auxiliares.get(i - 1));
+			simulaciones += trabajadores[i].realizadas;
+			profundidad = Math.max(profundidad, trabajadores[i].profundidadMaxima);
+		}
+
+		return construirResultado(simulaciones, profundidad, (System.nanoTime() - inicio) / 1_000_000);
+	}
+
+	/**
+	 * Solicita la detención de la búsqueda en curso. Puede invocarse desde otro hilo.
+	 */
+	public void detener() {
+		detenido = true;
+	}
+
+	/**
+	 * Devuelve el número de nodos del árbol de la última búsqueda.
+	 *
+	 * @return Número de nodos.
+	 */
+	public int consultarNodosArbol() {
+		return arena.consultarOcupados();
+	}
+
+	/**
+	 * Finaliza los hilos auxiliares. El buscador no puede volver a emplearse con más de un hilo.
+	 */
+	@Override
+	public void close() {
+		if (ejecutor != null) {
+			ejecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Construye el resultado de la búsqueda a partir del árbol.
+	 *
+	 * @param simulaciones Número de simulaciones realizadas.
+	 * @param profundidad Profundidad máxima alcanzada en el árbol.
+	 * @param milisegundos Tiempo empleado en milisegundos.
+	 * @return Resultado de la búsqueda.
+	 */
+	private ResultadoBusqueda construirResultado(long simulaciones, int profundidad, long milisegundos) {
+
+		int mejor = arena.consultarHijoMasVisitado(0);
+
+		if (mejor < 0 || arena.consultarVisitas(mejor) == 0) {
+			return new ResultadoBusqueda(JugadaCompacta.NINGUNA, 0, 0, simulaciones, milisegundos, new int[0]);
+		}
+
+		int[] variacion = new int[Math.max(1, profundidad)];
+		int longitud = 0;
+
+		for (int nodo = mejor; nodo >= 0 && longitud < variacion.length && arena.consultarVisitas(nodo) > 0;
+				nodo = arena.consultarHijoMasVisitado(nodo)) {
+			variacion[longitud++] = arena.consultarJugada(nodo);
+		}
+
+		int puntuacion = (int) Math.round(500.0 * arena.consultarRecompensa(mejor) / arena.consultarVisitas(mejor));
+
+		return new ResultadoBusqueda(arena.consultarJugada(mejor), puntuacion, profundidad, simulaciones, milisegundos,
+				Arrays.copyOf(variacion, longitud));
+	}
+
+	/**
+	 * Espera a que termine un hilo auxiliar.
+	 *
+	 * @param auxiliar Tarea del hilo auxiliar.
+	 * @throws IllegalStateException Si la tarea del hilo auxiliar ha fallado o se interrumpe la espera.
+	 */
+	private static void esperar(Future<?> auxiliar) {
+		try {
+			auxiliar.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Búsqueda de Monte Carlo interrumpida.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Error en un hilo auxiliar de Monte Carlo.", e.getCause());
+		}
+	}
+
+	/**
+	 * Codifica el ganador de una partida para almacenarlo en el árbol.
+	 *
+	 * @param ganador Color del ganador.
+	 * @return Código del ganador, distinto de {@code 0}.
+	 */
+	private static int codificarGanador(Color ganador) {
+		return ganador.ordinal() + 1;
+	}
+
+	/**
+	 * Estado propio de un hilo de búsqueda: tableros, simulador y camino de la iteración en curso.
+	 */
+	private final class Trabajador {
+
+		/** Simulador de partidas aleatorias. */
+		private final SimuladorAleatorio simulador;
+
+		/** Tablero sobre el que se desciende por el árbol. */
+		private final TableroBinario tablero = new TableroBinario();
+
+		/** Tablero auxiliar para detectar victorias al expandir. */
+		private final TableroBinario auxiliar = new TableroBinario();
+
+		/** Movimientos legales del nodo a expandir. */
+		private final int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+
+		/** Nodos recorridos en la iteración en curso. */
+		private final int[] camino = new int[PROFUNDIDAD_MAXIMA + 2];
+
+		/** Número de iteraciones realizadas por el hilo. */
+		private long realizadas;
+
+		/** Profundidad máxima alcanzada por el hilo. */
+		private int profundidadMaxima;
+
+		/**
+		 * Constructor para la clase {@code Trabajador}.
+		 *
+		 * @param semilla Semilla del simulador.
+		 */
+		Trabajador(long semilla) {
+			this.simulador = new SimuladorAleatorio(semilla);
+		}
+
+		/**
+		 * Realiza iteraciones hasta agotar el presupuesto o hasta que se solicite la detención.
+		 *
+		 * @param raiz Tablero binario con la posición raíz.
+		 * @param turno Color del jugador con el turno en la raíz.
+		 * @param maximo Número máximo de iteraciones entre todos los hilos.
+		 * @param limite Instante (en nanosegundos) a partir del cual debe detenerse la búsqueda.
+		 */
+		void trabajar(TableroBinario raiz, Color turno, long maximo, long limite) {
+
+			realizadas = 0;
+			profundidadMaxima = 0;
+
+			while (!detenido && iniciadas.getAndIncrement() < maximo) {
+
+				if (realizadas % ITERACIONES_ENTRE_COMPROBACIONES == 0 && System.nanoTime() > limite) {
+					detenido = true;
+					break;
+				}
+
+				iterar(raiz, turno);
+				realizadas++;
+			}
+		}
+
+		/**
+		 * Realiza una iteración completa: selección, expansión, simulación y propagación.
+		 *
+		 * @param raiz Tablero binario con la posición raíz.
+		 * @param turno Color del jugador con el turno en la raíz.
+		 */
+		private void iterar(TableroBinario raiz, Color turno) {
+
+			tablero.copiar(raiz);
+			Color turnoRaiz = turno;
+			int nodo = 0;
+			int longitud = 0;
+			int ganador = 0;
+
+			camino[longitud++] = nodo;
+			arena.anadirVisita(nodo);
+
+			while (longitud <= PROFUNDIDAD_MAXIMA) {
+
+				ganador = arena.consultarGanador(nodo);
+
+				if (ganador != 0) {
+					break;
+				}
+
+				int estado = arena.consultarEstado(nodo);
+				boolean expandido = false;
+
+				if (estado == ArenaMonteCarlo.SIN_EXPANDIR
+						&& (nodo == 0 || arena.consultarVisitas(nodo) > UMBRAL_EXPANSION) && arena.reservarExpansion(nodo)) {
+					expandir(nodo, turno);
+					estado = arena.consultarEstado(nodo);
+					expandido = true;
+				}
+
+				// El ganador de un nodo sin jugadas se establece antes de publicar su expansión, por lo que solo es
+				// visible tras la lectura del estado
+				ganador = arena.consultarGanador(nodo);
+
+				if (estado != ArenaMonteCarlo.EXPANDIDO || ganador != 0 || arena.consultarNumeroHijos(nodo) == 0) {
+					break;
+				}
+
+				nodo = seleccionar(nodo);
+				Reglas.aplicarJugada(tablero, arena.consultarJugada(nodo));
+				turno = turno.consultarContrario();
+				camino[longitud++] = nodo;
+				arena.anadirVisita(nodo);
+
+				if (expandido) {
+					ganador = arena.consultarGanador(nodo);
+					break;
+				}
+			}
+
+			profundidadMaxima = Math.max(profundidadMaxima, longitud - 1);
+
+			if (ganador == 0) {
+				Color simulado = simulador.simular(tablero, turno);
+				ganador = simulado == null ? 0 : codificarGanador(simulado);
+			}
+
+			// Propagación: el jugador del nodo raíz es el contrario al que tiene el turno
+			int jugador = codificarGanador(turnoRaiz.consultarContrario());
+
+			for (int i = 0; i < longitud; i++) {
+
+				arena.anadirRecompensa(camino[i], ganador == 0 ? 1 : ganador == jugador ? 2 : 0);
+				jugador = 3 - jugador;
+			}
+		}
+
+		/**
+		 * Genera los hijos de un nodo reservado para su expansión y los publica. Un nodo sin jugadas legales queda como
+		 * terminal con victoria del jugador que realizó su jugada.
+		 *
+		 * @param nodo Índice del nodo.
+		 * @param turno Color del jugador con el turno en el nodo.
+		 */
+		private void expandir(int nodo, Color turno) {
+
+			int numero = Reglas.generarMovimientos(tablero, turno, movimientos);
+
+			if (numero == 0) {
+				arena.establecerGanador(nodo, codificarGanador(turno.consultarContrario()));
+				arena.publicarExpansion(nodo, 0, 0);
+				return;
+			}
+
+			int primero = arena.reservar(numero);
+
+			if (primero < 0) {
+				arena.marcarHoja(nodo);
+				return;
+			}
+
+			for (int i = 0; i < numero; i++) {
+
+				int hijo = primero + i;
+				int jugada = movimientos[i];
+				int destino = JugadaCompacta.consultarDestino(jugada);
+
+				arena.inicializar(hijo, jugada);
+
+				auxiliar.copiar(tablero);
+				Reglas.aplicarJugada(auxiliar, jugada);
+
+				if (Reglas.haGanadoRey(auxiliar, destino) || Reglas.haGanadoAtacante(auxiliar, destino)) {
+					arena.establecerGanador(hijo, codificarGanador(turno));
+				}
+			}
+
+			arena.publicarExpansion(nodo, primero, numero);
+		}
+
+		/**
+		 * Selecciona el hijo que maximiza la fórmula UCT. Los hijos sin visitas se prueban antes que el resto.
+		 *
+		 * @param nodo Índice de un nodo expandido con hijos.
+		 * @return Índice del hijo seleccionado.
+		 */
+		private int seleccionar(int nodo) {
+
+			double logaritmo = Math.log(Math.max(1, arena.consultarVisitas(nodo)));
+			int primero = arena.consultarPrimerHijo(nodo);
+			int ultimo = primero + arena.consultarNumeroHijos(nodo);
+			int mejor = primero;
+			double mejorValor = Double.NEGATIVE_INFINITY;
+
+			for (int hijo = primero; hijo < ultimo; hijo++) {
+
+				int visitas = arena.consultarVisitas(hijo);
+
+				if (visitas == 0) {
+					return hijo;
+				}
+
+				double valor = arena.consultarRecompensa(hijo) / (2.0 * visitas)
+						+ exploracion * Math.sqrt(logaritmo / visitas);
+
+				if (valor > mejorValor) {
+					mejorValor = valor;
+					mejor = hijo;
+				}
+			}
+
+			return mejor;
+		}
+	}
+
+}
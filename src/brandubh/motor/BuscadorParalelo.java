@@ -0,0 +1,235 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import brandubh.control.Arbitro;
+import brandubh.finales.SondaFinales;
+
+/**
+ * Búsqueda en paralelo mediante <em>Lazy SMP</em>.
+ * <p>
+ * Varios hilos buscan la misma posición raíz, cada uno sobre un clon del árbitro, compartiendo una única tabla de 
+ * transposición. No hay más comunicación entre ellos que la tabla: las posiciones analizadas por un hilo evitan 
+ * trabajo a los demás y mejoran su ordenación de jugadas. Los hilos auxiliares impares comienzan la profundización 
+ * iterativa un nivel por delante para diversificar el trabajo.
+ * <p>
+ * El hilo que invoca {@link #buscar(int, long)} realiza la búsqueda principal; cuando termina, detiene a los auxiliares
+ * y devuelve el resultado de mayor profundidad completada (a igualdad, el de la búsqueda principal) con la suma de los
+ * nodos visitados por todos los hilos.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.motor.Buscador
+ * @see brandubh.motor.TablaTransposicion
+ */
+public class BuscadorParalelo implements AutoCloseable {
+
+	/**
+	 * Árbitro con la posición a buscar.
+	 */
+	private final Arbitro arbitro;
+
+	/**
+	 * Función de evaluación de las posiciones.
+	 */
+	private final Evaluador evaluador;
+
+	/**
+	 * Tabla de transposición compartida por todos los hilos.
+	 */
+	private final TablaTransposicion tabla;
+
+	/**
+	 * Tablas de finales compartidas por todos los hilos ({@code null} si no se emplean).
+	 */
+	private final SondaFinales sonda;
+
+	/**
+	 * Número total de hilos de búsqueda, incluido el que invoca la búsqueda.
+	 */
+	private final int hilos;
+
+	/**
+	 * Ejecutor de los hilos auxiliares ({@code null} si solo hay un hilo).
+	 */
+	private final ExecutorService ejecutor;
+
+	/**
+	 * Buscadores de la búsqueda en curso, el principal en la posición {@code 0}.
+	 */
+	private volatile Buscador[] buscadores = new Buscador[0];
+
+	/**
+	 * Constructor para la clase {@code BuscadorParalelo} con una tabla de transposición nueva.
+	 *
+	 * @param arbitro Árbitro con la posición a buscar.
+	 * @param evaluador Función de evaluación de las posiciones. Debe poder emplearse desde varios hilos a la vez.
+	 * @param hilos Número total de hilos de búsqueda (al menos {@code 1}).
+	 * @param megabytes Tamaño de la tabla de transposición en megabytes.
+	 */
+	public BuscadorParalelo(Arbitro arbitro, Evaluador evaluador, int hilos, int megabytes) {
+		this(arbitro, evaluador, hilos, new TablaTransposicion(megabytes));
+	}
+
+	/**
+	 * Constructor para la clase {@code BuscadorParalelo} con la tabla de transposición indicada.
+	 *
+	 * @param arbitro Árbitro con la posición a buscar.
+	 * @param evaluador Función de evaluación de las posiciones. Debe poder emplearse desde varios hilos a la vez.
+	 * @param hilos Número total de hilos de búsqueda (al menos {@code 1}).
+	 * @param tabla Tabla de transposición compartida por todos los hilos.
+	 */
+	public BuscadorParalelo(Arbitro arbitro, Evaluador evaluador, int hilos, TablaTransposicion tabla) {
+		this(arbitro, evaluador, hilos, tabla, null);
+	}
+
+	/**
+	 * Constructor para la clase {@code BuscadorParalelo} con la tabla de transposición y las tablas de finales 
+	 * indicadas.
+	 *
+	 * @param arbitro Árbitro con la posición a buscar.
+	 * @param evaluador Función de evaluación de las posiciones. Debe poder emplearse desde varios hilos a la vez.
+	 * @param hilos Número total de hilos de búsqueda (al menos {@code 1}).
+	 * @param tabla Tabla de transposición compartida por todos los hilos.
+	 * @param sonda Tablas de finales compartidas por todos los hilos, o {@code null} para no emplearlas.
+	 */
+	public BuscadorParalelo(Arbitro arbitro, Evaluador evaluador, int hilos, TablaTransposicion tabla,
+			SondaFinales sonda) {
+
+		this.arbitro = arbitro;
+		this.evaluador = evaluador;
+		this.tabla = tabla;
+		this.sonda = sonda;
+		this.hilos = Math.max(1, hilos);
+
+		if (this.hilos > 1) {
+			this.ejecutor = Executors.newFixedThreadPool(this.hilos - 1, tarea -> {
+				Thread hilo = new Thread(tarea, "buscador-auxiliar");
+				hilo.setDaemon(true);
+				return hilo;
+			});
+		} else {
+			this.ejecutor = null;
+		}
+	}
+
+	/**
+	 * Busca la mejor jugada para el jugador con el turno empleando todos los hilos configurados.
+	 * <p>
+	 * Al terminar, el árbitro queda en el mismo estado que al comenzar.
+	 *
+	 * @param profundidad Profundidad máxima en medios movimientos (como mucho {@link Buscador#PROFUNDIDAD_MAXIMA}).
+	 * @param milisegundos Tiempo máximo en milisegundos ({@code 0} para no limitar el tiempo).
+	 * @return Resultado de la búsqueda.
+	 */
+	public ResultadoBusqueda buscar(int profundidad, long milisegundos) {
+
+		long inicio = System.nanoTime();
+		tabla.nuevaBusqueda();
+
+		Buscador[] actuales = new Buscador[hilos];
+		actuales[0] = new Buscador(arbitro, evaluador, tabla, sonda);
+		for (int i = 1; i < hilos; i++) {
+			actuales[i] = new Buscador(arbitro.clonar(), evaluador, tabla, sonda);
+		}
+		buscadores = actuales;
+
+		List<Future<ResultadoBusqueda>> auxiliares = new ArrayList<>();
+		for (int i = 1; i < hilos; i++) {
+			Buscador auxiliar = actuales[i];
+			int profundidadInicial = 1 + (i % 2);
+			auxiliares.add(ejecutor.submit(() -> auxiliar.iterar(profundidadInicial, profundidad, milisegundos)));
+		}
+
+		ResultadoBusqueda mejor = actuales[0].iterar(1, profundidad, milisegundos);
+		long nodos = mejor.nodos();
+
+		for (int i = 1; i < hilos; i++) {
+			actuales[i].detener();
+		}
+
+		for (Future<ResultadoBusqueda> auxiliar : auxiliares) {
+
+			ResultadoBusqueda resultado = esperar(auxiliar);
+			nodos += resultado.nodos();
+
+			if (resultado.profundidad() > mejor.profundidad()) {
+				mejor = resultado;
+			}
+		}
+
+		return new ResultadoBusqueda(mejor.jugada(), mejor.puntuacion(), mejor.profundidad(), nodos,
+				(System.nanoTime() - inicio) / 1_000_000, mejor.variacionPrincipal());
+	}
+
+	/**
+	 * Solicita la detención de la búsqueda en curso en todos los hilos. Puede invocarse desde otro hilo.
+	 */
+	public void detener() {
+		for (Buscador buscador : buscadores) {
+			buscador.detener();
+		}
+	}
+
+	/**
+	 * Devuelve el número total de hilos de búsqueda.
+	 *
+	 * @return Número de hilos.
+	 */
+	public int consultarHilos() {
+		return hilos;
+	}
+
+	/**
+	 * Devuelve la tabla de transposición compartida.
+	 *
+	 * @return Tabla de transposición.
+	 */
+	public TablaTransposicion obtenerTablaTransposicion() {
+		return tabla;
+	}
+
+	/**
+	 * Finaliza los hilos auxiliares. El buscador no puede volver a emplearse con más de un hilo.
+	 */
+	@Override
+	public void close() {
+		if (ejecutor != null) {
+			ejecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Espera a que termine la búsqueda de un hilo auxiliar.
+	 *
+	 * @param auxiliar Búsqueda del hilo auxiliar.
+	 * @return Resultado de la búsqueda.
+	 * @throws IllegalStateException Si la búsqueda del hilo auxiliar ha fallado o se interrumpe la espera.
+	 */
+	private static ResultadoBusqueda esperar(Future<ResultadoBusqueda> auxiliar) {
+		try {
+			return auxiliar.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Búsqueda en paralelo interrumpida.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Error en un hilo auxiliar de búsqueda.", e.getCause());
+		}
+	}
+
+}
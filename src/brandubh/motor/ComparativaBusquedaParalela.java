@@ -0,0 +1,98 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.Tablero;
+
+/**
+ * Comparativa del tiempo hasta profundidad de la búsqueda en paralelo según el número de hilos.
+ * <p>
+ * Busca la posición inicial hasta una profundidad fija con 1, 2, 4... hilos (hasta el máximo indicado), cada vez con 
+ * una tabla de transposición vacía, y muestra el tiempo, los nodos por segundo y la aceleración respecto a un hilo.
+ * <p>
+ * Argumentos opcionales: profundidad (por defecto {@value #PROFUNDIDAD_POR_DEFECTO}), número máximo de hilos (por 
+ * defecto, el número de procesadores disponibles) y tamaño de la tabla en megabytes (por defecto 
+ * {@value #MEGABYTES_POR_DEFECTO}).
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ComparativaBusquedaParalela {
+
+	/** Profundidad de búsqueda por defecto. */
+	private static final int PROFUNDIDAD_POR_DEFECTO = 7;
+
+	/** Tamaño por defecto de la tabla de transposición en megabytes. */
+	private static final int MEGABYTES_POR_DEFECTO = 64;
+
+	/** Oculta el constructor por defecto. */
+	private ComparativaBusquedaParalela() {
+	}
+
+	/**
+	 * Ejecuta la comparativa.
+	 *
+	 * @param args profundidad, número máximo de hilos y megabytes de la tabla de transposición (opcionales)
+	 */
+	public static void main(String[] args) {
+
+		int profundidad = args.length > 0 ? Integer.parseInt(args[0]) : PROFUNDIDAD_POR_DEFECTO;
+		int maximoHilos = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int megabytes = args.length > 2 ? Integer.parseInt(args[2]) : MEGABYTES_POR_DEFECTO;
+
+		// Calentamiento del compilador JIT
+		buscar(1, Math.max(1, profundidad - 2), megabytes);
+
+		long tiempoReferencia = 0;
+
+		int hilos = 1;
+
+		while (true) {
+
+			ResultadoBusqueda resultado = buscar(hilos, profundidad, megabytes);
+			long tiempo = Math.max(1, resultado.milisegundos());
+
+			if (hilos == 1) {
+				tiempoReferencia = tiempo;
+			}
+
+			System.out.printf("hilos %3d  profundidad %2d  tiempo %8d ms  nodos %12d  nps %10d  aceleracion %5.2f  %s%n",
+					hilos, resultado.profundidad(), tiempo, resultado.nodos(), resultado.consultarNodosPorSegundo(),
+					(double) tiempoReferencia / tiempo, resultado.consultarVariacionPrincipalEnTexto());
+
+			if (hilos >= maximoHilos) {
+				break;
+			}
+
+			hilos = Math.min(hilos * 2, maximoHilos);
+		}
+	}
+
+	/**
+	 * Busca la posición inicial con el número de hilos indicado y una tabla de transposición nueva.
+	 *
+	 * @param hilos Número de hilos.
+	 * @param profundidad Profundidad de búsqueda.
+	 * @param megabytes Tamaño de la tabla de transposición en megabytes.
+	 * @return Resultado de la búsqueda.
+	 */
+	private static ResultadoBusqueda buscar(int hilos, int profundidad, int megabytes) {
+
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+
+		try (BuscadorParalelo buscador = new BuscadorParalelo(arbitro, new EvaluadorBasico(), hilos, megabytes)) {
+			return buscador.buscar(profundidad, 0);
+		}
+	}
+
+}
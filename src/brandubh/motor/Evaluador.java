@@ -0,0 +1,52 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+
+/**
+ * Función de evaluación estática de posiciones empleada por el motor de búsqueda.
+ * <p>
+ * Las puntuaciones se expresan desde el punto de vista del jugador con el turno: valores positivos indican ventaja 
+ * para el jugador que mueve. Deben quedar estrictamente por debajo de {@link Buscador#VICTORIA} en valor absoluto.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+public interface Evaluador {
+
+	/**
+	 * Evalúa la posición indicada.
+	 *
+	 * @param tablero Tablero binario con la posición a evaluar.
+	 * @param turno Color del jugador con el turno.
+	 * @return Puntuación de la posición desde el punto de vista del jugador con el turno.
+	 * @see brandubh.modelo.TableroBinario
+	 */
+	int evaluar(TableroBinario tablero, Color turno);
+
+	/**
+	 * Devuelve una función de evaluación equivalente para uso exclusivo sobre el tablero indicado.
+	 * <p>
+	 * Las evaluaciones incrementales aprovechan esta llamada para seguir los cambios del tablero y actualizar sus 
+	 * términos con cada jugada aplicada o deshecha. Por defecto devuelve la propia función de evaluación.
+	 *
+	 * @param tablero Tablero binario sobre el que se realizarán las evaluaciones.
+	 * @return Función de evaluación vinculada al tablero.
+	 * @see brandubh.motor.EvaluadorIncremental
+	 * @see brandubh.motor.EvaluadorRed
+	 */
+	default Evaluador vincular(TableroBinario tablero) {
+		return this;
+	}
+
+}
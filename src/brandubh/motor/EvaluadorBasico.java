@@ -0,0 +1,84 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+
+/**
+ * Evaluación sencilla basada en el material y en la situación del rey.
+ * <p>
+ * Suma el valor de las piezas de cada bando, premia al defensor por la cercanía del rey a las provincias y por las
+ * celdas libres a su alrededor, y premia al atacante por las piezas que rodean al rey.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+public class EvaluadorBasico implements Evaluador {
+
+	/**
+	 * Valor de una pieza atacante.
+	 */
+	private static final int VALOR_ATACANTE = 100;
+
+	/**
+	 * Valor de una pieza defensora.
+	 */
+	private static final int VALOR_DEFENSOR = 150;
+
+	/**
+	 * Penalización para el defensor por cada celda de distancia entre el rey y la provincia más cercana.
+	 */
+	private static final int DISTANCIA_REY = 12;
+
+	/**
+	 * Bonificación para el defensor por cada celda vacía contigua al rey.
+	 */
+	private static final int LIBERTAD_REY = 8;
+
+	/**
+	 * Bonificación para el atacante por cada atacante contiguo al rey.
+	 */
+	private static final int ACOSO_REY = 20;
+
+	/**
+	 * Evalúa la posición indicada.
+	 *
+	 * @param tablero Tablero binario con la posición a evaluar.
+	 * @param turno Color del jugador con el turno.
+	 * @return Puntuación de la posición desde el punto de vista del jugador con el turno.
+	 */
+	@Override
+	public int evaluar(TableroBinario tablero, Color turno) {
+
+		int puntuacion = Long.bitCount(tablero.consultarDefensores()) * VALOR_DEFENSOR
+				- Long.bitCount(tablero.consultarAtacantes()) * VALOR_ATACANTE;
+
+		int rey = tablero.consultarIndiceRey();
+
+		if (rey >= 0) {
+
+			int fila = rey / TableroBinario.NUMERO_COLUMNAS;
+			int columna = rey % TableroBinario.NUMERO_COLUMNAS;
+			int distancia = Math.min(fila, TableroBinario.NUMERO_FILAS - 1 - fila)
+					+ Math.min(columna, TableroBinario.NUMERO_COLUMNAS - 1 - columna);
+
+			long contiguas = TableroBinario.consultarContiguas(rey);
+
+			puntuacion -= distancia * DISTANCIA_REY;
+			puntuacion += Long.bitCount(contiguas & ~tablero.consultarOcupadas()) * LIBERTAD_REY;
+			puntuacion -= Long.bitCount(contiguas & tablero.consultarAtacantes()) * ACOSO_REY;
+		}
+
+		return turno == Color.BLANCO ? puntuacion : -puntuacion;
+	}
+
+}
@@ -0,0 +1,294 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import brandubh.control.Reglas;
+import brandubh.modelo.ObservadorTablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Evaluación que mantiene sus términos de forma incremental a medida que se aplican y deshacen jugadas.
+ * <p>
+ * La evaluación combina el material de cada bando, la distancia del rey a la provincia más cercana, el bloqueo de los
+ * accesos a las provincias por parte de los atacantes y la movilidad del rey. Los tres primeros términos dependen
+ * únicamente de la celda de cada pieza, por lo que se suman en una tabla por tipo de pieza y celda y se actualizan con
+ * cada pieza colocada o eliminada. La movilidad del rey se obtiene con las operaciones de bits de
+ * {@link Reglas#calcularDestinos(TableroBinario, int)} sin recorrer el tablero.
+ * <p>
+ * Los términos se describen en {@link TerminoEvaluacion} y sus pesos se indican con {@link PesosEvaluacion}, que 
+ * pueden leerse de un fichero generado por el ajuste automático de la evaluación.
+ * <p>
+ * Una instancia creada con el constructor público no guarda estado: calcula la suma completa en cada evaluación y
+ * puede emplearse desde varios hilos a la vez. La instancia devuelta por {@link #vincular(TableroBinario)} se registra
+ * como observador del tablero indicado y solo debe emplearse desde el hilo que modifica ese tablero. Si el tablero deja
+ * de notificarle sus cambios (porque se ha asignado otro observador), vuelve a calcular la suma completa.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.modelo.ObservadorTablero
+ */
+public class EvaluadorIncremental implements Evaluador, ObservadorTablero {
+
+	/**
+	 * Máscara con las celdas contiguas a las provincias.
+	 */
+	private static final long ACCESOS_CONTIGUOS;
+
+	/**
+	 * Máscara con las celdas en diagonal con las provincias.
+	 */
+	private static final long ACCESOS_DIAGONALES = (1L << 8) | (1L << 12) | (1L << 36) | (1L << 40);
+
+	/**
+	 * Distancia de cada celda a la provincia más cercana (suma de filas y columnas).
+	 */
+	private static final int[] DISTANCIAS = new int[TableroBinario.NUMERO_CELDAS];
+
+	static {
+		long accesos = 0L;
+
+		for (long provincias = TableroBinario.PROVINCIA; provincias != 0; provincias &= provincias - 1) {
+			accesos |= TableroBinario.consultarContiguas(Long.numberOfTrailingZeros(provincias));
+		}
+
+		ACCESOS_CONTIGUOS = accesos;
+
+		for (int indice = 0; indice < TableroBinario.NUMERO_CELDAS; indice++) {
+
+			int fila = indice / TableroBinario.NUMERO_COLUMNAS;
+			int columna = indice % TableroBinario.NUMERO_COLUMNAS;
+
+			DISTANCIAS[indice] = Math.min(fila, TableroBinario.NUMERO_FILAS - 1 - fila)
+					+ Math.min(columna, TableroBinario.NUMERO_COLUMNAS - 1 - columna);
+		}
+	}
+
+	/**
+	 * Pesos de los términos de la evaluación.
+	 */
+	private final PesosEvaluacion pesos;
+
+	/**
+	 * Puntuación (desde el punto de vista del defensor) de cada tipo de pieza ({@code TipoPieza.ordinal()}) en cada
+	 * celda del tablero, compartida con las instancias vinculadas.
+	 */
+	private final int[][] valores;
+
+	/**
+	 * Peso de cada celda a la que puede desplazarse el rey.
+	 */
+	private final int movilidadRey;
+
+	/**
+	 * Ventaja constante del defensor.
+	 */
+	private final int ventajaDefensor;
+
+	/**
+	 * Tablero cuyos cambios sigue esta instancia ({@code null} si no está vinculada a ningún tablero).
+	 */
+	private final TableroBinario vinculado;
+
+	/**
+	 * Suma de los valores de las piezas del tablero vinculado, mantenida de forma incremental.
+	 */
+	private int suma;
+
+	/**
+	 * Constructor para la clase {@code EvaluadorIncremental} con los pesos por defecto. Genera una función de 
+	 * evaluación sin estado, que no está vinculada a ningún tablero.
+	 */
+	public EvaluadorIncremental() {
+		this(PesosEvaluacion.POR_DEFECTO);
+	}
+
+	/**
+	 * Constructor para la clase {@code EvaluadorIncremental} con los pesos indicados. Genera una función de 
+	 * evaluación sin estado, que no está vinculada a ningún tablero.
+	 *
+	 * @param pesos Pesos de los términos de la evaluación.
+	 * @see brandubh.motor.PesosEvaluacion
+	 */
+	public EvaluadorIncremental(PesosEvaluacion pesos) {
+
+		this.pesos = pesos;
+		this.valores = new int[TipoPieza.values().length][TableroBinario.NUMERO_CELDAS];
+		this.movilidadRey = pesos.consultarPeso(TerminoEvaluacion.MOVILIDAD_REY);
+		this.ventajaDefensor = pesos.consultarPeso(TerminoEvaluacion.VENTAJA_DEFENSOR);
+		this.vinculado = null;
+
+		for (int indice = 0; indice < TableroBinario.NUMERO_CELDAS; indice++) {
+
+			long bit = 1L << indice;
+			int bloqueo = ((ACCESOS_CONTIGUOS & bit) != 0 ? pesos.consultarPeso(TerminoEvaluacion.BLOQUEO_CONTIGUO) : 0)
+					+ ((ACCESOS_DIAGONALES & bit) != 0 ? pesos.consultarPeso(TerminoEvaluacion.BLOQUEO_DIAGONAL) : 0);
+
+			valores[TipoPieza.DEFENSOR.ordinal()][indice] = pesos.consultarPeso(TerminoEvaluacion.DEFENSORES);
+			valores[TipoPieza.ATACANTE.ordinal()][indice] = -pesos.consultarPeso(TerminoEvaluacion.ATACANTES) - bloqueo;
+			valores[TipoPieza.REY.ordinal()][indice] = -DISTANCIAS[indice]
+					* pesos.consultarPeso(TerminoEvaluacion.DISTANCIA_REY);
+		}
+	}
+
+	/**
+	 * Constructor para una función de evaluación vinculada al tablero indicado, con los mismos pesos que otra.
+	 *
+	 * @param origen Función de evaluación de la que se toman los pesos.
+	 * @param vinculado Tablero cuyos cambios sigue la función de evaluación.
+	 */
+	private EvaluadorIncremental(EvaluadorIncremental origen, TableroBinario vinculado) {
+		this.pesos = origen.pesos;
+		this.valores = origen.valores;
+		this.movilidadRey = origen.movilidadRey;
+		this.ventajaDefensor = origen.ventajaDefensor;
+		this.vinculado = vinculado;
+	}
+
+	/**
+	 * Devuelve los pesos de los términos de la evaluación.
+	 *
+	 * @return Pesos de la evaluación.
+	 */
+	public PesosEvaluacion consultarPesos() {
+		return pesos;
+	}
+
+	/**
+	 * Calcula los términos de la evaluación de la posición indicada, desde el punto de vista del defensor.
+	 * <p>
+	 * La evaluación de la posición para el defensor es la suma de cada término multiplicado por su peso.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @param terminos Array en el que se almacena cada término, ordenados según {@code TerminoEvaluacion.ordinal()}.
+	 * Debe tener capacidad para al menos {@link PesosEvaluacion#NUMERO_TERMINOS} elementos.
+	 * @see brandubh.motor.TerminoEvaluacion
+	 */
+	public static void calcularTerminos(TableroBinario tablero, int[] terminos) {
+
+		long atacantes = tablero.consultarAtacantes();
+		int rey = tablero.consultarIndiceRey();
+
+		terminos[TerminoEvaluacion.ATACANTES.ordinal()] = -Long.bitCount(atacantes);
+		terminos[TerminoEvaluacion.DEFENSORES.ordinal()] = Long.bitCount(tablero.consultarDefensores());
+		terminos[TerminoEvaluacion.DISTANCIA_REY.ordinal()] = rey >= 0 ? -DISTANCIAS[rey] : 0;
+		terminos[TerminoEvaluacion.BLOQUEO_CONTIGUO.ordinal()] = -Long.bitCount(atacantes & ACCESOS_CONTIGUOS);
+		terminos[TerminoEvaluacion.BLOQUEO_DIAGONAL.ordinal()] = -Long.bitCount(atacantes & ACCESOS_DIAGONALES);
+		terminos[TerminoEvaluacion.MOVILIDAD_REY.ordinal()] = rey >= 0
+				? Long.bitCount(Reglas.calcularDestinos(tablero, rey)) : 0;
+		terminos[TerminoEvaluacion.VENTAJA_DEFENSOR.ordinal()] = 1;
+	}
+
+	/**
+	 * Devuelve una función de evaluación que se registra como observador del tablero indicado y mantiene sus términos
+	 * con cada cambio en su composición.
+	 *
+	 * @param tablero Tablero binario sobre el que se realizarán las evaluaciones.
+	 * @return Función de evaluación vinculada al tablero.
+	 */
+	@Override
+	public Evaluador vincular(TableroBinario tablero) {
+
+		EvaluadorIncremental evaluador = new EvaluadorIncremental(this, tablero);
+		tablero.asignarObservador(evaluador);
+
+		return evaluador;
+	}
+
+	/**
+	 * Evalúa la posición indicada.
+	 * <p>
+	 * Si el tablero es el vinculado a esta instancia y sigue notificándole sus cambios se emplea la suma mantenida de
+	 * forma incremental. En caso contrario se calcula la suma completa.
+	 *
+	 * @param tablero Tablero binario con la posición a evaluar.
+	 * @param turno Color del jugador con el turno.
+	 * @return Puntuación de la posición desde el punto de vista del jugador con el turno.
+	 */
+	@Override
+	public int evaluar(TableroBinario tablero, Color turno) {
+
+		int puntuacion = ((tablero == vinculado && tablero.consultarObservador() == this) ? suma : sumar(tablero))
+				+ ventajaDefensor;
+
+		int rey = tablero.consultarIndiceRey();
+
+		if (rey >= 0) {
+			puntuacion += Long.bitCount(Reglas.calcularDestinos(tablero, rey)) * movilidadRey;
+		}
+
+		return turno == Color.BLANCO ? puntuacion : -puntuacion;
+	}
+
+	/**
+	 * Suma el valor de la pieza colocada.
+	 *
+	 * @param indice Índice de la celda.
+	 * @param tipoPieza Tipo de la pieza colocada.
+	 */
+	@Override
+	public void notificarColocacion(int indice, TipoPieza tipoPieza) {
+		suma += valores[tipoPieza.ordinal()][indice];
+	}
+
+	/**
+	 * Resta el valor de la pieza eliminada.
+	 *
+	 * @param indice Índice de la celda.
+	 * @param tipoPieza Tipo de la pieza eliminada.
+	 */
+	@Override
+	public void notificarEliminacion(int indice, TipoPieza tipoPieza) {
+		suma -= valores[tipoPieza.ordinal()][indice];
+	}
+
+	/**
+	 * Recalcula la suma completa a partir del tablero.
+	 *
+	 * @param tablero Tablero con la nueva composición.
+	 */
+	@Override
+	public void notificarReinicio(TableroBinario tablero) {
+		suma = sumar(tablero);
+	}
+
+	/**
+	 * Calcula la suma de los valores de todas las piezas del tablero indicado.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @return Suma de los valores de las piezas desde el punto de vista del defensor.
+	 */
+	private int sumar(TableroBinario tablero) {
+		return sumar(tablero.consultarAtacantes(), valores[TipoPieza.ATACANTE.ordinal()])
+				+ sumar(tablero.consultarDefensores(), valores[TipoPieza.DEFENSOR.ordinal()])
+				+ sumar(tablero.consultarRey(), valores[TipoPieza.REY.ordinal()]);
+	}
+
+	/**
+	 * Calcula la suma de los valores de las celdas de una máscara.
+	 *
+	 * @param mascara Máscara de bits con las celdas.
+	 * @param valores Valor de cada celda.
+	 * @return Suma de los valores de las celdas de la máscara.
+	 */
+	private static int sumar(long mascara, int[] valores) {
+
+		int total = 0;
+
+		for (; mascara != 0; mascara &= mascara - 1) {
+			total += valores[Long.numberOfTrailingZeros(mascara)];
+		}
+
+		return total;
+	}
+
+}
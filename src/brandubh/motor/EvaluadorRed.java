@@ -0,0 +1,232 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.ObservadorTablero;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Evaluación con una red neuronal cuantizada cuyo acumulador se mantiene de forma incremental a medida que se aplican
+ * y deshacen jugadas.
+ * <p>
+ * La red se describe en {@link RedNeuronal} y puede leerse de un fichero con {@link RedNeuronal#leer(Path)}. La
+ * instancia devuelta por {@link #vincular(TableroBinario)} se registra como observador del tablero indicado y suma o
+ * resta del acumulador la columna de pesos de cada pieza colocada o eliminada, de forma que cada evaluación solo
+ * propaga el acumulador por las capas siguientes. Solo debe emplearse desde el hilo que modifica ese tablero. Si el
+ * tablero deja de notificarle sus cambios (porque se ha asignado otro observador), calcula el acumulador completo.
+ * <p>
+ * Una instancia creada con el constructor público no guarda estado: calcula el acumulador completo en cada evaluación
+ * y puede emplearse desde varios hilos a la vez.
+ * <p>
+ * Uso desde línea de comandos, para medir el número de evaluaciones por segundo:
+ * {@code EvaluadorRed [fichero] [evaluaciones]}. Sin fichero se emplea una red aleatoria de tamaño por defecto.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.modelo.ObservadorTablero
+ */
+public class EvaluadorRed implements Evaluador, ObservadorTablero {
+
+	/**
+	 * Puntuación máxima en valor absoluto, por debajo de las puntuaciones de victoria de la búsqueda.
+	 */
+	public static final int PUNTUACION_MAXIMA = Buscador.VICTORIA - Buscador.DISTANCIA_MAXIMA_VICTORIA - 1;
+
+	/**
+	 * Red neuronal de la evaluación.
+	 */
+	private final RedNeuronal red;
+
+	/**
+	 * Tablero cuyos cambios sigue esta instancia ({@code null} si no está vinculada a ningún tablero).
+	 */
+	private final TableroBinario vinculado;
+
+	/**
+	 * Acumulador de la primera capa de la red para el tablero vinculado, mantenido de forma incremental
+	 * ({@code null} si no está vinculada a ningún tablero).
+	 */
+	private final short[] acumulador;
+
+	/**
+	 * Activaciones de la primera capa de la red, reutilizadas en cada evaluación ({@code null} si no está vinculada a
+	 * ningún tablero).
+	 */
+	private final int[] activaciones;
+
+	/**
+	 * Constructor para la clase {@code EvaluadorRed}. Genera una función de evaluación sin estado, que no está
+	 * vinculada a ningún tablero.
+	 *
+	 * @param red Red neuronal de la evaluación.
+	 * @see brandubh.motor.RedNeuronal
+	 */
+	public EvaluadorRed(RedNeuronal red) {
+		this.red = red;
+		this.vinculado = null;
+		this.acumulador = null;
+		this.activaciones = null;
+	}
+
+	/**
+	 * Constructor para una función de evaluación vinculada al tablero indicado, con la misma red que otra.
+	 *
+	 * @param origen Función de evaluación de la que se toma la red.
+	 * @param vinculado Tablero cuyos cambios sigue la función de evaluación.
+	 */
+	private EvaluadorRed(EvaluadorRed origen, TableroBinario vinculado) {
+		this.red = origen.red;
+		this.vinculado = vinculado;
+		this.acumulador = new short[red.consultarPrimeraCapa()];
+		this.activaciones = new int[red.consultarPrimeraCapa()];
+	}
+
+	/**
+	 * Devuelve la red neuronal de la evaluación.
+	 *
+	 * @return Red neuronal.
+	 */
+	public RedNeuronal consultarRed() {
+		return red;
+	}
+
+	/**
+	 * Devuelve una función de evaluación que se registra como observador del tablero indicado y mantiene el
+	 * acumulador de la red con cada cambio en su composición.
+	 *
+	 * @param tablero Tablero binario sobre el que se realizarán las evaluaciones.
+	 * @return Función de evaluación vinculada al tablero.
+	 */
+	@Override
+	public Evaluador vincular(TableroBinario tablero) {
+
+		EvaluadorRed evaluador = new EvaluadorRed(this, tablero);
+		tablero.asignarObservador(evaluador);
+
+		return evaluador;
+	}
+
+	/**
+	 * Evalúa la posición indicada.
+	 * <p>
+	 * Si el tablero es el vinculado a esta instancia y sigue notificándole sus cambios se emplea el acumulador
+	 * mantenido de forma incremental. En caso contrario se calcula el acumulador completo.
+	 *
+	 * @param tablero Tablero binario con la posición a evaluar.
+	 * @param turno Color del jugador con el turno.
+	 * @return Puntuación de la posición desde el punto de vista del jugador con el turno, limitada a
+	 * {@link #PUNTUACION_MAXIMA} en valor absoluto.
+	 */
+	@Override
+	public int evaluar(TableroBinario tablero, Color turno) {
+
+		int puntuacion = (tablero == vinculado && tablero.consultarObservador() == this)
+				? red.propagar(acumulador, activaciones) : red.evaluar(tablero);
+
+		puntuacion = Math.min(Math.max(puntuacion, -PUNTUACION_MAXIMA), PUNTUACION_MAXIMA);
+
+		return turno == Color.BLANCO ? puntuacion : -puntuacion;
+	}
+
+	/**
+	 * Suma al acumulador la columna de pesos de la pieza colocada.
+	 *
+	 * @param indice Índice de la celda.
+	 * @param tipoPieza Tipo de la pieza colocada.
+	 */
+	@Override
+	public void notificarColocacion(int indice, TipoPieza tipoPieza) {
+		red.sumar(acumulador, RedNeuronal.consultarEntrada(tipoPieza, indice));
+	}
+
+	/**
+	 * Resta del acumulador la columna de pesos de la pieza eliminada.
+	 *
+	 * @param indice Índice de la celda.
+	 * @param tipoPieza Tipo de la pieza eliminada.
+	 */
+	@Override
+	public void notificarEliminacion(int indice, TipoPieza tipoPieza) {
+		red.restar(acumulador, RedNeuronal.consultarEntrada(tipoPieza, indice));
+	}
+
+	/**
+	 * Recalcula el acumulador completo a partir del tablero.
+	 *
+	 * @param tablero Tablero con la nueva composición.
+	 */
+	@Override
+	public void notificarReinicio(TableroBinario tablero) {
+		red.inicializar(tablero, acumulador);
+	}
+
+	/**
+	 * Mide las evaluaciones por segundo de un evaluador vinculado a lo largo de partidas aleatorias, aplicando una
+	 * jugada antes de cada evaluación.
+	 *
+	 * @param args fichero de la red y número de evaluaciones, ambos opcionales
+	 * @throws IOException Si no puede leerse la red.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		RedNeuronal red = args.length > 0 ? RedNeuronal.leer(Path.of(args[0]))
+				: RedNeuronal.generar(RedNeuronal.NEURONAS_PRIMERA_CAPA, RedNeuronal.NEURONAS_SEGUNDA_CAPA, 1);
+		int evaluaciones = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+		TableroBinario inicial = arbitro.obtenerTableroBinario().clonar();
+		TableroBinario tablero = inicial.clonar();
+		Evaluador evaluador = new EvaluadorRed(red).vincular(tablero);
+
+		SplittableRandom aleatorio = new SplittableRandom(1);
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		Color turno = Color.NEGRO;
+		long total = 0;
+		long inicio = System.nanoTime();
+
+		for (int i = 0; i < evaluaciones; i++) {
+
+			int numero = Reglas.generarMovimientos(tablero, turno, movimientos);
+			int jugada = numero == 0 ? JugadaCompacta.NINGUNA : movimientos[aleatorio.nextInt(numero)];
+
+			if (jugada != JugadaCompacta.NINGUNA) {
+				int destino = JugadaCompacta.consultarDestino(jugada);
+				Reglas.aplicarJugada(tablero, jugada);
+				turno = turno.consultarContrario();
+				if (Reglas.haGanadoRey(tablero, destino) || Reglas.haGanadoAtacante(tablero, destino)) {
+					jugada = JugadaCompacta.NINGUNA;
+				}
+			}
+
+			total += evaluador.evaluar(tablero, turno);
+
+			if (jugada == JugadaCompacta.NINGUNA) {
+				tablero.copiar(inicial);
+				turno = Color.NEGRO;
+			}
+		}
+
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+		System.out.printf("%s: %.0f evaluaciones por segundo (suma %d)%n", red, evaluaciones / segundos, total);
+	}
+
+}
@@ -0,0 +1,534 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.Celda;
+import brandubh.modelo.Jugada;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.Coordenada;
+import brandubh.util.TipoCelda;
+import brandubh.util.TipoPieza;
+
+/**
+ * Recuento perft de las posiciones alcanzables desde una posición dada.
+ * <p>
+ * Permite validar y medir la generación de movimientos: cuenta las secuencias de jugadas legales de una profundidad 
+ * dada, junto con las capturas y victorias de la última jugada, opcionalmente desglosadas por jugada inicial 
+ * (<em>divide</em>) o repartiendo las jugadas iniciales entre los hilos de un {@link ForkJoinPool}. Una jugada que 
+ * termina la partida no se continúa. El recuento rápido trabaja sobre copias del tablero binario con {@link Reglas}; 
+ * el recuento verificado recorre las mismas posiciones con el árbitro y comprueba en cada una que las jugadas 
+ * generadas coinciden con las aceptadas por {@link Arbitro#esMovimientoLegal(Jugada)} y que las capturas coinciden 
+ * con las obtenidas celda a celda sobre un clon del tablero, sin emplear las operaciones de bits de {@link Reglas}.
+ * <p>
+ * Uso desde línea de comandos: {@code Perft profundidad [hilos] [-dividir] [-verificar]}.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.motor.ResultadoPerft
+ */
+public final class Perft {
+
+	/**
+	 * Jugadas con celdas sin pieza para cada par de índices de origen y destino, empleadas para consultar al árbitro.
+	 */
+	private static final Jugada[][] JUGADAS = new Jugada[TableroBinario.NUMERO_CELDAS][TableroBinario.NUMERO_CELDAS];
+
+	static {
+		for (int origen = 0; origen < TableroBinario.NUMERO_CELDAS; origen++) {
+			for (int destino = 0; destino < TableroBinario.NUMERO_CELDAS; destino++) {
+				JUGADAS[origen][destino] = new Jugada(new Celda(TableroBinario.consultarCoordenada(origen)),
+						new Celda(TableroBinario.consultarCoordenada(destino)));
+			}
+		}
+	}
+
+	/** Oculta el constructor por defecto. */
+	private Perft() {
+	}
+
+	/**
+	 * Cuenta las posiciones alcanzables a la profundidad indicada.
+	 *
+	 * @param tablero Tablero binario con la posición de partida. No se modifica.
+	 * @param turno Color del jugador con el turno.
+	 * @param profundidad Profundidad en medios movimientos.
+	 * @return Resultado del recuento.
+	 */
+	public static ResultadoPerft contar(TableroBinario tablero, Color turno, int profundidad) {
+
+		if (profundidad <= 0) {
+			return new ResultadoPerft(1, 0, 0, 0);
+		}
+
+		Contador contador = new Contador(profundidad);
+		contador.contar(tablero, turno, profundidad);
+
+		return contador.consultarResultado();
+	}
+
+	/**
+	 * Cuenta las posiciones alcanzables a la profundidad indicada desglosadas por jugada inicial.
+	 *
+	 * @param tablero Tablero binario con la posición de partida. No se modifica.
+	 * @param turno Color del jugador con el turno.
+	 * @param profundidad Profundidad en medios movimientos (al menos {@code 1}).
+	 * @return Resultados por jugada inicial codificada, en el orden de generación.
+	 */
+	public static Map<Integer, ResultadoPerft> dividir(TableroBinario tablero, Color turno, int profundidad) {
+
+		Map<Integer, ResultadoPerft> resultados = new LinkedHashMap<>();
+
+		for (Tarea tarea : crearTareas(tablero, turno, profundidad)) {
+			resultados.put(tarea.jugada, tarea.compute());
+		}
+
+		return resultados;
+	}
+
+	/**
+	 * Cuenta las posiciones alcanzables a la profundidad indicada repartiendo las jugadas iniciales entre los hilos del
+	 * {@code ForkJoinPool} indicado.
+	 *
+	 * @param tablero Tablero binario con la posición de partida. No se modifica.
+	 * @param turno Color del jugador con el turno.
+	 * @param profundidad Profundidad en medios movimientos.
+	 * @param ejecutor Conjunto de hilos en el que se realiza el recuento.
+	 * @return Resultado del recuento.
+	 */
+	public static ResultadoPerft contarEnParalelo(TableroBinario tablero, Color turno, int profundidad,
+			ForkJoinPool ejecutor) {
+
+		if (profundidad <= 1) {
+			return contar(tablero, turno, profundidad);
+		}
+
+		return ejecutor.invoke(new RecursiveTask<ResultadoPerft>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected ResultadoPerft compute() {
+
+				List<Tarea> tareas = crearTareas(tablero, turno, profundidad);
+				invokeAll(tareas);
+
+				ResultadoPerft total = ResultadoPerft.VACIO;
+				for (Tarea tarea : tareas) {
+					total = total.sumar(tarea.join());
+				}
+
+				return total;
+			}
+		});
+	}
+
+	/**
+	 * Cuenta las posiciones alcanzables a la profundidad indicada recorriéndolas con el árbitro y verificando en cada 
+	 * una la generación de movimientos frente a las comprobaciones del árbitro, y las capturas de cada jugada frente a 
+	 * las obtenidas recorriendo las celdas de un clon del tablero tras {@link Arbitro#mover(Jugada)}.
+	 * <p>
+	 * Es mucho más lento que {@link #contar(TableroBinario, Color, int)} y debe coincidir con él. Al terminar, el 
+	 * árbitro queda en el mismo estado que al comenzar.
+	 *
+	 * @param arbitro Árbitro con la posición de partida.
+	 * @param profundidad Profundidad en medios movimientos.
+	 * @return Resultado del recuento.
+	 * @throws IllegalStateException Si la generación de movimientos no coincide con el árbitro o las capturas no 
+	 * coinciden con las obtenidas celda a celda.
+	 */
+	public static ResultadoPerft contarVerificando(Arbitro arbitro, int profundidad) {
+
+		if (profundidad <= 0) {
+			return new ResultadoPerft(1, 0, 0, 0);
+		}
+
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		int numero = arbitro.generarMovimientosLegales(movimientos);
+		verificarMovimientos(arbitro, movimientos, numero);
+
+		TableroBinario copia = new TableroBinario();
+		ResultadoPerft total = ResultadoPerft.VACIO;
+
+		for (int i = 0; i < numero; i++) {
+
+			int jugada = movimientos[i];
+			int origen = JugadaCompacta.consultarOrigen(jugada);
+			int destino = JugadaCompacta.consultarDestino(jugada);
+
+			Arbitro referencia = arbitro.clonar();
+			referencia.mover(JUGADAS[origen][destino]);
+			long esperadas = calcularCapturasPorCeldas(referencia.consultarTablero(), destino);
+
+			long ocupadas = arbitro.obtenerTableroBinario().consultarOcupadas();
+			copia.copiar(arbitro.obtenerTableroBinario());
+			int esperada = Reglas.aplicarJugada(copia, jugada);
+			int aplicada = arbitro.aplicarJugada(jugada);
+			long capturadas = ocupadas & ~arbitro.obtenerTableroBinario().consultarOcupadas() & ~(1L << origen);
+
+			if (capturadas != esperadas || aplicada != esperada || !copia.equals(arbitro.obtenerTableroBinario())) {
+				arbitro.deshacerJugada();
+				throw new IllegalStateException("Capturas distintas para " + JugadaCompacta.aTexto(jugada) + " en:\n"
+						+ arbitro.obtenerTableroBinario().aTexto());
+			}
+
+			boolean huida = arbitro.haGanadoRey();
+			boolean encierro = arbitro.haGanadoAtacante();
+
+			if (profundidad == 1) {
+				total = total.sumar(new ResultadoPerft(1, JugadaCompacta.consultarCapturas(aplicada) != 0 ? 1 : 0,
+						huida ? 1 : 0, encierro ? 1 : 0));
+			} else if (!huida && !encierro) {
+				total = total.sumar(contarVerificando(arbitro, profundidad - 1));
+			}
+
+			arbitro.deshacerJugada();
+		}
+
+		return total;
+	}
+
+	/**
+	 * Ejecuta el recuento desde la posición inicial y muestra el resultado y el tiempo empleado por cada profundidad 
+	 * hasta la indicada.
+	 *
+	 * @param args profundidad, número de hilos (opcional), {@code -dividir} para desglosar la última profundidad por 
+	 * jugada inicial y {@code -verificar} para contrastar además con el árbitro
+	 */
+	public static void main(String[] args) {
+
+		int profundidad = 4;
+		int hilos = 1;
+		boolean desglosar = false;
+		boolean verificar = false;
+		List<Integer> numeros = new ArrayList<>();
+
+		for (String argumento : args) {
+			if (argumento.equals("-dividir")) {
+				desglosar = true;
+			} else if (argumento.equals("-verificar")) {
+				verificar = true;
+			} else {
+				numeros.add(Integer.parseInt(argumento));
+			}
+		}
+
+		if (!numeros.isEmpty()) {
+			profundidad = numeros.get(0);
+		}
+		if (numeros.size() > 1) {
+			hilos = numeros.get(1);
+		}
+
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+		TableroBinario tablero = arbitro.obtenerTableroBinario();
+		Color turno = arbitro.consultarTurno();
+
+		ForkJoinPool ejecutor = new ForkJoinPool(Math.max(1, hilos));
+
+		try {
+			for (int actual = 1; actual <= profundidad; actual++) {
+
+				long inicio = System.nanoTime();
+				ResultadoPerft resultado = contarEnParalelo(tablero, turno, actual, ejecutor);
+				long milisegundos = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+
+				System.out.printf("perft %2d  %s  tiempo %d ms  nps %d%n", actual, resultado, milisegundos,
+						resultado.nodos() * 1000 / milisegundos);
+
+				if (verificar) {
+					ResultadoPerft verificado = contarVerificando(arbitro, actual);
+					System.out.println(verificado.equals(resultado) ? "  verificado con el árbitro"
+							: "  ERROR: el árbitro obtiene " + verificado);
+				}
+			}
+
+			if (desglosar) {
+				for (Map.Entry<Integer, ResultadoPerft> entrada : dividir(tablero, turno, profundidad).entrySet()) {
+					System.out.println(JugadaCompacta.aTexto(entrada.getKey()) + ": " + entrada.getValue().nodos());
+				}
+			}
+		} finally {
+			ejecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Crea una tarea de recuento por cada jugada inicial.
+	 *
+	 * @param tablero Tablero binario con la posición de partida.
+	 * @param turno Color del jugador con el turno.
+	 * @param profundidad Profundidad total del recuento (al menos {@code 1}).
+	 * @return Tareas de recuento, en el orden de generación de las jugadas.
+	 */
+	private static List<Tarea> crearTareas(TableroBinario tablero, Color turno, int profundidad) {
+
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		int numero = Reglas.generarMovimientos(tablero, turno, movimientos);
+		List<Tarea> tareas = new ArrayList<>(numero);
+
+		for (int i = 0; i < numero; i++) {
+			tareas.add(new Tarea(tablero, turno, profundidad, movimientos[i]));
+		}
+
+		return tareas;
+	}
+
+	/**
+	 * Calcula las piezas capturadas por el último movimiento recorriendo todas las celdas del tablero: una pieza que no
+	 * es el rey queda capturada si la pieza movida es contigua a ella y, en horizontal o en vertical, sus dos celdas
+	 * contiguas son hostiles (ocupadas por una pieza del otro color, o una provincia o el trono vacíos). El rey en una
+	 * provincia no es hostil para sus propios defensores.
+	 *
+	 * @param tablero Tablero tras el movimiento, sin retirar las capturas.
+	 * @param destino Índice de la celda de destino del movimiento.
+	 * @return Máscara de bits con las celdas de las piezas capturadas.
+	 */
+	private static long calcularCapturasPorCeldas(Tablero tablero, int destino) {
+
+		Coordenada coordenadaDestino = TableroBinario.consultarCoordenada(destino);
+		long capturas = 0L;
+
+		for (Celda celda : tablero.consultarCeldas()) {
+
+			Coordenada coordenada = celda.consultarCoordenada();
+
+			if (celda.estaVacia() || coordenada.equals(coordenadaDestino)
+					|| celda.consultarPieza().consultarTipoPieza() == TipoPieza.REY) {
+				continue;
+			}
+
+			Celda[][] ejes = { tablero.consultarCeldasContiguasEnHorizontal(coordenada),
+					tablero.consultarCeldasContiguasEnVertical(coordenada) };
+
+			for (Celda[] eje : ejes) {
+
+				int hostiles = 0;
+				boolean contiguaMovida = false;
+
+				for (Celda contigua : eje) {
+
+					contiguaMovida |= contigua.consultarCoordenada().equals(coordenadaDestino);
+
+					if (contigua.estaVacia() ? contigua.consultarTipoCelda() != TipoCelda.NORMAL
+							: contigua.consultarColorDePieza() != celda.consultarColorDePieza()) {
+						hostiles++;
+					}
+				}
+
+				if (hostiles == 2 && contiguaMovida) {
+					capturas |= 1L << TableroBinario.consultarIndice(coordenada);
+				}
+			}
+		}
+
+		return capturas;
+	}
+
+	/**
+	 * Comprueba que los movimientos generados coinciden con los que el árbitro considera legales.
+	 *
+	 * @param arbitro Árbitro con la posición actual.
+	 * @param movimientos Movimientos generados.
+	 * @param numero Número de movimientos generados.
+	 * @throws IllegalStateException Si los movimientos no coinciden.
+	 */
+	private static void verificarMovimientos(Arbitro arbitro, int[] movimientos, int numero) {
+
+		boolean[][] generados = new boolean[TableroBinario.NUMERO_CELDAS][TableroBinario.NUMERO_CELDAS];
+
+		for (int i = 0; i < numero; i++) {
+			generados[JugadaCompacta.consultarOrigen(movimientos[i])][JugadaCompacta.consultarDestino(movimientos[i])] = true;
+		}
+
+		for (long piezas = arbitro.obtenerTableroBinario().consultarPiezas(arbitro.consultarTurno()); piezas != 0;
+				piezas &= piezas - 1) {
+
+			int origen = Long.numberOfTrailingZeros(piezas);
+
+			for (int destino = 0; destino < TableroBinario.NUMERO_CELDAS; destino++) {
+
+				if (arbitro.esMovimientoLegal(JUGADAS[origen][destino]) != generados[origen][destino]) {
+					throw new IllegalStateException("Generación incorrecta de " + JugadaCompacta
+							.aTexto(JugadaCompacta.codificar(origen, destino)) + " en:\n" + arbitro.obtenerTableroBinario().aTexto());
+				}
+
+				generados[origen][destino] = false;
+			}
+		}
+
+		for (boolean[] fila : generados) {
+			for (boolean generado : fila) {
+				if (generado) {
+					throw new IllegalStateException("Jugada generada para una pieza que no tiene el turno en:\n"
+							+ arbitro.obtenerTableroBinario().aTexto());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Recuento de la rama de una jugada inicial, ejecutable en un {@code ForkJoinPool}.
+	 */
+	private static final class Tarea extends RecursiveTask<ResultadoPerft> {
+
+		/** Número de versión para la serialización. */
+		private static final long serialVersionUID = 1L;
+
+		/** Posición de partida. */
+		private final TableroBinario tablero;
+
+		/** Color del jugador con el turno en la posición de partida. */
+		private final Color turno;
+
+		/** Profundidad total del recuento. */
+		private final int profundidad;
+
+		/** Jugada inicial codificada. */
+		private final int jugada;
+
+		/**
+		 * Constructor para la clase {@code Tarea}.
+		 *
+		 * @param tablero Posición de partida.
+		 * @param turno Color del jugador con el turno.
+		 * @param profundidad Profundidad total del recuento.
+		 * @param jugada Jugada inicial codificada.
+		 */
+		Tarea(TableroBinario tablero, Color turno, int profundidad, int jugada) {
+			this.tablero = tablero;
+			this.turno = turno;
+			this.profundidad = profundidad;
+			this.jugada = jugada;
+		}
+
+		@Override
+		protected ResultadoPerft compute() {
+
+			Contador contador = new Contador(profundidad);
+			contador.contarJugada(tablero, turno, profundidad, jugada, 0);
+
+			return contador.consultarResultado();
+		}
+	}
+
+	/**
+	 * Recorrido rápido en profundidad sobre copias del tablero binario, un tablero y un array de movimientos por nivel.
+	 */
+	private static final class Contador {
+
+		/** Tableros de cada nivel. */
+		private final TableroBinario[] tableros;
+
+		/** Movimientos generados en cada nivel. */
+		private final int[][] movimientos;
+
+		/** Número de secuencias contadas. */
+		private long nodos;
+
+		/** Número de jugadas finales con capturas. */
+		private long capturas;
+
+		/** Número de jugadas finales con huida del rey. */
+		private long huidasRey;
+
+		/** Número de jugadas finales con encierro del rey. */
+		private long capturasRey;
+
+		/**
+		 * Constructor para la clase {@code Contador}.
+		 *
+		 * @param profundidad Profundidad máxima del recorrido.
+		 */
+		Contador(int profundidad) {
+			tableros = new TableroBinario[profundidad + 1];
+			movimientos = new int[profundidad + 1][Reglas.MAXIMO_MOVIMIENTOS];
+			for (int i = 0; i < tableros.length; i++) {
+				tableros[i] = new TableroBinario();
+			}
+		}
+
+		/**
+		 * Cuenta las secuencias de jugadas desde una posición.
+		 *
+		 * @param tablero Posición.
+		 * @param turno Color del jugador con el turno.
+		 * @param profundidad Profundidad restante (al menos {@code 1}).
+		 */
+		void contar(TableroBinario tablero, Color turno, int profundidad) {
+
+			int nivel = tableros.length - 1 - profundidad;
+			int[] jugadas = movimientos[nivel];
+			int numero = Reglas.generarMovimientos(tablero, turno, jugadas);
+
+			for (int i = 0; i < numero; i++) {
+				contarJugada(tablero, turno, profundidad, jugadas[i], nivel);
+			}
+		}
+
+		/**
+		 * Aplica una jugada sobre una copia de la posición y cuenta las secuencias que continúan desde ella.
+		 *
+		 * @param tablero Posición.
+		 * @param turno Color del jugador con el turno.
+		 * @param profundidad Profundidad restante (al menos {@code 1}).
+		 * @param jugada Jugada codificada.
+		 * @param nivel Nivel de la posición en el recorrido.
+		 */
+		void contarJugada(TableroBinario tablero, Color turno, int profundidad, int jugada, int nivel) {
+
+			TableroBinario siguiente = tableros[nivel + 1];
+			siguiente.copiar(tablero);
+
+			int aplicada = Reglas.aplicarJugada(siguiente, jugada);
+			int destino = JugadaCompacta.consultarDestino(jugada);
+			boolean huida = Reglas.haGanadoRey(siguiente, destino);
+			boolean encierro = !huida && Reglas.haGanadoAtacante(siguiente, destino);
+
+			if (profundidad == 1) {
+				nodos++;
+				if (JugadaCompacta.consultarCapturas(aplicada) != 0) {
+					capturas++;
+				}
+				if (huida) {
+					huidasRey++;
+				}
+				if (encierro) {
+					capturasRey++;
+				}
+			} else if (!huida && !encierro) {
+				contar(siguiente, turno.consultarContrario(), profundidad - 1);
+			}
+		}
+
+		/**
+		 * Devuelve el resultado acumulado.
+		 *
+		 * @return Resultado del recuento.
+		 */
+		ResultadoPerft consultarResultado() {
+			return new ResultadoPerft(nodos, capturas, huidasRey, capturasRey);
+		}
+	}
+
+}
@@ -0,0 +1,222 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Pesos de los términos de la evaluación incremental.
+ * <p>
+ * Los pesos se guardan en ficheros de texto con un término por línea, formado por el nombre del término
+ * ({@link TerminoEvaluacion#name()}) y su peso separados por espacios. Las líneas vacías y las que empiezan por
+ * {@code #} se ignoran, y los términos que no aparecen en el fichero conservan su peso por defecto.
+ * <p>
+ * Los pesos están limitados a {@link #PESO_MAXIMO} en valor absoluto, de forma que ninguna evaluación alcanza
+ * {@link Buscador#VICTORIA}. Las instancias son inmutables.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.motor.TerminoEvaluacion
+ */
+public final class PesosEvaluacion {
+
+	/**
+	 * Número de términos de la evaluación.
+	 */
+	public static final int NUMERO_TERMINOS = TerminoEvaluacion.values().length;
+
+	/**
+	 * Valor absoluto máximo de un peso.
+	 */
+	public static final int PESO_MAXIMO = 1000;
+
+	/**
+	 * Pesos por defecto de todos los términos.
+	 */
+	public static final PesosEvaluacion POR_DEFECTO;
+
+	static {
+		int[] pesos = new int[NUMERO_TERMINOS];
+
+		for (TerminoEvaluacion termino : TerminoEvaluacion.values()) {
+			pesos[termino.ordinal()] = termino.consultarPesoPorDefecto();
+		}
+
+		POR_DEFECTO = new PesosEvaluacion(pesos);
+	}
+
+	/**
+	 * Peso de cada término, ordenados según {@code TerminoEvaluacion.ordinal()}.
+	 */
+	private final int[] pesos;
+
+	/**
+	 * Constructor para la clase {@code PesosEvaluacion}.
+	 *
+	 * @param pesos Peso de cada término, ordenados según {@code TerminoEvaluacion.ordinal()}. Se copian.
+	 * @throws IllegalArgumentException Si el número de pesos no coincide con el de términos o algún peso supera
+	 * {@link #PESO_MAXIMO} en valor absoluto.
+	 */
+	public PesosEvaluacion(int[] pesos) {
+
+		if (pesos.length != NUMERO_TERMINOS) {
+			throw new IllegalArgumentException("Se esperaban " + NUMERO_TERMINOS + " pesos y no " + pesos.length + ".");
+		}
+
+		for (int peso : pesos) {
+			if (Math.abs(peso) > PESO_MAXIMO) {
+				throw new IllegalArgumentException("Peso fuera de rango: " + peso);
+			}
+		}
+
+		this.pesos = pesos.clone();
+	}
+
+	/**
+	 * Devuelve el peso de un término.
+	 *
+	 * @param termino Término de la evaluación.
+	 * @return Peso del término.
+	 */
+	public int consultarPeso(TerminoEvaluacion termino) {
+		return pesos[termino.ordinal()];
+	}
+
+	/**
+	 * Devuelve una copia de los pesos de todos los términos.
+	 *
+	 * @return Peso de cada término, ordenados según {@code TerminoEvaluacion.ordinal()}.
+	 */
+	public int[] consultarPesos() {
+		return pesos.clone();
+	}
+
+	/**
+	 * Lee los pesos de un fichero de texto.
+	 *
+	 * @param fichero Ruta del fichero de pesos.
+	 * @return Pesos leídos, con el peso por defecto en los términos que no aparecen en el fichero.
+	 * @throws IOException Si no puede leerse el fichero o alguna línea no es válida.
+	 */
+	public static PesosEvaluacion leer(Path fichero) throws IOException {
+
+		int[] pesos = POR_DEFECTO.consultarPesos();
+
+		try (BufferedReader lector = Files.newBufferedReader(fichero, StandardCharsets.UTF_8)) {
+
+			String linea;
+			for (int numero = 1; (linea = lector.readLine()) != null; numero++) {
+
+				linea = linea.strip();
+				if (linea.isEmpty() || linea.startsWith("#")) {
+					continue;
+				}
+
+				String[] campos = linea.split("\\s+");
+				try {
+					if (campos.length != 2) {
+						throw new IllegalArgumentException("Se esperaban un término y un peso.");
+					}
+					pesos[TerminoEvaluacion.valueOf(campos[0]).ordinal()] = Integer.parseInt(campos[1]);
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Línea " + numero + " no válida en " + fichero + ": " + linea, e);
+				}
+			}
+		}
+
+		try {
+			return new PesosEvaluacion(pesos);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Pesos no válidos en " + fichero, e);
+		}
+	}
+
+	/**
+	 * Escribe los pesos en un fichero de texto, que se sobrescribe si existe.
+	 *
+	 * @param fichero Ruta del fichero de pesos.
+	 * @param comentario Comentario que se escribe al principio del fichero o {@code null} para no escribirlo.
+	 * @throws IOException Si no puede escribirse el fichero.
+	 */
+	public void escribir(Path fichero, String comentario) throws IOException {
+
+		try (BufferedWriter escritor = Files.newBufferedWriter(fichero, StandardCharsets.UTF_8)) {
+
+			if (comentario != null) {
+				for (String linea : comentario.split("\n")) {
+					escritor.write("# " + linea);
+					escritor.newLine();
+				}
+			}
+
+			for (TerminoEvaluacion termino : TerminoEvaluacion.values()) {
+				escritor.write(termino.name() + " " + pesos[termino.ordinal()]);
+				escritor.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Genera un código hash para estos pesos.
+	 *
+	 * @return Un código hash para estos pesos.
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(pesos);
+	}
+
+	/**
+	 * Compara este objeto con el objeto especificado para verificar si son iguales.
+	 *
+	 * @param obj El objeto con el que se deben comparar estos pesos.
+	 * @return Valor de tipo {@code boolean}: {@code true} si estos pesos son iguales al objeto especificado
+	 * y {@code false} en caso contrario.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PesosEvaluacion other = (PesosEvaluacion) obj;
+		return Arrays.equals(pesos, other.pesos);
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de estos pesos.
+	 *
+	 * @return Una representación de cadena de caracteres ({@code String}) de estos pesos.
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder texto = new StringBuilder("PesosEvaluacion [");
+
+		for (TerminoEvaluacion termino : TerminoEvaluacion.values()) {
+			if (termino.ordinal() > 0) {
+				texto.append(", ");
+			}
+			texto.append(termino.name()).append('=').append(pesos[termino.ordinal()]);
+		}
+
+		return texto.append(']').toString();
+	}
+
+}
@@ -0,0 +1,546 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import brandubh.modelo.TableroBinario;
+import brandubh.util.TipoPieza;
+
+/**
+ * Pesos cuantizados de una red neuronal de evaluación con dos capas ocultas y las operaciones de inferencia sobre
+ * ellos.
+ * <p>
+ * La entrada de la red tiene {@link #ENTRADAS} valores binarios, uno por cada tipo de pieza en cada celda (véase
+ * {@link #consultarEntrada(TipoPieza, int)}), y su salida es la puntuación de la posición desde el punto de vista del
+ * defensor. Todas las operaciones son enteras:
+ * <ul>
+ * <li>La primera capa tiene pesos y sesgos de 16 bits con signo. Como la entrada es binaria, su salida (el
+ * acumulador) es la suma de los sesgos y de la columna de pesos de cada pieza del tablero, y se mantiene de forma
+ * incremental sumando o restando una columna cuando se coloca o elimina una pieza. Para que el acumulador no
+ * desborde, en cada neurona el sesgo más la suma de los {@link #MAXIMO_PIEZAS} pesos positivos mayores de su columna
+ * no puede superar {@link Short#MAX_VALUE}, ni el sesgo más la de los {@code MAXIMO_PIEZAS} negativos menores
+ * quedar por debajo de {@link Short#MIN_VALUE}.</li>
+ * <li>La activación recorta cada valor del acumulador al intervalo [0, {@link #ACTIVACION_MAXIMA}], de forma que
+ * {@link #ACTIVACION_MAXIMA} representa la unidad.</li>
+ * <li>La segunda capa tiene pesos de 8 bits con signo y sesgos de 32 bits. Su suma se desplaza a la derecha los bits
+ * indicados en el fichero antes de recortarse igual que la primera.</li>
+ * <li>La capa de salida tiene pesos de 16 bits con signo y un sesgo de 32 bits. Su suma se divide por el divisor
+ * indicado en el fichero para obtener la puntuación.</li>
+ * </ul>
+ * Los bucles de las capas recorren arrays de tipos primitivos contiguos sin saltos ni llamadas, para que el compilador
+ * JIT pueda vectorizarlos: la actualización del acumulador es una suma de dos arrays y cada neurona de la segunda capa,
+ * un producto escalar de las activaciones con sus pesos consecutivos.
+ * <p>
+ * Los pesos se leen de un fichero binario con el siguiente formato, con los enteros en orden de bytes
+ * <em>big-endian</em>:
+ * <ul>
+ * <li>cabecera de {@link #CABECERA} bytes: marca ({@link #MARCA}, 4 bytes), versión (4 bytes), número de entradas
+ * (4 bytes), número de neuronas de la primera capa (4 bytes), número de neuronas de la segunda capa (4 bytes),
+ * desplazamiento de la segunda capa (4 bytes) y divisor de la salida (4 bytes),</li>
+ * <li>pesos de la primera capa (2 bytes cada uno), con las neuronas de cada entrada consecutivas, y sus sesgos
+ * (2 bytes cada uno),</li>
+ * <li>pesos de la segunda capa (1 byte cada uno), con los pesos de cada neurona consecutivos, y sus sesgos (4 bytes
+ * cada uno), y</li>
+ * <li>pesos de la capa de salida (2 bytes cada uno) y su sesgo (4 bytes).</li>
+ * </ul>
+ * Las instancias son inmutables y pueden compartirse entre hilos; el estado de cada evaluación (el acumulador y las
+ * activaciones de la primera capa) se guarda en arrays proporcionados por quien la realiza.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.motor.EvaluadorRed
+ */
+public final class RedNeuronal {
+
+	/**
+	 * Número de entradas de la red: una por cada tipo de pieza en cada celda.
+	 */
+	public static final int ENTRADAS = TipoPieza.values().length * TableroBinario.NUMERO_CELDAS;
+
+	/**
+	 * Valor máximo de las activaciones, que representa la unidad.
+	 */
+	public static final int ACTIVACION_MAXIMA = 127;
+
+	/**
+	 * Número máximo de piezas en el tablero, que acota el número de pesos de la primera capa sumados en el acumulador.
+	 */
+	public static final int MAXIMO_PIEZAS = 13;
+
+	/**
+	 * Número máximo de neuronas de cada capa oculta.
+	 */
+	public static final int NEURONAS_MAXIMAS = 1024;
+
+	/**
+	 * Número de neuronas de la primera capa oculta de las redes generadas por defecto.
+	 */
+	public static final int NEURONAS_PRIMERA_CAPA = 32;
+
+	/**
+	 * Número de neuronas de la segunda capa oculta de las redes generadas por defecto.
+	 */
+	public static final int NEURONAS_SEGUNDA_CAPA = 8;
+
+	/**
+	 * Marca de inicio del fichero de una red ({@code "BRNN"} en ASCII).
+	 */
+	public static final int MARCA = 0x42524E4E;
+
+	/**
+	 * Versión del formato.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Bytes de la cabecera del fichero.
+	 */
+	public static final int CABECERA = 28;
+
+	/**
+	 * Pesos de la primera capa, con las {@link #primeraCapa} neuronas de cada entrada consecutivas.
+	 */
+	private final short[] pesos1;
+
+	/**
+	 * Sesgos de la primera capa.
+	 */
+	private final short[] sesgos1;
+
+	/**
+	 * Pesos de la segunda capa, con los {@link #primeraCapa} pesos de cada neurona consecutivos.
+	 */
+	private final byte[] pesos2;
+
+	/**
+	 * Sesgos de la segunda capa.
+	 */
+	private final int[] sesgos2;
+
+	/**
+	 * Pesos de la capa de salida.
+	 */
+	private final short[] pesos3;
+
+	/**
+	 * Sesgo de la capa de salida.
+	 */
+	private final int sesgo3;
+
+	/**
+	 * Bits que se desplaza a la derecha la suma de la segunda capa antes de la activación.
+	 */
+	private final int desplazamiento;
+
+	/**
+	 * Divisor de la suma de la capa de salida.
+	 */
+	private final int divisor;
+
+	/**
+	 * Número de neuronas de la primera capa oculta.
+	 */
+	private final int primeraCapa;
+
+	/**
+	 * Número de neuronas de la segunda capa oculta.
+	 */
+	private final int segundaCapa;
+
+	/**
+	 * Constructor para la clase {@code RedNeuronal}. Los arrays se copian.
+	 *
+	 * @param pesos1 Pesos de la primera capa, con las neuronas de cada entrada consecutivas.
+	 * @param sesgos1 Sesgos de la primera capa, uno por neurona.
+	 * @param pesos2 Pesos de la segunda capa, con los pesos de cada neurona consecutivos.
+	 * @param sesgos2 Sesgos de la segunda capa, uno por neurona.
+	 * @param pesos3 Pesos de la capa de salida, uno por neurona de la segunda capa.
+	 * @param sesgo3 Sesgo de la capa de salida.
+	 * @param desplazamiento Bits que se desplaza a la derecha la suma de la segunda capa (entre {@code 0} y
+	 * {@code 30}).
+	 * @param divisor Divisor (positivo) de la suma de la capa de salida.
+	 * @throws IllegalArgumentException Si el número de neuronas de alguna capa no está entre {@code 1} y
+	 * {@link #NEURONAS_MAXIMAS}, las longitudes de los arrays no son coherentes, el desplazamiento o el divisor no son
+	 * válidos o el acumulador de alguna posición podría desbordar.
+	 */
+	public RedNeuronal(short[] pesos1, short[] sesgos1, byte[] pesos2, int[] sesgos2, short[] pesos3, int sesgo3,
+			int desplazamiento, int divisor) {
+
+		primeraCapa = sesgos1.length;
+		segundaCapa = sesgos2.length;
+
+		if (primeraCapa < 1 || primeraCapa > NEURONAS_MAXIMAS || segundaCapa < 1 || segundaCapa > NEURONAS_MAXIMAS) {
+			throw new IllegalArgumentException("Número de neuronas no válido: " + primeraCapa + ", " + segundaCapa);
+		}
+		if (pesos1.length != ENTRADAS * primeraCapa || pesos2.length != primeraCapa * segundaCapa
+				|| pesos3.length != segundaCapa) {
+			throw new IllegalArgumentException("El número de pesos no coincide con el de neuronas.");
+		}
+		if (desplazamiento < 0 || desplazamiento > 30 || divisor < 1) {
+			throw new IllegalArgumentException("Escala no válida: desplazamiento " + desplazamiento + ", divisor "
+					+ divisor);
+		}
+		comprobarAcumulador(pesos1, sesgos1);
+
+		this.pesos1 = pesos1.clone();
+		this.sesgos1 = sesgos1.clone();
+		this.pesos2 = pesos2.clone();
+		this.sesgos2 = sesgos2.clone();
+		this.pesos3 = pesos3.clone();
+		this.sesgo3 = sesgo3;
+		this.desplazamiento = desplazamiento;
+		this.divisor = divisor;
+	}
+
+	/**
+	 * Comprueba que el acumulador de la primera capa cabe en 16 bits con signo para cualquier posición, acotando cada
+	 * neurona con su sesgo más los {@link #MAXIMO_PIEZAS} pesos mayores (o menores) de su columna.
+	 *
+	 * @param pesos1 Pesos de la primera capa, con las neuronas de cada entrada consecutivas.
+	 * @param sesgos1 Sesgos de la primera capa.
+	 * @throws IllegalArgumentException Si el acumulador de alguna neurona podría desbordar.
+	 */
+	private static void comprobarAcumulador(short[] pesos1, short[] sesgos1) {
+
+		int neuronas = sesgos1.length;
+		short[] columna = new short[ENTRADAS];
+
+		for (int neurona = 0; neurona < neuronas; neurona++) {
+
+			for (int entrada = 0; entrada < ENTRADAS; entrada++) {
+				columna[entrada] = pesos1[entrada * neuronas + neurona];
+			}
+			Arrays.sort(columna);
+
+			int maximo = sesgos1[neurona];
+			int minimo = sesgos1[neurona];
+
+			for (int i = 0; i < MAXIMO_PIEZAS; i++) {
+				maximo += Math.max(columna[ENTRADAS - 1 - i], 0);
+				minimo += Math.min(columna[i], 0);
+			}
+
+			if (maximo > Short.MAX_VALUE || minimo < Short.MIN_VALUE) {
+				throw new IllegalArgumentException("El acumulador de la neurona " + neurona + " podría desbordar: "
+						+ minimo + ", " + maximo);
+			}
+		}
+	}
+
+	/**
+	 * Genera una red con pesos aleatorios en intervalos que mantienen las activaciones dentro de su rango. Sirve como
+	 * punto de partida de un entrenamiento y para medir el rendimiento de la inferencia.
+	 *
+	 * @param primeraCapa Número de neuronas de la primera capa oculta.
+	 * @param segundaCapa Número de neuronas de la segunda capa oculta.
+	 * @param semilla Semilla del generador de números aleatorios.
+	 * @return Red generada.
+	 * @throws IllegalArgumentException Si el número de neuronas de alguna capa no está entre {@code 1} y
+	 * {@link #NEURONAS_MAXIMAS}.
+	 */
+	public static RedNeuronal generar(int primeraCapa, int segundaCapa, long semilla) {
+
+		if (primeraCapa < 1 || primeraCapa > NEURONAS_MAXIMAS || segundaCapa < 1 || segundaCapa > NEURONAS_MAXIMAS) {
+			throw new IllegalArgumentException("Número de neuronas no válido: " + primeraCapa + ", " + segundaCapa);
+		}
+
+		SplittableRandom aleatorio = new SplittableRandom(semilla);
+		short[] pesos1 = new short[ENTRADAS * primeraCapa];
+		short[] sesgos1 = new short[primeraCapa];
+		byte[] pesos2 = new byte[primeraCapa * segundaCapa];
+		int[] sesgos2 = new int[segundaCapa];
+		short[] pesos3 = new short[segundaCapa];
+
+		for (int i = 0; i < pesos1.length; i++) {
+			pesos1[i] = (short) aleatorio.nextInt(-24, 25);
+		}
+		for (int i = 0; i < sesgos1.length; i++) {
+			sesgos1[i] = (short) aleatorio.nextInt(0, ACTIVACION_MAXIMA / 2 + 1);
+		}
+		for (int i = 0; i < pesos2.length; i++) {
+			pesos2[i] = (byte) aleatorio.nextInt(-32, 33);
+		}
+		for (int i = 0; i < sesgos2.length; i++) {
+			sesgos2[i] = aleatorio.nextInt(0, ACTIVACION_MAXIMA << 5);
+		}
+		for (int i = 0; i < pesos3.length; i++) {
+			pesos3[i] = (short) aleatorio.nextInt(-400, 401);
+		}
+
+		return new RedNeuronal(pesos1, sesgos1, pesos2, sesgos2, pesos3, 0, 6, ACTIVACION_MAXIMA);
+	}
+
+	/**
+	 * Lee una red de un fichero.
+	 *
+	 * @param fichero Ruta del fichero.
+	 * @return Red leída.
+	 * @throws IOException Si no puede leerse el fichero, no es un fichero de red o está incompleto.
+	 */
+	public static RedNeuronal leer(Path fichero) throws IOException {
+
+		ByteBuffer contenido = ByteBuffer.wrap(Files.readAllBytes(fichero));
+
+		try {
+			if (contenido.getInt() != MARCA || contenido.getInt() != VERSION || contenido.getInt() != ENTRADAS) {
+				throw new IOException("No es un fichero de red de evaluación: " + fichero);
+			}
+
+			int primeraCapa = contenido.getInt();
+			int segundaCapa = contenido.getInt();
+			int desplazamiento = contenido.getInt();
+			int divisor = contenido.getInt();
+
+			if (primeraCapa < 1 || primeraCapa > NEURONAS_MAXIMAS || segundaCapa < 1
+					|| segundaCapa > NEURONAS_MAXIMAS) {
+				throw new IOException("Número de neuronas no válido en " + fichero + ": " + primeraCapa + ", "
+						+ segundaCapa);
+			}
+
+			short[] pesos1 = new short[ENTRADAS * primeraCapa];
+			short[] sesgos1 = new short[primeraCapa];
+			byte[] pesos2 = new byte[primeraCapa * segundaCapa];
+			int[] sesgos2 = new int[segundaCapa];
+			short[] pesos3 = new short[segundaCapa];
+
+			contenido.asShortBuffer().get(pesos1).get(sesgos1);
+			contenido.position(contenido.position() + (pesos1.length + sesgos1.length) * Short.BYTES);
+			contenido.get(pesos2);
+			contenido.asIntBuffer().get(sesgos2);
+			contenido.position(contenido.position() + sesgos2.length * Integer.BYTES);
+			contenido.asShortBuffer().get(pesos3);
+			contenido.position(contenido.position() + pesos3.length * Short.BYTES);
+			int sesgo3 = contenido.getInt();
+
+			if (contenido.hasRemaining()) {
+				throw new IOException("Fichero de red con datos sobrantes: " + fichero);
+			}
+
+			return new RedNeuronal(pesos1, sesgos1, pesos2, sesgos2, pesos3, sesgo3, desplazamiento, divisor);
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Fichero de red incompleto: " + fichero, e);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Fichero de red no válido: " + fichero, e);
+		}
+	}
+
+	/**
+	 * Escribe la red en un fichero.
+	 *
+	 * @param fichero Ruta del fichero, que se sobrescribe si existe.
+	 * @throws IOException Si no puede escribirse el fichero.
+	 */
+	public void escribir(Path fichero) throws IOException {
+
+		ByteBuffer contenido = ByteBuffer.allocate(CABECERA + (pesos1.length + sesgos1.length + pesos3.length)
+				* Short.BYTES + pesos2.length + (sesgos2.length + 1) * Integer.BYTES);
+
+		contenido.putInt(MARCA).putInt(VERSION).putInt(ENTRADAS).putInt(primeraCapa).putInt(segundaCapa)
+				.putInt(desplazamiento).putInt(divisor);
+		contenido.asShortBuffer().put(pesos1).put(sesgos1);
+		contenido.position(contenido.position() + (pesos1.length + sesgos1.length) * Short.BYTES);
+		contenido.put(pesos2);
+		contenido.asIntBuffer().put(sesgos2);
+		contenido.position(contenido.position() + sesgos2.length * Integer.BYTES);
+		contenido.asShortBuffer().put(pesos3);
+		contenido.position(contenido.position() + pesos3.length * Short.BYTES);
+		contenido.putInt(sesgo3);
+
+		Files.write(fichero, contenido.array());
+	}
+
+	/**
+	 * Devuelve la entrada de la red que corresponde a un tipo de pieza en una celda.
+	 *
+	 * @param tipoPieza Tipo de la pieza.
+	 * @param indice Índice de la celda.
+	 * @return Índice de la entrada.
+	 */
+	public static int consultarEntrada(TipoPieza tipoPieza, int indice) {
+		return tipoPieza.ordinal() * TableroBinario.NUMERO_CELDAS + indice;
+	}
+
+	/**
+	 * Devuelve el número de neuronas de la primera capa oculta, que es la longitud del acumulador.
+	 *
+	 * @return Número de neuronas de la primera capa.
+	 */
+	public int consultarPrimeraCapa() {
+		return primeraCapa;
+	}
+
+	/**
+	 * Devuelve el número de neuronas de la segunda capa oculta.
+	 *
+	 * @return Número de neuronas de la segunda capa.
+	 */
+	public int consultarSegundaCapa() {
+		return segundaCapa;
+	}
+
+	/**
+	 * Calcula el acumulador completo de la posición indicada.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @param acumulador Array de {@link #consultarPrimeraCapa()} elementos en el que se almacena el acumulador.
+	 */
+	void inicializar(TableroBinario tablero, short[] acumulador) {
+
+		System.arraycopy(sesgos1, 0, acumulador, 0, primeraCapa);
+
+		inicializar(tablero.consultarAtacantes(), TipoPieza.ATACANTE, acumulador);
+		inicializar(tablero.consultarDefensores(), TipoPieza.DEFENSOR, acumulador);
+		inicializar(tablero.consultarRey(), TipoPieza.REY, acumulador);
+	}
+
+	/**
+	 * Suma al acumulador las columnas de pesos de las piezas de un tipo en las celdas de una máscara.
+	 *
+	 * @param mascara Máscara de bits con las celdas.
+	 * @param tipoPieza Tipo de las piezas.
+	 * @param acumulador Acumulador.
+	 */
+	private void inicializar(long mascara, TipoPieza tipoPieza, short[] acumulador) {
+		for (; mascara != 0; mascara &= mascara - 1) {
+			sumar(acumulador, consultarEntrada(tipoPieza, Long.numberOfTrailingZeros(mascara)));
+		}
+	}
+
+	/**
+	 * Suma al acumulador la columna de pesos de una entrada, al colocar una pieza.
+	 *
+	 * @param acumulador Acumulador.
+	 * @param entrada Índice de la entrada.
+	 */
+	void sumar(short[] acumulador, int entrada) {
+
+		int inicio = entrada * primeraCapa;
+
+		for (int i = 0; i < primeraCapa; i++) {
+			acumulador[i] += pesos1[inicio + i];
+		}
+	}
+
+	/**
+	 * Resta del acumulador la columna de pesos de una entrada, al eliminar una pieza.
+	 *
+	 * @param acumulador Acumulador.
+	 * @param entrada Índice de la entrada.
+	 */
+	void restar(short[] acumulador, int entrada) {
+
+		int inicio = entrada * primeraCapa;
+
+		for (int i = 0; i < primeraCapa; i++) {
+			acumulador[i] -= pesos1[inicio + i];
+		}
+	}
+
+	/**
+	 * Propaga el acumulador por el resto de capas de la red.
+	 *
+	 * @param acumulador Acumulador de la posición.
+	 * @param activaciones Array de {@link #consultarPrimeraCapa()} elementos para las activaciones de la primera capa,
+	 * cuyo contenido se sobrescribe.
+	 * @return Puntuación de la posición desde el punto de vista del defensor.
+	 */
+	int propagar(short[] acumulador, int[] activaciones) {
+
+		for (int i = 0; i < primeraCapa; i++) {
+			activaciones[i] = Math.min(Math.max(acumulador[i], 0), ACTIVACION_MAXIMA);
+		}
+
+		long salida = sesgo3;
+
+		for (int j = 0, inicio = 0; j < segundaCapa; j++, inicio += primeraCapa) {
+
+			int suma = sesgos2[j];
+
+			for (int i = 0; i < primeraCapa; i++) {
+				suma += activaciones[i] * pesos2[inicio + i];
+			}
+
+			salida += Math.min(Math.max(suma >> desplazamiento, 0), ACTIVACION_MAXIMA) * pesos3[j];
+		}
+
+		return (int) Math.floorDiv(salida, divisor);
+	}
+
+	/**
+	 * Evalúa la posición indicada calculando el acumulador completo.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @return Puntuación de la posición desde el punto de vista del defensor.
+	 */
+	public int evaluar(TableroBinario tablero) {
+
+		short[] acumulador = new short[primeraCapa];
+		inicializar(tablero, acumulador);
+
+		return propagar(acumulador, new int[primeraCapa]);
+	}
+
+	/**
+	 * Genera un código hash para esta red.
+	 *
+	 * @return Un código hash para esta red.
+	 */
+	@Override
+	public int hashCode() {
+
+		int resultado = Arrays.hashCode(pesos1);
+		resultado = 31 * resultado + Arrays.hashCode(pesos2);
+		resultado = 31 * resultado + Arrays.hashCode(pesos3);
+		resultado = 31 * resultado + sesgo3;
+
+		return resultado;
+	}
+
+	/**
+	 * Compara este objeto con el objeto especificado para verificar si son iguales.
+	 *
+	 * @param obj El objeto con el que se debe comparar esta red.
+	 * @return Valor de tipo {@code boolean}: {@code true} si esta red es igual al objeto especificado
+	 * y {@code false} en caso contrario.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		RedNeuronal other = (RedNeuronal) obj;
+		return sesgo3 == other.sesgo3 && desplazamiento == other.desplazamiento && divisor == other.divisor
+				&& Arrays.equals(pesos1, other.pesos1) && Arrays.equals(sesgos1, other.sesgos1)
+				&& Arrays.equals(pesos2, other.pesos2) && Arrays.equals(sesgos2, other.sesgos2)
+				&& Arrays.equals(pesos3, other.pesos3);
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de esta red.
+	 *
+	 * @return Una representación de cadena de caracteres ({@code String}) de esta red.
+	 */
+	@Override
+	public String toString() {
+		return "RedNeuronal [" + ENTRADAS + "-" + primeraCapa + "-" + segundaCapa + "-1]";
+	}
+
+}
@@ -0,0 +1,81 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import brandubh.modelo.JugadaCompacta;
+
+/**
+ * Resultado de una búsqueda del motor.
+ * 
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @param jugada Mejor jugada encontrada, codificada, o {@link JugadaCompacta#NINGUNA} si no hay jugadas legales.
+ * @param puntuacion Puntuación de la mejor jugada desde el punto de vista del jugador con el turno.
+ * @param profundidad Profundidad (en medios movimientos) de la última iteración completada.
+ * @param nodos Número de nodos visitados.
+ * @param milisegundos Tiempo empleado en la búsqueda en milisegundos.
+ * @param variacionPrincipal Secuencia de jugadas codificadas esperada a partir de la posición buscada.
+ * @see brandubh.modelo.JugadaCompacta
+ */
+public record ResultadoBusqueda(int jugada, int puntuacion, int profundidad, long nodos, long milisegundos,
+		int[] variacionPrincipal) {
+
+	/**
+	 * Devuelve el número de nodos visitados por segundo.
+	 *
+	 * @return Nodos por segundo.
+	 */
+	public long consultarNodosPorSegundo() {
+		return nodos * 1000 / Math.max(1, milisegundos);
+	}
+
+	/**
+	 * Comprueba si la puntuación corresponde a una victoria o derrota forzada.
+	 *
+	 * @return Valor de tipo {@code boolean}: {@code true} si la puntuación es de victoria o derrota forzada y 
+	 * {@code false} en caso contrario.
+	 */
+	public boolean esVictoriaForzada() {
+		return Math.abs(puntuacion) >= Buscador.VICTORIA - Buscador.DISTANCIA_MAXIMA_VICTORIA;
+	}
+
+	/**
+	 * Devuelve la variación principal en notación algebraica, con las jugadas separadas por espacios.
+	 *
+	 * @return Texto con la variación principal.
+	 */
+	public String consultarVariacionPrincipalEnTexto() {
+
+		StringBuilder texto = new StringBuilder();
+
+		for (int jugadaVariacion : variacionPrincipal) {
+			if (texto.length() > 0) {
+				texto.append(' ');
+			}
+			texto.append(JugadaCompacta.aTexto(jugadaVariacion));
+		}
+
+		return texto.toString();
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de este resultado con la profundidad,
+	 * puntuación, nodos, nodos por segundo y variación principal.
+	 *
+	 * @return Una representación de cadena de caracteres ({@code String}) de este resultado.
+	 */
+	@Override
+	public String toString() {
+		return "profundidad " + profundidad + " puntuacion " + puntuacion + " nodos " + nodos + " nps "
+				+ consultarNodosPorSegundo() + " tiempo " + milisegundos + " pv " + consultarVariacionPrincipalEnTexto();
+	}
+
+}
@@ -0,0 +1,53 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+/**
+ * Resultado de un recuento perft: número de posiciones hoja a una profundidad dada y número de jugadas de la última 
+ * profundidad que capturan piezas o terminan la partida.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @param nodos Número de secuencias de jugadas legales de la profundidad indicada.
+ * @param capturas Número de jugadas de la última profundidad que capturan al menos una pieza.
+ * @param huidasRey Número de jugadas de la última profundidad en las que el rey alcanza una provincia.
+ * @param capturasRey Número de jugadas de la última profundidad en las que el atacante encierra al rey.
+ * @see brandubh.motor.Perft
+ */
+public record ResultadoPerft(long nodos, long capturas, long huidasRey, long capturasRey) {
+
+	/**
+	 * Resultado vacío.
+	 */
+	public static final ResultadoPerft VACIO = new ResultadoPerft(0, 0, 0, 0);
+
+	/**
+	 * Devuelve la suma de este resultado y otro.
+	 *
+	 * @param otro Resultado a sumar.
+	 * @return Nuevo resultado con la suma de ambos.
+	 */
+	public ResultadoPerft sumar(ResultadoPerft otro) {
+		return new ResultadoPerft(nodos + otro.nodos, capturas + otro.capturas, huidasRey + otro.huidasRey,
+				capturasRey + otro.capturasRey);
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de este resultado.
+	 *
+	 * @return Una representación de cadena de caracteres ({@code String}) de este resultado.
+	 */
+	@Override
+	public String toString() {
+		return "nodos " + nodos + " capturas " + capturas + " huidas " + huidasRey + " encierros " + capturasRey;
+	}
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.util.SplittableRandom;
+
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+
+/**
+ * Simulación de partidas con jugadas aleatorias hasta su finalización.
+ * <p>
+ * Las simulaciones se realizan sobre una copia ligera del tablero binario, reutilizando siempre el mismo tablero y 
+ * los mismos arrays, por lo que no se crean objetos durante la simulación. En cada turno se elige una jugada legal 
+ * con probabilidad uniforme sin llegar a generar la lista de jugadas: basta con las máscaras de destinos de cada 
+ * pieza y su número de bits. Las reglas son las de 
+ * {@link Reglas}: mismas capturas que {@code Arbitro.realizarCapturasTrasMover} y mismas condiciones de victoria que 
+ * {@code Arbitro.haGanadoAtacante} y {@code Arbitro.haGanadoRey}. Un jugador sin movimientos legales pierde.
+ * <p>
+ * Cada instancia debe emplearse desde un único hilo.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.control.Reglas
+ */
+public class SimuladorAleatorio {
+
+	/**
+	 * Número máximo de jugadas de una simulación. Si se alcanza, la partida se considera en tablas.
+	 */
+	public static final int MAXIMO_JUGADAS = 256;
+
+	/**
+	 * Tablero sobre el que se realizan las simulaciones.
+	 */
+	private final TableroBinario tablero = new TableroBinario();
+
+	/**
+	 * Celdas de origen de las piezas con algún movimiento legal en la posición en curso.
+	 */
+	private final int[] origenes = new int[TableroBinario.NUMERO_CELDAS];
+
+	/**
+	 * Máscaras de destinos legales de las piezas de {@link #origenes}.
+	 */
+	private final long[] destinos = new long[TableroBinario.NUMERO_CELDAS];
+
+	/**
+	 * Generador de números aleatorios.
+	 */
+	private final SplittableRandom aleatorio;
+
+	/**
+	 * Constructor para la clase {@code SimuladorAleatorio}.
+	 *
+	 * @param semilla Semilla del generador de números aleatorios.
+	 */
+	public SimuladorAleatorio(long semilla) {
+		this.aleatorio = new SplittableRandom(semilla);
+	}
+
+	/**
+	 * Simula una partida con jugadas aleatorias desde la posición indicada. La posición no se modifica.
+	 *
+	 * @param posicion Tablero binario con la posición de partida.
+	 * @param turno Color del jugador con el turno.
+	 * @return Color del ganador o {@code null} si se alcanza {@link #MAXIMO_JUGADAS} sin finalizar la partida.
+	 */
+	public Color simular(TableroBinario posicion, Color turno) {
+
+		tablero.copiar(posicion);
+
+		for (int i = 0; i < MAXIMO_JUGADAS; i++) {
+
+			int jugada = elegirJugada(turno);
+
+			if (jugada == JugadaCompacta.NINGUNA) {
+				return turno.consultarContrario();
+			}
+
+			int destino = JugadaCompacta.consultarDestino(jugada);
+
+			Reglas.aplicarJugada(tablero, jugada);
+
+			if (Reglas.haGanadoRey(tablero, destino) || Reglas.haGanadoAtacante(tablero, destino)) {
+				return turno;
+			}
+
+			turno = turno.consultarContrario();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Elige al azar, con probabilidad uniforme, una de las jugadas legales del jugador con el turno.
+	 *
+	 * @param turno Color del jugador con el turno.
+	 * @return Jugada codificada o {@link JugadaCompacta#NINGUNA} si no hay jugadas legales.
+	 */
+	private int elegirJugada(Color turno) {
+
+		int numeroPiezas = 0;
+		int total = 0;
+
+		for (long piezas = tablero.consultarPiezas(turno); piezas != 0; piezas &= piezas - 1) {
+
+			int origen = Long.numberOfTrailingZeros(piezas);
+			long destinosPieza = Reglas.calcularDestinos(tablero, origen);
+
+			if (destinosPieza != 0) {
+				origenes[numeroPiezas] = origen;
+				destinos[numeroPiezas++] = destinosPieza;
+				total += Long.bitCount(destinosPieza);
+			}
+		}
+
+		if (total == 0) {
+			return JugadaCompacta.NINGUNA;
+		}
+
+		int elegida = aleatorio.nextInt(total);
+		int pieza = 0;
+
+		while (elegida >= Long.bitCount(destinos[pieza])) {
+			elegida -= Long.bitCount(destinos[pieza]);
+			pieza++;
+		}
+
+		long destinosPieza = destinos[pieza];
+
+		for (; elegida > 0; elegida--) {
+			destinosPieza &= destinosPieza - 1;
+		}
+
+		return JugadaCompacta.codificar(origenes[pieza], Long.numberOfTrailingZeros(destinosPieza));
+	}
+
+}
@@ -0,0 +1,341 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro 
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import brandubh.modelo.JugadaCompacta;
+
+/**
+ * Tabla de transposición de tamaño fijo compartible entre varios hilos de búsqueda sin sincronización.
+ * <p>
+ * Las entradas se almacenan en un único array de {@code long}, dos posiciones por entrada: la clave Zobrist de la 
+ * posición combinada mediante XOR con los datos y los propios datos empaquetados en 64 bits:
+ * <ul>
+ * <li>bits 0 a 15: mejor jugada codificada (sin marcas de captura),</li>
+ * <li>bits 16 a 47: puntuación,</li>
+ * <li>bits 48 a 55: profundidad,</li>
+ * <li>bits 56 a 57: tipo de cota,</li>
+ * <li>bits 58 a 63: generación de la búsqueda que guardó la entrada.</li>
+ * </ul>
+ * Si dos hilos escriben a la vez la misma entrada, la clave y los datos leídos pueden pertenecer a escrituras 
+ * distintas; en ese caso la comprobación {@code (clave ^ datos) == clave buscada} falla y la entrada se descarta como 
+ * un fallo, por lo que nunca se devuelven datos de otra posición salvo colisión de las propias claves Zobrist.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.modelo.ClavesZobrist
+ */
+public class TablaTransposicion {
+
+	/**
+	 * Valor devuelto al consultar una posición que no está en la tabla.
+	 */
+	public static final long VACIA = 0L;
+
+	/**
+	 * Cota exacta: la puntuación es el valor de la posición.
+	 */
+	public static final int EXACTA = 1;
+
+	/**
+	 * Cota inferior: el valor de la posición es mayor o igual que la puntuación (se produjo una poda).
+	 */
+	public static final int INFERIOR = 2;
+
+	/**
+	 * Cota superior: el valor de la posición es menor o igual que la puntuación (ninguna jugada superó a alfa).
+	 */
+	public static final int SUPERIOR = 3;
+
+	/**
+	 * Tamaño en bytes de cada entrada.
+	 */
+	public static final int BYTES_POR_ENTRADA = 2 * Long.BYTES;
+
+	/**
+	 * Valor almacenado para representar la ausencia de jugada.
+	 */
+	private static final int SIN_JUGADA = 0xFFFF;
+
+	/**
+	 * Máscara de la generación.
+	 */
+	private static final int MASCARA_GENERACION = 0x3F;
+
+	/**
+	 * Array con las entradas: en las posiciones pares la clave combinada con los datos y en las impares los datos.
+	 */
+	private final long[] entradas;
+
+	/**
+	 * Máscara para obtener el número de entrada a partir de la clave.
+	 */
+	private final int mascara;
+
+	/**
+	 * Generación de la búsqueda actual, para dar preferencia a las entradas recientes al reemplazar.
+	 */
+	private volatile int generacion;
+
+	/**
+	 * Número de consultas con acierto.
+	 */
+	private final LongAdder aciertos = new LongAdder();
+
+	/**
+	 * Número de consultas sin acierto.
+	 */
+	private final LongAdder fallos = new LongAdder();
+
+	/**
+	 * Número de consultas sin acierto en las que la entrada estaba ocupada por otra posición.
+	 */
+	private final LongAdder colisiones = new LongAdder();
+
+	/**
+	 * Constructor para la clase {@code TablaTransposicion}.
+	 * <p>
+	 * El número de entradas es la mayor potencia de dos que cabe en el tamaño indicado.
+	 *
+	 * @param megabytes Tamaño máximo de la tabla en megabytes (al menos {@code 1}).
+	 */
+	public TablaTransposicion(int megabytes) {
+
+		long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+		long numero = Long.highestOneBit(bytes / BYTES_POR_ENTRADA);
+		numero = Math.min(numero, 1L << 29);
+
+		this.entradas = new long[(int) numero * 2];
+		this.mascara = (int) numero - 1;
+	}
+
+	/**
+	 * Consulta la entrada asociada a una clave Zobrist.
+	 *
+	 * @param clave Clave Zobrist de la posición.
+	 * @return Datos empaquetados de la entrada o {@link #VACIA} si la posición no está en la tabla.
+	 */
+	public long consultar(long clave) {
+
+		int posicion = consultarPosicion(clave);
+		long datos = entradas[posicion + 1];
+		long claveCombinada = entradas[posicion];
+
+		if (datos != VACIA && (claveCombinada ^ datos) == clave) {
+			aciertos.increment();
+			return datos;
+		}
+
+		fallos.increment();
+
+		if (datos != VACIA) {
+			colisiones.increment();
+		}
+
+		return VACIA;
+	}
+
+	/**
+	 * Guarda una entrada en la tabla.
+	 * <p>
+	 * Se reemplaza la entrada existente salvo que pertenezca a otra posición de la búsqueda actual analizada a mayor 
+	 * profundidad. Si la posición ya estaba y no se indica jugada, se conserva la jugada anterior.
+	 *
+	 * @param clave Clave Zobrist de la posición.
+	 * @param profundidad Profundidad restante de la búsqueda (de {@code 0} a {@code 255}).
+	 * @param puntuacion Puntuación de la posición.
+	 * @param cota Tipo de cota: {@link #EXACTA}, {@link #INFERIOR} o {@link #SUPERIOR}.
+	 * @param jugada Mejor jugada codificada o {@link JugadaCompacta#NINGUNA}.
+	 */
+	public void guardar(long clave, int profundidad, int puntuacion, int cota, int jugada) {
+
+		int posicion = consultarPosicion(clave);
+		long anteriores = entradas[posicion + 1];
+		int generacionActual = generacion;
+
+		if (anteriores != VACIA) {
+
+			boolean mismaPosicion = (entradas[posicion] ^ anteriores) == clave;
+
+			if (!mismaPosicion && consultarGeneracion(anteriores) == generacionActual
+					&& consultarProfundidad(anteriores) > profundidad) {
+				return;
+			}
+
+			if (mismaPosicion && jugada == JugadaCompacta.NINGUNA) {
+				jugada = consultarJugada(anteriores);
+			}
+		}
+
+		long datos = empaquetar(profundidad, puntuacion, cota, jugada, generacionActual);
+
+		entradas[posicion] = clave ^ datos;
+		entradas[posicion + 1] = datos;
+	}
+
+	/**
+	 * Indica el comienzo de una nueva búsqueda, de modo que las entradas de búsquedas anteriores se reemplacen con 
+	 * preferencia.
+	 */
+	public void nuevaBusqueda() {
+		generacion = (generacion + 1) & MASCARA_GENERACION;
+	}
+
+	/**
+	 * Vacía la tabla y reinicia los contadores.
+	 */
+	public void limpiar() {
+		Arrays.fill(entradas, 0L);
+		aciertos.reset();
+		fallos.reset();
+		colisiones.reset();
+	}
+
+	/**
+	 * Devuelve el número de entradas de la tabla.
+	 *
+	 * @return Número de entradas.
+	 */
+	public int consultarCapacidad() {
+		return mascara + 1;
+	}
+
+	/**
+	 * Devuelve el número de consultas con acierto.
+	 *
+	 * @return Número de aciertos.
+	 */
+	public long consultarAciertos() {
+		return aciertos.sum();
+	}
+
+	/**
+	 * Devuelve el número de consultas sin acierto.
+	 *
+	 * @return Número de fallos.
+	 */
+	public long consultarFallos() {
+		return fallos.sum();
+	}
+
+	/**
+	 * Devuelve el número de consultas sin acierto en las que la entrada estaba ocupada por otra posición.
+	 *
+	 * @return Número de colisiones.
+	 */
+	public long consultarColisiones() {
+		return colisiones.sum();
+	}
+
+	/**
+	 * Estima la ocupación de la tabla, en tanto por mil, a partir de sus primeras entradas.
+	 *
+	 * @return Ocupación estimada en tanto por mil.
+	 */
+	public int consultarOcupacion() {
+
+		int muestra = Math.min(1000, consultarCapacidad());
+		int ocupadas = 0;
+
+		for (int i = 0; i < muestra; i++) {
+			if (entradas[2 * i + 1] != VACIA) {
+				ocupadas++;
+			}
+		}
+
+		return ocupadas * 1000 / muestra;
+	}
+
+	/**
+	 * Devuelve la mejor jugada de unos datos empaquetados.
+	 *
+	 * @param datos Datos empaquetados de una entrada.
+	 * @return Jugada codificada o {@link JugadaCompacta#NINGUNA} si no hay jugada.
+	 */
+	public static int consultarJugada(long datos) {
+		int jugada = (int) (datos & SIN_JUGADA);
+		return jugada == SIN_JUGADA ? JugadaCompacta.NINGUNA : jugada;
+	}
+
+	/**
+	 * Devuelve la puntuación de unos datos empaquetados.
+	 *
+	 * @param datos Datos empaquetados de una entrada.
+	 * @return Puntuación.
+	 */
+	public static int consultarPuntuacion(long datos) {
+		return (int) (datos >>> 16);
+	}
+
+	/**
+	 * Devuelve la profundidad de unos datos empaquetados.
+	 *
+	 * @param datos Datos empaquetados de una entrada.
+	 * @return Profundidad.
+	 */
+	public static int consultarProfundidad(long datos) {
+		return (int) (datos >>> 48) & 0xFF;
+	}
+
+	/**
+	 * Devuelve el tipo de cota de unos datos empaquetados.
+	 *
+	 * @param datos Datos empaquetados de una entrada.
+	 * @return Tipo de cota: {@link #EXACTA}, {@link #INFERIOR} o {@link #SUPERIOR}.
+	 */
+	public static int consultarCota(long datos) {
+		return (int) (datos >>> 56) & 0x3;
+	}
+
+	/**
+	 * Devuelve la generación de unos datos empaquetados.
+	 *
+	 * @param datos Datos empaquetados de una entrada.
+	 * @return Generación.
+	 */
+	private static int consultarGeneracion(long datos) {
+		return (int) (datos >>> 58) & MASCARA_GENERACION;
+	}
+
+	/**
+	 * Empaqueta los datos de una entrada. El resultado nunca es {@link #VACIA} al ser la cota distinta de cero.
+	 *
+	 * @param profundidad Profundidad.
+	 * @param puntuacion Puntuación.
+	 * @param cota Tipo de cota.
+	 * @param jugada Jugada codificada o {@link JugadaCompacta#NINGUNA}.
+	 * @param generacion Generación.
+	 * @return Datos empaquetados.
+	 */
+	private static long empaquetar(int profundidad, int puntuacion, int cota, int jugada, int generacion) {
+
+		long codigoJugada = jugada == JugadaCompacta.NINGUNA ? SIN_JUGADA : JugadaCompacta.consultarSinCapturas(jugada);
+
+		return codigoJugada
+				| ((puntuacion & 0xFFFFFFFFL) << 16)
+				| ((long) Math.min(Math.max(profundidad, 0), 0xFF) << 48)
+				| ((long) (cota & 0x3) << 56)
+				| ((long) generacion << 58);
+	}
+
+	/**
+	 * Devuelve la posición en el array de la entrada asociada a una clave.
+	 *
+	 * @param clave Clave Zobrist.
+	 * @return Posición (par) en el array de entradas.
+	 */
+	private int consultarPosicion(long clave) {
+		return ((int) (clave ^ (clave >>> 32)) & mascara) << 1;
+	}
+
+}
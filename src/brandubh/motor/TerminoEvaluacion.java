@@ -0,0 +1,86 @@
+/**
+ * Motor de juego.
+ * <p>
+ * Paquete que recoge los jugadores automáticos de Brandubh: búsqueda de la mejor jugada sobre las reglas del árbitro
+ * y funciones de evaluación de posiciones.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.motor;
+
+/**
+ * Términos de la evaluación incremental.
+ * <p>
+ * Cada término es una característica entera de la posición, con signo desde el punto de vista del defensor: los
+ * términos que favorecen al atacante se cuentan en negativo. La evaluación de una posición para el defensor es la
+ * suma de cada término multiplicado por su peso, por lo que los pesos por defecto son todos positivos.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.motor.EvaluadorIncremental
+ * @see brandubh.motor.PesosEvaluacion
+ */
+public enum TerminoEvaluacion {
+
+	/**
+	 * Número de atacantes, en negativo.
+	 */
+	ATACANTES(100),
+
+	/**
+	 * Número de defensores, sin contar el rey.
+	 */
+	DEFENSORES(150),
+
+	/**
+	 * Distancia del rey a la provincia más cercana (suma de filas y columnas), en negativo.
+	 */
+	DISTANCIA_REY(12),
+
+	/**
+	 * Número de atacantes contiguos a una provincia, en negativo.
+	 */
+	BLOQUEO_CONTIGUO(16),
+
+	/**
+	 * Número de atacantes en diagonal con una provincia, en negativo.
+	 */
+	BLOQUEO_DIAGONAL(10),
+
+	/**
+	 * Número de celdas a las que puede desplazarse el rey.
+	 */
+	MOVILIDAD_REY(6),
+
+	/**
+	 * Término constante ({@code 1} en todas las posiciones), cuyo peso recoge la ventaja de un bando en igualdad del
+	 * resto de términos, ya que las reglas no son simétricas.
+	 */
+	VENTAJA_DEFENSOR(0);
+
+	/**
+	 * Peso del término en la evaluación por defecto.
+	 */
+	private final int pesoPorDefecto;
+
+	/**
+	 * Construye un término con su peso por defecto.
+	 *
+	 * @param pesoPorDefecto Peso del término en la evaluación por defecto.
+	 */
+	TerminoEvaluacion(int pesoPorDefecto) {
+		this.pesoPorDefecto = pesoPorDefecto;
+	}
+
+	/**
+	 * Devuelve el peso del término en la evaluación por defecto.
+	 *
+	 * @return Peso por defecto.
+	 */
+	public int consultarPesoPorDefecto() {
+		return pesoPorDefecto;
+	}
+
+}
@@ -0,0 +1,24 @@
+/**
+ * Almacenamiento de partidas.
+ * <p>
+ * Paquete con el formato binario de los registros de partidas terminadas, su escritura y lectura secuencial y el 
+ * acceso a las partidas almacenadas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.partidas;
+
+/**
+ * Aparición de una posición en una partida de la base de datos.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @param partida Índice de la partida en la base de datos.
+ * @param jugada Número de jugadas de la partida aplicadas al alcanzar la posición; si es menor que el número de 
+ * jugadas de la partida, también es el índice de la jugada que sigue a la posición.
+ * @see brandubh.partidas.IndicePosiciones
+ */
+public record AparicionPosicion(int partida, int jugada) {
+}
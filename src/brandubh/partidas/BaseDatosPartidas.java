@@ -0,0 +1,453 @@
+/**
+ * Almacenamiento de partidas.
+ * <p>
+ * Paquete con el formato binario de los registros de partidas terminadas, su escritura y lectura secuencial y el 
+ * acceso a las partidas almacenadas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.partidas;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.granja.ResultadoPartida;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+
+/**
+ * Base de datos de partidas de solo lectura sobre ficheros de registros proyectados en memoria.
+ * <p>
+ * Al abrirse, proyecta los ficheros con {@link FileChannel#map} y los recorre una vez para construir un índice con 
+ * la posición de cada registro válido (los dañados se saltan igual que en {@link LectorPartidas}). A partir de ahí, 
+ * la partida {@code n} se consulta en tiempo constante leyendo directamente de la memoria proyectada: su resultado, 
+ * sus jugadas y sus posiciones pueden consultarse sin copiar el registro al <em>heap</em>. Las partidas se numeran 
+ * de forma consecutiva desde {@code 0} en el orden de los ficheros y de los registros dentro de cada fichero.
+ * <p>
+ * Cada fichero se proyecta en segmentos de {@link #TAMAÑO_SEGMENTO} bytes, ampliados con la longitud del registro 
+ * más largo posible, de modo que cada registro queda completo dentro del segmento en el que empieza. Las consultas 
+ * solo emplean accesos absolutos, por lo que la base de datos puede consultarse a la vez desde varios hilos.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.partidas.FormatoPartidas
+ */
+public class BaseDatosPartidas implements AutoCloseable {
+
+	/**
+	 * Tamaño de los segmentos de proyección de los ficheros en bytes.
+	 */
+	public static final long TAMAÑO_SEGMENTO = 1L << 30;
+
+	/**
+	 * Bits de la posición de un registro dentro de su fichero en las entradas del índice.
+	 */
+	private static final int BITS_POSICION = 48;
+
+	/**
+	 * Longitud del registro más largo posible.
+	 */
+	private static final int REGISTRO_MAXIMO = FormatoPartidas.CABECERA + FormatoPartidas.CUERPO_MAXIMO
+			+ FormatoPartidas.PIE;
+
+	/**
+	 * Posición de la configuración inicial.
+	 */
+	private static final TableroBinario INICIAL = crearPosicionInicial();
+
+	/**
+	 * Tamaño de los segmentos de proyección en bytes.
+	 */
+	private final long tamañoSegmento;
+
+	/**
+	 * Segmentos proyectados de cada fichero.
+	 */
+	private final MappedByteBuffer[][] segmentos;
+
+	/**
+	 * Índice de las partidas: número de fichero en los 16 bits altos y posición del registro en el resto.
+	 */
+	private final long[] indice;
+
+	/**
+	 * Número de bytes de los ficheros que no pertenecen a ningún registro válido.
+	 */
+	private final long bytesDescartados;
+
+	/**
+	 * Constructor para la clase {@code BaseDatosPartidas}. Proyecta los ficheros y construye el índice.
+	 *
+	 * @param ficheros Rutas de los ficheros de registros de partidas.
+	 * @throws IOException Si no puede abrirse o proyectarse algún fichero.
+	 */
+	public BaseDatosPartidas(Path... ficheros) throws IOException {
+		this(TAMAÑO_SEGMENTO, ficheros);
+	}
+
+	/**
+	 * Constructor para la clase {@code BaseDatosPartidas} con el tamaño de segmento indicado.
+	 *
+	 * @param tamañoSegmento Tamaño de los segmentos de proyección en bytes.
+	 * @param ficheros Rutas de los ficheros de registros de partidas.
+	 * @throws IOException Si no puede abrirse o proyectarse algún fichero.
+	 */
+	BaseDatosPartidas(long tamañoSegmento, Path... ficheros) throws IOException {
+
+		this.tamañoSegmento = tamañoSegmento;
+		segmentos = new MappedByteBuffer[ficheros.length][];
+		List<long[]> indices = new ArrayList<>();
+		long descartados = 0;
+		int total = 0;
+
+		for (int fichero = 0; fichero < ficheros.length; fichero++) {
+
+			try (FileChannel canal = FileChannel.open(ficheros[fichero], StandardOpenOption.READ)) {
+				segmentos[fichero] = proyectar(canal);
+			}
+
+			long[] posiciones = new long[1024];
+			int numero = 0;
+			long posicion = 0;
+			long tamaño = tamaño(segmentos[fichero]);
+
+			while (posicion + FormatoPartidas.CABECERA <= tamaño) {
+
+				int longitud = comprobarRegistro(segmentos[fichero], posicion, tamaño);
+
+				if (longitud < 0) {
+					posicion++;
+					descartados++;
+					continue;
+				}
+
+				if (numero == posiciones.length) {
+					posiciones = Arrays.copyOf(posiciones, numero * 2);
+				}
+				posiciones[numero++] = ((long) fichero << BITS_POSICION) | posicion;
+				posicion += longitud;
+			}
+
+			descartados += tamaño - posicion;
+			indices.add(Arrays.copyOf(posiciones, numero));
+			total += numero;
+		}
+
+		indice = new long[total];
+		int siguiente = 0;
+		for (long[] posiciones : indices) {
+			System.arraycopy(posiciones, 0, indice, siguiente, posiciones.length);
+			siguiente += posiciones.length;
+		}
+		bytesDescartados = descartados;
+	}
+
+	/**
+	 * Devuelve el número de partidas de la base de datos.
+	 *
+	 * @return Número de partidas.
+	 */
+	public int consultarNumeroPartidas() {
+		return indice.length;
+	}
+
+	/**
+	 * Devuelve el número de bytes de los ficheros que no pertenecen a ningún registro válido.
+	 *
+	 * @return Número de bytes descartados al construir el índice.
+	 */
+	public long consultarBytesDescartados() {
+		return bytesDescartados;
+	}
+
+	/**
+	 * Devuelve la partida indicada, copiando sus jugadas a un array.
+	 *
+	 * @param partida Índice de la partida.
+	 * @return Partida con sus jugadas sin marcas de captura.
+	 * @throws IndexOutOfBoundsException Si el índice no corresponde a ninguna partida.
+	 */
+	public ResultadoPartida consultarPartida(int partida) {
+		return FormatoPartidas.decodificar(consultarSegmento(partida), consultarInicio(partida));
+	}
+
+	/**
+	 * Devuelve el número con el que se registró la partida indicada.
+	 *
+	 * @param partida Índice de la partida.
+	 * @return Número de la partida en su registro.
+	 * @throws IndexOutOfBoundsException Si el índice no corresponde a ninguna partida.
+	 */
+	public long consultarNumero(int partida) {
+		return consultarSegmento(partida).getLong(consultarCuerpo(partida) + FormatoPartidas.POSICION_NUMERO);
+	}
+
+	/**
+	 * Devuelve el ganador de la partida indicada.
+	 *
+	 * @param partida Índice de la partida.
+	 * @return Color del ganador o {@code null} si la partida terminó en tablas.
+	 * @throws IndexOutOfBoundsException Si el índice no corresponde a ninguna partida.
+	 */
+	public Color consultarGanador(int partida) {
+		return FormatoPartidas.decodificarGanador(consultarResultado(partida));
+	}
+
+	/**
+	 * Devuelve el resultado codificado de la partida indicada.
+	 *
+	 * @param partida Índice de la partida.
+	 * @return Resultado con la codificación de {@link FormatoPartidas}.
+	 */
+	byte consultarResultado(int partida) {
+		return consultarSegmento(partida).get(consultarCuerpo(partida) + FormatoPartidas.POSICION_RESULTADO);
+	}
+
+	/**
+	 * Devuelve el número de jugadas de la partida indicada.
+	 *
+	 * @param partida Índice de la partida.
+	 * @return Número de jugadas.
+	 * @throws IndexOutOfBoundsException Si el índice no corresponde a ninguna partida.
+	 */
+	public int consultarNumeroJugadas(int partida) {
+		return consultarSegmento(partida).getShort(consultarCuerpo(partida) + FormatoPartidas.POSICION_NUMERO_JUGADAS)
+				& 0xFFFF;
+	}
+
+	/**
+	 * Devuelve una jugada de la partida indicada.
+	 *
+	 * @param partida Índice de la partida.
+	 * @param jugada Índice de la jugada, desde {@code 0}.
+	 * @return Jugada codificada sin marcas de captura.
+	 * @throws IndexOutOfBoundsException Si algún índice está fuera de rango.
+	 */
+	public int consultarJugada(int partida, int jugada) {
+
+		if (jugada < 0 || jugada >= consultarNumeroJugadas(partida)) {
+			throw new IndexOutOfBoundsException("Jugada " + jugada + " fuera de la partida " + partida);
+		}
+
+		return FormatoPartidas.consultarJugada(consultarSegmento(partida), consultarCuerpo(partida), jugada);
+	}
+
+	/**
+	 * Calcula la posición de la partida indicada tras un número de jugadas sobre un tablero binario dado.
+	 * <p>
+	 * Las jugadas se aplican con {@link Reglas#aplicarJugada(TableroBinario, int)} directamente desde la memoria 
+	 * proyectada, sin crear objetos. No se comprueba su legalidad: los registros válidos proceden de partidas 
+	 * jugadas con el árbitro.
+	 *
+	 * @param partida Índice de la partida.
+	 * @param jugadas Número de jugadas a aplicar desde la configuración inicial (como mucho, las de la partida).
+	 * @param tablero Tablero binario en el que se deja la posición.
+	 * @return Color del jugador con el turno en la posición calculada.
+	 * @throws IndexOutOfBoundsException Si el índice no corresponde a ninguna partida.
+	 */
+	public Color consultarPosicion(int partida, int jugadas, TableroBinario tablero) {
+
+		MappedByteBuffer segmento = consultarSegmento(partida);
+		int cuerpo = consultarCuerpo(partida);
+		int numero = Math.min(jugadas, consultarNumeroJugadas(partida));
+
+		tablero.copiar(INICIAL);
+
+		for (int i = 0; i < numero; i++) {
+			Reglas.aplicarJugada(tablero, FormatoPartidas.consultarJugada(segmento, cuerpo, i));
+		}
+
+		return (numero & 1) == 0 ? Color.NEGRO : Color.BLANCO;
+	}
+
+	/**
+	 * Reproduce con el árbitro las primeras jugadas de la partida indicada.
+	 *
+	 * @param partida Índice de la partida.
+	 * @param jugadas Número de jugadas a reproducir (como mucho, las de la partida).
+	 * @return Árbitro con la posición alcanzada, con las jugadas aplicadas de forma reversible.
+	 * @throws IndexOutOfBoundsException Si el índice no corresponde a ninguna partida.
+	 * @see FormatoPartidas#reproducir(ResultadoPartida, int)
+	 */
+	public Arbitro reproducir(int partida, int jugadas) {
+		return FormatoPartidas.reproducir(consultarPartida(partida), jugadas);
+	}
+
+	/**
+	 * Libera las referencias a la memoria proyectada. La proyección se libera cuando el recolector de basura 
+	 * reclama los segmentos.
+	 */
+	@Override
+	public void close() {
+		for (int i = 0; i < segmentos.length; i++) {
+			segmentos[i] = new MappedByteBuffer[0];
+		}
+	}
+
+	/**
+	 * Abre la base de datos de partidas y muestra su resumen y, opcionalmente, las jugadas de una partida.
+	 *
+	 * @param args rutas de los ficheros de partidas, opcionalmente seguidas de {@code -partida n}
+	 * @throws IOException Si no puede abrirse algún fichero.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		List<Path> ficheros = new ArrayList<>();
+		int mostrar = -1;
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-partida") && i + 1 < args.length) {
+				mostrar = Integer.parseInt(args[++i]);
+			} else {
+				ficheros.add(Path.of(args[i]));
+			}
+		}
+
+		long inicio = System.nanoTime();
+
+		try (BaseDatosPartidas base = new BaseDatosPartidas(ficheros.toArray(new Path[0]))) {
+
+			long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+			long[] victorias = new long[3];
+			long jugadas = 0;
+
+			for (int partida = 0; partida < base.consultarNumeroPartidas(); partida++) {
+				Color ganador = base.consultarGanador(partida);
+				victorias[ganador == null ? 0 : ganador == Color.NEGRO ? 1 : 2]++;
+				jugadas += base.consultarNumeroJugadas(partida);
+			}
+
+			System.out.printf("%d partidas indexadas en %d ms (%d bytes descartados)%n", base.consultarNumeroPartidas(),
+					milisegundos, base.consultarBytesDescartados());
+			System.out.printf("atacante %d  defensor %d  tablas %d  jugadas %d%n", victorias[1], victorias[2],
+					victorias[0], jugadas);
+
+			if (mostrar >= 0) {
+				StringBuilder texto = new StringBuilder(base.consultarPartida(mostrar).toString()).append(':');
+				for (int i = 0; i < base.consultarNumeroJugadas(mostrar); i++) {
+					texto.append(' ').append(JugadaCompacta.aTexto(base.consultarJugada(mostrar, i)));
+				}
+				System.out.println(texto);
+			}
+		}
+	}
+
+	/**
+	 * Devuelve el segmento proyectado en el que empieza el registro de una partida.
+	 *
+	 * @param partida Índice de la partida.
+	 * @return Segmento proyectado.
+	 */
+	private MappedByteBuffer consultarSegmento(int partida) {
+		long entrada = indice[partida];
+		return segmentos[(int) (entrada >>> BITS_POSICION)][(int) ((entrada & ((1L << BITS_POSICION) - 1))
+				/ tamañoSegmento)];
+	}
+
+	/**
+	 * Devuelve la posición del registro de una partida dentro de su segmento.
+	 *
+	 * @param partida Índice de la partida.
+	 * @return Posición de la marca de inicio en el segmento.
+	 */
+	private int consultarInicio(int partida) {
+		return (int) ((indice[partida] & ((1L << BITS_POSICION) - 1)) % tamañoSegmento);
+	}
+
+	/**
+	 * Devuelve la posición del cuerpo del registro de una partida dentro de su segmento.
+	 *
+	 * @param partida Índice de la partida.
+	 * @return Posición del cuerpo en el segmento.
+	 */
+	private int consultarCuerpo(int partida) {
+		return consultarInicio(partida) + FormatoPartidas.CABECERA;
+	}
+
+	/**
+	 * Comprueba si en una posición de un fichero empieza un registro válido.
+	 *
+	 * @param segmentos Segmentos proyectados del fichero.
+	 * @param posicion Posición en el fichero.
+	 * @param tamaño Tamaño del fichero.
+	 * @return Longitud total del registro o {@code -1} si no empieza ningún registro válido.
+	 */
+	private int comprobarRegistro(MappedByteBuffer[] segmentos, long posicion, long tamaño) {
+
+		MappedByteBuffer segmento = segmentos[(int) (posicion / tamañoSegmento)];
+		int inicio = (int) (posicion % tamañoSegmento);
+
+		if (segmento.getInt(inicio) != FormatoPartidas.MARCA) {
+			return -1;
+		}
+
+		int longitud = segmento.getInt(inicio + 4);
+		int total = FormatoPartidas.CABECERA + longitud + FormatoPartidas.PIE;
+
+		if (!FormatoPartidas.esLongitudValida(longitud) || posicion + total > tamaño
+				|| !FormatoPartidas.esValido(segmento, inicio, longitud)) {
+			return -1;
+		}
+
+		return total;
+	}
+
+	/**
+	 * Proyecta un fichero en segmentos de solo lectura.
+	 *
+	 * @param canal Canal del fichero.
+	 * @return Segmentos proyectados.
+	 * @throws IOException Si falla la proyección.
+	 */
+	private MappedByteBuffer[] proyectar(FileChannel canal) throws IOException {
+
+		long tamaño = canal.size();
+		int numero = (int) ((tamaño + tamañoSegmento - 1) / tamañoSegmento);
+		MappedByteBuffer[] proyectados = new MappedByteBuffer[numero];
+
+		for (int i = 0; i < numero; i++) {
+			long inicio = i * tamañoSegmento;
+			proyectados[i] = canal.map(FileChannel.MapMode.READ_ONLY, inicio,
+					Math.min(tamañoSegmento + REGISTRO_MAXIMO, tamaño - inicio));
+		}
+
+		return proyectados;
+	}
+
+	/**
+	 * Devuelve el tamaño total del fichero proyectado en unos segmentos.
+	 *
+	 * @param segmentos Segmentos proyectados.
+	 * @return Tamaño del fichero en bytes.
+	 */
+	private long tamaño(MappedByteBuffer[] segmentos) {
+		if (segmentos.length == 0) {
+			return 0;
+		}
+		return (segmentos.length - 1) * tamañoSegmento + segmentos[segmentos.length - 1].capacity();
+	}
+
+	/**
+	 * Crea el tablero binario de la configuración inicial.
+	 *
+	 * @return Tablero binario con la configuración inicial.
+	 */
+	private static TableroBinario crearPosicionInicial() {
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+		return arbitro.obtenerTableroBinario().clonar();
+	}
+
+}
@@ -0,0 +1,114 @@
+/**
+ * Almacenamiento de partidas.
+ * <p>
+ * Paquete con el formato binario de los registros de partidas terminadas, su escritura y lectura secuencial y el 
+ * acceso a las partidas almacenadas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.partidas;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import brandubh.granja.ResultadoPartida;
+
+/**
+ * Escritura secuencial de registros de partidas al final de un fichero.
+ * <p>
+ * Cada registro se codifica por completo en memoria y se añade al fichero con una única escritura, de modo que 
+ * puede emplearse a la vez desde varios hilos (por ejemplo, como receptor de los resultados de la granja de 
+ * partidas) sin que se mezclen los registros. El fichero se abre en modo de adición, por lo que varios escritores 
+ * pueden añadir registros al mismo fichero.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.partidas.FormatoPartidas
+ * @see brandubh.granja.GranjaPartidas#jugar(int, long, Consumer)
+ */
+public class EscritorPartidas implements Consumer<ResultadoPartida>, Closeable {
+
+	/**
+	 * Canal del fichero en modo de adición.
+	 */
+	private final FileChannel canal;
+
+	/**
+	 * Número de partidas escritas.
+	 */
+	private long partidasEscritas;
+
+	/**
+	 * Constructor para la clase {@code EscritorPartidas}. Crea el fichero si no existe.
+	 *
+	 * @param ruta Ruta del fichero de partidas.
+	 * @throws IOException Si no puede abrirse el fichero.
+	 */
+	public EscritorPartidas(Path ruta) throws IOException {
+		canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Añade el registro de una partida al final del fichero.
+	 *
+	 * @param partida Partida a escribir.
+	 * @throws IOException Si falla la escritura.
+	 */
+	public void escribir(ResultadoPartida partida) throws IOException {
+
+		ByteBuffer registro = FormatoPartidas.codificar(partida);
+
+		synchronized (this) {
+			while (registro.hasRemaining()) {
+				canal.write(registro);
+			}
+			partidasEscritas++;
+		}
+	}
+
+	/**
+	 * Añade el registro de una partida al final del fichero.
+	 *
+	 * @param partida Partida a escribir.
+	 * @throws UncheckedIOException Si falla la escritura.
+	 */
+	@Override
+	public void accept(ResultadoPartida partida) {
+		try {
+			escribir(partida);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Devuelve el número de partidas escritas por este escritor.
+	 *
+	 * @return Número de partidas.
+	 */
+	public synchronized long consultarPartidasEscritas() {
+		return partidasEscritas;
+	}
+
+	/**
+	 * Fuerza la escritura en disco de los registros escritos y cierra el fichero.
+	 *
+	 * @throws IOException Si falla el cierre.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (canal.isOpen()) {
+			canal.force(false);
+			canal.close();
+		}
+	}
+
+}
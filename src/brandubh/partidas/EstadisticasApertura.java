@@ -0,0 +1,66 @@
+/**
+ * Almacenamiento de partidas.
+ * <p>
+ * Paquete con el formato binario de los registros de partidas terminadas, su escritura y lectura secuencial y el 
+ * acceso a las partidas almacenadas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.partidas;
+
+import brandubh.modelo.JugadaCompacta;
+
+/**
+ * Estadísticas de una continuación de una posición en las partidas almacenadas.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @param jugada Jugada codificada sin marcas de captura.
+ * @param partidas Número de apariciones de la posición seguidas de la jugada.
+ * @param victoriasAtacante Número de esas apariciones en partidas ganadas por el atacante.
+ * @param victoriasDefensor Número de esas apariciones en partidas ganadas por el defensor.
+ * @see brandubh.partidas.ExploradorAperturas
+ */
+public record EstadisticasApertura(int jugada, long partidas, long victoriasAtacante, long victoriasDefensor) {
+
+	/**
+	 * Devuelve el número de apariciones en partidas terminadas en tablas.
+	 *
+	 * @return Número de tablas.
+	 */
+	public long consultarTablas() {
+		return partidas - victoriasAtacante - victoriasDefensor;
+	}
+
+	/**
+	 * Devuelve el porcentaje de victorias del atacante.
+	 *
+	 * @return Porcentaje entre {@code 0} y {@code 100}.
+	 */
+	public double consultarPorcentajeAtacante() {
+		return partidas == 0 ? 0 : 100.0 * victoriasAtacante / partidas;
+	}
+
+	/**
+	 * Devuelve el porcentaje de victorias del defensor.
+	 *
+	 * @return Porcentaje entre {@code 0} y {@code 100}.
+	 */
+	public double consultarPorcentajeDefensor() {
+		return partidas == 0 ? 0 : 100.0 * victoriasDefensor / partidas;
+	}
+
+	/**
+	 * Devuelve una representación de cadena de caracteres (<em>string</em>) de estas estadísticas.
+	 *
+	 * @return Una representación de cadena de caracteres ({@code String}) de estas estadísticas.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s %8d  atacante %5.1f%%  defensor %5.1f%%", JugadaCompacta.aTexto(jugada), partidas,
+				consultarPorcentajeAtacante(), consultarPorcentajeDefensor());
+	}
+
+}
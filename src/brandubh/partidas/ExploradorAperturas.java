@@ -0,0 +1,307 @@
+/**
+ * Almacenamiento de partidas.
+ * <p>
+ * Paquete con el formato binario de los registros de partidas terminadas, su escritura y lectura secuencial y el 
+ * acceso a las partidas almacenadas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.partidas;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Simetria;
+import brandubh.modelo.Tablero;
+import brandubh.util.CacheLRU;
+
+/**
+ * Explorador de aperturas sobre el índice de posiciones.
+ * <p>
+ * Para una posición, recorre el tramo de entradas del índice con su clave y agrupa sus apariciones por la jugada 
+ * siguiente, contando las victorias de cada jugador. Las entradas del índice ya incluyen la jugada siguiente y el 
+ * resultado, por lo que la consulta es un recorrido secuencial del tramo, sin acceder a la base de datos de 
+ * partidas. Los tramos largos se reparten entre los hilos de un {@link ForkJoinPool} y los resultados de las 
+ * posiciones consultadas se guardan en una caché LRU.
+ * <p>
+ * Las claves del índice son canónicas, de modo que las estadísticas de una posición reúnen las de todas sus 
+ * posiciones simétricas. Las consultas por clave devuelven las jugadas vistas desde la posición canónica; las 
+ * consultas sobre un árbitro las devuelven transformadas a su posición actual.
+ * <p>
+ * Puede consultarse a la vez desde varios hilos.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.partidas.IndicePosiciones
+ */
+public class ExploradorAperturas implements AutoCloseable {
+
+	/**
+	 * Número por defecto de posiciones guardadas en la caché.
+	 */
+	public static final int CAPACIDAD_CACHE_POR_DEFECTO = 4096;
+
+	/**
+	 * Número de entradas a partir del cual un tramo se divide entre varios hilos.
+	 */
+	private static final long UMBRAL_PARALELO = 1 << 16;
+
+	/**
+	 * Número de jugadas codificadas distintas sin marcas de captura.
+	 */
+	private static final int JUGADAS = 1 << 12;
+
+	/**
+	 * Orden de las continuaciones: de la más jugada a la menos jugada y, a igualdad, por jugada.
+	 */
+	private static final Comparator<EstadisticasApertura> ORDEN = Comparator
+			.comparingLong(EstadisticasApertura::partidas).reversed()
+			.thenComparingInt(EstadisticasApertura::jugada);
+
+	/**
+	 * Índice de posiciones.
+	 */
+	private final IndicePosiciones indice;
+
+	/**
+	 * Ejecutor de los recorridos en paralelo.
+	 */
+	private final ForkJoinPool ejecutor;
+
+	/**
+	 * Caché LRU de las estadísticas por clave de posición.
+	 */
+	private final CacheLRU<List<EstadisticasApertura>> cache;
+
+	/**
+	 * Constructor para la clase {@code ExploradorAperturas} con la caché de capacidad por defecto.
+	 *
+	 * @param indice Índice de posiciones.
+	 * @param hilos Número de hilos para los recorridos en paralelo (al menos {@code 1}).
+	 */
+	public ExploradorAperturas(IndicePosiciones indice, int hilos) {
+		this(indice, hilos, CAPACIDAD_CACHE_POR_DEFECTO);
+	}
+
+	/**
+	 * Constructor para la clase {@code ExploradorAperturas}.
+	 *
+	 * @param indice Índice de posiciones.
+	 * @param hilos Número de hilos para los recorridos en paralelo (al menos {@code 1}).
+	 * @param capacidadCache Número máximo de posiciones guardadas en la caché ({@code 0} para no emplearla).
+	 */
+	public ExploradorAperturas(IndicePosiciones indice, int hilos, int capacidadCache) {
+		this.indice = indice;
+		this.ejecutor = new ForkJoinPool(Math.max(1, hilos));
+		this.cache = new CacheLRU<>(capacidadCache);
+	}
+
+	/**
+	 * Devuelve las continuaciones de la posición actual de un árbitro.
+	 *
+	 * @param arbitro Árbitro con la posición.
+	 * @return Estadísticas de cada continuación, de la más jugada a la menos jugada.
+	 */
+	public List<EstadisticasApertura> explorar(Arbitro arbitro) {
+
+		Simetria inversa = Simetria.consultarCanonica(arbitro.obtenerTableroBinario()).consultarInversa();
+		List<EstadisticasApertura> canonicas = explorar(IndicePosiciones.calcularClave(arbitro));
+
+		if (inversa == Simetria.IDENTIDAD) {
+			return canonicas;
+		}
+
+		List<EstadisticasApertura> estadisticas = new ArrayList<>(canonicas.size());
+		for (EstadisticasApertura canonica : canonicas) {
+			estadisticas.add(new EstadisticasApertura(inversa.transformarJugada(canonica.jugada()),
+					canonica.partidas(), canonica.victoriasAtacante(), canonica.victoriasDefensor()));
+		}
+		estadisticas.sort(ORDEN);
+
+		return List.copyOf(estadisticas);
+	}
+
+	/**
+	 * Devuelve las continuaciones de una posición canónica.
+	 *
+	 * @param clave Clave canónica de la posición con la del turno 
+	 * ({@link IndicePosiciones#calcularClave(brandubh.modelo.TableroBinario, brandubh.util.Color)}).
+	 * @return Estadísticas de cada continuación vista desde la posición canónica, de la más jugada a la menos jugada 
+	 * (a igualdad, por jugada), como lista no modificable.
+	 */
+	public List<EstadisticasApertura> explorar(long clave) {
+
+		List<EstadisticasApertura> guardadas = cache.consultar(clave);
+		if (guardadas != null) {
+			return guardadas;
+		}
+
+		long inicio = indice.buscar(clave);
+		long fin = clave == -1L ? indice.consultarNumeroEntradas() : indice.buscar(clave + 1);
+		long[] cuentas = fin - inicio > UMBRAL_PARALELO ? ejecutor.invoke(new Recorrido(inicio, fin))
+				: contar(inicio, fin);
+
+		List<EstadisticasApertura> estadisticas = new ArrayList<>();
+		for (int jugada = 0; jugada < JUGADAS; jugada++) {
+			long partidas = cuentas[jugada * 3] + cuentas[jugada * 3 + 1] + cuentas[jugada * 3 + 2];
+			if (partidas > 0) {
+				estadisticas.add(new EstadisticasApertura(jugada, partidas, cuentas[jugada * 3 + 1],
+						cuentas[jugada * 3 + 2]));
+			}
+		}
+		estadisticas.sort(ORDEN);
+		List<EstadisticasApertura> resultado = List.copyOf(estadisticas);
+
+		cache.guardar(clave, resultado);
+
+		return resultado;
+	}
+
+	/**
+	 * Devuelve el número de consultas resueltas con la caché.
+	 *
+	 * @return Número de aciertos de la caché.
+	 */
+	public long consultarAciertosCache() {
+		return cache.consultarAciertos();
+	}
+
+	/**
+	 * Devuelve el número de consultas que han recorrido el índice.
+	 *
+	 * @return Número de fallos de la caché.
+	 */
+	public long consultarFallosCache() {
+		return cache.consultarFallos();
+	}
+
+	/**
+	 * Vacía la caché.
+	 */
+	public void limpiarCache() {
+		cache.limpiar();
+	}
+
+	/**
+	 * Finaliza los hilos del explorador.
+	 */
+	@Override
+	public void close() {
+		ejecutor.shutdown();
+	}
+
+	/**
+	 * Muestra las continuaciones de la posición alcanzada con las jugadas indicadas desde la configuración inicial.
+	 *
+	 * @param args ruta del fichero del índice seguida de las jugadas en notación algebraica (por ejemplo 
+	 * {@code d1d3})
+	 * @throws IOException Si no puede abrirse el índice.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+
+		for (int i = 1; i < args.length; i++) {
+			int jugada = JugadaCompacta.desdeTexto(args[i]);
+			if (jugada == JugadaCompacta.NINGUNA || !arbitro.esMovimientoLegal(JugadaCompacta.aJugada(jugada,
+					arbitro.consultarTablero()))) {
+				System.out.println("Jugada ilegal: " + args[i]);
+				return;
+			}
+			arbitro.aplicarJugada(jugada);
+		}
+
+		try (IndicePosiciones indice = new IndicePosiciones(Path.of(args[0]));
+				ExploradorAperturas explorador = new ExploradorAperturas(indice,
+						Runtime.getRuntime().availableProcessors())) {
+
+			long inicio = System.nanoTime();
+			List<EstadisticasApertura> continuaciones = explorador.explorar(arbitro);
+			long microsegundos = (System.nanoTime() - inicio) / 1000;
+
+			for (EstadisticasApertura continuacion : continuaciones) {
+				System.out.println(continuacion);
+			}
+			System.out.printf("%d continuaciones en %d µs%n", continuaciones.size(), microsegundos);
+		}
+	}
+
+	/**
+	 * Cuenta las apariciones de cada jugada siguiente y resultado en un tramo de entradas.
+	 *
+	 * @param inicio Índice de la primera entrada del tramo.
+	 * @param fin Índice siguiente a la última entrada del tramo.
+	 * @return Cuentas por jugada siguiente y resultado, en la posición {@code jugada * 3 + resultado}.
+	 */
+	private long[] contar(long inicio, long fin) {
+
+		long[] cuentas = new long[JUGADAS * 3];
+
+		for (long entrada = inicio; entrada < fin; entrada++) {
+			long valor = indice.consultarValor(entrada);
+			int siguiente = IndicePosiciones.decodificarSiguiente(valor);
+			if (siguiente != JugadaCompacta.NINGUNA) {
+				cuentas[siguiente * 3 + IndicePosiciones.decodificarResultado(valor)]++;
+			}
+		}
+
+		return cuentas;
+	}
+
+	/**
+	 * Recorrido de un tramo de entradas, dividido entre varios hilos si es largo.
+	 */
+	private final class Recorrido extends RecursiveTask<long[]> {
+
+		/** Número de versión para la serialización. */
+		private static final long serialVersionUID = 1L;
+
+		/** Índice de la primera entrada del tramo. */
+		private final long inicio;
+
+		/** Índice siguiente a la última entrada del tramo. */
+		private final long fin;
+
+		/**
+		 * Constructor para la clase {@code Recorrido}.
+		 *
+		 * @param inicio Índice de la primera entrada del tramo.
+		 * @param fin Índice siguiente a la última entrada del tramo.
+		 */
+		Recorrido(long inicio, long fin) {
+			this.inicio = inicio;
+			this.fin = fin;
+		}
+
+		@Override
+		protected long[] compute() {
+
+			if (fin - inicio <= UMBRAL_PARALELO) {
+				return contar(inicio, fin);
+			}
+
+			long medio = (inicio + fin) >>> 1;
+			Recorrido derecha = new Recorrido(medio, fin);
+			derecha.fork();
+			long[] cuentas = new Recorrido(inicio, medio).compute();
+			long[] otras = derecha.join();
+
+			for (int i = 0; i < cuentas.length; i++) {
+				cuentas[i] += otras[i];
+			}
+
+			return cuentas;
+		}
+	}
+
+}
@@ -0,0 +1,327 @@
+/**
+ * Almacenamiento de partidas.
+ * <p>
+ * Paquete con el formato binario de los registros de partidas terminadas, su escritura y lectura secuencial y el 
+ * acceso a las partidas almacenadas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.partidas;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.granja.ResultadoPartida;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+
+/**
+ * Formato binario de los registros de partidas.
+ * <p>
+ * Cada registro se delimita a sí mismo y tiene el siguiente formato, con los enteros en orden de bytes 
+ * <em>big-endian</em>:
+ * <ul>
+ * <li>marca de inicio de registro ({@link #MARCA}, 4 bytes),</li>
+ * <li>longitud del cuerpo en bytes (4 bytes),</li>
+ * <li>cuerpo: versión del formato (1 byte), resultado (1 byte: {@code 0} tablas, {@code 1} gana el atacante, 
+ * {@code 2} gana el defensor), número de la partida (8 bytes), número de jugadas (2 bytes sin signo) y las jugadas 
+ * empaquetadas en 12 bits cada una (índice de la celda de origen y de destino, 6 bits cada uno), dos jugadas por 
+ * cada 3 bytes,</li>
+ * <li>CRC-32 del cuerpo (4 bytes).</li>
+ * </ul>
+ * Un lector que encuentre un registro dañado o incompleto puede descartarlo y buscar la siguiente marca de inicio.
+ * Las marcas de captura no se almacenan: se recalculan al reproducir la partida con el árbitro.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.partidas.EscritorPartidas
+ * @see brandubh.partidas.LectorPartidas
+ */
+public final class FormatoPartidas {
+
+	/**
+	 * Marca de inicio de registro ({@code "BRPT"} en ASCII).
+	 */
+	public static final int MARCA = 0x42525054;
+
+	/**
+	 * Versión del formato.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Bytes de la marca y la longitud que preceden al cuerpo.
+	 */
+	public static final int CABECERA = 8;
+
+	/**
+	 * Bytes del CRC-32 que sigue al cuerpo.
+	 */
+	public static final int PIE = 4;
+
+	/**
+	 * Número máximo de jugadas de un registro.
+	 */
+	public static final int MAXIMO_JUGADAS = 0xFFFF;
+
+	/**
+	 * Bytes del cuerpo anteriores a las jugadas.
+	 */
+	static final int CUERPO_MINIMO = 12;
+
+	/**
+	 * Longitud máxima del cuerpo de un registro.
+	 */
+	static final int CUERPO_MAXIMO = CUERPO_MINIMO + bytesJugadas(MAXIMO_JUGADAS);
+
+	/**
+	 * Posición en el cuerpo del resultado.
+	 */
+	static final int POSICION_RESULTADO = 1;
+
+	/**
+	 * Posición en el cuerpo del número de la partida.
+	 */
+	static final int POSICION_NUMERO = 2;
+
+	/**
+	 * Posición en el cuerpo del número de jugadas.
+	 */
+	static final int POSICION_NUMERO_JUGADAS = 10;
+
+	/**
+	 * Máscara de una jugada empaquetada (origen y destino).
+	 */
+	private static final int MASCARA_JUGADA = 0xFFF;
+
+	/** Oculta el constructor por defecto. */
+	private FormatoPartidas() {
+	}
+
+	/**
+	 * Devuelve el número de bytes que ocupan las jugadas empaquetadas.
+	 *
+	 * @param jugadas Número de jugadas.
+	 * @return Número de bytes.
+	 */
+	static int bytesJugadas(int jugadas) {
+		return (jugadas * 3 + 1) / 2;
+	}
+
+	/**
+	 * Devuelve la longitud total del registro de una partida.
+	 *
+	 * @param jugadas Número de jugadas de la partida.
+	 * @return Número de bytes del registro completo.
+	 */
+	public static int consultarLongitudRegistro(int jugadas) {
+		return CABECERA + CUERPO_MINIMO + bytesJugadas(jugadas) + PIE;
+	}
+
+	/**
+	 * Codifica el registro completo de una partida.
+	 *
+	 * @param partida Partida a codificar.
+	 * @return Buffer con el registro, listo para escribirse.
+	 * @throws IllegalArgumentException Si la partida tiene más de {@link #MAXIMO_JUGADAS} jugadas.
+	 */
+	public static ByteBuffer codificar(ResultadoPartida partida) {
+
+		int[] jugadas = partida.jugadas();
+
+		if (jugadas.length > MAXIMO_JUGADAS) {
+			throw new IllegalArgumentException("Partida demasiado larga: " + jugadas.length + " jugadas.");
+		}
+
+		int longitud = CUERPO_MINIMO + bytesJugadas(jugadas.length);
+		ByteBuffer registro = ByteBuffer.allocate(CABECERA + longitud + PIE);
+
+		registro.putInt(MARCA).putInt(longitud);
+		registro.put((byte) VERSION).put(codificarGanador(partida.ganador())).putLong(partida.numero())
+				.putShort((short) jugadas.length);
+
+		for (int i = 0; i < jugadas.length; i += 2) {
+
+			int primera = jugadas[i] & MASCARA_JUGADA;
+			registro.put((byte) (primera >>> 4));
+
+			if (i + 1 < jugadas.length) {
+				int segunda = jugadas[i + 1] & MASCARA_JUGADA;
+				registro.put((byte) ((primera << 4) | (segunda >>> 8))).put((byte) segunda);
+			} else {
+				registro.put((byte) (primera << 4));
+			}
+		}
+
+		registro.putInt((int) calcularCrc(registro, CABECERA, longitud));
+
+		return registro.flip();
+	}
+
+	/**
+	 * Comprueba el registro completo que empieza en la posición indicada.
+	 *
+	 * @param buffer Buffer con el registro completo.
+	 * @param inicio Posición absoluta de la marca de inicio.
+	 * @param longitud Longitud del cuerpo leída de la cabecera.
+	 * @return {@code true} si la longitud del cuerpo es válida, el CRC coincide y las jugadas son índices de celda.
+	 */
+	static boolean esValido(ByteBuffer buffer, int inicio, int longitud) {
+
+		if (!esLongitudValida(longitud)) {
+			return false;
+		}
+
+		int cuerpo = inicio + CABECERA;
+		int jugadas = buffer.getShort(cuerpo + POSICION_NUMERO_JUGADAS) & 0xFFFF;
+
+		if (buffer.get(cuerpo) != VERSION || (buffer.get(cuerpo + POSICION_RESULTADO) & 0xFF) > 2
+				|| longitud != CUERPO_MINIMO + bytesJugadas(jugadas)
+				|| (int) calcularCrc(buffer, cuerpo, longitud) != buffer.getInt(cuerpo + longitud)) {
+			return false;
+		}
+
+		for (int i = 0; i < jugadas; i++) {
+			int jugada = consultarJugada(buffer, cuerpo, i);
+			if (JugadaCompacta.consultarOrigen(jugada) >= TableroBinario.NUMERO_CELDAS
+					|| JugadaCompacta.consultarDestino(jugada) >= TableroBinario.NUMERO_CELDAS) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Indica si una longitud de cuerpo leída de una cabecera es posible.
+	 *
+	 * @param longitud Longitud del cuerpo.
+	 * @return {@code true} si está entre las longitudes mínima y máxima.
+	 */
+	static boolean esLongitudValida(int longitud) {
+		return longitud >= CUERPO_MINIMO && longitud <= CUERPO_MAXIMO;
+	}
+
+	/**
+	 * Decodifica un registro ya comprobado con {@link #esValido(ByteBuffer, int, int)}.
+	 *
+	 * @param buffer Buffer con el registro completo.
+	 * @param inicio Posición absoluta de la marca de inicio.
+	 * @return Partida del registro, con sus jugadas sin marcas de captura.
+	 */
+	static ResultadoPartida decodificar(ByteBuffer buffer, int inicio) {
+
+		int cuerpo = inicio + CABECERA;
+		int[] jugadas = new int[buffer.getShort(cuerpo + POSICION_NUMERO_JUGADAS) & 0xFFFF];
+
+		for (int i = 0; i < jugadas.length; i++) {
+			jugadas[i] = consultarJugada(buffer, cuerpo, i);
+		}
+
+		return new ResultadoPartida(buffer.getLong(cuerpo + POSICION_NUMERO),
+				decodificarGanador(buffer.get(cuerpo + POSICION_RESULTADO)), jugadas);
+	}
+
+	/**
+	 * Devuelve una jugada empaquetada del cuerpo de un registro.
+	 *
+	 * @param buffer Buffer con el registro.
+	 * @param cuerpo Posición absoluta del cuerpo.
+	 * @param indice Índice de la jugada en la partida.
+	 * @return Jugada codificada sin marcas de captura.
+	 */
+	static int consultarJugada(ByteBuffer buffer, int cuerpo, int indice) {
+
+		int posicion = cuerpo + CUERPO_MINIMO + (indice >>> 1) * 3;
+
+		if ((indice & 1) == 0) {
+			return ((buffer.get(posicion) & 0xFF) << 4) | ((buffer.get(posicion + 1) & 0xFF) >>> 4);
+		}
+
+		return ((buffer.get(posicion + 1) & 0x0F) << 8) | (buffer.get(posicion + 2) & 0xFF);
+	}
+
+	/**
+	 * Decodifica el resultado de un registro.
+	 *
+	 * @param resultado Resultado codificado.
+	 * @return Color del ganador o {@code null} si la partida terminó en tablas.
+	 */
+	static Color decodificarGanador(byte resultado) {
+		switch (resultado) {
+		case 1:
+			return Color.NEGRO;
+		case 2:
+			return Color.BLANCO;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Reproduce con el árbitro las primeras jugadas de una partida desde la configuración inicial.
+	 *
+	 * @param partida Partida a reproducir.
+	 * @param jugadas Número de jugadas a reproducir (como mucho, las de la partida).
+	 * @return Árbitro con la posición alcanzada, con las jugadas aplicadas de forma reversible.
+	 * @throws IllegalArgumentException Si alguna jugada no es legal.
+	 */
+	public static Arbitro reproducir(ResultadoPartida partida, int jugadas) {
+
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+
+		int[] registradas = partida.jugadas();
+
+		for (int i = 0; i < Math.min(jugadas, registradas.length); i++) {
+
+			TableroBinario tablero = arbitro.obtenerTableroBinario();
+			int origen = JugadaCompacta.consultarOrigen(registradas[i]);
+
+			if ((tablero.consultarPiezas(arbitro.consultarTurno()) & (1L << origen)) == 0
+					|| (Reglas.calcularDestinos(tablero, origen)
+							& (1L << JugadaCompacta.consultarDestino(registradas[i]))) == 0) {
+				throw new IllegalArgumentException("Jugada ilegal " + JugadaCompacta.aTexto(registradas[i])
+						+ " en la jugada " + i + " de la partida " + partida.numero());
+			}
+
+			arbitro.aplicarJugada(registradas[i]);
+		}
+
+		return arbitro;
+	}
+
+	/**
+	 * Codifica el resultado de una partida.
+	 *
+	 * @param ganador Color del ganador o {@code null} si la partida terminó en tablas.
+	 * @return Resultado codificado.
+	 */
+	private static byte codificarGanador(Color ganador) {
+		if (ganador == null) {
+			return 0;
+		}
+		return (byte) (ganador == Color.NEGRO ? 1 : 2);
+	}
+
+	/**
+	 * Calcula el CRC-32 de una región de un buffer sin modificar su posición.
+	 *
+	 * @param buffer Buffer.
+	 * @param inicio Posición absoluta de la región.
+	 * @param longitud Longitud de la región.
+	 * @return CRC-32 de la región.
+	 */
+	private static long calcularCrc(ByteBuffer buffer, int inicio, int longitud) {
+		CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate().limit(inicio + longitud).position(inicio));
+		return crc.getValue();
+	}
+
+}
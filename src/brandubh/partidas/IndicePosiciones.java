@@ -0,0 +1,737 @@
+/**
+ * Almacenamiento de partidas.
+ * <p>
+ * Paquete con el formato binario de los registros de partidas terminadas, su escritura y lectura secuencial y el 
+ * acceso a las partidas almacenadas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.partidas;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.ClavesZobrist;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Simetria;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.EjecutorTareas;
+
+/**
+ * Índice en disco de las posiciones alcanzadas en las partidas de una base de datos.
+ * <p>
+ * El fichero del índice contiene una cabecera de 16 bytes (marca, versión y número de entradas) seguida de una 
+ * entrada de 16 bytes por cada posición de cada partida, desde la configuración inicial hasta la posición final: la 
+ * clave canónica de la posición con el turno (la de {@link Simetria#consultarClaveCanonica(TableroBinario, Color)}, 
+ * común a las ocho posiciones simétricas) y un valor con el índice de la partida (32 bits), el número de jugadas 
+ * aplicadas (16 bits), la jugada siguiente transformada por la simetría canónica de la posición (12 bits, todos a uno 
+ * si la posición es la final) y el resultado de la partida (2 bits, con la codificación de {@link FormatoPartidas}). Las 
+ * entradas se ordenan por clave, como entero sin signo, y a igualdad de clave por partida y jugada, de modo que las 
+ * apariciones de una posición se localizan por búsqueda binaria sobre el fichero proyectado en memoria, y sus 
+ * continuaciones y resultados se obtienen sin acceder a la base de datos de partidas.
+ * <p>
+ * La construcción se reparte entre varios hilos en tres pasadas: se cuentan las entradas de cada cubeta (los bits 
+ * altos de la clave), se escribe cada entrada en el hueco de su cubeta directamente sobre el fichero proyectado y se 
+ * ordena cada cubeta por separado. Las cubetas se dimensionan para unas 2<sup>20</sup> entradas, pero todas las 
+ * apariciones de una misma posición comparten clave y cubeta, y la configuración inicial y las aperturas más jugadas 
+ * aparecen en una fracción grande de las partidas. Por eso las cubetas mayores se parten por clave y valor 
+ * directamente sobre el fichero proyectado hasta que cada tramo tiene como mucho 2<sup>20</sup> entradas, y solo 
+ * esos tramos se ordenan en memoria: cada hilo necesita un máximo fijo de memoria, sea cual sea el número de partidas.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.partidas.BaseDatosPartidas
+ */
+public class IndicePosiciones implements AutoCloseable {
+
+	/**
+	 * Marca de inicio del fichero del índice ({@code "BRIX"} en ASCII).
+	 */
+	public static final int MARCA = 0x42524958;
+
+	/**
+	 * Versión del formato del índice.
+	 */
+	public static final int VERSION = 3;
+
+	/**
+	 * Bytes de la cabecera del fichero.
+	 */
+	private static final int CABECERA = 16;
+
+	/**
+	 * Bytes de cada entrada.
+	 */
+	private static final int ENTRADA = 16;
+
+	/**
+	 * Valor de la jugada siguiente de la posición final de una partida.
+	 */
+	private static final int SIN_SIGUIENTE = 0xFFF;
+
+	/**
+	 * Entradas por segmento de proyección.
+	 */
+	private static final long ENTRADAS_SEGMENTO = (1L << 30) / ENTRADA;
+
+	/**
+	 * Número de entradas por cubeta que se pretende no superar al construir el índice.
+	 */
+	private static final long ENTRADAS_CUBETA = 1L << 20;
+
+	/**
+	 * Segmentos proyectados del fichero.
+	 */
+	private final MappedByteBuffer[] segmentos;
+
+	/**
+	 * Número de entradas del índice.
+	 */
+	private final long numeroEntradas;
+
+	/**
+	 * Constructor para la clase {@code IndicePosiciones}. Proyecta en memoria un índice ya construido.
+	 *
+	 * @param fichero Ruta del fichero del índice.
+	 * @throws IOException Si no puede abrirse o proyectarse el fichero o no es un índice de posiciones.
+	 */
+	public IndicePosiciones(Path fichero) throws IOException {
+
+		try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+
+			MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(CABECERA, canal.size()));
+
+			if (cabecera.capacity() < CABECERA || cabecera.getInt(0) != MARCA || cabecera.getInt(4) != VERSION) {
+				throw new IOException("No es un índice de posiciones: " + fichero);
+			}
+
+			numeroEntradas = cabecera.getLong(8);
+
+			if (canal.size() != CABECERA + numeroEntradas * ENTRADA) {
+				throw new IOException("Índice de posiciones incompleto: " + fichero);
+			}
+
+			segmentos = proyectar(canal, FileChannel.MapMode.READ_ONLY, numeroEntradas);
+		}
+	}
+
+	/**
+	 * Construye el índice de posiciones de una base de datos de partidas.
+	 *
+	 * @param base Base de datos de partidas.
+	 * @param fichero Ruta del fichero del índice, que se sobrescribe si existe.
+	 * @param hilos Número de hilos (al menos {@code 1}).
+	 * @throws IOException Si no puede escribirse el fichero.
+	 * @throws IllegalStateException Si falla algún hilo de la construcción o se interrumpe la espera.
+	 */
+	public static void construir(BaseDatosPartidas base, Path fichero, int hilos) throws IOException {
+
+		int tareas = Math.max(1, hilos) * 4;
+		ForkJoinPool ejecutor = new ForkJoinPool(Math.max(1, hilos));
+
+		try {
+			long total = 0;
+			for (int partida = 0; partida < base.consultarNumeroPartidas(); partida++) {
+				total += base.consultarNumeroJugadas(partida) + 1;
+			}
+
+			int bits = 0;
+			while (bits < 24 && (total >>> bits) > ENTRADAS_CUBETA) {
+				bits++;
+			}
+			int bitsCubeta = bits;
+
+			// Primera pasada: número de entradas de cada cubeta
+			long[] inicios = new long[(1 << bitsCubeta) + 1];
+			for (long[] parcial : EjecutorTareas.ejecutar(ejecutor, tareas, tarea -> {
+				long[] cuenta = new long[1 << bitsCubeta];
+				recorrer(base, tarea, tareas, (clave, valor) -> cuenta[cubeta(clave, bitsCubeta)]++);
+				return cuenta;
+			}, "la construcción del índice")) {
+				for (int i = 0; i < parcial.length; i++) {
+					inicios[i + 1] += parcial[i];
+				}
+			}
+			for (int i = 1; i < inicios.length; i++) {
+				inicios[i] += inicios[i - 1];
+			}
+
+			try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+				MappedByteBuffer[] destino = proyectar(canal, FileChannel.MapMode.READ_WRITE, total);
+
+				// Segunda pasada: cada entrada en el siguiente hueco libre de su cubeta
+				AtomicLongArray cursores = new AtomicLongArray(inicios.length - 1);
+				for (int i = 0; i < cursores.length(); i++) {
+					cursores.set(i, inicios[i]);
+				}
+				EjecutorTareas.ejecutar(ejecutor, tareas, tarea -> {
+					recorrer(base, tarea, tareas, (clave, valor) -> escribir(destino,
+							cursores.getAndIncrement(cubeta(clave, bitsCubeta)), clave, valor));
+					return null;
+				}, "la construcción del índice");
+
+				// Tercera pasada: ordenación de cada cubeta
+				int cubetas = inicios.length - 1;
+				EjecutorTareas.ejecutar(ejecutor, Math.min(cubetas, tareas), tarea -> {
+					for (int cubeta = tarea; cubeta < cubetas; cubeta += Math.min(cubetas, tareas)) {
+						ordenar(destino, inicios[cubeta], inicios[cubeta + 1]);
+					}
+					return null;
+				}, "la construcción del índice");
+
+				MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_WRITE, 0, CABECERA);
+				cabecera.putInt(0, MARCA).putInt(4, VERSION).putLong(8, total);
+				cabecera.force();
+				for (MappedByteBuffer segmento : destino) {
+					segmento.force();
+				}
+			}
+		} finally {
+			ejecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Devuelve la clave con la que se indexa una posición con el turno.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @param turno Color del jugador con el turno.
+	 * @return Clave canónica de la posición, común a todas sus posiciones simétricas.
+	 * @see brandubh.modelo.Simetria
+	 */
+	public static long calcularClave(TableroBinario tablero, Color turno) {
+		return Simetria.consultarClaveCanonica(tablero, turno);
+	}
+
+	/**
+	 * Devuelve la clave con la que se indexa la posición actual de un árbitro.
+	 *
+	 * @param arbitro Árbitro con la posición.
+	 * @return Clave canónica de la posición, común a todas sus posiciones simétricas.
+	 */
+	public static long calcularClave(Arbitro arbitro) {
+		return calcularClave(arbitro.obtenerTableroBinario(), arbitro.consultarTurno());
+	}
+
+	/**
+	 * Devuelve el número de entradas del índice.
+	 *
+	 * @return Número de entradas.
+	 */
+	public long consultarNumeroEntradas() {
+		return numeroEntradas;
+	}
+
+	/**
+	 * Devuelve la primera entrada cuya clave es mayor o igual que la indicada, como enteros sin signo.
+	 *
+	 * @param clave Clave de la posición.
+	 * @return Índice de la entrada o el número de entradas si todas las claves son menores.
+	 */
+	public long buscar(long clave) {
+
+		long inferior = 0;
+		long superior = numeroEntradas;
+
+		while (inferior < superior) {
+			long medio = (inferior + superior) >>> 1;
+			if (Long.compareUnsigned(consultarClave(medio), clave) < 0) {
+				inferior = medio + 1;
+			} else {
+				superior = medio;
+			}
+		}
+
+		return inferior;
+	}
+
+	/**
+	 * Devuelve el número de apariciones de una posición.
+	 *
+	 * @param clave Clave de la posición.
+	 * @return Número de entradas con la clave indicada.
+	 */
+	public long contar(long clave) {
+		return clave == -1L ? numeroEntradas - buscar(clave) : buscar(clave + 1) - buscar(clave);
+	}
+
+	/**
+	 * Devuelve las apariciones de una posición, ordenadas por partida y jugada.
+	 *
+	 * @param clave Clave de la posición.
+	 * @param maximo Número máximo de apariciones a devolver.
+	 * @return Apariciones de la posición.
+	 */
+	public List<AparicionPosicion> consultarApariciones(long clave, int maximo) {
+
+		List<AparicionPosicion> apariciones = new ArrayList<>();
+
+		for (long entrada = buscar(clave); entrada < numeroEntradas && apariciones.size() < maximo
+				&& consultarClave(entrada) == clave; entrada++) {
+			apariciones.add(new AparicionPosicion(consultarPartida(entrada), consultarJugada(entrada)));
+		}
+
+		return apariciones;
+	}
+
+	/**
+	 * Devuelve las apariciones de la posición actual de un árbitro.
+	 *
+	 * @param arbitro Árbitro con la posición.
+	 * @param maximo Número máximo de apariciones a devolver.
+	 * @return Apariciones de la posición, ordenadas por partida y jugada.
+	 */
+	public List<AparicionPosicion> consultarApariciones(Arbitro arbitro, int maximo) {
+		return consultarApariciones(calcularClave(arbitro), maximo);
+	}
+
+	/**
+	 * Devuelve la clave de una entrada.
+	 *
+	 * @param entrada Índice de la entrada.
+	 * @return Clave de la posición de la entrada.
+	 */
+	public long consultarClave(long entrada) {
+		return leerClave(segmentos, entrada);
+	}
+
+	/**
+	 * Devuelve el índice de la partida de una entrada.
+	 *
+	 * @param entrada Índice de la entrada.
+	 * @return Índice de la partida en la base de datos.
+	 */
+	public int consultarPartida(long entrada) {
+		return (int) (consultarValor(entrada) >>> Integer.SIZE);
+	}
+
+	/**
+	 * Devuelve el número de jugadas aplicadas en la posición de una entrada.
+	 *
+	 * @param entrada Índice de la entrada.
+	 * @return Número de jugadas de la partida aplicadas al alcanzar la posición.
+	 */
+	public int consultarJugada(long entrada) {
+		return (int) (consultarValor(entrada) >>> 16) & 0xFFFF;
+	}
+
+	/**
+	 * Devuelve la jugada que sigue a la posición de una entrada en su partida, transformada por la simetría canónica 
+	 * de la posición ({@link Simetria#consultarCanonica(TableroBinario)}).
+	 *
+	 * @param entrada Índice de la entrada.
+	 * @return Jugada codificada sin marcas de captura o {@link JugadaCompacta#NINGUNA} si la posición es la final de 
+	 * la partida.
+	 */
+	public int consultarSiguienteJugada(long entrada) {
+		return decodificarSiguiente(consultarValor(entrada));
+	}
+
+	/**
+	 * Devuelve el ganador de la partida de una entrada.
+	 *
+	 * @param entrada Índice de la entrada.
+	 * @return Color del ganador o {@code null} si la partida terminó en tablas.
+	 */
+	public Color consultarGanador(long entrada) {
+		return FormatoPartidas.decodificarGanador(decodificarResultado(consultarValor(entrada)));
+	}
+
+	/**
+	 * Devuelve el valor (partida, jugada, jugada siguiente y resultado) de una entrada.
+	 *
+	 * @param entrada Índice de la entrada.
+	 * @return Valor de la entrada.
+	 */
+	long consultarValor(long entrada) {
+		return leerValor(segmentos, entrada);
+	}
+
+	/**
+	 * Extrae la jugada siguiente del valor de una entrada.
+	 *
+	 * @param valor Valor de la entrada.
+	 * @return Jugada codificada o {@link JugadaCompacta#NINGUNA} si la posición es la final de la partida.
+	 */
+	static int decodificarSiguiente(long valor) {
+		int siguiente = (int) (valor >>> 2) & SIN_SIGUIENTE;
+		return siguiente == SIN_SIGUIENTE ? JugadaCompacta.NINGUNA : siguiente;
+	}
+
+	/**
+	 * Extrae el resultado codificado de la partida del valor de una entrada.
+	 *
+	 * @param valor Valor de la entrada.
+	 * @return Resultado con la codificación de {@link FormatoPartidas}.
+	 */
+	static byte decodificarResultado(long valor) {
+		return (byte) (valor & 3);
+	}
+
+	/**
+	 * Libera las referencias a la memoria proyectada.
+	 */
+	@Override
+	public void close() {
+		for (int i = 0; i < segmentos.length; i++) {
+			segmentos[i] = null;
+		}
+	}
+
+	/**
+	 * Construye el índice de posiciones de una base de datos de partidas.
+	 *
+	 * @param args ruta del fichero del índice y rutas de los ficheros de partidas, opcionalmente precedidas de 
+	 * {@code -hilos n}
+	 * @throws IOException Si falla el acceso a algún fichero.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		int hilos = Runtime.getRuntime().availableProcessors();
+		List<Path> rutas = new ArrayList<>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-hilos") && i + 1 < args.length) {
+				hilos = Integer.parseInt(args[++i]);
+			} else {
+				rutas.add(Path.of(args[i]));
+			}
+		}
+
+		long inicio = System.nanoTime();
+
+		try (BaseDatosPartidas base = new BaseDatosPartidas(rutas.subList(1, rutas.size()).toArray(new Path[0]))) {
+			construir(base, rutas.get(0), hilos);
+		}
+
+		try (IndicePosiciones indice = new IndicePosiciones(rutas.get(0))) {
+			System.out.printf("%d posiciones indexadas en %d ms con %d hilos%n", indice.consultarNumeroEntradas(),
+					(System.nanoTime() - inicio) / 1_000_000, hilos);
+		}
+	}
+
+	/**
+	 * Receptor de las posiciones de las partidas.
+	 */
+	@FunctionalInterface
+	private interface ReceptorPosiciones {
+
+		/**
+		 * Recibe una posición.
+		 *
+		 * @param clave Clave de la posición.
+		 * @param valor Valor de la entrada de la posición.
+		 */
+		void recibir(long clave, long valor);
+	}
+
+	/**
+	 * Recorre las posiciones de las partidas que corresponden a una tarea.
+	 *
+	 * @param base Base de datos de partidas.
+	 * @param tarea Número de la tarea.
+	 * @param tareas Número total de tareas.
+	 * @param receptor Receptor de las posiciones.
+	 */
+	private static void recorrer(BaseDatosPartidas base, int tarea, int tareas, ReceptorPosiciones receptor) {
+
+		TableroBinario tablero = new TableroBinario();
+		long partidas = base.consultarNumeroPartidas();
+		int primera = (int) (partidas * tarea / tareas);
+		int ultima = (int) (partidas * (tarea + 1) / tareas);
+
+		for (int partida = primera; partida < ultima; partida++) {
+
+			Color turno = base.consultarPosicion(partida, 0, tablero);
+			int jugadas = base.consultarNumeroJugadas(partida);
+			byte resultado = base.consultarResultado(partida);
+
+			for (int jugada = 0;; jugada++) {
+
+				// La jugada siguiente se guarda vista desde la posición canónica, como la clave
+				Simetria canonica = Simetria.consultarCanonica(tablero);
+				int siguiente = jugada == jugadas ? SIN_SIGUIENTE : base.consultarJugada(partida, jugada);
+				receptor.recibir(canonica.consultarClave(tablero) ^ ClavesZobrist.consultarClaveTurno(turno),
+						codificar(partida, jugada, siguiente == SIN_SIGUIENTE ? SIN_SIGUIENTE
+								: canonica.transformarJugada(siguiente), resultado));
+
+				if (jugada == jugadas) {
+					break;
+				}
+
+				Reglas.aplicarJugada(tablero, siguiente);
+				turno = turno.consultarContrario();
+			}
+		}
+	}
+
+	/**
+	 * Devuelve la cubeta de una clave.
+	 *
+	 * @param clave Clave de la posición.
+	 * @param bits Número de bits altos de la clave que forman la cubeta.
+	 * @return Número de la cubeta.
+	 */
+	private static int cubeta(long clave, int bits) {
+		return bits == 0 ? 0 : (int) (clave >>> (Long.SIZE - bits));
+	}
+
+	/**
+	 * Codifica el valor de una entrada.
+	 *
+	 * @param partida Índice de la partida.
+	 * @param jugada Número de jugadas aplicadas.
+	 * @param siguiente Jugada siguiente sin marcas de captura o {@link #SIN_SIGUIENTE}.
+	 * @param resultado Resultado de la partida con la codificación de {@link FormatoPartidas}.
+	 * @return Valor de la entrada.
+	 */
+	private static long codificar(int partida, int jugada, int siguiente, byte resultado) {
+		return ((long) partida << Integer.SIZE) | ((long) jugada << 16) | ((long) siguiente << 2) | resultado;
+	}
+
+	/**
+	 * Devuelve la posición de una entrada dentro de su segmento.
+	 *
+	 * @param entrada Índice de la entrada.
+	 * @return Posición en bytes dentro del segmento.
+	 */
+	private static int posicion(long entrada) {
+		return (int) ((entrada % ENTRADAS_SEGMENTO) * ENTRADA);
+	}
+
+	/**
+	 * Escribe una entrada en los segmentos proyectados.
+	 *
+	 * @param segmentos Segmentos proyectados.
+	 * @param entrada Índice de la entrada.
+	 * @param clave Clave de la posición.
+	 * @param valor Valor de la entrada.
+	 */
+	private static void escribir(MappedByteBuffer[] segmentos, long entrada, long clave, long valor) {
+		MappedByteBuffer segmento = segmentos[(int) (entrada / ENTRADAS_SEGMENTO)];
+		segmento.putLong(posicion(entrada), clave);
+		segmento.putLong(posicion(entrada) + Long.BYTES, valor);
+	}
+
+	/**
+	 * Lee la clave de una entrada de los segmentos proyectados.
+	 *
+	 * @param segmentos Segmentos proyectados.
+	 * @param entrada Índice de la entrada.
+	 * @return Clave de la entrada.
+	 */
+	private static long leerClave(MappedByteBuffer[] segmentos, long entrada) {
+		return segmentos[(int) (entrada / ENTRADAS_SEGMENTO)].getLong(posicion(entrada));
+	}
+
+	/**
+	 * Lee el valor de una entrada de los segmentos proyectados.
+	 *
+	 * @param segmentos Segmentos proyectados.
+	 * @param entrada Índice de la entrada.
+	 * @return Valor de la entrada.
+	 */
+	private static long leerValor(MappedByteBuffer[] segmentos, long entrada) {
+		return segmentos[(int) (entrada / ENTRADAS_SEGMENTO)].getLong(posicion(entrada) + Long.BYTES);
+	}
+
+	/**
+	 * Ordena las entradas de una cubeta con como mucho {@link #ENTRADAS_CUBETA} entradas en memoria.
+	 *
+	 * @param segmentos Segmentos proyectados.
+	 * @param inicio Índice de la primera entrada de la cubeta.
+	 * @param fin Índice siguiente a la última entrada de la cubeta.
+	 */
+	private static void ordenar(MappedByteBuffer[] segmentos, long inicio, long fin) {
+		ordenar(segmentos, inicio, fin, ENTRADAS_CUBETA);
+	}
+
+	/**
+	 * Ordena las entradas de un tramo de los segmentos proyectados. Mientras el tramo tiene más entradas de las que se
+	 * admiten en memoria se parte sobre los propios segmentos (<em>quicksort</em> por clave y valor, que separa también
+	 * las entradas de una misma clave por partida); los tramos resultantes se cargan en memoria, se ordenan y se
+	 * vuelven a escribir.
+	 *
+	 * @param segmentos Segmentos proyectados.
+	 * @param inicio Índice de la primera entrada del tramo.
+	 * @param fin Índice siguiente a la última entrada del tramo.
+	 * @param enMemoria Número máximo de entradas que se cargan en memoria (al menos {@code 1}).
+	 */
+	static void ordenar(MappedByteBuffer[] segmentos, long inicio, long fin, long enMemoria) {
+
+		while (fin - inicio > enMemoria) {
+
+			long medio = (inicio + fin - 1) >>> 1;
+			long pivoteClave = leerClave(segmentos, medio);
+			long pivoteValor = leerValor(segmentos, medio);
+			long i = inicio;
+			long j = fin - 1;
+
+			while (i <= j) {
+				while (comparar(leerClave(segmentos, i), leerValor(segmentos, i), pivoteClave, pivoteValor) < 0) {
+					i++;
+				}
+				while (comparar(leerClave(segmentos, j), leerValor(segmentos, j), pivoteClave, pivoteValor) > 0) {
+					j--;
+				}
+				if (i <= j) {
+					intercambiar(segmentos, i++, j--);
+				}
+			}
+
+			if (j - inicio < fin - i) {
+				ordenar(segmentos, inicio, j + 1, enMemoria);
+				inicio = i;
+			} else {
+				ordenar(segmentos, i, fin, enMemoria);
+				fin = j + 1;
+			}
+		}
+
+		int numero = (int) (fin - inicio);
+		long[] claves = new long[numero];
+		long[] valores = new long[numero];
+
+		for (int i = 0; i < numero; i++) {
+			claves[i] = leerClave(segmentos, inicio + i);
+			valores[i] = leerValor(segmentos, inicio + i);
+		}
+
+		ordenar(claves, valores, 0, numero - 1);
+
+		for (int i = 0; i < numero; i++) {
+			escribir(segmentos, inicio + i, claves[i], valores[i]);
+		}
+	}
+
+	/**
+	 * Ordena por clave sin signo y valor un tramo de dos arrays paralelos (<em>quicksort</em> con inserción para 
+	 * los tramos cortos).
+	 *
+	 * @param claves Claves.
+	 * @param valores Valores asociados a las claves.
+	 * @param izquierda Primer índice del tramo.
+	 * @param derecha Último índice del tramo.
+	 */
+	private static void ordenar(long[] claves, long[] valores, int izquierda, int derecha) {
+
+		while (derecha - izquierda > 16) {
+
+			int medio = (izquierda + derecha) >>> 1;
+			long pivoteClave = claves[medio];
+			long pivoteValor = valores[medio];
+			int i = izquierda;
+			int j = derecha;
+
+			while (i <= j) {
+				while (comparar(claves[i], valores[i], pivoteClave, pivoteValor) < 0) {
+					i++;
+				}
+				while (comparar(claves[j], valores[j], pivoteClave, pivoteValor) > 0) {
+					j--;
+				}
+				if (i <= j) {
+					intercambiar(claves, valores, i++, j--);
+				}
+			}
+
+			if (j - izquierda < derecha - i) {
+				ordenar(claves, valores, izquierda, j);
+				izquierda = i;
+			} else {
+				ordenar(claves, valores, i, derecha);
+				derecha = j;
+			}
+		}
+
+		for (int i = izquierda + 1; i <= derecha; i++) {
+			for (int j = i; j > izquierda && comparar(claves[j - 1], valores[j - 1], claves[j], valores[j]) > 0; j--) {
+				intercambiar(claves, valores, j - 1, j);
+			}
+		}
+	}
+
+	/**
+	 * Compara dos entradas por clave sin signo y, a igualdad de clave, por valor.
+	 *
+	 * @param clave Clave de la primera entrada.
+	 * @param valor Valor de la primera entrada.
+	 * @param otraClave Clave de la segunda entrada.
+	 * @param otroValor Valor de la segunda entrada.
+	 * @return Negativo, cero o positivo si la primera entrada es menor, igual o mayor que la segunda.
+	 */
+	private static int comparar(long clave, long valor, long otraClave, long otroValor) {
+		int comparacion = Long.compareUnsigned(clave, otraClave);
+		return comparacion != 0 ? comparacion : Long.compare(valor, otroValor);
+	}
+
+	/**
+	 * Intercambia dos entradas de los arrays paralelos.
+	 *
+	 * @param claves Claves.
+	 * @param valores Valores.
+	 * @param i Índice de la primera entrada.
+	 * @param j Índice de la segunda entrada.
+	 */
+	private static void intercambiar(long[] claves, long[] valores, int i, int j) {
+		long clave = claves[i];
+		claves[i] = claves[j];
+		claves[j] = clave;
+		long valor = valores[i];
+		valores[i] = valores[j];
+		valores[j] = valor;
+	}
+
+	/**
+	 * Intercambia dos entradas de los segmentos proyectados.
+	 *
+	 * @param segmentos Segmentos proyectados.
+	 * @param i Índice de la primera entrada.
+	 * @param j Índice de la segunda entrada.
+	 */
+	private static void intercambiar(MappedByteBuffer[] segmentos, long i, long j) {
+		long clave = leerClave(segmentos, i);
+		long valor = leerValor(segmentos, i);
+		escribir(segmentos, i, leerClave(segmentos, j), leerValor(segmentos, j));
+		escribir(segmentos, j, clave, valor);
+	}
+
+	/**
+	 * Proyecta las entradas de un fichero de índice en segmentos.
+	 *
+	 * @param canal Canal del fichero.
+	 * @param modo Modo de proyección.
+	 * @param entradas Número de entradas.
+	 * @return Segmentos proyectados.
+	 * @throws IOException Si falla la proyección.
+	 */
+	private static MappedByteBuffer[] proyectar(FileChannel canal, FileChannel.MapMode modo, long entradas)
+			throws IOException {
+
+		int numero = (int) ((entradas + ENTRADAS_SEGMENTO - 1) / ENTRADAS_SEGMENTO);
+		MappedByteBuffer[] proyectados = new MappedByteBuffer[numero];
+
+		for (int i = 0; i < numero; i++) {
+			long primera = i * ENTRADAS_SEGMENTO;
+			proyectados[i] = canal.map(modo, CABECERA + primera * ENTRADA,
+					Math.min(ENTRADAS_SEGMENTO, entradas - primera) * ENTRADA);
+		}
+
+		return proyectados;
+	}
+
+}
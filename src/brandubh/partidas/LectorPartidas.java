@@ -0,0 +1,183 @@
+/**
+ * Almacenamiento de partidas.
+ * <p>
+ * Paquete con el formato binario de los registros de partidas terminadas, su escritura y lectura secuencial y el 
+ * acceso a las partidas almacenadas.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.partidas;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import brandubh.granja.ResultadoPartida;
+
+/**
+ * Lectura secuencial de registros de partidas.
+ * <p>
+ * Lee el canal por bloques sobre un único buffer, que se reutiliza durante toda la lectura. Los registros dañados 
+ * (longitud imposible, CRC incorrecto o jugadas fuera del tablero) o incompletos al final del fichero se descartan, 
+ * y la lectura continúa desde la siguiente marca de inicio de registro.
+ * <p>
+ * Cada instancia debe emplearse desde un único hilo.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ * @see brandubh.partidas.FormatoPartidas
+ */
+public class LectorPartidas implements Closeable {
+
+	/**
+	 * Tamaño mínimo del buffer de lectura en bytes.
+	 */
+	private static final int TAMAÑO_BUFFER = 1 << 16;
+
+	/**
+	 * Canal de lectura.
+	 */
+	private final ReadableByteChannel canal;
+
+	/**
+	 * Buffer de lectura, con capacidad para el registro más largo posible.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Indica si se ha alcanzado el final del canal.
+	 */
+	private boolean finalCanal;
+
+	/**
+	 * Número de bytes descartados por no pertenecer a ningún registro válido.
+	 */
+	private long bytesDescartados;
+
+	/**
+	 * Constructor para la clase {@code LectorPartidas} sobre un fichero.
+	 *
+	 * @param ruta Ruta del fichero de partidas.
+	 * @throws IOException Si no puede abrirse el fichero.
+	 */
+	public LectorPartidas(Path ruta) throws IOException {
+		this(FileChannel.open(ruta, StandardOpenOption.READ));
+	}
+
+	/**
+	 * Constructor para la clase {@code LectorPartidas} sobre un canal.
+	 *
+	 * @param canal Canal de lectura posicionado al comienzo de un registro.
+	 */
+	public LectorPartidas(ReadableByteChannel canal) {
+		this.canal = canal;
+		this.buffer = ByteBuffer.allocate(Math.max(TAMAÑO_BUFFER,
+				FormatoPartidas.CABECERA + FormatoPartidas.CUERPO_MAXIMO + FormatoPartidas.PIE));
+		this.buffer.flip();
+	}
+
+	/**
+	 * Lee la siguiente partida válida.
+	 *
+	 * @return Partida leída, con sus jugadas sin marcas de captura, o {@code null} si no quedan partidas.
+	 * @throws IOException Si falla la lectura.
+	 */
+	public ResultadoPartida leer() throws IOException {
+
+		while (asegurar(FormatoPartidas.CABECERA)) {
+
+			int inicio = buffer.position();
+			int longitud = buffer.getInt(inicio + 4);
+
+			if (buffer.getInt(inicio) != FormatoPartidas.MARCA || !FormatoPartidas.esLongitudValida(longitud)) {
+				descartar(1);
+				continue;
+			}
+
+			int total = FormatoPartidas.CABECERA + longitud + FormatoPartidas.PIE;
+
+			if (!asegurar(total)) {
+				descartar(1);
+				continue;
+			}
+
+			inicio = buffer.position();
+
+			if (!FormatoPartidas.esValido(buffer, inicio, longitud)) {
+				descartar(1);
+				continue;
+			}
+
+			buffer.position(inicio + total);
+
+			return FormatoPartidas.decodificar(buffer, inicio);
+		}
+
+		bytesDescartados += buffer.remaining();
+		buffer.position(buffer.limit());
+
+		return null;
+	}
+
+	/**
+	 * Devuelve el número de bytes descartados hasta el momento por no pertenecer a ningún registro válido.
+	 *
+	 * @return Número de bytes descartados.
+	 */
+	public long consultarBytesDescartados() {
+		return bytesDescartados;
+	}
+
+	/**
+	 * Cierra el canal de lectura.
+	 *
+	 * @throws IOException Si falla el cierre.
+	 */
+	@Override
+	public void close() throws IOException {
+		canal.close();
+	}
+
+	/**
+	 * Descarta bytes del buffer.
+	 *
+	 * @param bytes Número de bytes a descartar.
+	 */
+	private void descartar(int bytes) {
+		buffer.position(buffer.position() + bytes);
+		bytesDescartados += bytes;
+	}
+
+	/**
+	 * Asegura que el buffer tiene disponibles al menos los bytes indicados, leyendo del canal si es necesario.
+	 *
+	 * @param bytes Número de bytes necesarios (como mucho, la capacidad del buffer).
+	 * @return {@code true} si hay suficientes bytes o {@code false} si el canal termina antes.
+	 * @throws IOException Si falla la lectura.
+	 */
+	private boolean asegurar(int bytes) throws IOException {
+
+		if (buffer.remaining() >= bytes || finalCanal) {
+			return buffer.remaining() >= bytes;
+		}
+
+		buffer.compact();
+
+		while (buffer.position() < bytes && !finalCanal) {
+			if (canal.read(buffer) < 0) {
+				finalCanal = true;
+			}
+		}
+
+		buffer.flip();
+
+		return buffer.remaining() >= bytes;
+	}
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Clases de utilidad empleadas por las clases del resto de paquetes.
+ * <p>
+ * Contiene tipos enumerados, registros y clases de utilidad reutilizados en el resto de paquetes.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché LRU de capacidad fija con claves de tipo {@code long}, que puede emplearse desde varios hilos a la vez.
+ * <p>
+ * Al superar la capacidad se descarta el valor usado hace más tiempo. Cuenta los aciertos y los fallos de las
+ * consultas para poder medir su eficacia.
+ *
+ * @param <V> Tipo de los valores guardados.
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CacheLRU<V> {
+
+	/**
+	 * Valores guardados, del usado hace más tiempo al más reciente.
+	 */
+	private final Map<Long, V> valores;
+
+	/**
+	 * Número de consultas resueltas con la caché.
+	 */
+	private final LongAdder aciertos = new LongAdder();
+
+	/**
+	 * Número de consultas que no estaban en la caché.
+	 */
+	private final LongAdder fallos = new LongAdder();
+
+	/**
+	 * Constructor para la clase {@code CacheLRU}.
+	 *
+	 * @param capacidad Número máximo de valores guardados ({@code 0} para no guardar ninguno).
+	 */
+	public CacheLRU(int capacidad) {
+		this.valores = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, V> mayor) {
+				return size() > capacidad;
+			}
+		};
+	}
+
+	/**
+	 * Devuelve el valor guardado para una clave y cuenta la consulta como acierto o como fallo.
+	 *
+	 * @param clave Clave del valor.
+	 * @return Valor guardado o {@code null} si no está en la caché.
+	 */
+	public V consultar(long clave) {
+
+		V valor;
+		synchronized (valores) {
+			valor = valores.get(clave);
+		}
+
+		if (valor != null) {
+			aciertos.increment();
+		} else {
+			fallos.increment();
+		}
+
+		return valor;
+	}
+
+	/**
+	 * Guarda el valor de una clave, descartando el usado hace más tiempo si se supera la capacidad.
+	 *
+	 * @param clave Clave del valor.
+	 * @param valor Valor a guardar.
+	 */
+	public void guardar(long clave, V valor) {
+		synchronized (valores) {
+			valores.put(clave, valor);
+		}
+	}
+
+	/**
+	 * Devuelve el número de consultas resueltas con la caché.
+	 *
+	 * @return Número de aciertos.
+	 */
+	public long consultarAciertos() {
+		return aciertos.sum();
+	}
+
+	/**
+	 * Devuelve el número de consultas que no estaban en la caché.
+	 *
+	 * @return Número de fallos.
+	 */
+	public long consultarFallos() {
+		return fallos.sum();
+	}
+
+	/**
+	 * Vacía la caché, sin reiniciar los contadores de aciertos y fallos.
+	 */
+	public void limpiar() {
+		synchronized (valores) {
+			valores.clear();
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Clases de utilidad empleadas por las clases del resto de paquetes.
+ * <p>
+ * Contiene tipos enumerados, registros y clases de utilidad reutilizados en el resto de paquetes.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+package brandubh.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Ejecución en paralelo de tareas numeradas.
+ * <p>
+ * Clase de utilidad que reparte entre los hilos de un ejecutor las tareas numeradas desde {@code 0} en que se divide
+ * un recorrido y recoge sus resultados en el orden de sus números. La excepción comprobada que declara la tarea se
+ * propaga sin cambios; cualquier otro fallo, o la interrupción de la espera, se notifica con una
+ * {@link IllegalStateException}.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ * @since 1.0
+ */
+public final class EjecutorTareas {
+
+	/**
+	 * Constructor privado: la clase solo tiene métodos de clase.
+	 */
+	private EjecutorTareas() {
+	}
+
+	/**
+	 * Ejecuta tareas numeradas y espera a que terminen todas.
+	 *
+	 * @param <T> Tipo del resultado de las tareas.
+	 * @param <E> Tipo de la excepción comprobada que pueden lanzar las tareas.
+	 * @param ejecutor Ejecutor de las tareas.
+	 * @param tareas Número de tareas.
+	 * @param tarea Tarea a ejecutar con cada número.
+	 * @param descripcion Descripción de las tareas para los mensajes de error.
+	 * @return Resultados de las tareas, en el orden de sus números.
+	 * @throws E Si alguna tarea lanza la excepción comprobada que declara.
+	 * @throws IllegalStateException Si falla alguna tarea por otro motivo o se interrumpe la espera.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T, E extends Exception> List<T> ejecutar(ForkJoinPool ejecutor, int tareas, Tarea<T, E> tarea,
+			String descripcion) throws E {
+
+		List<Callable<T>> llamadas = new ArrayList<>(tareas);
+		for (int i = 0; i < tareas; i++) {
+			int numero = i;
+			llamadas.add(() -> {
+				try {
+					return tarea.ejecutar(numero);
+				} catch (Exception e) {
+					throw new FalloTarea(e);
+				}
+			});
+		}
+
+		List<T> resultados = new ArrayList<>(tareas);
+		try {
+			for (Future<T> futuro : ejecutor.invokeAll(llamadas)) {
+				resultados.add(futuro.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrumpida la espera de " + descripcion + ".", e);
+		} catch (ExecutionException e) {
+			// El ejecutor puede envolver la excepción de la tarea en otras, por lo que se busca en toda la cadena
+			Throwable causa = e.getCause();
+			while (causa != null && !(causa instanceof FalloTarea)) {
+				causa = causa.getCause();
+			}
+			if (causa == null) {
+				throw new IllegalStateException("Error en un hilo de " + descripcion + ".", e.getCause());
+			}
+			if (!(causa.getCause() instanceof RuntimeException)) {
+				// Las únicas excepciones comprobadas que puede lanzar la tarea son de tipo E
+				throw (E) causa.getCause();
+			}
+			throw new IllegalStateException("Error en un hilo de " + descripcion + ".", causa.getCause());
+		}
+
+		return resultados;
+	}
+
+	/**
+	 * Envoltorio de la excepción lanzada por una tarea, que permite identificarla entre las excepciones con las que la
+	 * envuelva el ejecutor.
+	 */
+	private static final class FalloTarea extends RuntimeException {
+
+		/**
+		 * Número de versión para la serialización.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Constructor para la clase {@code FalloTarea}.
+		 *
+		 * @param causa Excepción lanzada por la tarea.
+		 */
+		private FalloTarea(Exception causa) {
+			super(causa);
+		}
+	}
+
+	/**
+	 * Tarea numerada.
+	 *
+	 * @param <T> Tipo del resultado de la tarea.
+	 * @param <E> Tipo de la excepción comprobada que puede lanzar la tarea ({@link RuntimeException} si no lanza
+	 * ninguna).
+	 */
+	@FunctionalInterface
+	public interface Tarea<T, E extends Exception> {
+
+		/**
+		 * Ejecuta la tarea.
+		 *
+		 * @param numero Número de la tarea.
+		 * @return Resultado de la tarea.
+		 * @throws E Si falla la tarea.
+		 */
+		T ejecutar(int numero) throws E;
+	}
+
+}
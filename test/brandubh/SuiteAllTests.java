@@ -14,7 +14,12 @@ import org.junit.platform.suite.api.SuiteDisplayName;
  */
 @SelectPackages({
 	"brandubh.control",
+	"brandubh.finales",
+	"brandubh.ajuste",
+	"brandubh.granja",
 	"brandubh.modelo",
+	"brandubh.motor",
+	"brandubh.partidas",
 	"brandubh.util"})
 @Suite
 @SuiteDisplayName("Ejecución de todos los tests de la práctica Brandubh-1.0.")
@@ -0,0 +1,198 @@
+package brandubh.ajuste;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.granja.GranjaPartidas;
+import brandubh.granja.JugadorAleatorio;
+import brandubh.granja.JugadorVoraz;
+import brandubh.modelo.TableroBinario;
+import brandubh.motor.EvaluadorIncremental;
+import brandubh.motor.PesosEvaluacion;
+import brandubh.motor.TerminoEvaluacion;
+import brandubh.partidas.BaseDatosPartidas;
+import brandubh.partidas.EscritorPartidas;
+import brandubh.util.Color;
+
+/**
+ * Tests sobre la extracción de muestras y el ajuste de los pesos de la evaluación.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests del ajuste de los pesos de la evaluación.")
+@Timeout(value = 20, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class AjustadorPesosTest {
+
+	/** Número de jugadas omitidas al extraer las muestras de testing. */
+	private static final int JUGADA_MINIMA = 3;
+
+	/** Directorio temporal de testing. */
+	@TempDir
+	Path directorio;
+
+	/** Fichero de partidas de testing. */
+	private Path partidas;
+
+	/**
+	 * Genera el fichero de partidas de testing.
+	 *
+	 * @throws IOException si falla el acceso al fichero
+	 */
+	@BeforeEach
+	void inicializar() throws IOException {
+		partidas = directorio.resolve("partidas.bin");
+		try (GranjaPartidas granja = new GranjaPartidas(JugadorVoraz::new, JugadorAleatorio::new, 2, 4);
+				EscritorPartidas escritor = new EscritorPartidas(partidas)) {
+			granja.jugar(60, 24, escritor);
+		}
+	}
+
+	/**
+	 * Extracción de muestras.
+	 */
+	@Nested
+	@DisplayName("Tests de la extracción de muestras.")
+	class Extraccion {
+
+		/**
+		 * Comprueba que cada muestra tiene los términos de su posición y el resultado de su partida.
+		 *
+		 * @throws IOException si falla el acceso al fichero
+		 */
+		@Test
+		@DisplayName("Comprueba el contenido de las muestras.")
+		void comprobarContenido() throws IOException {
+			try (BaseDatosPartidas base = new BaseDatosPartidas(partidas)) {
+				MuestrasAjuste muestras = MuestrasAjuste.extraer(base, JUGADA_MINIMA, 3);
+				TableroBinario tablero = new TableroBinario();
+				int[] terminos = new int[PesosEvaluacion.NUMERO_TERMINOS];
+				int muestra = 0;
+
+				for (int partida = 0; partida < base.consultarNumeroPartidas(); partida++) {
+					Color ganador = base.consultarGanador(partida);
+					double resultado = ganador == null ? 0.5 : ganador == Color.BLANCO ? 1 : 0;
+					for (int jugada = JUGADA_MINIMA; jugada < base.consultarNumeroJugadas(partida); jugada++) {
+						base.consultarPosicion(partida, jugada, tablero);
+						EvaluadorIncremental.calcularTerminos(tablero, terminos);
+						for (TerminoEvaluacion termino : TerminoEvaluacion.values()) {
+							assertThat("Término incorrecto.", muestras.consultarTermino(muestra, termino),
+									is(terminos[termino.ordinal()]));
+						}
+						assertThat("Resultado incorrecto.", muestras.consultarResultado(muestra), is(resultado));
+						muestra++;
+					}
+				}
+
+				assertThat("Número de muestras incorrecto.", muestras.consultarNumeroMuestras(), is(muestra));
+			}
+		}
+
+		/**
+		 * Comprueba que las muestras no dependen del número de hilos de la extracción.
+		 *
+		 * @throws IOException si falla el acceso al fichero
+		 */
+		@Test
+		@DisplayName("Comprueba que las muestras no dependen del número de hilos.")
+		void comprobarIndependenciaDeHilos() throws IOException {
+			try (BaseDatosPartidas base = new BaseDatosPartidas(partidas)) {
+				MuestrasAjuste uno = MuestrasAjuste.extraer(base, 0, 1);
+				MuestrasAjuste cuatro = MuestrasAjuste.extraer(base, 0, 4);
+				assertAll("independencia de hilos",
+						() -> assertThat("Número de muestras distinto.", cuatro.consultarNumeroMuestras(),
+								is(uno.consultarNumeroMuestras())),
+						() -> assertThat("Términos distintos.", Arrays.equals(
+								Arrays.copyOf(uno.obtenerTerminos(),
+										uno.consultarNumeroMuestras() * PesosEvaluacion.NUMERO_TERMINOS),
+								Arrays.copyOf(cuatro.obtenerTerminos(),
+										cuatro.consultarNumeroMuestras() * PesosEvaluacion.NUMERO_TERMINOS)),
+								is(true)));
+			}
+		}
+	}
+
+	/**
+	 * Ajuste de los pesos.
+	 */
+	@Nested
+	@DisplayName("Tests del ajuste de los pesos.")
+	class Ajuste {
+
+		/**
+		 * Comprueba que el ajuste no empeora el error de los pesos iniciales y que su resultado no depende del número
+		 * de hilos.
+		 *
+		 * @throws IOException si falla el acceso al fichero
+		 */
+		@Test
+		@DisplayName("Comprueba que el ajuste reduce el error.")
+		void comprobarReduccionDelError() throws IOException {
+			try (BaseDatosPartidas base = new BaseDatosPartidas(partidas)) {
+				MuestrasAjuste muestras = MuestrasAjuste.extraer(base, JUGADA_MINIMA, 2);
+				try (AjustadorPesos uno = new AjustadorPesos(muestras, 1);
+						AjustadorPesos tres = new AjustadorPesos(muestras, 3)) {
+					PesosEvaluacion ajustados = uno.ajustar(PesosEvaluacion.POR_DEFECTO, 100, 2.0);
+					assertAll("reducción del error",
+							() -> assertThat("El error final no debería superar al inicial.",
+									uno.consultarErrorFinal() <= uno.consultarErrorInicial(), is(true)),
+							() -> assertThat("El error final debería ser el de los pesos ajustados.",
+									uno.calcularError(ajustados, uno.consultarEscala()), is(uno.consultarErrorFinal())),
+							() -> assertThat("El ajuste no debería depender del número de hilos.",
+									tres.ajustar(PesosEvaluacion.POR_DEFECTO, 100, 2.0), is(ajustados)));
+				}
+			}
+		}
+
+		/**
+		 * Comprueba que el ajuste aumenta el peso de un término que decide los resultados de las muestras.
+		 */
+		@Test
+		@DisplayName("Comprueba el ajuste sobre muestras sintéticas.")
+		void comprobarMuestrasSinteticas() {
+			int numero = 20_000;
+			int terminos = PesosEvaluacion.NUMERO_TERMINOS;
+			byte[] valores = new byte[numero * terminos];
+			byte[] resultados = new byte[numero];
+			SplittableRandom aleatorio = new SplittableRandom(24);
+
+			for (int muestra = 0; muestra < numero; muestra++) {
+				for (int i = 0; i < terminos; i++) {
+					valores[muestra * terminos + i] = (byte) aleatorio.nextInt(-4, 5);
+				}
+				int movilidad = valores[muestra * terminos + TerminoEvaluacion.MOVILIDAD_REY.ordinal()];
+				resultados[muestra] = movilidad > 0 ? MuestrasAjuste.VICTORIA_DEFENSOR
+						: movilidad < 0 ? MuestrasAjuste.VICTORIA_ATACANTE : MuestrasAjuste.TABLAS;
+			}
+
+			MuestrasAjuste muestras = new MuestrasAjuste(valores, resultados, numero);
+			try (AjustadorPesos ajustador = new AjustadorPesos(muestras, 2)) {
+				PesosEvaluacion ajustados = ajustador.ajustar(PesosEvaluacion.POR_DEFECTO, 200, 5.0);
+				assertAll("muestras sintéticas",
+						() -> assertThat("El peso de la movilidad debería crecer.",
+								ajustados.consultarPeso(TerminoEvaluacion.MOVILIDAD_REY) > PesosEvaluacion.POR_DEFECTO
+										.consultarPeso(TerminoEvaluacion.MOVILIDAD_REY) * 10, is(true)),
+						() -> assertThat("El peso del material atacante debería decrecer.",
+								ajustados.consultarPeso(TerminoEvaluacion.ATACANTES) < PesosEvaluacion.POR_DEFECTO
+										.consultarPeso(TerminoEvaluacion.ATACANTES), is(true)),
+						() -> assertThat("El error debería reducirse.",
+								ajustador.consultarErrorFinal() < ajustador.consultarErrorInicial(), is(true)));
+			}
+		}
+	}
+}
@@ -0,0 +1,274 @@
+package brandubh.control;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Pieza;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.Coordenada;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre las reglas evaluadas sobre el tablero binario.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de las reglas sobre el tablero binario.")
+@Timeout(value = 2, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class ReglasTest {
+
+	/** Árbitro de testing. */
+	private Arbitro arbitro;
+
+	/** Tablero de testing. */
+	private Tablero tablero;
+
+	/** Generación del árbitro para testing. */
+	@BeforeEach
+	void inicializar() {
+		tablero = new Tablero();
+		arbitro = new Arbitro(tablero);
+	}
+
+	/**
+	 * Cálculo de capturas.
+	 */
+	@Nested
+	@DisplayName("Tests del cálculo de capturas.")
+	class CalculoDeCapturas {
+
+		/**
+		 * Comprueba que solo se capturan las piezas contiguas al destino y encerradas por una pieza contraria.
+		 */
+		// @formatter:off
+		/*
+		 * 7 - - - - - - -
+		 * 6 - - - - - - -
+		 * 5 - - - - A - -
+		 * 4 - - - R D - -
+		 * 3 - - - - - - A
+		 * 2 - - - - - - -
+		 * 1 - - - - - - -
+		 *   a b c d e f g
+		 * Movimiento del atacante de g3 a e3: captura el defensor en e4 (contra el atacante en e5).
+		 */
+		// @formatter:on
+		@Test
+		@DisplayName("Comprueba la captura de una pieza encerrada entre dos contrarias.")
+		void comprobarCapturaSimple() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.ATACANTE, TipoPieza.DEFENSOR, TipoPieza.REY, TipoPieza.ATACANTE },
+					new int[][] { { 2, 4 }, { 3, 4 }, { 3, 3 }, { 4, 6 } }, Color.NEGRO);
+			arbitro.mover(TestUtil.fabricarJugada(tablero, 4, 6, 4, 4));
+
+			long capturas = Reglas.calcularCapturas(tablero.obtenerTableroBinario(), TableroBinario.consultarIndice(4, 4));
+			assertThat("Debería capturarse el defensor situado en e4.", capturas, is(1L << TableroBinario.consultarIndice(3, 4)));
+		}
+
+		/**
+		 * Comprueba la captura contra el trono vacío y que el rey nunca es capturado.
+		 */
+		@Test
+		@DisplayName("Comprueba la captura contra el trono vacío sin capturar al rey.")
+		void comprobarCapturaContraTronoVacio() {
+			tablero.colocar(new Pieza(TipoPieza.DEFENSOR), new Coordenada(2, 3));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(1, 3));
+			tablero.colocar(new Pieza(TipoPieza.REY), new Coordenada(1, 2));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(1, 1));
+
+			long capturas = Reglas.calcularCapturas(tablero.obtenerTableroBinario(), TableroBinario.consultarIndice(1, 3));
+			assertThat("Debería capturarse el defensor contra el trono vacío y no el rey.", capturas,
+					is(1L << TableroBinario.consultarIndice(2, 3)));
+		}
+
+		/**
+		 * Comprueba que el árbitro devuelve las coordenadas capturadas sin retirarlas hasta realizar las capturas.
+		 */
+		@Test
+		@DisplayName("Comprueba la consulta de capturas del árbitro.")
+		void comprobarConsultaDeCapturasDelArbitro() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			arbitro.mover(TestUtil.fabricarJugada(tablero, 6, 3, 6, 5)); // atacante
+			arbitro.mover(TestUtil.fabricarJugada(tablero, 3, 4, 6, 4)); // defensor
+
+			List<Coordenada> capturas = arbitro.consultarCapturasTrasMover();
+			assertAll("consulta de capturas",
+					() -> assertThat("Debería capturarse una pieza.", capturas.size(), is(1)),
+					() -> assertThat("Coordenada capturada incorrecta.", capturas.get(0), is(new Coordenada(6, 5))),
+					() -> assertThat("La consulta no debería retirar la pieza.",
+							tablero.consultarNumeroPiezas(TipoPieza.ATACANTE), is(8)));
+
+			arbitro.realizarCapturasTrasMover();
+			assertThat("Debería retirarse la pieza capturada.", tablero.consultarNumeroPiezas(TipoPieza.ATACANTE), is(7));
+		}
+
+		/**
+		 * Comprueba que aplicar jugadas sobre una copia del tablero binario produce las mismas posiciones y capturas que
+		 * el árbitro a lo largo de una partida aleatoria.
+		 */
+		@Test
+		@DisplayName("Comprueba que aplicar jugadas sobre el tablero binario equivale al árbitro.")
+		void comprobarAplicacionEquivalenteAlArbitro() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			TableroBinario copia = tablero.obtenerTableroBinario().clonar();
+			Random aleatorio = new Random(11);
+			int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+
+			for (int i = 0; i < 200; i++) {
+				int numero = arbitro.generarMovimientosLegales(movimientos);
+				if (numero == 0) {
+					break;
+				}
+				int jugada = movimientos[aleatorio.nextInt(numero)];
+				int aplicadaEnCopia = Reglas.aplicarJugada(copia, jugada);
+				int aplicadaEnArbitro = arbitro.aplicarJugada(jugada);
+				assertAll("jugada " + i,
+						() -> assertThat("Capturas distintas.", aplicadaEnCopia, is(aplicadaEnArbitro)),
+						() -> assertThat("Posiciones distintas.", copia, is(tablero.obtenerTableroBinario())));
+				if (arbitro.haGanadoAtacante() || arbitro.haGanadoRey()) {
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Comprobación de victorias.
+	 */
+	@Nested
+	@DisplayName("Tests de la comprobación de victorias.")
+	class ComprobacionDeVictorias {
+
+		/**
+		 * Comprueba la victoria del atacante rodeando al rey fuera del trono y la consulta de la coordenada del rey.
+		 */
+		@Test
+		@DisplayName("Comprueba la victoria del atacante encerrando al rey contra otro atacante.")
+		void comprobarVictoriaAtacante() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE, TipoPieza.ATACANTE },
+					new int[][] { { 1, 1 }, { 1, 0 }, { 4, 2 } }, Color.NEGRO);
+			arbitro.mover(TestUtil.fabricarJugada(tablero, 4, 2, 1, 2));
+			assertAll("victoria del atacante",
+					() -> assertThat("Coordenada del rey incorrecta.", arbitro.consultarCoordenadaRey(), is(new Coordenada(1, 1))),
+					() -> assertThat("Debería ganar el atacante.", arbitro.haGanadoAtacante(), is(true)),
+					() -> assertThat("No debería ganar el defensor.", arbitro.haGanadoRey(), is(false)));
+		}
+
+		/**
+		 * Comprueba que no gana el atacante si la pieza movida no participa en el encierro del rey.
+		 */
+		@Test
+		@DisplayName("Comprueba que no hay victoria si el atacante movido no encierra al rey.")
+		void comprobarNoVictoriaSinParticipacionDeLaPiezaMovida() {
+			tablero.colocar(new Pieza(TipoPieza.REY), new Coordenada(1, 1));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(1, 0));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(1, 2));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(5, 5));
+
+			TableroBinario binario = tablero.obtenerTableroBinario();
+			assertAll("victorias sobre el tablero binario",
+					() -> assertThat("No debería ganar el atacante.",
+							Reglas.haGanadoAtacante(binario, TableroBinario.consultarIndice(5, 5)), is(false)),
+					() -> assertThat("Debería ganar el atacante.",
+							Reglas.haGanadoAtacante(binario, TableroBinario.consultarIndice(1, 2)), is(true)),
+					() -> assertThat("No debería ganar el defensor.",
+							Reglas.haGanadoRey(binario, TableroBinario.consultarIndice(1, 1)), is(false)));
+		}
+	}
+
+	/**
+	 * Generación de movimientos legales.
+	 */
+	@Nested
+	@DisplayName("Tests de la generación de movimientos legales.")
+	class GeneracionDeMovimientos {
+
+		/**
+		 * Devuelve los movimientos legales obtenidos probando todas las jugadas posibles con el árbitro.
+		 *
+		 * @return conjunto de movimientos codificados
+		 */
+		private Set<Integer> generarPorFuerzaBruta() {
+			Set<Integer> legales = new HashSet<>();
+			for (int origen = 0; origen < TableroBinario.NUMERO_CELDAS; origen++) {
+				for (int destino = 0; destino < TableroBinario.NUMERO_CELDAS; destino++) {
+					Coordenada coordenadaOrigen = TableroBinario.consultarCoordenada(origen);
+					Coordenada coordenadaDestino = TableroBinario.consultarCoordenada(destino);
+					if (arbitro.esMovimientoLegal(TestUtil.fabricarJugada(tablero, coordenadaOrigen.fila(),
+							coordenadaOrigen.columna(), coordenadaDestino.fila(), coordenadaDestino.columna()))) {
+						legales.add(JugadaCompacta.codificar(origen, destino));
+					}
+				}
+			}
+			return legales;
+		}
+
+		/**
+		 * Devuelve los movimientos legales generados por el árbitro.
+		 *
+		 * @return conjunto de movimientos codificados
+		 */
+		private Set<Integer> generarConArbitro() {
+			int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+			int numero = arbitro.generarMovimientosLegales(movimientos);
+			Set<Integer> generados = new HashSet<>();
+			for (int i = 0; i < numero; i++) {
+				generados.add(movimientos[i]);
+			}
+			assertThat("No deberían generarse movimientos repetidos.", generados.size(), is(numero));
+			return generados;
+		}
+
+		/**
+		 * Comprueba que los movimientos generados en la posición inicial coinciden con los legales para ambos jugadores.
+		 */
+		@Test
+		@DisplayName("Comprueba la generación de movimientos en la posición inicial.")
+		void comprobarGeneracionEnPosicionInicial() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			assertThat("Movimientos del atacante incorrectos.", generarConArbitro(), is(generarPorFuerzaBruta()));
+			arbitro.cambiarTurno();
+			assertThat("Movimientos del defensor incorrectos.", generarConArbitro(), is(generarPorFuerzaBruta()));
+		}
+
+		/**
+		 * Comprueba que solo el rey puede detenerse en trono y provincias aunque el resto de piezas atraviesen el trono.
+		 */
+		@Test
+		@DisplayName("Comprueba las restricciones de trono y provincias.")
+		void comprobarRestriccionesDeTronoYProvincias() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.DEFENSOR },
+					new int[][] { { 0, 1 }, { 3, 1 } }, Color.BLANCO);
+			Set<Integer> generados = generarConArbitro();
+			assertAll("restricciones de trono y provincias",
+					() -> assertThat("Destinos del rey incorrectos.",
+							Reglas.calcularDestinos(tablero.obtenerTableroBinario(), 1),
+							is((1L << 0) | (1L << 2) | (1L << 3) | (1L << 4) | (1L << 5) | (1L << 6) | (1L << 8)
+									| (1L << 15))),
+					() -> assertThat("El rey debería poder alcanzar la provincia.",
+							generados.contains(JugadaCompacta.codificar(1, 0)), is(true)),
+					() -> assertThat("El defensor no debería detenerse en el trono.",
+							generados.contains(JugadaCompacta.codificar(22, 24)), is(false)),
+					() -> assertThat("El defensor debería poder atravesar el trono.",
+							generados.contains(JugadaCompacta.codificar(22, 25)), is(true)),
+					() -> assertThat("Movimientos incorrectos.", generados, is(generarPorFuerzaBruta())));
+		}
+	}
+}
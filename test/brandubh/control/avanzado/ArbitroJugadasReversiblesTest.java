@@ -0,0 +1,132 @@
+package brandubh.control.avanzado;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.util.Color;
+import brandubh.util.Coordenada;
+import brandubh.util.TipoPieza;
+
+/**
+ * Comprobación de la aplicación y deshacer de jugadas reversibles.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests del Arbitro sobre jugadas reversibles.")
+@Timeout(value = 2, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class ArbitroJugadasReversiblesTest {
+
+	/** Árbitro de testing. */
+	private Arbitro arbitro;
+
+	/** Tablero de testing. */
+	private Tablero tablero;
+
+	/** Generación del árbitro para testing. */
+	@BeforeEach
+	void inicializar() {
+		tablero = new Tablero();
+		arbitro = new Arbitro(tablero);
+		arbitro.colocarPiezasConfiguracionInicial();
+	}
+
+	/**
+	 * Comprueba que aplicar una jugada con captura la registra y que deshacerla restaura la pieza capturada.
+	 */
+	@Test
+	@DisplayName("Comprueba aplicar y deshacer una jugada con captura.")
+	void comprobarJugadaConCaptura() {
+		arbitro.aplicarJugada(JugadaCompacta.desdeTexto("d1f1")); // atacante
+		int jugada = arbitro.aplicarJugada(JugadaCompacta.desdeTexto("e4e1")); // defensor, captura en f1
+		assertAll("jugada con captura",
+				() -> assertThat("Debería registrarse la captura.", JugadaCompacta.consultarCapturas(jugada),
+						is(1L << 47)),
+				() -> assertThat("Debería capturarse un atacante.", tablero.consultarNumeroPiezas(TipoPieza.ATACANTE), is(7)),
+				() -> assertThat("Turno incorrecto.", arbitro.consultarTurno(), is(Color.NEGRO)),
+				() -> assertThat("Número de jugada incorrecto.", arbitro.consultarNumeroJugada(), is(2)));
+
+		arbitro.deshacerJugada();
+		assertAll("jugada deshecha",
+				() -> assertThat("Debería restaurarse el atacante.", tablero.consultarNumeroPiezas(TipoPieza.ATACANTE), is(8)),
+				() -> assertThat("El atacante debería volver a f1.",
+						tablero.consultarCelda(new Coordenada(6, 5)).consultarPieza().consultarTipoPieza(),
+						is(TipoPieza.ATACANTE)),
+				() -> assertThat("El defensor debería volver a e4.",
+						tablero.consultarCelda(new Coordenada(3, 4)).estaVacia(), is(false)),
+				() -> assertThat("Turno incorrecto.", arbitro.consultarTurno(), is(Color.BLANCO)),
+				() -> assertThat("Número de jugada incorrecto.", arbitro.consultarNumeroJugada(), is(1)));
+	}
+
+	/**
+	 * Comprueba que tras una secuencia larga de jugadas aleatorias, deshacerlas todas devuelve la posición inicial.
+	 */
+	@Test
+	@DisplayName("Comprueba deshacer una secuencia larga de jugadas aleatorias.")
+	void comprobarSecuenciaAleatoria() {
+		Tablero inicial = tablero.clonar();
+		long claveInicial = arbitro.consultarClaveZobrist();
+		Random aleatorio = new Random(2023);
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		int aplicadas = 0;
+
+		for (int i = 0; i < 150; i++) {
+			int numero = arbitro.generarMovimientosLegales(movimientos);
+			if (numero == 0) {
+				break;
+			}
+			arbitro.aplicarJugada(movimientos[aleatorio.nextInt(numero)]);
+			aplicadas++;
+			if (arbitro.haGanadoAtacante() || arbitro.haGanadoRey()) {
+				break;
+			}
+		}
+		assertThat("Número de jugadas reversibles incorrecto.", arbitro.consultarJugadasReversibles(), is(aplicadas));
+
+		while (arbitro.consultarJugadasReversibles() > 0) {
+			arbitro.deshacerJugada();
+		}
+
+		assertAll("posición inicial restaurada",
+				() -> assertThat("El tablero debería coincidir con el inicial.", tablero, is(inicial)),
+				() -> assertThat("La clave Zobrist debería coincidir con la inicial.", arbitro.consultarClaveZobrist(),
+						is(claveInicial)),
+				() -> assertThat("Turno incorrecto.", arbitro.consultarTurno(), is(Color.NEGRO)),
+				() -> assertThat("Número de jugada incorrecto.", arbitro.consultarNumeroJugada(), is(0)));
+	}
+
+	/**
+	 * Comprueba que el clon del árbitro parte de la misma posición y turno y es independiente del original.
+	 */
+	@Test
+	@DisplayName("Comprueba la clonación del árbitro.")
+	void comprobarClonacion() {
+		arbitro.colocarPiezasConfiguracionInicial();
+		arbitro.aplicarJugada(JugadaCompacta.codificar(3, 2));
+		Arbitro clon = arbitro.clonar();
+
+		assertAll("clon del árbitro",
+				() -> assertThat("El tablero debería coincidir.", clon.consultarTablero(), is(tablero)),
+				() -> assertThat("La clave Zobrist debería coincidir.", clon.consultarClaveZobrist(),
+						is(arbitro.consultarClaveZobrist())),
+				() -> assertThat("Turno incorrecto.", clon.consultarTurno(), is(Color.BLANCO)),
+				() -> assertThat("No debería heredar jugadas reversibles.", clon.consultarJugadasReversibles(), is(0)));
+
+		clon.aplicarJugada(JugadaCompacta.codificar(17, 15));
+		assertThat("El original no debería verse afectado.", tablero.obtenerTableroBinario().estaVacia(17), is(false));
+	}
+}
@@ -0,0 +1,268 @@
+package brandubh.finales;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Simetria;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre la generación de las tablas de finales.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests del generador de tablas de finales.")
+@Timeout(value = 20, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class GeneradorFinalesTest {
+
+	/** Número máximo de piezas de las tablas de testing. */
+	private static final int PIEZAS = 3;
+
+	/** Tablas de testing, generadas una sola vez. */
+	private static GeneradorFinales generador;
+
+	/** Genera las tablas de testing. */
+	@BeforeAll
+	@Timeout(value = 60, unit = TimeUnit.SECONDS)
+	static void inicializar() {
+		generador = new GeneradorFinales(PIEZAS, 2);
+		generador.generar();
+	}
+
+	/**
+	 * Indexación perfecta de las posiciones.
+	 */
+	@Nested
+	@DisplayName("Tests de la indexación de las posiciones.")
+	class Indexacion {
+
+		/**
+		 * Comprueba que cada índice corresponde a una posición del material que vuelve a tener el mismo índice.
+		 */
+		@DisplayName("Comprueba que la indexación es biyectiva.")
+		@Test
+		void comprobarBiyeccion() {
+			for (MaterialFinal material : new MaterialFinal[] { new MaterialFinal(0, 0), new MaterialFinal(2, 0),
+					new MaterialFinal(1, 1), new MaterialFinal(0, 2) }) {
+				TableroBinario tablero = new TableroBinario();
+				for (long indice = 0; indice < material.consultarNumeroPosiciones(); indice++) {
+					tablero.copiar(new TableroBinario());
+					Color turno = material.colocar(indice, tablero);
+					assertThat("Material incorrecto en " + material + " " + indice + ".", material.contiene(tablero),
+							is(true));
+					assertThat("Índice incorrecto en " + material + ".", material.indexar(tablero, turno), is(indice));
+				}
+			}
+		}
+
+		/**
+		 * Comprueba el número de posiciones de un material.
+		 */
+		@DisplayName("Comprueba el número de posiciones.")
+		@Test
+		void comprobarNumeroPosiciones() {
+			// Ocho celdas del octante con 43 celdas libres y el trono con 44, por dos turnos
+			assertAll("número de posiciones",
+					() -> assertThat(new MaterialFinal(0, 0).consultarNumeroPosiciones(), is(18L)),
+					() -> assertThat(new MaterialFinal(1, 0).consultarNumeroPosiciones(), is((8L * 43 + 44) * 2)),
+					() -> assertThat(new MaterialFinal(2, 1).consultarNumeroPosiciones(),
+							is((8L * 903 * 41 + 946 * 42) * 2)),
+					() -> assertThrows(IllegalArgumentException.class, () -> new MaterialFinal(-1, 0)));
+		}
+
+		/**
+		 * Comprueba que las posiciones simétricas tienen el mismo valor, y el mismo índice salvo con el rey sobre un 
+		 * eje de simetría del octante.
+		 */
+		@DisplayName("Comprueba que las posiciones simétricas comparten valor.")
+		@Test
+		void comprobarSimetrias() {
+			MaterialFinal material = new MaterialFinal(1, 1);
+			SplittableRandom aleatorio = new SplittableRandom(7);
+			for (int i = 0; i < 500; i++) {
+				long indice = aleatorio.nextLong(material.consultarNumeroPosiciones());
+				TableroBinario tablero = new TableroBinario();
+				Color turno = material.colocar(indice, tablero);
+				int fila = tablero.consultarIndiceRey() / TableroBinario.NUMERO_COLUMNAS;
+				int columna = tablero.consultarIndiceRey() % TableroBinario.NUMERO_COLUMNAS;
+				boolean eje = fila == columna || columna == 3;
+				for (Simetria simetria : Simetria.values()) {
+					TableroBinario imagen = new TableroBinario();
+					simetria.transformar(tablero, imagen);
+					assertThat("Valor de la imagen por " + simetria + " incorrecto.",
+							generador.consultarValor(imagen, turno), is(generador.consultarValor(tablero, turno)));
+					if (!eje) {
+						assertThat("Índice de la imagen por " + simetria + " incorrecto.",
+								material.indexar(imagen, turno), is(indice));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Valores de las tablas.
+	 */
+	@Nested
+	@DisplayName("Tests de los valores de las tablas.")
+	class Valores {
+
+		/**
+		 * Comprueba que el valor de cada posición es coherente con los de las posiciones que siguen a sus jugadas, lo 
+		 * que verifica las tablas completas.
+		 */
+		@DisplayName("Comprueba la coherencia de todas las posiciones.")
+		@Test
+		void comprobarCoherencia() {
+			int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+			for (MaterialFinal material : generador.consultarMateriales()) {
+				byte[] tabla = generador.consultarValores(material.consultarAtacantes(), material.consultarDefensores());
+				for (int indice = 0; indice < tabla.length; indice++) {
+					TableroBinario tablero = new TableroBinario();
+					Color turno = material.colocar(indice, tablero);
+					int numero = Reglas.generarMovimientos(tablero, turno, movimientos);
+					// Mejor resultado alcanzable: distancia de victoria mínima, o de derrota máxima
+					int victoria = Integer.MAX_VALUE;
+					int derrota = numero == 0 ? 0 : -1;
+					boolean tablas = false;
+					for (int i = 0; i < numero; i++) {
+						TableroBinario siguiente = tablero.clonar();
+						int destino = JugadaCompacta.consultarDestino(Reglas.aplicarJugada(siguiente, movimientos[i]));
+						if (Reglas.haGanadoRey(siguiente, destino) || Reglas.haGanadoAtacante(siguiente, destino)) {
+							victoria = 1;
+							continue;
+						}
+						byte valor = generador.consultarValor(siguiente, turno.consultarContrario());
+						if (FormatoFinales.esDerrota(valor)) {
+							victoria = Math.min(victoria, FormatoFinales.consultarDistancia(valor) + 1);
+						} else if (FormatoFinales.esVictoria(valor)) {
+							derrota = Math.max(derrota, FormatoFinales.consultarDistancia(valor) + 1);
+						} else {
+							tablas = true;
+						}
+					}
+					byte esperado = victoria != Integer.MAX_VALUE ? FormatoFinales.codificar(victoria)
+							: tablas ? FormatoFinales.TABLAS : FormatoFinales.codificar(derrota);
+					assertThat("Valor incorrecto en " + material + " " + indice + ".", tabla[indice], is(esperado));
+				}
+			}
+		}
+
+		/**
+		 * Comprueba los valores de posiciones concretas.
+		 */
+		@DisplayName("Comprueba posiciones concretas.")
+		@Test
+		void comprobarPosiciones() {
+			TableroBinario rey = new TableroBinario();
+			rey.colocar(TableroBinario.consultarIndice(0, 1), TipoPieza.REY);
+			TableroBinario encerrado = new TableroBinario();
+			encerrado.colocar(TableroBinario.consultarIndice(2, 2), TipoPieza.REY);
+			encerrado.colocar(TableroBinario.consultarIndice(2, 1), TipoPieza.ATACANTE);
+			encerrado.colocar(TableroBinario.consultarIndice(4, 3), TipoPieza.ATACANTE);
+			assertAll("posiciones concretas",
+					() -> assertThat("El rey junto a una provincia gana en una jugada.",
+							generador.consultarValor(rey, Color.BLANCO), is(FormatoFinales.codificar(1))),
+					() -> assertThat("El atacante sin piezas pierde sin mover.",
+							generador.consultarValor(rey, Color.NEGRO), is(FormatoFinales.codificar(0))),
+					() -> assertThat("El atacante captura al rey en una jugada.",
+							generador.consultarValor(encerrado, Color.NEGRO), is(FormatoFinales.codificar(1))),
+					() -> assertThrows(IllegalArgumentException.class,
+							() -> generador.consultarValor(crearInicial(), Color.NEGRO)));
+		}
+
+		/**
+		 * Comprueba que la generación con un solo hilo produce las mismas tablas.
+		 */
+		@DisplayName("Comprueba que el resultado no depende del número de hilos.")
+		@Test
+		void comprobarHilos() {
+			GeneradorFinales secuencial = new GeneradorFinales(PIEZAS, 1);
+			secuencial.generar();
+			for (MaterialFinal material : generador.consultarMateriales()) {
+				assertArrayEquals(generador.consultarValores(material.consultarAtacantes(), material.consultarDefensores()),
+						secuencial.consultarValores(material.consultarAtacantes(), material.consultarDefensores()),
+						"Tabla de " + material + " distinta.");
+			}
+		}
+	}
+
+	/**
+	 * Ficheros de las tablas.
+	 */
+	@Nested
+	@DisplayName("Tests de los ficheros de las tablas.")
+	class Ficheros {
+
+		/** Directorio temporal de testing. */
+		@TempDir
+		Path directorio;
+
+		/**
+		 * Comprueba que las tablas escritas se leen sin cambios.
+		 *
+		 * @throws IOException si falla el acceso a los ficheros
+		 */
+		@DisplayName("Comprueba la escritura y lectura de las tablas.")
+		@Test
+		void comprobarEscrituraYLectura() throws IOException {
+			generador.escribir(directorio);
+			for (MaterialFinal material : generador.consultarMateriales()) {
+				assertArrayEquals(generador.consultarValores(material.consultarAtacantes(), material.consultarDefensores()),
+						FormatoFinales.leer(directorio.resolve(FormatoFinales.consultarNombreFichero(material)), material),
+						"Tabla de " + material + " distinta.");
+			}
+			assertThrows(IOException.class, () -> FormatoFinales.leer(directorio.resolve("A1D1.fin"),
+					new MaterialFinal(2, 0)), "Debería rechazarse una tabla de otro material.");
+		}
+
+		/**
+		 * Comprueba la codificación de los valores.
+		 */
+		@DisplayName("Comprueba la codificación de los valores.")
+		@Test
+		void comprobarValores() {
+			assertAll("codificación de los valores",
+					() -> assertThat(FormatoFinales.esVictoria(FormatoFinales.codificar(3)), is(true)),
+					() -> assertThat(FormatoFinales.esDerrota(FormatoFinales.codificar(4)), is(true)),
+					() -> assertThat(FormatoFinales.esDerrota(FormatoFinales.TABLAS), is(false)),
+					() -> assertThat(FormatoFinales.consultarDistancia(FormatoFinales.codificar(254)), is(254)),
+					() -> assertThat(FormatoFinales.consultarDistancia(FormatoFinales.TABLAS), is(-1)),
+					() -> assertThrows(IllegalArgumentException.class, () -> FormatoFinales.codificar(255)));
+		}
+	}
+
+	/**
+	 * Devuelve el tablero binario con la configuración inicial.
+	 *
+	 * @return Tablero binario con la configuración inicial.
+	 */
+	private static TableroBinario crearInicial() {
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+		return arbitro.obtenerTableroBinario().clonar();
+	}
+}
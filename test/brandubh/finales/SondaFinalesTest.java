@@ -0,0 +1,137 @@
+package brandubh.finales;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre la consulta de las tablas de finales.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la consulta de tablas de finales.")
+@Timeout(value = 20, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class SondaFinalesTest {
+
+	/** Directorio temporal de testing. */
+	@TempDir
+	static Path directorio;
+
+	/** Tablas de testing, generadas una sola vez. */
+	private static GeneradorFinales generador;
+
+	/**
+	 * Genera y escribe las tablas de testing.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@BeforeAll
+	@Timeout(value = 60, unit = TimeUnit.SECONDS)
+	static void inicializar() throws IOException {
+		generador = new GeneradorFinales(3, 2);
+		generador.generar();
+		generador.escribir(directorio);
+	}
+
+	/**
+	 * Comprueba que la consulta devuelve los valores generados para todas las posiciones.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba los valores consultados.")
+	void comprobarValores() throws IOException {
+		try (SondaFinales sonda = new SondaFinales(directorio, 4)) {
+			assertThat("Número máximo de piezas incorrecto.", sonda.consultarMaximoPiezas(), is(3));
+			for (MaterialFinal material : generador.consultarMateriales()) {
+				byte[] tabla = generador.consultarValores(material.consultarAtacantes(), material.consultarDefensores());
+				for (int indice = 0; indice < tabla.length; indice++) {
+					TableroBinario tablero = new TableroBinario();
+					Color turno = material.colocar(indice, tablero);
+					assertThat("Valor incorrecto en " + material + " " + indice + ".", sonda.sondear(tablero, turno),
+							is(tabla[indice] & 0xFF));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Comprueba el resultado de la posición de un árbitro y las posiciones sin tabla.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba los resultados y las posiciones sin tabla.")
+	void comprobarResultados() throws IOException {
+		try (SondaFinales sonda = new SondaFinales(directorio)) {
+			Arbitro huida = new Arbitro(new Tablero());
+			huida.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE },
+					new int[][] { { 1, 0 }, { 5, 5 } }, Color.BLANCO);
+			Arbitro inicial = new Arbitro(new Tablero());
+			inicial.colocarPiezasConfiguracionInicial();
+			Arbitro grande = new Arbitro(new Tablero());
+			grande.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE, TipoPieza.ATACANTE,
+					TipoPieza.ATACANTE }, new int[][] { { 3, 3 }, { 5, 5 }, { 1, 1 }, { 1, 5 } }, Color.NEGRO);
+			assertAll("resultados",
+					() -> assertThat("El rey debería ganar en una jugada.", sonda.sondear(huida),
+							is(new ResultadoFinal(Color.BLANCO, 1))),
+					() -> assertThat("La configuración inicial no tiene tabla.", sonda.sondear(inicial),
+							is(nullValue())),
+					() -> assertThat("Las tablas de cuatro piezas no están disponibles.", sonda.sondear(grande),
+							is(nullValue())),
+					() -> assertThat("No debería haber tablas de cuatro piezas.", sonda.estaDisponible(3, 0),
+							is(false)));
+		}
+	}
+
+	/**
+	 * Comprueba la caché de bloques y las tablas ausentes.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba la caché de bloques y las tablas ausentes.")
+	void comprobarCache() throws IOException {
+		Path parcial = directorio.resolve("parcial");
+		Files.createDirectories(parcial);
+		Files.copy(directorio.resolve("A1D0.fin"), parcial.resolve("A1D0.fin"));
+		Files.copy(directorio.resolve("A0D1.fin"), parcial.resolve("A0D1.fin"));
+		TableroBinario atacante = new TableroBinario();
+		new MaterialFinal(1, 0).colocar(0, atacante);
+		TableroBinario defensor = new TableroBinario();
+		new MaterialFinal(0, 1).colocar(0, defensor);
+		TableroBinario solo = new TableroBinario();
+		new MaterialFinal(0, 0).colocar(0, solo);
+		try (SondaFinales sonda = new SondaFinales(parcial, 1)) {
+			sonda.sondear(atacante, Color.NEGRO);
+			sonda.sondear(atacante, Color.BLANCO);
+			sonda.sondear(defensor, Color.NEGRO);
+			sonda.sondear(atacante, Color.NEGRO);
+			assertAll("caché",
+					() -> assertThat("Aciertos incorrectos.", sonda.consultarAciertosCache(), is(1L)),
+					() -> assertThat("Fallos incorrectos.", sonda.consultarFallosCache(), is(3L)),
+					() -> assertThat("La tabla del rey solo no está disponible.", sonda.sondear(solo, Color.BLANCO),
+							is(SondaFinales.SIN_TABLA)));
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package brandubh.granja;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.motor.EvaluadorBasico;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre la granja de partidas y sus jugadores.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la granja de partidas.")
+@Timeout(value = 20, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class GranjaPartidasTest {
+
+	/**
+	 * Tests de los jugadores.
+	 */
+	@Nested
+	@DisplayName("Tests de los jugadores.")
+	class Jugadores {
+
+		/**
+		 * Comprueba que el jugador voraz elige la victoria inmediata y la captura frente al resto de jugadas.
+		 */
+		@Test
+		@DisplayName("Comprueba las elecciones del jugador voraz.")
+		void comprobarJugadorVoraz() {
+			Arbitro arbitro = new Arbitro(new Tablero());
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE },
+					new int[][] { { 0, 3 }, { 5, 5 } }, Color.BLANCO);
+			Arbitro captura = new Arbitro(new Tablero());
+			captura.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.DEFENSOR, TipoPieza.DEFENSOR,
+					TipoPieza.ATACANTE }, new int[][] { { 3, 3 }, { 1, 0 }, { 5, 0 }, { 4, 0 } }, Color.BLANCO);
+			int huida = new JugadorVoraz(1).elegirJugada(arbitro);
+			assertAll("jugador voraz",
+					() -> assertThat("Debería huir por una esquina.",
+							(TableroBinario.PROVINCIA & (1L << JugadaCompacta.consultarDestino(huida))) != 0, is(true)),
+					() -> assertThat("Debería capturar al atacante.", new JugadorVoraz(1).elegirJugada(captura),
+							is(JugadaCompacta.codificar(7, 21))));
+		}
+
+		/**
+		 * Comprueba que los jugadores devuelven jugadas legales, dejan el árbitro intacto y reconocen la falta de 
+		 * jugadas.
+		 */
+		@Test
+		@DisplayName("Comprueba la legalidad de las jugadas de todos los jugadores.")
+		void comprobarJugadasLegales() {
+			Arbitro arbitro = new Arbitro(new Tablero());
+			arbitro.colocarPiezasConfiguracionInicial();
+			TableroBinario antes = arbitro.obtenerTableroBinario().clonar();
+			int[] movimientos = new int[192];
+			int numero = arbitro.generarMovimientosLegales(movimientos);
+			for (Jugador jugador : new Jugador[] { new JugadorAleatorio(3), new JugadorVoraz(3),
+					new JugadorMotor(new EvaluadorBasico(), 2, 0) }) {
+				int jugada = jugador.elegirJugada(arbitro);
+				boolean legal = false;
+				for (int i = 0; i < numero; i++) {
+					legal |= movimientos[i] == jugada;
+				}
+				assertThat("Jugada ilegal de " + jugador.getClass().getSimpleName(), legal, is(true));
+				assertThat("El árbitro no se ha restaurado.", arbitro.obtenerTableroBinario(), is(antes));
+			}
+			Arbitro bloqueado = new Arbitro(new Tablero());
+			bloqueado.colocarPiezas(new TipoPieza[] { TipoPieza.REY }, new int[][] { { 3, 3 } }, Color.NEGRO);
+			assertAll("sin jugadas",
+					() -> assertThat("El aleatorio debería devolver NINGUNA.",
+							new JugadorAleatorio(3).elegirJugada(bloqueado), is(JugadaCompacta.NINGUNA)),
+					() -> assertThat("El voraz debería devolver NINGUNA.", new JugadorVoraz(3).elegirJugada(bloqueado),
+							is(JugadaCompacta.NINGUNA)));
+		}
+	}
+
+	/**
+	 * Tests de las tandas de partidas.
+	 */
+	@Nested
+	@DisplayName("Tests de las tandas de partidas.")
+	class Tandas {
+
+		/**
+		 * Comprueba que los resultados de cada partida no dependen del número de hilos.
+		 */
+		@Test
+		@DisplayName("Comprueba que los resultados no dependen del número de hilos.")
+		void comprobarIndependenciaDeHilos() {
+			Map<Long, ResultadoPartida> uno = new ConcurrentHashMap<>();
+			Map<Long, ResultadoPartida> tres = new ConcurrentHashMap<>();
+			EstadisticasGranja estadisticasUno;
+			EstadisticasGranja estadisticasTres;
+			try (GranjaPartidas granja = new GranjaPartidas(JugadorVoraz::new, JugadorAleatorio::new, 1, 2)) {
+				estadisticasUno = granja.jugar(60, 42, resultado -> uno.put(resultado.numero(), resultado));
+			}
+			try (GranjaPartidas granja = new GranjaPartidas(JugadorVoraz::new, JugadorAleatorio::new, 3, 2)) {
+				estadisticasTres = granja.jugar(60, 42, resultado -> tres.put(resultado.numero(), resultado));
+			}
+			assertAll("independencia del número de hilos",
+					() -> assertThat("Número de partidas incorrecto.", uno.size(), is(60)),
+					() -> assertThat("Los resultados deberían coincidir.", tres, is(uno)),
+					() -> assertThat("Las victorias deberían coincidir.", estadisticasTres.consultarVictorias(Color.NEGRO),
+							is(estadisticasUno.consultarVictorias(Color.NEGRO))),
+					() -> assertThat("La duración media debería coincidir.", estadisticasTres.consultarDuracionMedia(),
+							is(estadisticasUno.consultarDuracionMedia())));
+		}
+
+		/**
+		 * Comprueba que las partidas registradas se reproducen con el árbitro hasta el mismo final y que las
+		 * estadísticas son coherentes con ellas.
+		 */
+		@Test
+		@DisplayName("Comprueba la reproducción de las partidas y las estadísticas.")
+		void comprobarReproduccionYEstadisticas() {
+			Map<Long, ResultadoPartida> resultados = new ConcurrentHashMap<>();
+			EstadisticasGranja estadisticas;
+			try (GranjaPartidas granja = new GranjaPartidas(JugadorAleatorio::new, JugadorVoraz::new, 2, 0)) {
+				estadisticas = granja.jugar(50, 7, resultado -> resultados.put(resultado.numero(), resultado));
+			}
+			long duraciones = 0;
+			for (int jugadas = 0; jugadas <= GranjaPartidas.MAXIMO_JUGADAS; jugadas++) {
+				duraciones += estadisticas.consultarPartidasConDuracion(jugadas);
+			}
+			for (ResultadoPartida resultado : resultados.values()) {
+				assertThat("Partida mal reproducida: " + resultado, reproducir(resultado), is(resultado.ganador()));
+			}
+			long sumaDuraciones = duraciones;
+			assertAll("estadísticas",
+					() -> assertThat("Número de partidas incorrecto.", estadisticas.consultarPartidas(), is(50L)),
+					() -> assertThat("Histograma de duraciones incorrecto.", sumaDuraciones, is(50L)),
+					() -> assertThat("Las tasas deberían sumar uno.", Math.round(1000 * (estadisticas.consultarTasaVictorias(
+							Color.NEGRO) + estadisticas.consultarTasaVictorias(Color.BLANCO)
+							+ estadisticas.consultarTasaVictorias(null))), is(1000L)),
+					() -> assertThat("El voraz debería ganar más que el aleatorio.",
+							estadisticas.consultarVictorias(Color.BLANCO) > estadisticas.consultarVictorias(Color.NEGRO),
+							is(true)),
+					() -> assertThat("Percentiles desordenados.", estadisticas.consultarPercentilDuracion(50)
+							<= estadisticas.consultarPercentilDuracion(90), is(true)));
+		}
+
+		/**
+		 * Comprueba que una jugada ilegal de un jugador hace fallar la tanda.
+		 */
+		@Test
+		@DisplayName("Comprueba que se rechazan las jugadas ilegales.")
+		void comprobarJugadaIlegal() {
+			try (GranjaPartidas granja = new GranjaPartidas(semilla -> arbitro -> JugadaCompacta.codificar(0, 1),
+					JugadorAleatorio::new, 2, 0)) {
+				assertThrows(IllegalStateException.class, () -> granja.jugar(4, 1));
+			}
+		}
+
+		/**
+		 * Reproduce una partida con el árbitro comprobando la legalidad de cada jugada.
+		 *
+		 * @param resultado Resultado de la partida.
+		 * @return Color del ganador según el árbitro (también cuando el jugador con el turno se queda sin jugadas) o 
+		 * {@code null} si la partida no ha terminado.
+		 */
+		private Color reproducir(ResultadoPartida resultado) {
+			Arbitro arbitro = new Arbitro(new Tablero());
+			arbitro.colocarPiezasConfiguracionInicial();
+			int[] movimientos = new int[192];
+			for (int jugada : resultado.jugadas()) {
+				int numero = arbitro.generarMovimientosLegales(movimientos);
+				boolean legal = false;
+				for (int i = 0; i < numero; i++) {
+					legal |= movimientos[i] == JugadaCompacta.consultarSinCapturas(jugada);
+				}
+				assertThat("Jugada ilegal en la partida " + resultado.numero(), legal, is(true));
+				Color turno = arbitro.consultarTurno();
+				assertThat("Capturas incorrectas.", arbitro.aplicarJugada(jugada), is(jugada));
+				if (arbitro.haGanadoRey() || arbitro.haGanadoAtacante()) {
+					return turno;
+				}
+			}
+			return arbitro.generarMovimientosLegales(movimientos) == 0 ? arbitro.consultarTurno().consultarContrario()
+					: null;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package brandubh.modelo;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import brandubh.util.Coordenada;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre la codificación compacta de jugadas.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ *
+ */
+@DisplayName("Tests sobre JugadaCompacta (depende de implementaciones reales de Celda, Jugada y Tablero).")
+@Timeout(value = 1, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class JugadaCompactaTest {
+
+	/**
+	 * Comprueba la codificación y decodificación de origen y destino.
+	 */
+	@DisplayName("Comprueba la codificación de origen y destino.")
+	@Test
+	void comprobarCodificacion() {
+		int jugada = JugadaCompacta.codificar(48, 6);
+		assertAll("codificación de origen y destino",
+				() -> assertThat("Origen incorrecto.", JugadaCompacta.consultarOrigen(jugada), is(48)),
+				() -> assertThat("Destino incorrecto.", JugadaCompacta.consultarDestino(jugada), is(6)),
+				() -> assertThat("No debería tener capturas.", JugadaCompacta.consultarCapturas(jugada), is(0L)));
+	}
+
+	/**
+	 * Comprueba que las capturas contiguas al destino se conservan, también al almacenar la jugada como short.
+	 */
+	@DisplayName("Comprueba la codificación de capturas y su almacenamiento en short.")
+	@Test
+	void comprobarCodificacionDeCapturas() {
+		long capturas = (1L << 17) | (1L << 23) | (1L << 31);
+		int jugada = JugadaCompacta.codificar(3, 24, capturas);
+		int recuperada = JugadaCompacta.desdeShort(JugadaCompacta.aShort(jugada));
+		assertAll("codificación de capturas",
+				() -> assertThat("Jugada recuperada incorrecta.", recuperada, is(jugada)),
+				() -> assertThat("Capturas incorrectas.", JugadaCompacta.consultarCapturas(recuperada), is(capturas)),
+				() -> assertThat("Jugada sin capturas incorrecta.", JugadaCompacta.consultarSinCapturas(recuperada),
+						is(JugadaCompacta.codificar(3, 24))));
+	}
+
+	/**
+	 * Comprueba la conversión a notación algebraica y de vuelta.
+	 *
+	 * @param texto jugada en notación algebraica
+	 */
+	@DisplayName("Comprueba la conversión reversible con notación algebraica.")
+	@ParameterizedTest
+	@ValueSource(strings = { "a7a1", "d1d3", "g4e4", "c5c2" })
+	void comprobarConversionConTexto(String texto) {
+		assertThat("Conversión a texto incorrecta.", JugadaCompacta.aTexto(JugadaCompacta.desdeTexto(texto)), is(texto));
+	}
+
+	/**
+	 * Comprueba que los textos incorrectos no se codifican.
+	 *
+	 * @param texto texto incorrecto
+	 */
+	@DisplayName("Comprueba que los textos incorrectos no se codifican.")
+	@ParameterizedTest
+	@ValueSource(strings = { "", "a7", "h1a1", "a0a1", "a1a1a" })
+	void comprobarTextosIncorrectos(String texto) {
+		assertThat("Debería devolver NINGUNA.", JugadaCompacta.desdeTexto(texto), is(JugadaCompacta.NINGUNA));
+	}
+
+	/**
+	 * Comprueba la conversión reversible con objetos de tipo Jugada.
+	 */
+	@DisplayName("Comprueba la conversión reversible con objetos Jugada.")
+	@Test
+	void comprobarConversionConJugada() {
+		Tablero tablero = new Tablero();
+		tablero.colocar(new Pieza(TipoPieza.REY), new Coordenada(3, 3));
+		int codificada = JugadaCompacta.desdeTexto("d4d7");
+		Jugada jugada = JugadaCompacta.aJugada(codificada, tablero);
+		assertAll("conversión con Jugada",
+				() -> assertThat("Origen incorrecto.", jugada.origen().consultarCoordenada(), is(new Coordenada(3, 3))),
+				() -> assertThat("Pieza de origen incorrecta.", jugada.origen().consultarPieza().consultarTipoPieza(),
+						is(TipoPieza.REY)),
+				() -> assertThat("Destino incorrecto.", jugada.destino().consultarCoordenada(), is(new Coordenada(0, 3))),
+				() -> assertThat("Codificación incorrecta.", JugadaCompacta.desdeJugada(jugada), is(codificada)));
+	}
+}
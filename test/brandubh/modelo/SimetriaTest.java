@@ -0,0 +1,269 @@
+package brandubh.modelo;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.util.Color;
+import brandubh.util.Coordenada;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre las simetrías del tablero.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ *
+ */
+@DisplayName("Tests sobre Simetria (depende de implementaciones reales de Tablero, TableroBinario y Reglas)")
+@Timeout(value = 2, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class SimetriaTest {
+
+	/** Número de posiciones aleatorias comprobadas. */
+	private static final int POSICIONES = 200;
+
+	/**
+	 * Transformación de celdas y posiciones.
+	 */
+	@Nested
+	@DisplayName("Tests de transformación de celdas y posiciones.")
+	class Transformacion {
+
+		/**
+		 * Comprueba que cada simetría es una permutación de las celdas que deshace su inversa.
+		 *
+		 * @param simetria simetría
+		 */
+		@DisplayName("Comprueba que la simetría inversa deshace la transformación.")
+		@ParameterizedTest
+		@EnumSource(Simetria.class)
+		void comprobarInversa(Simetria simetria) {
+			boolean[] imagenes = new boolean[TableroBinario.NUMERO_CELDAS];
+			for (int i = 0; i < TableroBinario.NUMERO_CELDAS; i++) {
+				int indice = i;
+				int imagen = simetria.transformar(indice);
+				imagenes[imagen] = true;
+				assertAll("celda " + indice,
+						() -> assertThat("La inversa no deshace la transformación.",
+								simetria.consultarInversa().transformar(imagen), is(indice)),
+						() -> assertThat("El tipo de celda debería conservarse.", TableroBinario.consultarTipoCelda(imagen),
+								is(TableroBinario.consultarTipoCelda(indice))),
+						() -> assertThat("Coordenada imagen incorrecta.",
+								simetria.transformar(TableroBinario.consultarCoordenada(indice)),
+								is(TableroBinario.consultarCoordenada(imagen))));
+			}
+			assertAll("permutación",
+					() -> assertThat("Debería alcanzarse cada celda.", Arrays.equals(imagenes, llenas()), is(true)),
+					() -> assertThat("Máscara imagen incorrecta.", simetria.transformarMascara(TableroBinario.PROVINCIA),
+							is(TableroBinario.PROVINCIA)));
+		}
+
+		/**
+		 * Comprueba las imágenes de una celda concreta.
+		 */
+		@DisplayName("Comprueba las imágenes de la celda b1.")
+		@Test
+		void comprobarImagenes() {
+			Coordenada celda = new Coordenada(6, 1);
+			assertAll("imágenes de b1",
+					() -> assertThat(Simetria.IDENTIDAD.transformar(celda), is(new Coordenada(6, 1))),
+					() -> assertThat(Simetria.GIRO_90.transformar(celda), is(new Coordenada(1, 0))),
+					() -> assertThat(Simetria.GIRO_180.transformar(celda), is(new Coordenada(0, 5))),
+					() -> assertThat(Simetria.GIRO_270.transformar(celda), is(new Coordenada(5, 6))),
+					() -> assertThat(Simetria.REFLEJO_HORIZONTAL.transformar(celda), is(new Coordenada(6, 5))),
+					() -> assertThat(Simetria.REFLEJO_VERTICAL.transformar(celda), is(new Coordenada(0, 1))),
+					() -> assertThat(Simetria.REFLEJO_DIAGONAL.transformar(celda), is(new Coordenada(1, 6))),
+					() -> assertThat(Simetria.REFLEJO_ANTIDIAGONAL.transformar(celda), is(new Coordenada(5, 0))));
+		}
+
+		/**
+		 * Comprueba que la configuración inicial es invariante frente a todas las simetrías.
+		 *
+		 * @param simetria simetría
+		 */
+		@DisplayName("Comprueba que la configuración inicial es simétrica.")
+		@ParameterizedTest
+		@EnumSource(Simetria.class)
+		void comprobarConfiguracionInicial(Simetria simetria) {
+			TableroBinario inicial = crearInicial();
+			TableroBinario imagen = new TableroBinario();
+			simetria.transformar(inicial, imagen);
+			assertAll("configuración inicial",
+					() -> assertEquals(inicial, imagen, "La imagen debería coincidir con la configuración inicial."),
+					() -> assertThat("La clave debería conservarse.", simetria.consultarClave(inicial),
+							is(inicial.consultarClave())),
+					() -> assertThat("La clave canónica debería ser la propia.",
+							Simetria.consultarClaveCanonica(inicial, Color.NEGRO),
+							is(inicial.consultarClave() ^ ClavesZobrist.consultarClaveTurno(Color.NEGRO))),
+					() -> assertThat("La simetría canónica debería ser la identidad.",
+							Simetria.consultarCanonica(inicial), is(Simetria.IDENTIDAD)));
+		}
+
+		/**
+		 * Comprueba que la transformación del tablero de celdas coincide con la del tablero binario.
+		 */
+		@DisplayName("Comprueba la transformación del tablero de celdas.")
+		@Test
+		void comprobarTablero() {
+			Tablero tablero = new Tablero();
+			tablero.colocar(new Pieza(TipoPieza.REY), new Coordenada(2, 3));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(0, 1));
+			tablero.colocar(new Pieza(TipoPieza.DEFENSOR), new Coordenada(5, 4));
+			for (Simetria simetria : Simetria.values()) {
+				TableroBinario imagen = new TableroBinario();
+				simetria.transformar(tablero.obtenerTableroBinario(), imagen);
+				assertEquals(imagen, simetria.transformar(tablero).obtenerTableroBinario(),
+						"Imagen del tablero incorrecta para " + simetria + ".");
+			}
+		}
+	}
+
+	/**
+	 * Claves canónicas.
+	 */
+	@Nested
+	@DisplayName("Tests de claves canónicas.")
+	class ClavesCanonicas {
+
+		/**
+		 * Comprueba que la clave de la imagen calculada sin construirla coincide con la de la imagen construida y que 
+		 * todas las imágenes comparten clave canónica.
+		 */
+		@DisplayName("Comprueba que las posiciones simétricas comparten clave canónica.")
+		@Test
+		void comprobarClavesCanonicas() {
+			for (TableroBinario posicion : generarPosiciones(1)) {
+				long canonica = Simetria.consultarClaveCanonica(posicion, Color.BLANCO);
+				long menor = -1L;
+				for (Simetria simetria : Simetria.values()) {
+					TableroBinario imagen = new TableroBinario();
+					simetria.transformar(posicion, imagen);
+					assertAll("imagen por " + simetria,
+							() -> assertThat("Clave de la imagen incorrecta.", simetria.consultarClave(posicion),
+									is(imagen.consultarClave())),
+							() -> assertThat("Clave canónica distinta.", Simetria.consultarClaveCanonica(imagen, Color.BLANCO),
+									is(canonica)));
+					if (Long.compareUnsigned(imagen.consultarClave(), menor) < 0) {
+						menor = imagen.consultarClave();
+					}
+				}
+				Simetria simetria = Simetria.consultarCanonica(posicion);
+				long minima = menor;
+				assertAll("posición canónica",
+						() -> assertThat("La simetría canónica no lleva a la clave canónica.",
+								simetria.consultarClave(posicion) ^ ClavesZobrist.consultarClaveTurno(Color.BLANCO),
+								is(canonica)),
+						() -> assertThat("La clave canónica debería ser la menor.", canonica,
+								is(minima ^ ClavesZobrist.consultarClaveTurno(Color.BLANCO))));
+			}
+		}
+	}
+
+	/**
+	 * Transformación de jugadas.
+	 */
+	@Nested
+	@DisplayName("Tests de transformación de jugadas.")
+	class Jugadas {
+
+		/**
+		 * Comprueba que la imagen de los movimientos legales de una posición son los movimientos legales de su imagen y 
+		 * que las capturas se transforman igual que las aplicadas por las reglas.
+		 *
+		 * @param simetria simetría
+		 */
+		@DisplayName("Comprueba que las jugadas legales se transforman en jugadas legales.")
+		@ParameterizedTest
+		@EnumSource(Simetria.class)
+		void comprobarJugadasLegales(Simetria simetria) {
+			int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+			int[] movimientosImagen = new int[Reglas.MAXIMO_MOVIMIENTOS];
+			for (TableroBinario posicion : generarPosiciones(2)) {
+				TableroBinario imagen = new TableroBinario();
+				simetria.transformar(posicion, imagen);
+				int numero = Reglas.generarMovimientos(posicion, Color.NEGRO, movimientos);
+				int numeroImagen = Reglas.generarMovimientos(imagen, Color.NEGRO, movimientosImagen);
+				assertThat("Número de movimientos distinto.", numeroImagen, is(numero));
+				for (int i = 0; i < numero; i++) {
+					movimientos[i] = simetria.transformarJugada(movimientos[i]);
+				}
+				Arrays.sort(movimientos, 0, numero);
+				Arrays.sort(movimientosImagen, 0, numero);
+				assertThat("Movimientos distintos.", Arrays.equals(movimientos, 0, numero, movimientosImagen, 0, numero),
+						is(true));
+				for (int i = 0; i < numero; i++) {
+					int jugada = simetria.consultarInversa().transformarJugada(movimientos[i]);
+					int conCapturas = Reglas.aplicarJugada(posicion.clonar(), jugada);
+					assertThat("Capturas transformadas incorrectas.", simetria.transformarJugada(conCapturas),
+							is(Reglas.aplicarJugada(imagen.clonar(), movimientos[i])));
+				}
+			}
+			assertThat("La jugada nula debería conservarse.", simetria.transformarJugada(JugadaCompacta.NINGUNA),
+					is(JugadaCompacta.NINGUNA));
+		}
+	}
+
+	/**
+	 * Devuelve un array con todas las celdas marcadas.
+	 *
+	 * @return Array de celdas marcadas.
+	 */
+	private static boolean[] llenas() {
+		boolean[] llenas = new boolean[TableroBinario.NUMERO_CELDAS];
+		Arrays.fill(llenas, true);
+		return llenas;
+	}
+
+	/**
+	 * Devuelve el tablero binario con la configuración inicial.
+	 *
+	 * @return Tablero binario con la configuración inicial.
+	 */
+	private static TableroBinario crearInicial() {
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+		return arbitro.obtenerTableroBinario().clonar();
+	}
+
+	/**
+	 * Genera posiciones alcanzadas con jugadas aleatorias desde la configuración inicial.
+	 *
+	 * @param semilla Semilla del generador de números aleatorios.
+	 * @return Posiciones generadas.
+	 */
+	private static List<TableroBinario> generarPosiciones(long semilla) {
+		SplittableRandom aleatorio = new SplittableRandom(semilla);
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		List<TableroBinario> posiciones = new ArrayList<>();
+		TableroBinario tablero = crearInicial();
+		Color turno = Color.NEGRO;
+		while (posiciones.size() < POSICIONES) {
+			int numero = Reglas.generarMovimientos(tablero, turno, movimientos);
+			if (numero == 0 || tablero.consultarRey() == 0) {
+				tablero = crearInicial();
+				turno = Color.NEGRO;
+				continue;
+			}
+			Reglas.aplicarJugada(tablero, movimientos[aleatorio.nextInt(numero)]);
+			turno = turno.consultarContrario();
+			posiciones.add(tablero.clonar());
+		}
+		return posiciones;
+	}
+}
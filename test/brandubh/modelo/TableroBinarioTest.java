@@ -0,0 +1,266 @@
+package brandubh.modelo;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import brandubh.util.Color;
+import brandubh.util.Coordenada;
+import brandubh.util.TipoCelda;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre el tablero binario y su sincronización con el tablero de celdas.
+ *
+ * @author Diego Quintana Torres
+ * @version 1.0
+ *
+ */
+@DisplayName("Tests sobre TableroBinario (depende de implementaciones reales de Pieza, Celda y Tablero)")
+@Timeout(value = 2, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class TableroBinarioTest {
+
+	/** Tablero de testing. */
+	private Tablero tablero;
+
+	/** Tablero binario asociado al tablero de testing. */
+	private TableroBinario binario;
+
+	/** Inicializa valores para cada test. */
+	@BeforeEach
+	@Timeout(value = 1000, unit = TimeUnit.MILLISECONDS)
+	void inicializar() {
+		tablero = new Tablero();
+		binario = tablero.obtenerTableroBinario();
+	}
+
+	/**
+	 * Conversión entre índices y coordenadas.
+	 */
+	@Nested
+	@DisplayName("Tests de conversión entre índices y coordenadas.")
+	class ConversionIndices {
+
+		/**
+		 * Comprueba que la conversión de coordenada a índice y de índice a coordenada es reversible.
+		 *
+		 * @param fila fila
+		 * @param columna columna
+		 */
+		@DisplayName("Comprueba la conversión reversible entre coordenada e índice.")
+		@ParameterizedTest
+		@MethodSource("brandubh.modelo.TestUtil#proveerCoordenadas")
+		void comprobarConversionReversible(int fila, int columna) {
+			Coordenada coordenada = new Coordenada(fila, columna);
+			int indice = TableroBinario.consultarIndice(coordenada);
+			assertAll("conversión entre índice y coordenada",
+					() -> assertThat("Índice incorrecto.", indice, is(fila * 7 + columna)),
+					() -> assertThat("Coordenada incorrecta.", TableroBinario.consultarCoordenada(indice), is(coordenada)),
+					() -> assertThat("Tipo de celda incorrecto.", TableroBinario.consultarTipoCelda(indice),
+							is(tablero.obtenerCelda(coordenada).consultarTipoCelda())));
+		}
+
+		/**
+		 * Comprueba que las coordenadas fuera del tablero devuelven un índice negativo.
+		 *
+		 * @param fila fila
+		 * @param columna columna
+		 */
+		@DisplayName("Comprueba que las coordenadas incorrectas no tienen índice.")
+		@ParameterizedTest
+		@MethodSource("brandubh.modelo.TestUtil#proveerCoordenadasIncorrectas")
+		void comprobarIndiceDeCoordenadasIncorrectas(int fila, int columna) {
+			assertThat("Debería devolver -1 para coordenadas fuera del tablero.",
+					TableroBinario.consultarIndice(new Coordenada(fila, columna)), is(-1));
+		}
+
+		/**
+		 * Comprueba las máscaras constantes de trono y provincias.
+		 */
+		@DisplayName("Comprueba las máscaras de trono y provincias.")
+		@Test
+		void comprobarMascarasConstantes() {
+			assertAll("máscaras constantes",
+					() -> assertThat("Trono mal definido.", TableroBinario.consultarTipoCelda(TableroBinario.INDICE_TRONO),
+							is(TipoCelda.TRONO)),
+					() -> assertThat("Número de provincias incorrecto.", Long.bitCount(TableroBinario.PROVINCIA), is(4)),
+					() -> assertThat("Celdas contiguas a una esquina incorrectas.",
+							Long.bitCount(TableroBinario.consultarContiguas(0)), is(2)),
+					() -> assertThat("Celdas contiguas al trono incorrectas.",
+							Long.bitCount(TableroBinario.consultarContiguas(TableroBinario.INDICE_TRONO)), is(4)));
+		}
+	}
+
+	/**
+	 * Sincronización con el tablero de celdas.
+	 */
+	@Nested
+	@DisplayName("Tests de sincronización con el tablero de celdas.")
+	class Sincronizacion {
+
+		/**
+		 * Comprueba que colocar piezas en el tablero actualiza los mapas de bits.
+		 */
+		@DisplayName("Comprueba que colocar piezas actualiza el tablero binario.")
+		@Test
+		void comprobarColocacion() {
+			tablero.colocar(new Pieza(TipoPieza.REY), new Coordenada(3, 3));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(0, 3));
+			tablero.colocar(new Pieza(TipoPieza.DEFENSOR), new Coordenada(2, 3));
+			assertAll("colocación de piezas",
+					() -> assertThat("Rey mal localizado.", binario.consultarIndiceRey(), is(24)),
+					() -> assertThat("Atacante mal colocado.", binario.consultarTipoPieza(3), is(TipoPieza.ATACANTE)),
+					() -> assertThat("Defensor mal colocado.", binario.consultarColorDePieza(17), is(Color.BLANCO)),
+					() -> assertThat("Número de celdas ocupadas incorrecto.",
+							Long.bitCount(binario.consultarOcupadas()), is(3)),
+					() -> assertThat("Piezas blancas incorrectas.", binario.consultarPiezas(Color.BLANCO),
+							is((1L << 24) | (1L << 17))));
+		}
+
+		/**
+		 * Comprueba que las modificaciones realizadas directamente sobre las celdas se reflejan en los mapas de bits.
+		 */
+		@DisplayName("Comprueba que modificar las celdas actualiza el tablero binario.")
+		@Test
+		void comprobarModificacionDeCeldas() {
+			Celda celda = tablero.obtenerCelda(new Coordenada(1, 1));
+			celda.colocar(new Pieza(TipoPieza.ATACANTE));
+			assertThat("La celda debería estar ocupada.", binario.estaVacia(8), is(false));
+			celda.eliminarPieza();
+			assertThat("La celda debería estar vacía.", binario.estaVacia(8), is(true));
+		}
+
+		/**
+		 * Comprueba que sustituir una pieza por otra no deja restos en los mapas de bits.
+		 */
+		@DisplayName("Comprueba la sustitución de una pieza por otra.")
+		@Test
+		void comprobarSustitucion() {
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(2, 2));
+			tablero.colocar(new Pieza(TipoPieza.DEFENSOR), new Coordenada(2, 2));
+			assertAll("sustitución de piezas",
+					() -> assertThat("No deberían quedar atacantes.", binario.consultarNumeroPiezas(TipoPieza.ATACANTE), is(0)),
+					() -> assertThat("Debería haber un defensor.", binario.consultarNumeroPiezas(TipoPieza.DEFENSOR), is(1)));
+		}
+
+		/**
+		 * Comprueba que mover una pieza la desplaza entre celdas.
+		 */
+		@DisplayName("Comprueba el movimiento de piezas.")
+		@Test
+		void comprobarMovimiento() {
+			TableroBinario otro = new TableroBinario();
+			otro.colocar(TableroBinario.consultarIndice(3, 3), TipoPieza.REY);
+			otro.mover(24, 27);
+			assertAll("movimiento de piezas",
+					() -> assertThat("El origen debería quedar vacío.", otro.consultarTipoPieza(24), is(nullValue())),
+					() -> assertThat("El rey debería estar en destino.", otro.consultarIndiceRey(), is(27)));
+		}
+
+		/**
+		 * Comprueba que no se puede mover una pieza a una celda ocupada y que el tablero no se modifica.
+		 */
+		@DisplayName("Comprueba el rechazo del movimiento a una celda ocupada.")
+		@Test
+		void comprobarMovimientoACeldaOcupada() {
+			TableroBinario otro = new TableroBinario();
+			otro.colocar(24, TipoPieza.REY);
+			otro.colocar(27, TipoPieza.ATACANTE);
+			TableroBinario copia = otro.clonar();
+			assertAll("movimiento a celda ocupada",
+					() -> assertThrows(IllegalArgumentException.class, () -> otro.mover(24, 27)),
+					() -> assertEquals(copia, otro, "El tablero no debería modificarse."),
+					() -> assertThat("La clave no debería cambiar.", otro.consultarClave(), is(copia.consultarClave())));
+		}
+
+		/**
+		 * Comprueba que la clonación copia la composición sin compartir estado.
+		 */
+		@DisplayName("Comprueba la clonación del tablero binario.")
+		@Test
+		void comprobarClonacion() {
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(0, 3));
+			TableroBinario clon = binario.clonar();
+			assertAll("clonación",
+					() -> assertNotSame(clon, binario, "No se ha clonado el tablero binario."),
+					() -> assertEquals(clon, binario, "Ambos tableros binarios deberían coincidir en contenido."));
+			clon.eliminarPieza(3);
+			assertThat("El original no debería verse afectado por el clon.", binario.estaVacia(3), is(false));
+		}
+
+		/**
+		 * Comprueba que la representación en texto coincide con la del tablero de celdas.
+		 */
+		@DisplayName("Comprueba la representación en texto.")
+		@Test
+		void comprobarTexto() {
+			tablero.colocar(new Pieza(TipoPieza.REY), new Coordenada(3, 3));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(6, 6));
+			String salida = binario.aTexto().replaceAll("\\s", "");
+			assertThat("Representación en texto incorrecta.", salida,
+					is("7-------6-------5-------4---R---3-------2-------1------Aabcdefg"));
+		}
+	}
+
+	/**
+	 * Hash Zobrist incremental.
+	 */
+	@Nested
+	@DisplayName("Tests del hash Zobrist incremental.")
+	class HashZobrist {
+
+		/**
+		 * Comprueba que el tablero vacío tiene clave cero y que colocar y eliminar una pieza la restaura.
+		 */
+		@DisplayName("Comprueba que colocar y eliminar una pieza restaura la clave.")
+		@Test
+		void comprobarColocarYEliminar() {
+			assertThat("La clave del tablero vacío debería ser cero.", tablero.consultarClaveZobrist(), is(0L));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(1, 3));
+			assertThat("La clave debería corresponder a la pieza colocada.", tablero.consultarClaveZobrist(),
+					is(ClavesZobrist.consultarClave(TipoPieza.ATACANTE, 10)));
+			tablero.eliminarPieza(new Coordenada(1, 3));
+			tablero.eliminarPieza(new Coordenada(1, 3));
+			assertThat("La clave debería volver a cero.", tablero.consultarClaveZobrist(), is(0L));
+		}
+
+		/**
+		 * Comprueba que la clave solo depende de la posición y no del orden o camino seguido para alcanzarla.
+		 */
+		@DisplayName("Comprueba que la clave es independiente del camino.")
+		@Test
+		void comprobarIndependenciaDelCamino() {
+			tablero.colocar(new Pieza(TipoPieza.REY), new Coordenada(3, 3));
+			tablero.colocar(new Pieza(TipoPieza.DEFENSOR), new Coordenada(2, 2));
+			tablero.eliminarPieza(new Coordenada(3, 3));
+			tablero.colocar(new Pieza(TipoPieza.REY), new Coordenada(3, 6));
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(2, 2));
+
+			Tablero otro = new Tablero();
+			otro.colocar(new Pieza(TipoPieza.ATACANTE), new Coordenada(2, 2));
+			otro.colocar(new Pieza(TipoPieza.REY), new Coordenada(3, 6));
+
+			assertAll("independencia del camino",
+					() -> assertThat("Las claves deberían coincidir.", otro.consultarClaveZobrist(),
+							is(binario.consultarClave())),
+					() -> assertThat("Los códigos hash deberían coincidir.", otro.obtenerTableroBinario().hashCode(),
+							is(binario.hashCode())),
+					() -> assertThat("La clave del clon debería coincidir.", binario.clonar().consultarClave(),
+							is(binario.consultarClave())));
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.control.Arbitro;
+import brandubh.finales.FormatoFinales;
+import brandubh.finales.GeneradorFinales;
+import brandubh.finales.MaterialFinal;
+import brandubh.finales.SondaFinales;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre el motor de búsqueda con tablas de finales.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests del motor de búsqueda con tablas de finales.")
+@Timeout(value = 10, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class BuscadorFinalesTest {
+
+	/** Directorio temporal de testing. */
+	@TempDir
+	static Path directorio;
+
+	/** Tablas de testing, generadas una sola vez. */
+	private static GeneradorFinales generador;
+
+	/**
+	 * Genera y escribe las tablas de testing.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@BeforeAll
+	@Timeout(value = 60, unit = TimeUnit.SECONDS)
+	static void inicializar() throws IOException {
+		generador = new GeneradorFinales(3, 2);
+		generador.generar();
+		generador.escribir(directorio);
+	}
+
+	/**
+	 * Comprueba que una búsqueda de profundidad 1 con las tablas encuentra una victoria más lejana con su distancia 
+	 * exacta y la jugada que la mantiene.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba la victoria exacta de las tablas con una búsqueda superficial.")
+	void comprobarVictoria() throws IOException {
+		MaterialFinal material = new MaterialFinal(2, 0);
+		byte[] tabla = generador.consultarValores(2, 0);
+		Arbitro arbitro = null;
+		for (int indice = 0; arbitro == null; indice++) {
+			TableroBinario tablero = new TableroBinario();
+			Color turno = material.colocar(indice, tablero);
+			if (turno == Color.BLANCO && FormatoFinales.consultarDistancia(tabla[indice]) == 5) {
+				arbitro = crearArbitro(tablero, turno);
+			}
+		}
+		try (SondaFinales sonda = new SondaFinales(directorio)) {
+			Buscador buscador = new Buscador(arbitro, new EvaluadorBasico(), new TablaTransposicion(1), sonda);
+			ResultadoBusqueda resultado = buscador.buscar(1, 0);
+			Arbitro siguiente = arbitro.clonar();
+			siguiente.aplicarJugada(resultado.jugada());
+			ResultadoBusqueda sinTablas = new Buscador(arbitro, new EvaluadorBasico()).buscar(1, 0);
+			assertAll("victoria de las tablas",
+					() -> assertThat("Puntuación incorrecta.", resultado.puntuacion(), is(Buscador.VICTORIA - 5)),
+					() -> assertThat("Debería ser una victoria forzada.", resultado.esVictoriaForzada(), is(true)),
+					() -> assertThat("Deberían haberse consultado las tablas.", buscador.consultarSondeos() > 0,
+							is(true)),
+					() -> assertThat("La jugada debería llevar a una derrota del rival en 4 jugadas.",
+							sonda.sondear(siguiente.obtenerTableroBinario(), siguiente.consultarTurno()),
+							is(FormatoFinales.codificar(4) & 0xFF)),
+					() -> assertThat("Sin tablas no debería verse la victoria.", sinTablas.esVictoriaForzada(),
+							is(false)));
+		}
+	}
+
+	/**
+	 * Comprueba que la búsqueda paralela también consulta las tablas y puntúa una derrota con su distancia.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba la derrota exacta con la búsqueda paralela.")
+	void comprobarDerrota() throws IOException {
+		MaterialFinal material = new MaterialFinal(1, 1);
+		byte[] tabla = generador.consultarValores(1, 1);
+		Arbitro arbitro = null;
+		for (int indice = 0; arbitro == null; indice++) {
+			TableroBinario tablero = new TableroBinario();
+			Color turno = material.colocar(indice, tablero);
+			if (FormatoFinales.consultarDistancia(tabla[indice]) == 4) {
+				arbitro = crearArbitro(tablero, turno);
+			}
+		}
+		try (SondaFinales sonda = new SondaFinales(directorio);
+				BuscadorParalelo buscador = new BuscadorParalelo(arbitro, new EvaluadorBasico(), 2,
+						new TablaTransposicion(1), sonda)) {
+			ResultadoBusqueda resultado = buscador.buscar(2, 0);
+			assertThat("Puntuación incorrecta.", resultado.puntuacion(), is(-Buscador.VICTORIA + 4));
+		}
+	}
+
+	/**
+	 * Crea un árbitro con la posición de un tablero binario.
+	 *
+	 * @param tablero Tablero binario con la posición.
+	 * @param turno Color del jugador con el turno.
+	 * @return Árbitro con la posición.
+	 */
+	private static Arbitro crearArbitro(TableroBinario tablero, Color turno) {
+		int piezas = Long.bitCount(tablero.consultarOcupadas());
+		TipoPieza[] tipos = new TipoPieza[piezas];
+		int[][] coordenadas = new int[piezas][];
+		long pendientes = tablero.consultarOcupadas();
+		for (int i = 0; i < piezas; i++, pendientes &= pendientes - 1) {
+			int indice = Long.numberOfTrailingZeros(pendientes);
+			tipos[i] = tablero.consultarTipoPieza(indice);
+			coordenadas[i] = new int[] { indice / TableroBinario.NUMERO_COLUMNAS, indice % TableroBinario.NUMERO_COLUMNAS };
+		}
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezas(tipos, coordenadas, turno);
+		return arbitro;
+	}
+}
@@ -0,0 +1,226 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Pieza;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre la búsqueda de Monte Carlo y las simulaciones aleatorias.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la búsqueda de Monte Carlo.")
+@Timeout(value = 5, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class BuscadorMonteCarloTest {
+
+	/** Árbitro de testing. */
+	private Arbitro arbitro;
+
+	/** Tablero de testing. */
+	private Tablero tablero;
+
+	/** Generación del árbitro para testing. */
+	@BeforeEach
+	void inicializar() {
+		tablero = new Tablero();
+		arbitro = new Arbitro(tablero);
+	}
+
+	/**
+	 * Simulaciones aleatorias.
+	 */
+	@Nested
+	@DisplayName("Tests de las simulaciones aleatorias.")
+	class Simulaciones {
+
+		/**
+		 * Comprueba que un jugador sin movimientos legales pierde la simulación.
+		 */
+		@Test
+		@DisplayName("Comprueba la simulación sin movimientos legales.")
+		void comprobarSinMovimientos() {
+			tablero.colocar(new Pieza(TipoPieza.ATACANTE), TableroBinario.consultarCoordenada(16));
+			SimuladorAleatorio simulador = new SimuladorAleatorio(1);
+			assertThat("Debería ganar el atacante.", simulador.simular(tablero.obtenerTableroBinario(), Color.BLANCO),
+					is(Color.NEGRO));
+		}
+
+		/**
+		 * Comprueba que las simulaciones desde la posición inicial terminan sin modificar la posición de partida.
+		 */
+		@Test
+		@DisplayName("Comprueba que la simulación no modifica la posición de partida.")
+		void comprobarPosicionSinModificar() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			TableroBinario antes = tablero.obtenerTableroBinario().clonar();
+			SimuladorAleatorio simulador = new SimuladorAleatorio(2);
+			int terminadas = 0;
+			for (int i = 0; i < 1000; i++) {
+				if (simulador.simular(tablero.obtenerTableroBinario(), Color.NEGRO) != null) {
+					terminadas++;
+				}
+			}
+			int simulacionesTerminadas = terminadas;
+			assertAll("simulaciones desde la posición inicial",
+					() -> assertThat("La posición no debería modificarse.", tablero.obtenerTableroBinario(), is(antes)),
+					() -> assertThat("Las simulaciones deberían terminar.", simulacionesTerminadas > 900, is(true)));
+		}
+	}
+
+	/**
+	 * Búsqueda de Monte Carlo.
+	 */
+	@Nested
+	@DisplayName("Tests de la búsqueda de Monte Carlo.")
+	class Busqueda {
+
+		/**
+		 * Comprueba que la búsqueda encuentra la huida del rey a una provincia.
+		 */
+		@Test
+		@DisplayName("Comprueba que se encuentra la huida del rey a una provincia.")
+		void comprobarHuidaDelRey() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE, TipoPieza.ATACANTE },
+					new int[][] { { 1, 0 }, { 5, 5 }, { 4, 0 } }, Color.BLANCO);
+			ResultadoBusqueda resultado = new BuscadorMonteCarlo(arbitro, 3).buscar(5000, 0);
+			assertAll("huida del rey",
+					() -> assertThat("Jugada incorrecta.", resultado.jugada(), is(JugadaCompacta.codificar(7, 0))),
+					() -> assertThat("La proporción de victorias debería ser máxima.", resultado.puntuacion(), is(1000)));
+		}
+
+		/**
+		 * Comprueba que se respeta el número de iteraciones y que el árbitro no se modifica.
+		 */
+		@Test
+		@DisplayName("Comprueba el presupuesto de iteraciones.")
+		void comprobarPresupuestoDeIteraciones() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			TableroBinario antes = tablero.obtenerTableroBinario().clonar();
+			ResultadoBusqueda resultado = new BuscadorMonteCarlo(arbitro, 4).buscar(2000, 0);
+			assertAll("presupuesto de iteraciones",
+					() -> assertThat("Número de simulaciones incorrecto.", resultado.nodos(), is(2000L)),
+					() -> assertThat("Debería haber una jugada.", resultado.jugada() != JugadaCompacta.NINGUNA, is(true)),
+					() -> assertThat("La variación debería empezar por la jugada.", resultado.variacionPrincipal()[0],
+							is(resultado.jugada())),
+					() -> assertThat("El tablero no debería modificarse.", tablero.obtenerTableroBinario(), is(antes)),
+					() -> assertThat("El turno no debería modificarse.", arbitro.consultarTurno(), is(Color.NEGRO)));
+		}
+
+		/**
+		 * Comprueba que es obligatorio limitar la búsqueda.
+		 */
+		@Test
+		@DisplayName("Comprueba que la búsqueda debe estar limitada.")
+		void comprobarBusquedaSinLimite() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			BuscadorMonteCarlo buscador = new BuscadorMonteCarlo(arbitro, 5);
+			assertThrows(IllegalArgumentException.class, () -> buscador.buscar(0, 0),
+					"Debería rechazarse una búsqueda sin límite.");
+		}
+
+		/**
+		 * Comprueba la búsqueda sin jugadas legales.
+		 */
+		@Test
+		@DisplayName("Comprueba la búsqueda sin jugadas legales.")
+		void comprobarSinJugadas() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.ATACANTE }, new int[][] { { 2, 2 } }, Color.BLANCO);
+			ResultadoBusqueda resultado = new BuscadorMonteCarlo(arbitro, 6).buscar(100, 0);
+			assertAll("sin jugadas",
+					() -> assertThat("No debería haber jugada.", resultado.jugada(), is(JugadaCompacta.NINGUNA)),
+					() -> assertThat("No debería haber variación.", resultado.variacionPrincipal().length, is(0)));
+		}
+	}
+
+	/**
+	 * Búsqueda de Monte Carlo en paralelo sobre un árbol compartido.
+	 */
+	@Nested
+	@DisplayName("Tests de la búsqueda de Monte Carlo en paralelo.")
+	class BusquedaEnParalelo {
+
+		/**
+		 * Comprueba que varios hilos encuentran la huida del rey y realizan exactamente las iteraciones pedidas.
+		 */
+		@Test
+		@DisplayName("Comprueba la búsqueda con varios hilos.")
+		void comprobarBusquedaConVariosHilos() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE, TipoPieza.ATACANTE },
+					new int[][] { { 1, 0 }, { 5, 5 }, { 4, 0 } }, Color.BLANCO);
+			try (BuscadorMonteCarlo buscador = new BuscadorMonteCarlo(arbitro, BuscadorMonteCarlo.EXPLORACION_POR_DEFECTO, 3,
+					BuscadorMonteCarlo.CAPACIDAD_POR_DEFECTO, 7)) {
+				ResultadoBusqueda resultado = buscador.buscar(6000, 0);
+				assertAll("búsqueda con varios hilos",
+						() -> assertThat("Jugada incorrecta.", resultado.jugada(), is(JugadaCompacta.codificar(7, 0))),
+						() -> assertThat("Número de simulaciones incorrecto.", resultado.nodos(), is(6000L)));
+			}
+		}
+
+		/**
+		 * Comprueba la búsqueda con varios hilos en una posición en la que casi todas las jugadas dejan al atacante sin
+		 * movimientos, de forma que los hilos expanden a la vez muchos nodos sin jugadas legales.
+		 */
+		@Test
+		@DisplayName("Comprueba la búsqueda con varios hilos y nodos sin jugadas.")
+		void comprobarNodosSinJugadasConVariosHilos() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE, TipoPieza.DEFENSOR,
+					TipoPieza.DEFENSOR }, new int[][] { { 3, 3 }, { 0, 1 }, { 0, 2 }, { 1, 1 } }, Color.BLANCO);
+			TableroBinario antes = tablero.obtenerTableroBinario().clonar();
+
+			for (int semilla = 0; semilla < 5; semilla++) {
+				try (BuscadorMonteCarlo buscador = new BuscadorMonteCarlo(arbitro,
+						BuscadorMonteCarlo.EXPLORACION_POR_DEFECTO, 4, BuscadorMonteCarlo.CAPACIDAD_POR_DEFECTO, semilla)) {
+					ResultadoBusqueda resultado = buscador.buscar(20_000, 0);
+					TableroBinario despues = antes.clonar();
+					Reglas.aplicarJugada(despues, resultado.jugada());
+					assertAll("nodos sin jugadas con varios hilos",
+							() -> assertThat("Número de simulaciones incorrecto.", resultado.nodos(), is(20_000L)),
+							() -> assertThat("La jugada debería dejar al atacante sin movimientos.", Reglas
+									.generarMovimientos(despues, Color.NEGRO, new int[Reglas.MAXIMO_MOVIMIENTOS]), is(0)),
+							() -> assertThat("La proporción de victorias debería ser máxima.", resultado.puntuacion(),
+									is(1000)),
+							() -> assertThat("El tablero no debería modificarse.", tablero.obtenerTableroBinario(),
+									is(antes)));
+				}
+			}
+		}
+
+		/**
+		 * Comprueba que el árbol no supera la capacidad indicada y que la búsqueda continúa al agotarla.
+		 */
+		@Test
+		@DisplayName("Comprueba la capacidad acotada del árbol.")
+		void comprobarCapacidadAcotada() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			try (BuscadorMonteCarlo buscador = new BuscadorMonteCarlo(arbitro, BuscadorMonteCarlo.EXPLORACION_POR_DEFECTO, 2,
+					100, 8)) {
+				ResultadoBusqueda resultado = buscador.buscar(3000, 0);
+				assertAll("capacidad acotada",
+						() -> assertThat("El árbol no debería superar la capacidad.", buscador.consultarNodosArbol() <= 100,
+								is(true)),
+						() -> assertThat("Número de simulaciones incorrecto.", resultado.nodos(), is(3000L)),
+						() -> assertThat("Debería haber una jugada.", resultado.jugada() != JugadaCompacta.NINGUNA, is(true)));
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre la búsqueda en paralelo.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la búsqueda en paralelo.")
+@Timeout(value = 10, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class BuscadorParaleloTest {
+
+	/** Árbitro de testing. */
+	private Arbitro arbitro;
+
+	/** Tablero de testing. */
+	private Tablero tablero;
+
+	/** Buscador de testing. */
+	private BuscadorParalelo buscador;
+
+	/** Generación del árbitro y del buscador para testing. */
+	@BeforeEach
+	void inicializar() {
+		tablero = new Tablero();
+		arbitro = new Arbitro(tablero);
+		buscador = new BuscadorParalelo(arbitro, new EvaluadorBasico(), 3, 4);
+	}
+
+	/** Finalización de los hilos del buscador. */
+	@AfterEach
+	void finalizar() {
+		buscador.close();
+	}
+
+	/**
+	 * Comprueba que la búsqueda en paralelo encuentra la victoria inmediata del atacante.
+	 */
+	@Test
+	@DisplayName("Comprueba que se encuentra el encierro del rey.")
+	void comprobarEncierroDelRey() {
+		arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE, TipoPieza.ATACANTE },
+				new int[][] { { 1, 1 }, { 1, 0 }, { 4, 2 } }, Color.NEGRO);
+		ResultadoBusqueda resultado = buscador.buscar(5, 0);
+		assertAll("encierro del rey",
+				() -> assertThat("Jugada incorrecta.", resultado.jugada(), is(JugadaCompacta.codificar(30, 9))),
+				() -> assertThat("Debería ser una victoria inmediata.", resultado.puntuacion(), is(Buscador.VICTORIA - 1)));
+	}
+
+	/**
+	 * Comprueba que la búsqueda completa la profundidad pedida, suma los nodos de todos los hilos y restaura el árbitro.
+	 */
+	@Test
+	@DisplayName("Comprueba la profundidad alcanzada y la restauración del árbitro.")
+	void comprobarProfundidadYRestauracion() {
+		arbitro.colocarPiezasConfiguracionInicial();
+		TableroBinario antes = tablero.obtenerTableroBinario().clonar();
+
+		ResultadoBusqueda resultado = buscador.buscar(4, 0);
+
+		assertAll("profundidad y restauración",
+				() -> assertThat("Profundidad incorrecta.", resultado.profundidad(), is(4)),
+				() -> assertThat("Deberían contarse los nodos.", resultado.nodos() > 0, is(true)),
+				() -> assertThat("Debería haber una jugada.", resultado.jugada() != JugadaCompacta.NINGUNA, is(true)),
+				() -> assertThat("La tabla debería haberse consultado.",
+						buscador.obtenerTablaTransposicion().consultarAciertos() > 0, is(true)),
+				() -> assertThat("El tablero debería quedar igual.", tablero.obtenerTableroBinario(), is(antes)),
+				() -> assertThat("El turno debería quedar igual.", arbitro.consultarTurno(), is(Color.NEGRO)));
+	}
+
+	/**
+	 * Comprueba que la búsqueda en paralelo respeta el límite de tiempo.
+	 */
+	@Test
+	@DisplayName("Comprueba que se respeta el límite de tiempo.")
+	void comprobarLimiteDeTiempo() {
+		arbitro.colocarPiezasConfiguracionInicial();
+		ResultadoBusqueda resultado = buscador.buscar(Buscador.PROFUNDIDAD_MAXIMA, 200);
+		assertAll("límite de tiempo",
+				() -> assertThat("Debería terminar cerca del límite.", resultado.milisegundos() < 2000, is(true)),
+				() -> assertThat("Debería haber una jugada.", resultado.jugada() != JugadaCompacta.NINGUNA, is(true)));
+	}
+}
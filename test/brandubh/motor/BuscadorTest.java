@@ -0,0 +1,247 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre el motor de búsqueda alfa-beta.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests del motor de búsqueda alfa-beta.")
+@Timeout(value = 5, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class BuscadorTest {
+
+	/** Árbitro de testing. */
+	private Arbitro arbitro;
+
+	/** Tablero de testing. */
+	private Tablero tablero;
+
+	/** Buscador de testing. */
+	private Buscador buscador;
+
+	/** Generación del árbitro y del buscador para testing. */
+	@BeforeEach
+	void inicializar() {
+		tablero = new Tablero();
+		arbitro = new Arbitro(tablero);
+		buscador = new Buscador(arbitro, new EvaluadorBasico());
+	}
+
+	/**
+	 * Búsqueda de victorias.
+	 */
+	@Nested
+	@DisplayName("Tests de búsqueda de victorias inmediatas.")
+	class BusquedaDeVictorias {
+
+		/**
+		 * Comprueba que el defensor lleva el rey a la provincia cuando puede.
+		 */
+		// @formatter:off
+		/*
+		 * 7 - - - - - - -
+		 * 6 R - - - - - -
+		 * 5 - - - - - - -
+		 * 4 - - - - - - -
+		 * 3 - - - - - - -
+		 * 2 - - - - - A -
+		 * 1 - - - - - - -
+		 *   a b c d e f g
+		 * Movimiento del rey de a6 a a7: victoria del defensor.
+		 */
+		// @formatter:on
+		@Test
+		@DisplayName("Comprueba que se encuentra la huida del rey a una provincia.")
+		void comprobarHuidaDelRey() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE },
+					new int[][] { { 1, 0 }, { 5, 5 } }, Color.BLANCO);
+			ResultadoBusqueda resultado = buscador.buscar(4, 0);
+			assertAll("huida del rey",
+					() -> assertThat("Jugada incorrecta.", resultado.jugada(), is(JugadaCompacta.codificar(7, 0))),
+					() -> assertThat("Debería ser una victoria inmediata.", resultado.puntuacion(), is(Buscador.VICTORIA - 1)),
+					() -> assertThat("Debería detectarse la victoria forzada.", resultado.esVictoriaForzada(), is(true)),
+					() -> assertThat("La variación principal debería contener la jugada.", resultado.variacionPrincipal().length,
+							is(1)));
+		}
+
+		/**
+		 * Comprueba que el atacante encierra al rey cuando puede.
+		 */
+		@Test
+		@DisplayName("Comprueba que se encuentra el encierro del rey.")
+		void comprobarEncierroDelRey() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE, TipoPieza.ATACANTE },
+					new int[][] { { 1, 1 }, { 1, 0 }, { 4, 2 } }, Color.NEGRO);
+			ResultadoBusqueda resultado = buscador.buscar(4, 0);
+			assertAll("encierro del rey",
+					() -> assertThat("Jugada incorrecta.", resultado.jugada(), is(JugadaCompacta.codificar(30, 9))),
+					() -> assertThat("Debería ser una victoria inmediata.", resultado.puntuacion(), is(Buscador.VICTORIA - 1)));
+		}
+
+		/**
+		 * Comprueba que un jugador sin movimientos legales pierde la partida.
+		 */
+		@Test
+		@DisplayName("Comprueba la búsqueda sin movimientos legales.")
+		void comprobarSinMovimientos() {
+			arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.ATACANTE }, new int[][] { { 2, 2 } }, Color.BLANCO);
+			ResultadoBusqueda resultado = buscador.buscar(3, 0);
+			assertAll("sin movimientos legales",
+					() -> assertThat("No debería haber jugada.", resultado.jugada(), is(JugadaCompacta.NINGUNA)),
+					() -> assertThat("Debería ser una derrota.", resultado.puntuacion(), is(-Buscador.VICTORIA)));
+		}
+	}
+
+	/**
+	 * Estado del árbitro y límites de la búsqueda.
+	 */
+	@Nested
+	@DisplayName("Tests del estado del árbitro y de los límites de la búsqueda.")
+	class EstadoYLimites {
+
+		/**
+		 * Comprueba que la búsqueda deja el árbitro en el mismo estado y devuelve una jugada legal.
+		 */
+		@Test
+		@DisplayName("Comprueba que la búsqueda restaura el árbitro.")
+		void comprobarRestauracionDelArbitro() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			TableroBinario antes = tablero.obtenerTableroBinario().clonar();
+			long clave = arbitro.consultarClaveZobrist();
+
+			ResultadoBusqueda resultado = buscador.buscar(3, 0);
+
+			assertAll("restauración del árbitro",
+					() -> assertThat("El tablero debería quedar igual.", tablero.obtenerTableroBinario(), is(antes)),
+					() -> assertThat("La clave debería quedar igual.", arbitro.consultarClaveZobrist(), is(clave)),
+					() -> assertThat("El turno debería quedar igual.", arbitro.consultarTurno(), is(Color.NEGRO)),
+					() -> assertThat("Profundidad incorrecta.", resultado.profundidad(), is(3)),
+					() -> assertThat("Deberían contarse los nodos.", resultado.nodos() > 0, is(true)),
+					() -> assertThat("La jugada debería ser legal.", esLegal(resultado.jugada()), is(true)));
+		}
+
+		/**
+		 * Comprueba que la búsqueda respeta el límite de tiempo.
+		 */
+		@Test
+		@DisplayName("Comprueba que se respeta el límite de tiempo.")
+		void comprobarLimiteDeTiempo() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			ResultadoBusqueda resultado = buscador.buscar(Buscador.PROFUNDIDAD_MAXIMA, 200);
+			assertAll("límite de tiempo",
+					() -> assertThat("No debería completarse la profundidad máxima.",
+							resultado.profundidad() < Buscador.PROFUNDIDAD_MAXIMA, is(true)),
+					() -> assertThat("Debería terminar cerca del límite.", resultado.milisegundos() < 1000, is(true)),
+					() -> assertThat("La jugada debería ser legal.", esLegal(resultado.jugada()), is(true)));
+		}
+
+		/**
+		 * Comprueba que el historial de podas se reduce a la mitad al superar su máximo, sin llegar a la prioridad de
+		 * las capturas.
+		 */
+		@Test
+		@DisplayName("Comprueba el límite del historial de podas.")
+		void comprobarLimiteDelHistorial() {
+			int jugada = JugadaCompacta.codificar(3, 10);
+			int otra = JugadaCompacta.codificar(21, 22);
+			buscador.registrarPoda(0, otra, 64);
+			for (int i = 0; i < 10_000; i++) {
+				buscador.registrarPoda(1, jugada, Buscador.PROFUNDIDAD_MAXIMA);
+			}
+			assertAll("límite del historial",
+					() -> assertThat("El historial no debería superar su máximo.",
+							buscador.historial[3][10] <= Buscador.HISTORIAL_MAXIMO, is(true)),
+					() -> assertThat("El historial debería conservar las jugadas frecuentes.",
+							buscador.historial[3][10] > Buscador.HISTORIAL_MAXIMO / 4, is(true)),
+					() -> assertThat("El resto del historial debería reducirse.", buscador.historial[21][22] < 64 * 64,
+							is(true)));
+		}
+
+		/**
+		 * Comprueba que dos buscadores sobre el mismo árbitro, como los dos jugadores de una partida, recuperan la
+		 * vinculación de su evaluación al comenzar cada búsqueda.
+		 */
+		@Test
+		@DisplayName("Comprueba la vinculación de buscadores que comparten árbitro.")
+		void comprobarBuscadoresQueCompartenArbitro() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			Evaluador evaluador = new EvaluadorIncremental();
+			Buscador primero = new Buscador(arbitro, evaluador);
+			Buscador segundo = new Buscador(arbitro, evaluador);
+			TableroBinario binario = tablero.obtenerTableroBinario();
+			boolean segundoObserva = binario.consultarObservador() == segundo.evaluador;
+
+			ResultadoBusqueda resultado = primero.buscar(2, 0);
+			boolean primeroObserva = binario.consultarObservador() == primero.evaluador;
+			segundo.buscar(2, 0);
+
+			assertAll("buscadores que comparten árbitro",
+					() -> assertThat("El último buscador creado debería observar el tablero.", segundoObserva, is(true)),
+					() -> assertThat("La búsqueda debería volver a vincular su evaluación.", primeroObserva, is(true)),
+					() -> assertThat("El último buscador en buscar debería observar el tablero.",
+							binario.consultarObservador() == segundo.evaluador, is(true)),
+					() -> assertThat("La evaluación vinculada debería ser correcta.",
+							primero.evaluador.evaluar(binario, Color.NEGRO), is(evaluador.evaluar(binario, Color.NEGRO))),
+					() -> assertThat("La jugada debería ser legal.", esLegal(resultado.jugada()), is(true)));
+		}
+
+		/**
+		 * Comprueba si una jugada codificada está entre las legales del árbitro.
+		 *
+		 * @param jugada jugada codificada
+		 * @return {@code true} si es legal
+		 */
+		private boolean esLegal(int jugada) {
+			int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+			int numero = arbitro.generarMovimientosLegales(movimientos);
+			for (int i = 0; i < numero; i++) {
+				if (movimientos[i] == JugadaCompacta.consultarSinCapturas(jugada)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Función de evaluación básica.
+	 */
+	@Nested
+	@DisplayName("Tests de la función de evaluación básica.")
+	class EvaluacionBasica {
+
+		/**
+		 * Comprueba que la evaluación es simétrica respecto al jugador con el turno.
+		 */
+		@Test
+		@DisplayName("Comprueba la simetría de la evaluación.")
+		void comprobarSimetria() {
+			arbitro.colocarPiezasConfiguracionInicial();
+			Evaluador evaluador = new EvaluadorBasico();
+			TableroBinario binario = tablero.obtenerTableroBinario();
+			assertThat("La evaluación debería cambiar de signo con el turno.", evaluador.evaluar(binario, Color.NEGRO),
+					is(-evaluador.evaluar(binario, Color.BLANCO)));
+		}
+	}
+}
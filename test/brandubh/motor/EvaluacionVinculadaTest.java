@@ -0,0 +1,210 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre las funciones de evaluación vinculadas a un tablero, comunes a todas las que mantienen su estado de forma
+ * incremental: la evaluación vinculada debe coincidir siempre con la completa de la misma función.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de las funciones de evaluación vinculadas a un tablero.")
+@Timeout(value = 5, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class EvaluacionVinculadaTest {
+
+	/** Número de partidas aleatorias recorridas. */
+	private static final int PARTIDAS = 50;
+
+	/** Número máximo de jugadas de cada partida aleatoria. */
+	private static final int JUGADAS = 80;
+
+	/** Árbitro de testing. */
+	private Arbitro arbitro;
+
+	/** Tablero binario del árbitro de testing. */
+	private TableroBinario binario;
+
+	/** Evaluación sin estado, que calcula la evaluación completa en cada llamada. */
+	private Evaluador completo;
+
+	/** Evaluación vinculada al tablero del árbitro. */
+	private Evaluador vinculado;
+
+	/**
+	 * Genera el árbitro en la configuración inicial y vincula la función de evaluación a su tablero.
+	 *
+	 * @param evaluador función de evaluación sin estado
+	 */
+	private void inicializar(Evaluador evaluador) {
+		arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+		binario = arbitro.obtenerTableroBinario();
+		completo = evaluador;
+		vinculado = completo.vincular(binario);
+	}
+
+	/**
+	 * Comprueba que la evaluación vinculada coincide con la completa en la posición actual para ambos turnos.
+	 */
+	private void comprobarCoincidencia() {
+		assertAll("coincidencia con la evaluación completa",
+				() -> assertThat("Evaluación incremental incorrecta para el defensor.",
+						vinculado.evaluar(binario, Color.BLANCO), is(completo.evaluar(binario, Color.BLANCO))),
+				() -> assertThat("Evaluación incremental incorrecta para el atacante.",
+						vinculado.evaluar(binario, Color.NEGRO), is(completo.evaluar(binario, Color.NEGRO))));
+	}
+
+	/**
+	 * Comprueba que la evaluación vinculada se registra como observador del tablero.
+	 *
+	 * @param evaluador función de evaluación sin estado
+	 */
+	@ParameterizedTest
+	@MethodSource("proveerEvaluadores")
+	@DisplayName("Comprueba el registro como observador del tablero.")
+	void comprobarVinculacion(Evaluador evaluador) {
+		inicializar(evaluador);
+		assertAll("vinculación",
+				() -> assertThat("Debería devolverse una nueva instancia.", vinculado, is(not(sameInstance(completo)))),
+				() -> assertThat("La instancia vinculada debería observar el tablero.", binario.consultarObservador(),
+						is(sameInstance(vinculado))));
+	}
+
+	/**
+	 * Comprueba que las funciones de evaluación sin estado incremental no se vinculan al tablero.
+	 */
+	@Test
+	@DisplayName("Comprueba que la evaluación básica no se vincula.")
+	void comprobarSinVinculacion() {
+		inicializar(new EvaluadorBasico());
+		assertAll("sin vinculación",
+				() -> assertThat("La evaluación básica no debería vincularse.", vinculado, is(sameInstance(completo))),
+				() -> assertThat("El tablero no debería tener observador.", binario.consultarObservador(),
+						is(nullValue())));
+	}
+
+	/**
+	 * Comprueba que la evaluación coincide con la completa al aplicar y deshacer jugadas aleatorias, incluidas las
+	 * capturas.
+	 *
+	 * @param evaluador función de evaluación sin estado
+	 */
+	@ParameterizedTest
+	@MethodSource("proveerEvaluadores")
+	@DisplayName("Comprueba la evaluación al aplicar y deshacer jugadas aleatorias.")
+	void comprobarJugadasAleatorias(Evaluador evaluador) {
+		inicializar(evaluador);
+		SplittableRandom aleatorio = new SplittableRandom(23);
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		int capturas = 0;
+
+		for (int partida = 0; partida < PARTIDAS; partida++) {
+
+			int aplicadas = 0;
+			boolean terminada = false;
+
+			while (aplicadas < JUGADAS && !terminada) {
+
+				int numero = arbitro.generarMovimientosLegales(movimientos);
+
+				if (numero == 0) {
+					break;
+				}
+
+				int piezas = Long.bitCount(binario.consultarOcupadas());
+				int destino = JugadaCompacta.consultarDestino(arbitro.aplicarJugada(movimientos[aleatorio.nextInt(numero)]));
+				aplicadas++;
+				capturas += piezas - Long.bitCount(binario.consultarOcupadas());
+				terminada = Reglas.haGanadoRey(binario, destino) || Reglas.haGanadoAtacante(binario, destino);
+				comprobarCoincidencia();
+			}
+
+			for (; aplicadas > 0; aplicadas--) {
+				arbitro.deshacerJugada();
+				comprobarCoincidencia();
+			}
+		}
+
+		assertThat("Las partidas aleatorias deberían incluir capturas.", capturas > 0, is(true));
+	}
+
+	/**
+	 * Comprueba que la evaluación se recalcula al sustituir la composición completa del tablero.
+	 *
+	 * @param evaluador función de evaluación sin estado
+	 */
+	@ParameterizedTest
+	@MethodSource("proveerEvaluadores")
+	@DisplayName("Comprueba la evaluación tras copiar otro tablero.")
+	void comprobarReinicio(Evaluador evaluador) {
+		inicializar(evaluador);
+		TableroBinario otro = new TableroBinario();
+		otro.colocar(TableroBinario.consultarIndice(1, 1), TipoPieza.REY);
+		otro.colocar(TableroBinario.consultarIndice(0, 1), TipoPieza.ATACANTE);
+		otro.colocar(TableroBinario.consultarIndice(4, 4), TipoPieza.DEFENSOR);
+		binario.copiar(otro);
+		comprobarCoincidencia();
+	}
+
+	/**
+	 * Comprueba que la evaluación sigue siendo correcta si el tablero deja de notificarle sus cambios.
+	 *
+	 * @param evaluador función de evaluación sin estado
+	 */
+	@ParameterizedTest
+	@MethodSource("proveerEvaluadores")
+	@DisplayName("Comprueba la evaluación tras sustituir el observador.")
+	void comprobarSustitucionDelObservador(Evaluador evaluador) {
+		inicializar(evaluador);
+		Evaluador otro = completo.vincular(binario);
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		arbitro.generarMovimientosLegales(movimientos);
+		arbitro.aplicarJugada(movimientos[0]);
+		assertAll("sustitución del observador",
+				() -> assertThat("La evaluación sustituida debería calcularse por completo.",
+						vinculado.evaluar(binario, Color.BLANCO), is(completo.evaluar(binario, Color.BLANCO))),
+				() -> assertThat("La nueva evaluación debería seguir los cambios.", otro.evaluar(binario, Color.BLANCO),
+						is(completo.evaluar(binario, Color.BLANCO))));
+	}
+
+	// Métodos de utilidad para los tests...
+
+	/**
+	 * Provee de las funciones de evaluación que mantienen su estado de forma incremental.
+	 *
+	 * @return funciones de evaluación sin estado
+	 */
+	private static Stream<Arguments> proveerEvaluadores() {
+		return Stream.of(
+				arguments(new EvaluadorIncremental()),
+				arguments(new EvaluadorRed(RedNeuronal.generar(RedNeuronal.NEURONAS_PRIMERA_CAPA,
+						RedNeuronal.NEURONAS_SEGUNDA_CAPA, 25))));
+	}
+}
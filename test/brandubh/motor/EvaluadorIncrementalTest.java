@@ -0,0 +1,138 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre la función de evaluación incremental.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la función de evaluación incremental.")
+@Timeout(value = 5, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class EvaluadorIncrementalTest {
+
+	/** Árbitro de testing. */
+	private Arbitro arbitro;
+
+	/** Tablero binario del árbitro de testing. */
+	private TableroBinario binario;
+
+	/** Evaluación sin estado, que calcula la suma completa en cada llamada. */
+	private Evaluador completo;
+
+	/** Evaluación vinculada al tablero del árbitro. */
+	private Evaluador vinculado;
+
+	/** Generación del árbitro y de las funciones de evaluación para testing. */
+	@BeforeEach
+	void inicializar() {
+		arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+		binario = arbitro.obtenerTableroBinario();
+		completo = new EvaluadorIncremental();
+		vinculado = completo.vincular(binario);
+	}
+
+	/**
+	 * Términos de la evaluación.
+	 */
+	@Nested
+	@DisplayName("Tests de los términos de la evaluación.")
+	class Terminos {
+
+		/**
+		 * Comprueba que la evaluación es simétrica respecto al jugador con el turno.
+		 */
+		@Test
+		@DisplayName("Comprueba la simetría de la evaluación.")
+		void comprobarSimetria() {
+			assertThat("La evaluación debería cambiar de signo con el turno.", vinculado.evaluar(binario, Color.NEGRO),
+					is(-vinculado.evaluar(binario, Color.BLANCO)));
+		}
+
+		/**
+		 * Comprueba que el defensor prefiere el rey cerca de una provincia y con más movilidad.
+		 */
+		@Test
+		@DisplayName("Comprueba la distancia y la movilidad del rey.")
+		void comprobarRey() {
+			TableroBinario vacio = new TableroBinario();
+			vacio.colocar(TableroBinario.INDICE_TRONO, TipoPieza.REY);
+			int centro = completo.evaluar(vacio, Color.BLANCO);
+			vacio.mover(TableroBinario.INDICE_TRONO, TableroBinario.consultarIndice(1, 1));
+			int esquina = completo.evaluar(vacio, Color.BLANCO);
+			vacio.colocar(TableroBinario.consultarIndice(1, 3), TipoPieza.ATACANTE);
+			int bloqueado = completo.evaluar(vacio, Color.BLANCO);
+			assertAll("términos del rey",
+					() -> assertThat("El rey debería valer más cerca de la provincia.", esquina > centro, is(true)),
+					() -> assertThat("Un atacante que corta al rey debería restar más que su material.",
+							esquina - bloqueado > 100, is(true)));
+		}
+
+		/**
+		 * Comprueba que los atacantes que bloquean los accesos a las provincias puntúan para el atacante.
+		 */
+		@Test
+		@DisplayName("Comprueba el bloqueo de los accesos a las provincias.")
+		void comprobarBloqueo() {
+			TableroBinario tablero = new TableroBinario();
+			tablero.colocar(TableroBinario.consultarIndice(3, 3), TipoPieza.ATACANTE);
+			int centro = completo.evaluar(tablero, Color.NEGRO);
+			tablero.mover(TableroBinario.consultarIndice(3, 3), TableroBinario.consultarIndice(0, 1));
+			int contiguo = completo.evaluar(tablero, Color.NEGRO);
+			tablero.mover(TableroBinario.consultarIndice(0, 1), TableroBinario.consultarIndice(1, 1));
+			int diagonal = completo.evaluar(tablero, Color.NEGRO);
+			assertAll("bloqueo de accesos",
+					() -> assertThat("El acceso contiguo debería puntuar más que el centro.", contiguo > centro, is(true)),
+					() -> assertThat("El acceso diagonal debería puntuar más que el centro.", diagonal > centro, is(true)));
+		}
+	}
+
+	/**
+	 * Uso en la búsqueda.
+	 */
+	@Nested
+	@DisplayName("Tests de la evaluación incremental en la búsqueda.")
+	class Busqueda {
+
+		/**
+		 * Comprueba que la búsqueda con la evaluación incremental obtiene el mismo resultado que con la evaluación
+		 * completa en cada nodo, y que el árbitro queda en la posición de partida.
+		 */
+		@Test
+		@DisplayName("Comprueba que la búsqueda no depende de la actualización incremental.")
+		void comprobarBusqueda() {
+			Evaluador sinVincular = (tablero, turno) -> completo.evaluar(tablero, turno);
+			ResultadoBusqueda referencia = new Buscador(arbitro.clonar(), sinVincular).buscar(3, 0);
+			Buscador buscador = new Buscador(arbitro, completo);
+			ResultadoBusqueda resultado = buscador.buscar(3, 0);
+			assertAll("búsqueda incremental",
+					() -> assertThat("Jugada distinta.", resultado.jugada(), is(referencia.jugada())),
+					() -> assertThat("Puntuación distinta.", resultado.puntuacion(), is(referencia.puntuacion())),
+					() -> assertThat("Nodos distintos.", resultado.nodos(), is(referencia.nodos())),
+					() -> assertThat("El buscador debería observar el tablero del árbitro.", binario.consultarObservador(),
+							is(sameInstance(buscador.evaluador))),
+					() -> assertThat("La evaluación final debería coincidir con la completa.",
+							buscador.evaluador.evaluar(binario, Color.NEGRO), is(completo.evaluar(binario, Color.NEGRO))));
+		}
+	}
+}
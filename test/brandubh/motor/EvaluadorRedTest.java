@@ -0,0 +1,273 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre la evaluación con red neuronal.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la evaluación con red neuronal.")
+@Timeout(value = 5, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class EvaluadorRedTest {
+
+	/** Directorio temporal de testing. */
+	@TempDir
+	Path directorio;
+
+	/** Red aleatoria de testing. */
+	private RedNeuronal red;
+
+	/** Árbitro de testing. */
+	private Arbitro arbitro;
+
+	/** Tablero binario del árbitro de testing. */
+	private TableroBinario binario;
+
+	/** Evaluación sin estado, que calcula el acumulador completo en cada llamada. */
+	private Evaluador completo;
+
+	/** Evaluación vinculada al tablero del árbitro. */
+	private Evaluador vinculado;
+
+	/** Generación de la red, del árbitro y de las funciones de evaluación para testing. */
+	@BeforeEach
+	void inicializar() {
+		red = RedNeuronal.generar(RedNeuronal.NEURONAS_PRIMERA_CAPA, RedNeuronal.NEURONAS_SEGUNDA_CAPA, 25);
+		arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+		binario = arbitro.obtenerTableroBinario();
+		completo = new EvaluadorRed(red);
+		vinculado = completo.vincular(binario);
+	}
+
+	/**
+	 * Genera una red con una neurona en cada capa oculta que cuenta los defensores con peso {@code 10}.
+	 *
+	 * @param salida Peso de la capa de salida.
+	 * @return Red generada.
+	 */
+	private static RedNeuronal generarContadorDefensores(int salida) {
+		short[] pesos1 = new short[RedNeuronal.ENTRADAS];
+		for (int indice = 0; indice < TableroBinario.NUMERO_CELDAS; indice++) {
+			pesos1[RedNeuronal.consultarEntrada(TipoPieza.DEFENSOR, indice)] = 10;
+		}
+		return new RedNeuronal(pesos1, new short[1], new byte[] { 64 }, new int[1], new short[] { (short) salida }, 0, 6,
+				1);
+	}
+
+	/**
+	 * Comprueba que la evaluación vinculada comparte la red de la evaluación de la que procede. La coincidencia con
+	 * la evaluación completa se comprueba en {@link EvaluacionVinculadaTest}.
+	 */
+	@Test
+	@DisplayName("Comprueba que la evaluación vinculada comparte la red.")
+	void comprobarRedCompartida() {
+		assertThat("La instancia vinculada debería compartir la red.", ((EvaluadorRed) vinculado).consultarRed(),
+				is(sameInstance(red)));
+	}
+
+	/**
+	 * Cálculo de la red.
+	 */
+	@Nested
+	@DisplayName("Tests del cálculo de la red.")
+	class Calculo {
+
+		/**
+		 * Comprueba el resultado de una red construida a mano, incluido el recorte de las activaciones.
+		 */
+		@Test
+		@DisplayName("Comprueba el cálculo de una red conocida.")
+		void comprobarRedConocida() {
+			Evaluador contador = new EvaluadorRed(generarContadorDefensores(3));
+			int defensores = binario.consultarNumeroPiezas(TipoPieza.DEFENSOR);
+			TableroBinario tablero = new TableroBinario();
+			for (int indice = 0; indice < 14; indice++) {
+				tablero.colocar(indice + 1, TipoPieza.DEFENSOR);
+			}
+			assertAll("red conocida",
+					() -> assertThat("Evaluación incorrecta de la configuración inicial.",
+							contador.evaluar(binario, Color.BLANCO), is(3 * 10 * defensores)),
+					() -> assertThat("La evaluación debería cambiar de signo con el turno.",
+							contador.evaluar(binario, Color.NEGRO), is(-3 * 10 * defensores)),
+					() -> assertThat("La activación debería recortarse.", contador.evaluar(tablero, Color.BLANCO),
+							is(3 * RedNeuronal.ACTIVACION_MAXIMA)));
+		}
+
+		/**
+		 * Comprueba que la puntuación queda por debajo de las puntuaciones de victoria.
+		 */
+		@Test
+		@DisplayName("Comprueba el límite de la puntuación.")
+		void comprobarLimite() {
+			Evaluador excesivo = new EvaluadorRed(generarContadorDefensores(Short.MAX_VALUE));
+			assertThat("La puntuación debería limitarse.", excesivo.evaluar(binario, Color.NEGRO),
+					is(-EvaluadorRed.PUNTUACION_MAXIMA));
+		}
+
+		/**
+		 * Comprueba que se rechazan las redes con tamaños incoherentes.
+		 */
+		@Test
+		@DisplayName("Comprueba la validación de la red.")
+		void comprobarValidacion() {
+			short[] pesos1 = new short[RedNeuronal.ENTRADAS];
+			assertAll("validación",
+					() -> assertThrows(IllegalArgumentException.class, () -> new RedNeuronal(pesos1, new short[1],
+							new byte[2], new int[1], new short[1], 0, 6, 1)),
+					() -> assertThrows(IllegalArgumentException.class, () -> new RedNeuronal(pesos1, new short[1],
+							new byte[1], new int[1], new short[1], 0, 6, 0)),
+					() -> assertThrows(IllegalArgumentException.class, () -> new RedNeuronal(new short[0], new short[0],
+							new byte[0], new int[1], new short[1], 0, 6, 1)),
+					() -> assertThrows(IllegalArgumentException.class, () -> RedNeuronal.generar(1,
+							RedNeuronal.NEURONAS_MAXIMAS + 1, 0)));
+		}
+
+		/**
+		 * Comprueba que se rechazan las redes cuyo acumulador podría desbordar con {@link RedNeuronal#MAXIMO_PIEZAS}
+		 * piezas y se aceptan las que quedan justo en el límite.
+		 */
+		@Test
+		@DisplayName("Comprueba el límite del acumulador.")
+		void comprobarLimiteDelAcumulador() {
+			short peso = (short) (Short.MAX_VALUE / RedNeuronal.MAXIMO_PIEZAS);
+			short resto = (short) (Short.MAX_VALUE - peso * RedNeuronal.MAXIMO_PIEZAS);
+			short[] positivos = new short[RedNeuronal.ENTRADAS];
+			short[] negativos = new short[RedNeuronal.ENTRADAS];
+			Arrays.fill(positivos, peso);
+			Arrays.fill(negativos, (short) -peso);
+			assertAll("acumulador",
+					() -> new RedNeuronal(positivos, new short[] { resto }, new byte[1], new int[1], new short[1], 0,
+							6, 1),
+					() -> new RedNeuronal(negativos, new short[] { (short) -resto }, new byte[1], new int[1],
+							new short[1], 0, 6, 1),
+					() -> assertThrows(IllegalArgumentException.class, () -> new RedNeuronal(positivos,
+							new short[] { (short) (resto + 1) }, new byte[1], new int[1], new short[1], 0, 6, 1)),
+					() -> assertThrows(IllegalArgumentException.class, () -> new RedNeuronal(negativos,
+							new short[] { (short) (-resto - 2) }, new byte[1], new int[1], new short[1], 0, 6, 1)));
+		}
+	}
+
+	/**
+	 * Fichero de la red.
+	 */
+	@Nested
+	@DisplayName("Tests del fichero de la red.")
+	class Fichero {
+
+		/**
+		 * Comprueba que la red escrita en un fichero se lee sin cambios.
+		 *
+		 * @throws IOException si falla el acceso al fichero
+		 */
+		@Test
+		@DisplayName("Comprueba la escritura y lectura del fichero de la red.")
+		void comprobarFichero() throws IOException {
+			Path fichero = directorio.resolve("red.bin");
+			red.escribir(fichero);
+			RedNeuronal leida = RedNeuronal.leer(fichero);
+			assertAll("fichero",
+					() -> assertThat("La red leída debería coincidir con la escrita.", leida, is(red)),
+					() -> assertThat("Tamaño de fichero incorrecto.", Files.size(fichero),
+							is((long) RedNeuronal.CABECERA
+									+ (RedNeuronal.ENTRADAS + 1) * RedNeuronal.NEURONAS_PRIMERA_CAPA * Short.BYTES
+									+ RedNeuronal.NEURONAS_PRIMERA_CAPA * RedNeuronal.NEURONAS_SEGUNDA_CAPA
+									+ RedNeuronal.NEURONAS_SEGUNDA_CAPA * (Integer.BYTES + Short.BYTES) + Integer.BYTES)),
+					() -> assertThat("La evaluación con la red leída debería coincidir.",
+							new EvaluadorRed(leida).evaluar(binario, Color.NEGRO), is(completo.evaluar(binario,
+									Color.NEGRO))));
+		}
+
+		/**
+		 * Comprueba que se rechazan los ficheros que no son de una red, incompletos o con datos sobrantes.
+		 *
+		 * @throws IOException si falla el acceso a los ficheros
+		 */
+		@Test
+		@DisplayName("Comprueba la lectura de ficheros no válidos.")
+		void comprobarFicherosNoValidos() throws IOException {
+			Path fichero = directorio.resolve("red.bin");
+			red.escribir(fichero);
+			byte[] contenido = Files.readAllBytes(fichero);
+
+			byte[] marca = contenido.clone();
+			marca[0] ^= 1;
+			byte[] neuronas = contenido.clone();
+			ByteBuffer.wrap(neuronas).putInt(12, 0);
+			Path sinMarca = Files.write(directorio.resolve("marca.bin"), marca);
+			Path sinNeuronas = Files.write(directorio.resolve("neuronas.bin"), neuronas);
+			Path incompleto = Files.write(directorio.resolve("incompleto.bin"),
+					Arrays.copyOf(contenido, contenido.length - 1));
+			Path sobrante = Files.write(directorio.resolve("sobrante.bin"), Arrays.copyOf(contenido, contenido.length + 1));
+			byte[] pesos = contenido.clone();
+			for (int entrada = 0; entrada < RedNeuronal.MAXIMO_PIEZAS; entrada++) {
+				ByteBuffer.wrap(pesos).putShort(RedNeuronal.CABECERA
+						+ entrada * RedNeuronal.NEURONAS_PRIMERA_CAPA * Short.BYTES, (short) 3000);
+			}
+			Path desbordado = Files.write(directorio.resolve("desbordado.bin"), pesos);
+
+			assertAll("ficheros no válidos",
+					() -> assertThrows(IOException.class, () -> RedNeuronal.leer(sinMarca)),
+					() -> assertThrows(IOException.class, () -> RedNeuronal.leer(sinNeuronas)),
+					() -> assertThrows(IOException.class, () -> RedNeuronal.leer(incompleto)),
+					() -> assertThrows(IOException.class, () -> RedNeuronal.leer(sobrante)),
+					() -> assertThrows(IOException.class, () -> RedNeuronal.leer(desbordado)));
+		}
+	}
+
+	/**
+	 * Uso en la búsqueda.
+	 */
+	@Nested
+	@DisplayName("Tests de la evaluación con red neuronal en la búsqueda.")
+	class Busqueda {
+
+		/**
+		 * Comprueba que la búsqueda con la evaluación vinculada obtiene el mismo resultado que con la evaluación
+		 * completa en cada nodo, y que el árbitro queda en la posición de partida.
+		 */
+		@Test
+		@DisplayName("Comprueba que la búsqueda no depende de la actualización incremental.")
+		void comprobarBusqueda() {
+			Evaluador sinVincular = (tablero, turno) -> completo.evaluar(tablero, turno);
+			ResultadoBusqueda referencia = new Buscador(arbitro.clonar(), sinVincular).buscar(3, 0);
+			Buscador buscador = new Buscador(arbitro, completo);
+			ResultadoBusqueda resultado = buscador.buscar(3, 0);
+			assertAll("búsqueda con red neuronal",
+					() -> assertThat("Jugada distinta.", resultado.jugada(), is(referencia.jugada())),
+					() -> assertThat("Puntuación distinta.", resultado.puntuacion(), is(referencia.puntuacion())),
+					() -> assertThat("Nodos distintos.", resultado.nodos(), is(referencia.nodos())),
+					() -> assertThat("El buscador debería observar el tablero del árbitro.", binario.consultarObservador(),
+							is(sameInstance(buscador.evaluador))),
+					() -> assertThat("La evaluación final debería coincidir con la completa.",
+							buscador.evaluador.evaluar(binario, Color.NEGRO), is(completo.evaluar(binario, Color.NEGRO))));
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import brandubh.control.Arbitro;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre el recuento perft.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests del recuento perft.")
+@Timeout(value = 10, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class PerftTest {
+
+	/** Árbitro de testing. */
+	private Arbitro arbitro;
+
+	/** Tablero de testing. */
+	private Tablero tablero;
+
+	/** Generación del árbitro para testing. */
+	@BeforeEach
+	void inicializar() {
+		tablero = new Tablero();
+		arbitro = new Arbitro(tablero);
+	}
+
+	/**
+	 * Comprueba los recuentos conocidos desde la configuración inicial.
+	 */
+	@Test
+	@DisplayName("Comprueba los recuentos desde la configuración inicial.")
+	void comprobarRecuentosIniciales() {
+		arbitro.colocarPiezasConfiguracionInicial();
+		TableroBinario binario = tablero.obtenerTableroBinario();
+		assertAll("recuentos iniciales",
+				() -> assertThat("Profundidad 0 incorrecta.", Perft.contar(binario, Color.NEGRO, 0).nodos(), is(1L)),
+				() -> assertThat("Profundidad 1 incorrecta.", Perft.contar(binario, Color.NEGRO, 1),
+						is(new ResultadoPerft(40, 0, 0, 0))),
+				() -> assertThat("Profundidad 2 incorrecta.", Perft.contar(binario, Color.NEGRO, 2),
+						is(new ResultadoPerft(960, 16, 0, 0))),
+				() -> assertThat("Profundidad 3 incorrecta.", Perft.contar(binario, Color.NEGRO, 3),
+						is(new ResultadoPerft(39512, 568, 0, 0))));
+	}
+
+	/**
+	 * Comprueba que el recuento en paralelo y el verificado con el árbitro coinciden con el recuento rápido.
+	 *
+	 * @param profundidad profundidad del recuento
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2, 3 })
+	@DisplayName("Comprueba que los tres recuentos coinciden.")
+	void comprobarRecuentosEquivalentes(int profundidad) {
+		arbitro.colocarPiezasConfiguracionInicial();
+		TableroBinario antes = tablero.obtenerTableroBinario().clonar();
+		ResultadoPerft esperado = Perft.contar(antes, Color.NEGRO, profundidad);
+		ForkJoinPool ejecutor = new ForkJoinPool(2);
+		try {
+			ResultadoPerft paralelo = Perft.contarEnParalelo(antes, Color.NEGRO, profundidad, ejecutor);
+			ResultadoPerft verificado = Perft.contarVerificando(arbitro, profundidad);
+			assertAll("recuentos equivalentes",
+					() -> assertThat("El recuento en paralelo no coincide.", paralelo, is(esperado)),
+					() -> assertThat("El recuento verificado no coincide.", verificado, is(esperado)),
+					() -> assertThat("El árbitro no se ha restaurado.", tablero.obtenerTableroBinario(), is(antes)));
+		} finally {
+			ejecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Comprueba que el desglose por jugada inicial suma el total.
+	 */
+	@Test
+	@DisplayName("Comprueba que el desglose suma el total.")
+	void comprobarDesglose() {
+		arbitro.colocarPiezasConfiguracionInicial();
+		TableroBinario binario = tablero.obtenerTableroBinario();
+		Map<Integer, ResultadoPerft> desglose = Perft.dividir(binario, Color.NEGRO, 3);
+		ResultadoPerft suma = desglose.values().stream().reduce(ResultadoPerft.VACIO, ResultadoPerft::sumar);
+		assertAll("desglose",
+				() -> assertThat("Número de jugadas iniciales incorrecto.", desglose.size(), is(40)),
+				() -> assertThat("La suma no coincide con el total.", suma, is(Perft.contar(binario, Color.NEGRO, 3))));
+	}
+
+	/**
+	 * Comprueba que las victorias de la última jugada se cuentan y que las jugadas ganadoras no se continúan.
+	 */
+	@Test
+	@DisplayName("Comprueba el recuento de victorias.")
+	void comprobarVictorias() {
+		arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.ATACANTE },
+				new int[][] { { 0, 1 }, { 6, 3 } }, Color.BLANCO);
+		TableroBinario binario = tablero.obtenerTableroBinario();
+		ResultadoPerft uno = Perft.contar(binario, Color.BLANCO, 1);
+		ResultadoPerft dos = Perft.contar(binario, Color.BLANCO, 2);
+		assertAll("victorias",
+				() -> assertThat("Deberían contarse las dos huidas del rey.", uno, is(new ResultadoPerft(12, 0, 2, 0))),
+				() -> assertThat("Las huidas no deberían continuarse.", dos, is(new ResultadoPerft(88, 0, 0, 1))),
+				() -> assertThat("El recuento verificado no coincide.", Perft.contarVerificando(arbitro, 2), is(dos)));
+	}
+
+	/**
+	 * Comprueba que el rey en una esquina no captura a un defensor propio contiguo, también en el recuento verificado.
+	 */
+	@Test
+	@DisplayName("Comprueba que el rey en una esquina no es hostil para los defensores.")
+	void comprobarReyEnEsquinaSinCaptura() {
+		// Rey en a3, defensor en b1 y atacantes en c1 y d7: el rey huye a a1 junto al defensor
+		arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.DEFENSOR, TipoPieza.ATACANTE,
+				TipoPieza.ATACANTE }, new int[][] { { 4, 0 }, { 6, 1 }, { 6, 2 }, { 0, 3 } }, Color.BLANCO);
+		TableroBinario binario = tablero.obtenerTableroBinario();
+		ResultadoPerft esperado = Perft.contar(binario, Color.BLANCO, 1);
+		assertAll("rey en esquina",
+				() -> assertThat("Recuento incorrecto.", esperado, is(new ResultadoPerft(18, 0, 2, 0))),
+				() -> assertThat("El recuento verificado no coincide.", Perft.contarVerificando(arbitro, 1),
+						is(esperado)));
+	}
+
+	/**
+	 * Comprueba la captura de un defensor contra una esquina vacía, también en el recuento verificado.
+	 */
+	@Test
+	@DisplayName("Comprueba la captura contra una esquina vacía.")
+	void comprobarCapturaContraEsquina() {
+		// Defensor en b1 y atacante en c3, que captura al mover a c1 contra la esquina a1
+		arbitro.colocarPiezas(new TipoPieza[] { TipoPieza.REY, TipoPieza.DEFENSOR, TipoPieza.ATACANTE },
+				new int[][] { { 2, 4 }, { 6, 1 }, { 4, 2 } }, Color.NEGRO);
+		TableroBinario binario = tablero.obtenerTableroBinario();
+		ResultadoPerft esperado = Perft.contar(binario, Color.NEGRO, 1);
+		assertAll("captura contra esquina",
+				() -> assertThat("Debería contarse la captura.", esperado.capturas(), is(1L)),
+				() -> assertThat("El recuento verificado no coincide.", Perft.contarVerificando(arbitro, 1),
+						is(esperado)));
+	}
+}
@@ -0,0 +1,133 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+
+/**
+ * Tests sobre los pesos de la evaluación incremental.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de los pesos de la evaluación.")
+@Timeout(value = 5, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class PesosEvaluacionTest {
+
+	/** Directorio temporal de testing. */
+	@TempDir
+	Path directorio;
+
+	/**
+	 * Comprueba que los pesos por defecto son los de los términos.
+	 */
+	@Test
+	@DisplayName("Comprueba los pesos por defecto.")
+	void comprobarPorDefecto() {
+		for (TerminoEvaluacion termino : TerminoEvaluacion.values()) {
+			assertThat("Peso por defecto incorrecto.", PesosEvaluacion.POR_DEFECTO.consultarPeso(termino),
+					is(termino.consultarPesoPorDefecto()));
+		}
+	}
+
+	/**
+	 * Comprueba que se rechazan los pesos fuera de rango o con un número de términos incorrecto.
+	 */
+	@Test
+	@DisplayName("Comprueba la validación de los pesos.")
+	void comprobarValidacion() {
+		int[] fueraDeRango = PesosEvaluacion.POR_DEFECTO.consultarPesos();
+		fueraDeRango[0] = PesosEvaluacion.PESO_MAXIMO + 1;
+		assertAll("validación",
+				() -> assertThrows(IllegalArgumentException.class, () -> new PesosEvaluacion(fueraDeRango)),
+				() -> assertThrows(IllegalArgumentException.class, () -> new PesosEvaluacion(new int[1])));
+	}
+
+	/**
+	 * Comprueba que la evaluación para el defensor es la suma de cada término por su peso.
+	 */
+	@Test
+	@DisplayName("Comprueba que la evaluación es la suma de los términos por sus pesos.")
+	void comprobarSumaDeTerminos() {
+		int[] valores = { 37, 81, 5, 23, 14, 9, -17 };
+		PesosEvaluacion pesos = new PesosEvaluacion(valores);
+		Evaluador evaluador = new EvaluadorIncremental(pesos);
+		Arbitro arbitro = new Arbitro(new Tablero());
+		arbitro.colocarPiezasConfiguracionInicial();
+		TableroBinario binario = arbitro.obtenerTableroBinario();
+		SplittableRandom aleatorio = new SplittableRandom(24);
+		int[] movimientos = new int[Reglas.MAXIMO_MOVIMIENTOS];
+		int[] terminos = new int[PesosEvaluacion.NUMERO_TERMINOS];
+
+		for (int jugada = 0; jugada < 40; jugada++) {
+			EvaluadorIncremental.calcularTerminos(binario, terminos);
+			int suma = 0;
+			for (int i = 0; i < terminos.length; i++) {
+				suma += terminos[i] * valores[i];
+			}
+			assertThat("La evaluación no coincide con la suma de los términos.", evaluador.evaluar(binario, Color.BLANCO),
+					is(suma));
+			int numero = arbitro.generarMovimientosLegales(movimientos);
+			if (numero == 0) {
+				break;
+			}
+			arbitro.aplicarJugada(movimientos[aleatorio.nextInt(numero)]);
+		}
+	}
+
+	/**
+	 * Comprueba que los pesos escritos en un fichero se leen sin cambios.
+	 *
+	 * @throws IOException si falla el acceso al fichero
+	 */
+	@Test
+	@DisplayName("Comprueba la escritura y lectura del fichero de pesos.")
+	void comprobarFichero() throws IOException {
+		Path fichero = directorio.resolve("pesos.txt");
+		PesosEvaluacion pesos = new PesosEvaluacion(new int[] { 90, 160, -3, 0, 11, 7, 25 });
+		pesos.escribir(fichero, "Prueba\nde comentario");
+		assertThat("Los pesos leídos deberían coincidir con los escritos.", PesosEvaluacion.leer(fichero), is(pesos));
+	}
+
+	/**
+	 * Comprueba que los términos ausentes conservan su peso por defecto y que se rechazan las líneas no válidas.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba la lectura de ficheros incompletos o no válidos.")
+	void comprobarFicherosIncompletos() throws IOException {
+		Path parcial = Files.writeString(directorio.resolve("parcial.txt"), "# Solo movilidad\n\nMOVILIDAD_REY 9\n");
+		Path desconocido = Files.writeString(directorio.resolve("desconocido.txt"), "ALFILES 3\n");
+		Path incompleto = Files.writeString(directorio.resolve("incompleto.txt"), "ATACANTES\n");
+		Path excesivo = Files.writeString(directorio.resolve("excesivo.txt"), "ATACANTES 5000\n");
+		PesosEvaluacion leidos = PesosEvaluacion.leer(parcial);
+		assertAll("ficheros incompletos",
+				() -> assertThat("Peso leído incorrecto.", leidos.consultarPeso(TerminoEvaluacion.MOVILIDAD_REY), is(9)),
+				() -> assertThat("Debería conservarse el peso por defecto.",
+						leidos.consultarPeso(TerminoEvaluacion.ATACANTES),
+						is(TerminoEvaluacion.ATACANTES.consultarPesoPorDefecto())),
+				() -> assertThrows(IOException.class, () -> PesosEvaluacion.leer(desconocido)),
+				() -> assertThrows(IOException.class, () -> PesosEvaluacion.leer(incompleto)),
+				() -> assertThrows(IOException.class, () -> PesosEvaluacion.leer(excesivo)));
+	}
+}
@@ -0,0 +1,139 @@
+package brandubh.motor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import brandubh.modelo.JugadaCompacta;
+
+/**
+ * Tests sobre la tabla de transposición.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la tabla de transposición.")
+@Timeout(value = 5, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class TablaTransposicionTest {
+
+	/** Tabla de testing. */
+	private TablaTransposicion tabla;
+
+	/** Generación de la tabla para testing. */
+	@BeforeEach
+	void inicializar() {
+		tabla = new TablaTransposicion(1);
+	}
+
+	/**
+	 * Comprueba que la capacidad es la mayor potencia de dos que cabe en el tamaño indicado.
+	 */
+	@Test
+	@DisplayName("Comprueba la capacidad de la tabla.")
+	void comprobarCapacidad() {
+		assertAll("capacidad",
+				() -> assertThat("Capacidad incorrecta para 1 MB.", tabla.consultarCapacidad(), is(65536)),
+				() -> assertThat("Capacidad incorrecta para 3 MB.", new TablaTransposicion(3).consultarCapacidad(), is(131072)));
+	}
+
+	/**
+	 * Comprueba que los datos guardados se recuperan intactos, incluidas puntuaciones negativas.
+	 */
+	@Test
+	@DisplayName("Comprueba el guardado y la consulta de entradas.")
+	void comprobarGuardadoYConsulta() {
+		long clave = 0x123456789ABCDEFL;
+		int jugada = JugadaCompacta.codificar(10, 12);
+		tabla.guardar(clave, 7, -Buscador.VICTORIA + 5, TablaTransposicion.SUPERIOR, jugada);
+		long datos = tabla.consultar(clave);
+		assertAll("guardado y consulta",
+				() -> assertThat("Jugada incorrecta.", TablaTransposicion.consultarJugada(datos), is(jugada)),
+				() -> assertThat("Puntuación incorrecta.", TablaTransposicion.consultarPuntuacion(datos),
+						is(-Buscador.VICTORIA + 5)),
+				() -> assertThat("Profundidad incorrecta.", TablaTransposicion.consultarProfundidad(datos), is(7)),
+				() -> assertThat("Cota incorrecta.", TablaTransposicion.consultarCota(datos), is(TablaTransposicion.SUPERIOR)),
+				() -> assertThat("Aciertos incorrectos.", tabla.consultarAciertos(), is(1L)));
+	}
+
+	/**
+	 * Comprueba que una clave distinta que cae en la misma entrada se detecta como colisión y no como acierto.
+	 */
+	@Test
+	@DisplayName("Comprueba la detección de colisiones.")
+	void comprobarColisiones() {
+		long clave = 42L;
+		long otra = clave + tabla.consultarCapacidad();
+		tabla.guardar(clave, 3, 10, TablaTransposicion.EXACTA, JugadaCompacta.NINGUNA);
+		assertAll("colisiones",
+				() -> assertThat("No debería encontrarse otra posición.", tabla.consultar(otra), is(TablaTransposicion.VACIA)),
+				() -> assertThat("Una clave ausente no es una colisión.", tabla.consultar(clave + 1), is(TablaTransposicion.VACIA)),
+				() -> assertThat("Fallos incorrectos.", tabla.consultarFallos(), is(2L)),
+				() -> assertThat("Colisiones incorrectas.", tabla.consultarColisiones(), is(1L)),
+				() -> assertThat("Sin jugada debería devolverse NINGUNA.",
+						TablaTransposicion.consultarJugada(tabla.consultar(clave)), is(JugadaCompacta.NINGUNA)));
+	}
+
+	/**
+	 * Comprueba la política de reemplazo: una entrada más profunda de la búsqueda actual se conserva, pero se 
+	 * reemplaza en la búsqueda siguiente.
+	 */
+	@Test
+	@DisplayName("Comprueba la política de reemplazo.")
+	void comprobarReemplazo() {
+		long clave = 42L;
+		long otra = clave + tabla.consultarCapacidad();
+		tabla.guardar(clave, 8, 10, TablaTransposicion.EXACTA, JugadaCompacta.NINGUNA);
+		tabla.guardar(otra, 2, 20, TablaTransposicion.EXACTA, JugadaCompacta.NINGUNA);
+		assertThat("Debería conservarse la entrada más profunda.", tabla.consultar(clave) != TablaTransposicion.VACIA,
+				is(true));
+		tabla.nuevaBusqueda();
+		tabla.guardar(otra, 2, 20, TablaTransposicion.EXACTA, JugadaCompacta.NINGUNA);
+		assertThat("Debería reemplazarse la entrada antigua.", tabla.consultar(otra) != TablaTransposicion.VACIA, is(true));
+	}
+
+	/**
+	 * Comprueba que con varios hilos escribiendo y leyendo a la vez nunca se obtienen datos de otra posición.
+	 *
+	 * @throws InterruptedException si se interrumpe la espera de los hilos
+	 */
+	@Test
+	@DisplayName("Comprueba la consistencia de la tabla con accesos concurrentes.")
+	void comprobarAccesoConcurrente() throws InterruptedException {
+		AtomicInteger inconsistencias = new AtomicInteger();
+		Thread[] hilos = new Thread[4];
+		for (int h = 0; h < hilos.length; h++) {
+			long semilla = h;
+			hilos[h] = new Thread(() -> {
+				SplittableRandom aleatorio = new SplittableRandom(semilla);
+				for (int i = 0; i < 200_000; i++) {
+					// Pocas claves distintas para forzar escrituras simultáneas sobre las mismas entradas
+					long clave = aleatorio.nextInt(64) * 0x9E3779B97F4A7C15L;
+					int puntuacion = (int) (clave >>> 40);
+					if (aleatorio.nextBoolean()) {
+						tabla.guardar(clave, 1, puntuacion, TablaTransposicion.EXACTA, JugadaCompacta.NINGUNA);
+					} else {
+						long datos = tabla.consultar(clave);
+						if (datos != TablaTransposicion.VACIA && TablaTransposicion.consultarPuntuacion(datos) != puntuacion) {
+							inconsistencias.incrementAndGet();
+						}
+					}
+				}
+			});
+			hilos[h].start();
+		}
+		for (Thread hilo : hilos) {
+			hilo.join();
+		}
+		assertThat("No deberían leerse datos de otra posición.", inconsistencias.get(), is(0));
+	}
+}
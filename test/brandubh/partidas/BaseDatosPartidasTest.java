@@ -0,0 +1,133 @@
+package brandubh.partidas;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.control.Arbitro;
+import brandubh.granja.GranjaPartidas;
+import brandubh.granja.JugadorAleatorio;
+import brandubh.granja.JugadorVoraz;
+import brandubh.granja.ResultadoPartida;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+
+/**
+ * Tests sobre la base de datos de partidas proyectada en memoria.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la base de datos de partidas.")
+@Timeout(value = 20, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class BaseDatosPartidasTest {
+
+	/** Directorio temporal de testing. */
+	@TempDir
+	Path directorio;
+
+	/** Primer fichero de partidas. */
+	private Path primero;
+
+	/** Segundo fichero de partidas, con bytes dañados intercalados. */
+	private Path segundo;
+
+	/** Partidas de ambos ficheros en el orden de lectura secuencial. */
+	private List<ResultadoPartida> esperadas;
+
+	/**
+	 * Genera los ficheros de partidas de testing y lee sus partidas secuencialmente.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@BeforeEach
+	void inicializar() throws IOException {
+		primero = directorio.resolve("primero.bin");
+		segundo = directorio.resolve("segundo.bin");
+		try (GranjaPartidas granja = new GranjaPartidas(JugadorVoraz::new, JugadorAleatorio::new, 2, 6)) {
+			try (EscritorPartidas escritor = new EscritorPartidas(primero)) {
+				granja.jugar(30, 11, escritor);
+			}
+			try (EscritorPartidas escritor = new EscritorPartidas(segundo)) {
+				granja.jugar(10, 12, escritor);
+				Files.write(segundo, new byte[] { 'B', 'R', 'P', 'T', 0, 0, 0, 20, 1, 2, 3 }, StandardOpenOption.APPEND);
+				granja.jugar(10, 13, escritor);
+			}
+		}
+		esperadas = new ArrayList<>();
+		for (Path fichero : new Path[] { primero, segundo }) {
+			try (LectorPartidas lector = new LectorPartidas(fichero)) {
+				for (ResultadoPartida partida = lector.leer(); partida != null; partida = lector.leer()) {
+					esperadas.add(partida);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Comprueba que el acceso aleatorio devuelve las mismas partidas que la lectura secuencial, también con 
+	 * segmentos de proyección pequeños.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba el acceso aleatorio a las partidas.")
+	void comprobarAccesoAleatorio() throws IOException {
+		for (long tamañoSegmento : new long[] { BaseDatosPartidas.TAMAÑO_SEGMENTO, 97 }) {
+			try (BaseDatosPartidas base = new BaseDatosPartidas(tamañoSegmento, primero, segundo)) {
+				assertAll("índice",
+						() -> assertThat("Número de partidas incorrecto.", base.consultarNumeroPartidas(), is(50)),
+						() -> assertThat("Bytes descartados incorrectos.", base.consultarBytesDescartados(), is(11L)));
+				for (int partida = base.consultarNumeroPartidas() - 1; partida >= 0; partida -= 3) {
+					ResultadoPartida esperada = esperadas.get(partida);
+					int indice = partida;
+					assertAll("partida " + partida,
+							() -> assertThat("Partida incorrecta.", base.consultarPartida(indice), is(esperada)),
+							() -> assertThat("Número incorrecto.", base.consultarNumero(indice), is(esperada.numero())),
+							() -> assertThat("Ganador incorrecto.", base.consultarGanador(indice), is(esperada.ganador())),
+							() -> assertThat("Última jugada incorrecta.", base.consultarJugada(indice,
+									esperada.consultarNumeroJugadas() - 1), is(esperada.jugadas()[esperada
+											.consultarNumeroJugadas() - 1])));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Comprueba que las posiciones calculadas desde la memoria proyectada coinciden con las del árbitro.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba las posiciones de las partidas.")
+	void comprobarPosiciones() throws IOException {
+		TableroBinario tablero = new TableroBinario();
+		try (BaseDatosPartidas base = new BaseDatosPartidas(primero, segundo)) {
+			for (int partida = 0; partida < base.consultarNumeroPartidas(); partida += 7) {
+				for (int jugadas = 0; jugadas <= base.consultarNumeroJugadas(partida); jugadas += 5) {
+					Color turno = base.consultarPosicion(partida, jugadas, tablero);
+					Arbitro arbitro = base.reproducir(partida, jugadas);
+					assertThat("Posición incorrecta.", tablero, is(arbitro.obtenerTableroBinario()));
+					assertThat("Turno incorrecto.", turno, is(arbitro.consultarTurno()));
+				}
+			}
+			assertThrows(IndexOutOfBoundsException.class, () -> base.consultarJugada(0, base.consultarNumeroJugadas(0)));
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package brandubh.partidas;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.control.Arbitro;
+import brandubh.control.Reglas;
+import brandubh.granja.GranjaPartidas;
+import brandubh.granja.JugadorAleatorio;
+import brandubh.granja.JugadorVoraz;
+import brandubh.modelo.Simetria;
+import brandubh.modelo.Tablero;
+import brandubh.modelo.TableroBinario;
+import brandubh.util.Color;
+import brandubh.util.TipoPieza;
+
+/**
+ * Tests sobre el explorador de aperturas.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests del explorador de aperturas.")
+@Timeout(value = 20, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class ExploradorAperturasTest {
+
+	/** Directorio temporal de testing. */
+	@TempDir
+	Path directorio;
+
+	/** Base de datos de testing. */
+	private BaseDatosPartidas base;
+
+	/** Índice de posiciones de testing. */
+	private IndicePosiciones indice;
+
+	/**
+	 * Genera la base de datos y el índice de testing.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@BeforeEach
+	void inicializar() throws IOException {
+		Path partidas = directorio.resolve("partidas.bin");
+		try (GranjaPartidas granja = new GranjaPartidas(JugadorAleatorio::new, JugadorVoraz::new, 2, 2);
+				EscritorPartidas escritor = new EscritorPartidas(partidas)) {
+			granja.jugar(150, 3, escritor);
+		}
+		base = new BaseDatosPartidas(partidas);
+		IndicePosiciones.construir(base, directorio.resolve("indice.bin"), 2);
+		indice = new IndicePosiciones(directorio.resolve("indice.bin"));
+	}
+
+	/** Cierre de la base de datos y el índice. */
+	@AfterEach
+	void finalizar() {
+		indice.close();
+		base.close();
+	}
+
+	/**
+	 * Comprueba que las estadísticas coinciden con un recorrido completo de la base de datos.
+	 */
+	@Test
+	@DisplayName("Comprueba las estadísticas frente a un recorrido completo.")
+	void comprobarEstadisticas() {
+		try (ExploradorAperturas explorador = new ExploradorAperturas(indice, 2)) {
+			for (int jugadas = 0; jugadas <= 2; jugadas++) {
+				Arbitro arbitro = base.reproducir(0, jugadas);
+				Map<Integer, long[]> esperadas = recorrer(arbitro);
+				List<EstadisticasApertura> continuaciones = explorador.explorar(arbitro);
+				assertThat("Número de continuaciones incorrecto.", continuaciones.size(), is(esperadas.size()));
+				for (int i = 0; i < continuaciones.size(); i++) {
+					EstadisticasApertura continuacion = continuaciones.get(i);
+					long[] cuentas = esperadas.get(continuacion.jugada());
+					assertAll("continuación " + continuacion,
+							() -> assertThat("Partidas incorrectas.", continuacion.partidas(),
+									is(cuentas[0] + cuentas[1] + cuentas[2])),
+							() -> assertThat("Victorias del atacante incorrectas.", continuacion.victoriasAtacante(),
+									is(cuentas[1])),
+							() -> assertThat("Victorias del defensor incorrectas.", continuacion.victoriasDefensor(),
+									is(cuentas[2])),
+							() -> assertThat("Tablas incorrectas.", continuacion.consultarTablas(), is(cuentas[0])));
+					if (i > 0) {
+						assertThat("Continuaciones desordenadas.",
+								continuaciones.get(i - 1).partidas() >= continuacion.partidas(), is(true));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Comprueba que las posiciones simétricas comparten estadísticas, con las jugadas transformadas.
+	 */
+	@Test
+	@DisplayName("Comprueba las estadísticas de las posiciones simétricas.")
+	void comprobarSimetrias() {
+		try (ExploradorAperturas explorador = new ExploradorAperturas(indice, 2)) {
+			Arbitro arbitro = base.reproducir(0, 2);
+			List<EstadisticasApertura> originales = explorador.explorar(arbitro);
+			for (Simetria simetria : Simetria.values()) {
+				List<EstadisticasApertura> imagenes = explorador.explorar(transformar(arbitro, simetria));
+				assertThat("Número de continuaciones incorrecto.", imagenes.size(), is(originales.size()));
+				for (EstadisticasApertura original : originales) {
+					int jugada = simetria.transformarJugada(original.jugada());
+					assertThat("Continuación transformada incorrecta.", imagenes.stream()
+							.filter(imagen -> imagen.jugada() == jugada).findFirst().orElse(null),
+							is(new EstadisticasApertura(jugada, original.partidas(), original.victoriasAtacante(),
+									original.victoriasDefensor())));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Comprueba el funcionamiento de la caché y las posiciones sin continuaciones.
+	 */
+	@Test
+	@DisplayName("Comprueba la caché y las posiciones desconocidas.")
+	void comprobarCache() {
+		try (ExploradorAperturas explorador = new ExploradorAperturas(indice, 1, 1)) {
+			Arbitro arbitro = base.reproducir(0, 0);
+			List<EstadisticasApertura> primera = explorador.explorar(arbitro);
+			List<EstadisticasApertura> segunda = explorador.explorar(arbitro);
+			List<EstadisticasApertura> desconocida = explorador.explorar(12345L);
+			List<EstadisticasApertura> tercera = explorador.explorar(arbitro);
+			assertAll("caché",
+					() -> assertThat("Debería devolverse el resultado guardado.", segunda, sameInstance(primera)),
+					() -> assertThat("Una posición desconocida no tiene continuaciones.", desconocida.isEmpty(), is(true)),
+					() -> assertThat("Con capacidad 1 la posición debería haberse desalojado.", tercera,
+							is(primera)),
+					() -> assertThat("Aciertos incorrectos.", explorador.consultarAciertosCache(), is(1L)),
+					() -> assertThat("Fallos incorrectos.", explorador.consultarFallosCache(), is(3L)));
+		}
+	}
+
+	/**
+	 * Recorre todas las posiciones de la base de datos buscando las simétricas de la de un árbitro.
+	 *
+	 * @param arbitro Árbitro con la posición.
+	 * @return Cuentas de tablas, victorias del atacante y victorias del defensor por jugada siguiente, vista desde la 
+	 * posición del árbitro.
+	 */
+	private Map<Integer, long[]> recorrer(Arbitro arbitro) {
+		long clave = IndicePosiciones.calcularClave(arbitro);
+		Simetria inversa = Simetria.consultarCanonica(arbitro.obtenerTableroBinario()).consultarInversa();
+		Map<Integer, long[]> cuentas = new HashMap<>();
+		TableroBinario tablero = new TableroBinario();
+		for (int partida = 0; partida < base.consultarNumeroPartidas(); partida++) {
+			Color turno = base.consultarPosicion(partida, 0, tablero);
+			Color ganador = base.consultarGanador(partida);
+			for (int jugada = 0; jugada < base.consultarNumeroJugadas(partida); jugada++) {
+				int siguiente = base.consultarJugada(partida, jugada);
+				if (IndicePosiciones.calcularClave(tablero, turno) == clave) {
+					int vista = inversa.transformarJugada(Simetria.consultarCanonica(tablero).transformarJugada(siguiente));
+					cuentas.computeIfAbsent(vista, nueva -> new long[3])[ganador == null ? 0
+							: ganador == Color.NEGRO ? 1 : 2]++;
+				}
+				Reglas.aplicarJugada(tablero, siguiente);
+				turno = turno.consultarContrario();
+			}
+		}
+		return cuentas;
+	}
+
+	/**
+	 * Construye un árbitro con la imagen de la posición de otro por una simetría.
+	 *
+	 * @param arbitro Árbitro con la posición.
+	 * @param simetria Simetría a aplicar.
+	 * @return Árbitro con la posición imagen y el mismo turno.
+	 */
+	private static Arbitro transformar(Arbitro arbitro, Simetria simetria) {
+		TableroBinario binario = arbitro.obtenerTableroBinario();
+		int piezas = Long.bitCount(binario.consultarOcupadas());
+		TipoPieza[] tipos = new TipoPieza[piezas];
+		int[][] coordenadas = new int[piezas][];
+		long pendientes = binario.consultarOcupadas();
+		for (int i = 0; i < piezas; i++, pendientes &= pendientes - 1) {
+			int indice = Long.numberOfTrailingZeros(pendientes);
+			int imagen = simetria.transformar(indice);
+			tipos[i] = binario.consultarTipoPieza(indice);
+			coordenadas[i] = new int[] { imagen / TableroBinario.NUMERO_COLUMNAS, imagen % TableroBinario.NUMERO_COLUMNAS };
+		}
+		Arbitro transformado = new Arbitro(new Tablero());
+		transformado.colocarPiezas(tipos, coordenadas, arbitro.consultarTurno());
+		return transformado;
+	}
+}
@@ -0,0 +1,167 @@
+package brandubh.partidas;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.control.Arbitro;
+import brandubh.granja.GranjaPartidas;
+import brandubh.granja.JugadorAleatorio;
+import brandubh.granja.JugadorVoraz;
+import brandubh.modelo.Tablero;
+
+/**
+ * Tests sobre el índice de posiciones de la base de datos de partidas.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests del índice de posiciones.")
+@Timeout(value = 20, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class IndicePosicionesTest {
+
+	/** Directorio temporal de testing. */
+	@TempDir
+	Path directorio;
+
+	/** Fichero de partidas de testing. */
+	private Path partidas;
+
+	/**
+	 * Genera el fichero de partidas de testing.
+	 *
+	 * @throws IOException si falla el acceso al fichero
+	 */
+	@BeforeEach
+	void inicializar() throws IOException {
+		partidas = directorio.resolve("partidas.bin");
+		try (GranjaPartidas granja = new GranjaPartidas(JugadorVoraz::new, JugadorAleatorio::new, 2, 4);
+				EscritorPartidas escritor = new EscritorPartidas(partidas)) {
+			granja.jugar(80, 21, escritor);
+		}
+	}
+
+	/**
+	 * Comprueba que el índice contiene cada posición de cada partida, ordenado por clave.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba el contenido y el orden del índice.")
+	void comprobarContenido() throws IOException {
+		Path fichero = directorio.resolve("indice.bin");
+		try (BaseDatosPartidas base = new BaseDatosPartidas(partidas)) {
+			IndicePosiciones.construir(base, fichero, 3);
+			try (IndicePosiciones indice = new IndicePosiciones(fichero)) {
+				long entradas = 0;
+				for (int partida = 0; partida < base.consultarNumeroPartidas(); partida++) {
+					entradas += base.consultarNumeroJugadas(partida) + 1;
+				}
+				for (long entrada = 1; entrada < indice.consultarNumeroEntradas(); entrada++) {
+					assertThat("Entradas desordenadas.", Long.compareUnsigned(indice.consultarClave(entrada - 1),
+							indice.consultarClave(entrada)) <= 0, is(true));
+				}
+				for (int partida = 0; partida < base.consultarNumeroPartidas(); partida += 9) {
+					for (int jugada = 0; jugada <= base.consultarNumeroJugadas(partida); jugada += 4) {
+						Arbitro arbitro = base.reproducir(partida, jugada);
+						assertThat("Falta la aparición.", indice.consultarApariciones(arbitro, Integer.MAX_VALUE)
+								.contains(new AparicionPosicion(partida, jugada)), is(true));
+					}
+				}
+				Arbitro inicial = new Arbitro(new Tablero());
+				inicial.colocarPiezasConfiguracionInicial();
+				long total = entradas;
+				assertAll("contenido",
+						() -> assertThat("Número de entradas incorrecto.", indice.consultarNumeroEntradas(), is(total)),
+						() -> assertThat("La posición inicial aparece en todas las partidas.", indice.contar(
+								inicial.consultarClaveZobrist()) >= base.consultarNumeroPartidas(), is(true)),
+						() -> assertThat("La primera aparición inicial es la de la primera partida.", indice
+								.consultarApariciones(inicial, 1).get(0), is(new AparicionPosicion(0, 0))),
+						() -> assertThat("Una posición inexistente no debería aparecer.", indice.contar(12345L), is(0L)));
+			}
+		}
+	}
+
+	/**
+	 * Comprueba que el índice no depende del número de hilos de su construcción.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba que el índice no depende del número de hilos.")
+	void comprobarIndependenciaDeHilos() throws IOException {
+		Path uno = directorio.resolve("uno.bin");
+		Path cuatro = directorio.resolve("cuatro.bin");
+		try (BaseDatosPartidas base = new BaseDatosPartidas(partidas)) {
+			IndicePosiciones.construir(base, uno, 1);
+			IndicePosiciones.construir(base, cuatro, 4);
+		}
+		assertThat("Los índices deberían coincidir.", Files.mismatch(uno, cuatro), is(-1L));
+	}
+
+	/**
+	 * Comprueba que se rechazan los ficheros que no son índices de posiciones.
+	 *
+	 * @throws IOException si falla el acceso a los ficheros
+	 */
+	@Test
+	@DisplayName("Comprueba que se rechazan los ficheros que no son índices.")
+	void comprobarFicheroIncorrecto() throws IOException {
+		assertThrows(IOException.class, () -> new IndicePosiciones(partidas));
+	}
+
+	/**
+	 * Comprueba la ordenación de un tramo mayor que el admitido en memoria, con la mayoría de las entradas en una
+	 * misma clave como las de la configuración inicial, partiéndolo sobre el fichero proyectado.
+	 *
+	 * @throws IOException si falla el acceso al fichero
+	 */
+	@Test
+	@DisplayName("Comprueba la ordenación de los tramos que no caben en memoria.")
+	void comprobarOrdenacionSobreElFichero() throws IOException {
+		int numero = 20_000;
+		SplittableRandom aleatorio = new SplittableRandom(18);
+		long[][] entradas = new long[numero][];
+		for (int i = 0; i < numero; i++) {
+			long clave = aleatorio.nextInt(4) == 0 ? aleatorio.nextLong() : 0x8000_0000_0000_0001L;
+			entradas[i] = new long[] { clave, aleatorio.nextLong(1L << 48) };
+		}
+
+		try (FileChannel canal = FileChannel.open(directorio.resolve("tramo.bin"), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, numero * 2L * Long.BYTES);
+			for (long[] entrada : entradas) {
+				segmento.putLong(entrada[0]).putLong(entrada[1]);
+			}
+
+			IndicePosiciones.ordenar(new MappedByteBuffer[] { segmento }, 0, numero, 64);
+
+			Arrays.sort(entradas, (una, otra) -> una[0] != otra[0] ? Long.compareUnsigned(una[0], otra[0])
+					: Long.compare(una[1], otra[1]));
+			boolean ordenadas = true;
+			for (int i = 0; i < numero; i++) {
+				ordenadas &= segmento.getLong(i * 2 * Long.BYTES) == entradas[i][0]
+						&& segmento.getLong(i * 2 * Long.BYTES + Long.BYTES) == entradas[i][1];
+			}
+			assertThat("Las entradas deberían quedar ordenadas por clave sin signo y valor.", ordenadas, is(true));
+		}
+	}
+}
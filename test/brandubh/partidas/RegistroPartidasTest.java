@@ -0,0 +1,177 @@
+package brandubh.partidas;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import brandubh.control.Arbitro;
+import brandubh.granja.GranjaPartidas;
+import brandubh.granja.JugadorAleatorio;
+import brandubh.granja.JugadorVoraz;
+import brandubh.granja.ResultadoPartida;
+import brandubh.modelo.JugadaCompacta;
+import brandubh.util.Color;
+
+/**
+ * Tests sobre el formato binario, la escritura y la lectura de registros de partidas.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de los registros de partidas.")
+@Timeout(value = 20, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class RegistroPartidasTest {
+
+	/** Directorio temporal de testing. */
+	@TempDir
+	Path directorio;
+
+	/**
+	 * Comprueba que las partidas escritas a la vez desde la granja se leen y reproducen igual que se jugaron.
+	 *
+	 * @throws IOException si falla el acceso al fichero
+	 */
+	@Test
+	@DisplayName("Comprueba la escritura concurrente y la lectura de las partidas de la granja.")
+	void comprobarPartidasDeLaGranja() throws IOException {
+		Path fichero = directorio.resolve("partidas.bin");
+		Map<Long, ResultadoPartida> jugadas = new ConcurrentHashMap<>();
+		try (GranjaPartidas granja = new GranjaPartidas(JugadorVoraz::new, JugadorAleatorio::new, 3, 4);
+				EscritorPartidas escritor = new EscritorPartidas(fichero)) {
+			granja.jugar(60, 5, partida -> {
+				jugadas.put(partida.numero(), partida);
+				escritor.accept(partida);
+			});
+			assertThat("Número de partidas escritas incorrecto.", escritor.consultarPartidasEscritas(), is(60L));
+		}
+
+		Map<Long, ResultadoPartida> leidas = new HashMap<>();
+		try (LectorPartidas lector = new LectorPartidas(fichero)) {
+			for (ResultadoPartida partida = lector.leer(); partida != null; partida = lector.leer()) {
+				leidas.put(partida.numero(), partida);
+			}
+			assertThat("No debería descartarse nada.", lector.consultarBytesDescartados(), is(0L));
+		}
+
+		assertThat("Número de partidas leídas incorrecto.", leidas.size(), is(60));
+		for (ResultadoPartida original : jugadas.values()) {
+			ResultadoPartida leida = leidas.get(original.numero());
+			int[] sinCapturas = Arrays.stream(original.jugadas()).map(JugadaCompacta::consultarSinCapturas).toArray();
+			Arbitro arbitro = FormatoPartidas.reproducir(leida, leida.consultarNumeroJugadas() - 1);
+			int ultima = original.jugadas()[original.consultarNumeroJugadas() - 1];
+			assertAll("partida " + original.numero(),
+					() -> assertThat("Ganador incorrecto.", leida.ganador(), is(original.ganador())),
+					() -> assertThat("Jugadas incorrectas.", leida.jugadas(), is(sinCapturas)),
+					() -> assertThat("Reproducción incorrecta.", arbitro.aplicarJugada(ultima), is(ultima)));
+		}
+	}
+
+	/**
+	 * Comprueba la codificación de partidas sin jugadas, con un número impar de jugadas y con índices extremos.
+	 *
+	 * @throws IOException si falla la lectura
+	 */
+	@Test
+	@DisplayName("Comprueba el empaquetado de las jugadas.")
+	void comprobarEmpaquetado() throws IOException {
+		ResultadoPartida vacia = new ResultadoPartida(-3, null, new int[0]);
+		ResultadoPartida impar = new ResultadoPartida(Long.MAX_VALUE, Color.BLANCO,
+				new int[] { JugadaCompacta.codificar(48, 0), JugadaCompacta.codificar(0, 48), JugadaCompacta.codificar(
+						17, 31) });
+		ByteBuffer registro = FormatoPartidas.codificar(impar);
+		assertThat("Longitud incorrecta.", registro.remaining(), is(FormatoPartidas.consultarLongitudRegistro(3)));
+		try (LectorPartidas lector = lector(concatenar(FormatoPartidas.codificar(vacia), registro))) {
+			assertAll("empaquetado",
+					() -> assertThat("Partida vacía incorrecta.", lector.leer(), is(vacia)),
+					() -> assertThat("Partida impar incorrecta.", lector.leer(), is(impar)),
+					() -> assertThat("No deberían quedar partidas.", lector.leer(), is(nullValue())));
+		}
+	}
+
+	/**
+	 * Comprueba que se descartan un registro dañado y un registro incompleto al final.
+	 *
+	 * @throws IOException si falla la lectura
+	 */
+	@Test
+	@DisplayName("Comprueba que se descartan los registros dañados e incompletos.")
+	void comprobarRegistrosDanados() throws IOException {
+		ResultadoPartida[] partidas = new ResultadoPartida[4];
+		ByteBuffer[] registros = new ByteBuffer[4];
+		for (int i = 0; i < partidas.length; i++) {
+			partidas[i] = GranjaPartidas.jugarPartida(i, new JugadorAleatorio(i), new JugadorAleatorio(-i), 0, i);
+			registros[i] = FormatoPartidas.codificar(partidas[i]);
+		}
+		int longitudDanado = registros[1].remaining();
+		int longitudIncompleto = registros[3].remaining();
+		byte[] bytes = concatenar(registros);
+		bytes[registros[0].remaining() + FormatoPartidas.CABECERA + 20] ^= 0x10;
+		byte[] truncados = Arrays.copyOf(bytes, bytes.length - 5);
+
+		try (LectorPartidas lector = lector(truncados)) {
+			ResultadoPartida primera = lector.leer();
+			ResultadoPartida tercera = lector.leer();
+			ResultadoPartida fin = lector.leer();
+			assertAll("registros dañados",
+					() -> assertThat("Primera partida incorrecta.", primera.numero(), is(0L)),
+					() -> assertThat("Debería saltarse la partida dañada.", tercera.numero(), is(2L)),
+					() -> assertThat("La partida incompleta debería descartarse.", fin, is(nullValue())),
+					() -> assertThat("Bytes descartados incorrectos.", lector.consultarBytesDescartados(),
+							is((long) longitudDanado + longitudIncompleto - 5)));
+		}
+	}
+
+	/**
+	 * Comprueba que la reproducción rechaza las jugadas ilegales.
+	 */
+	@Test
+	@DisplayName("Comprueba que la reproducción rechaza las jugadas ilegales.")
+	void comprobarReproduccionIlegal() {
+		ResultadoPartida ilegal = new ResultadoPartida(0, null, new int[] { JugadaCompacta.desdeTexto("d4d5") });
+		assertThrows(IllegalArgumentException.class, () -> FormatoPartidas.reproducir(ilegal, 1));
+	}
+
+	/**
+	 * Concatena varios registros codificados.
+	 *
+	 * @param registros Registros a concatenar.
+	 * @return Bytes de todos los registros.
+	 */
+	private static byte[] concatenar(ByteBuffer... registros) {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		for (ByteBuffer registro : registros) {
+			salida.write(registro.array(), registro.position(), registro.remaining());
+		}
+		return salida.toByteArray();
+	}
+
+	/**
+	 * Crea un lector sobre bytes en memoria.
+	 *
+	 * @param bytes Bytes a leer.
+	 * @return Lector de partidas.
+	 */
+	private static LectorPartidas lector(byte[] bytes) {
+		return new LectorPartidas(Channels.newChannel(new ByteArrayInputStream(bytes)));
+	}
+}
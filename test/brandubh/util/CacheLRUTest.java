@@ -0,0 +1,70 @@
+package brandubh.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests sobre la caché LRU.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la caché LRU.")
+@Timeout(value = 1, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class CacheLRUTest {
+
+	/**
+	 * Comprueba que al superar la capacidad se descarta el valor usado hace más tiempo.
+	 */
+	@Test
+	@DisplayName("Comprueba el descarte del valor usado hace más tiempo.")
+	void comprobarDescarte() {
+		CacheLRU<String> cache = new CacheLRU<>(2);
+		cache.guardar(1, "uno");
+		cache.guardar(2, "dos");
+		cache.consultar(1);
+		cache.guardar(3, "tres");
+		assertAll("descarte",
+				() -> assertThat("Debería conservarse el valor consultado.", cache.consultar(1), is("uno")),
+				() -> assertThat("Debería descartarse el valor usado hace más tiempo.", cache.consultar(2),
+						is(nullValue())),
+				() -> assertThat("Debería conservarse el último valor.", cache.consultar(3), is("tres")));
+	}
+
+	/**
+	 * Comprueba los contadores de aciertos y fallos, que no se reinician al vaciar la caché.
+	 */
+	@Test
+	@DisplayName("Comprueba los aciertos y los fallos.")
+	void comprobarContadores() {
+		CacheLRU<String> cache = new CacheLRU<>(4);
+		cache.consultar(-1L);
+		cache.guardar(-1L, "menos uno");
+		cache.consultar(-1L);
+		cache.limpiar();
+		cache.consultar(-1L);
+		assertAll("contadores",
+				() -> assertThat("Aciertos incorrectos.", cache.consultarAciertos(), is(1L)),
+				() -> assertThat("Fallos incorrectos.", cache.consultarFallos(), is(2L)));
+	}
+
+	/**
+	 * Comprueba que una caché de capacidad nula no guarda ningún valor.
+	 */
+	@Test
+	@DisplayName("Comprueba la caché de capacidad nula.")
+	void comprobarCapacidadNula() {
+		CacheLRU<String> cache = new CacheLRU<>(0);
+		cache.guardar(7, "siete");
+		assertThat("No debería guardarse ningún valor.", cache.consultar(7), is(nullValue()));
+	}
+}
@@ -0,0 +1,90 @@
+package brandubh.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests sobre la ejecución en paralelo de tareas numeradas.
+ *
+ * @author Diego Quintana Torres
+ * @since 1.0
+ * @version 1.0
+ */
+@DisplayName("Tests de la ejecución de tareas numeradas.")
+@Timeout(value = 5, unit = TimeUnit.SECONDS) // Time out global para todos los tests salvo los de ciclo de vida
+public class EjecutorTareasTest {
+
+	/** Ejecutor de testing. */
+	private ForkJoinPool ejecutor;
+
+	/** Generación del ejecutor para testing. */
+	@BeforeEach
+	void inicializar() {
+		ejecutor = new ForkJoinPool(4);
+	}
+
+	/** Liberación del ejecutor. */
+	@AfterEach
+	void finalizar() {
+		ejecutor.shutdownNow();
+	}
+
+	/**
+	 * Comprueba que los resultados se devuelven en el orden de los números de las tareas.
+	 */
+	@Test
+	@DisplayName("Comprueba el orden de los resultados.")
+	void comprobarOrdenDeLosResultados() {
+		List<Integer> resultados = EjecutorTareas.ejecutar(ejecutor, 100, numero -> numero * numero, "la prueba");
+		assertAll("resultados",
+				() -> assertThat("Número de resultados incorrecto.", resultados.size(), is(100)),
+				() -> assertThat("Primer resultado incorrecto.", resultados.get(0), is(0)),
+				() -> assertThat("Resultado intermedio incorrecto.", resultados.get(37), is(37 * 37)),
+				() -> assertThat("Último resultado incorrecto.", resultados.get(99), is(99 * 99)));
+	}
+
+	/**
+	 * Comprueba que la excepción comprobada de una tarea se propaga sin cambios y que el resto de fallos se
+	 * notifican con {@link IllegalStateException}.
+	 */
+	@Test
+	@DisplayName("Comprueba los fallos de las tareas.")
+	void comprobarFallos() {
+		IOException fallo = new IOException("fallo");
+		IllegalArgumentException error = new IllegalArgumentException("error");
+
+		IOException lanzada = assertThrows(IOException.class, () -> EjecutorTareas.ejecutar(ejecutor, 8, numero -> {
+			if (numero == 5) {
+				throw fallo;
+			}
+			return numero;
+		}, "la prueba"));
+		IllegalStateException envuelta = assertThrows(IllegalStateException.class,
+				() -> EjecutorTareas.ejecutar(ejecutor, 8, numero -> {
+					if (numero == 3) {
+						throw error;
+					}
+					return numero;
+				}, "la prueba"));
+
+		assertAll("fallos",
+				() -> assertThat("Debería propagarse la excepción de la tarea.", lanzada, is(sameInstance(fallo))),
+				() -> assertThat("Debería conservarse la causa del fallo.", envuelta.getCause(),
+						is(sameInstance(error))));
+	}
+
+}